@@ -1,83 +1,31 @@
 UNIT strings;
 uses stringscorejava;
 
-INTERFACE
-
-{
-    Concatenase two strings. The source argument is concatenated to the destinations argument
-    which is then returned
-}
-function strcat(var destination, source: PChar): PChar;
-
 {
-    Compares two strings. Returns:
-        0: if both strings are equal
-        negative integer: if the left operand is shorter than the right operand
-        positive integer: if the right operand is shorter than the left operand
+    All the subroutines of this unit are implemented natively in the stringscorejava unit:
+
+    strlen(str: PChar): integer;
+        Returns number of characters preceding the null terminator.
+    strcopy(destination, source: PChar): PChar;
+        Copies the source argument to the destination argument which is then returned.
+    strcat(destination, source: PChar): PChar;
+        Concatenates two strings. The source argument is concatenated to the destination argument
+        which is then returned.
+    strcomp(leftOperand, rightOperand: PChar): integer;
+        Compares two strings. Returns:
+            0: if both strings are equal
+            negative integer: if the left operand is shorter than the right operand
+            positive integer: if the right operand is shorter than the left operand
+    strpos(str, substr: PChar): PChar;
+        Returns a new string starting with the first occurrence of substr in str or nil if there is none.
+    strupper(str: PChar): PChar;
+        Returns a new string containing the argument converted to all-uppercase.
+    strlower(str: PChar): PChar;
+        Returns a new string containing the argument converted to all-lowercase.
 }
-function strcomp(leftOperand, rightOperand: PChar): integer;
-
-{
-    Convert null-terminated string to all-uppercase
-}
-function strupper(str: PChar): PChar;
 
+INTERFACE
 
 IMPLEMENTATION
 
-function getPCharSize(str: PChar): integer; forward;
-
-function strcat(destination, source: PChar): PChar;
-begin
-    destination := destination + source;
-    strcat := destination;
-end;
-
-function strcomp(leftOperand, rightOperand: PChar): integer;
-var result, leftIndex, rightIndex: integer;
-begin
-    leftIndex := 0;
-    rightIndex := 0;
-
-    while (leftOperand^[leftIndex] <> '\0') or (rightOperand^[rightIndex] <> '\0') do begin
-        if leftOperand^[leftIndex] <> '\0' then begin
-            result := result + 1;
-            leftIndex := leftIndex + 1;
-        end;
-
-        if rightOperand^[rightIndex] <> '\0' then begin
-            result := result - 1;
-            rightIndex := rightIndex + 1;
-        end;
-    end;
-
-    strcomp := result;
-end;
-
-function strupper(str: PChar): PChar;
-var i, size: integer;
-var res: PChar;
-begin
-    size := getPCharSize(str);
-    res := stralloc(size);
-    for i:=0 to size - 1 do begin
-        if ord(str^[i]) > 96 and ord(str^[i]) < 123 then begin
-            res^[i] := chr(ord(str^[i]) - 32);
-        end else begin
-            res^[i] := str^[i];
-        end;
-    end;
-    strupper := res;
-end;
-
-function getPCharSize(str: PChar): integer;
-var size: integer;
-begin
-    size := 0;
-    while str^[size] <> '\0' do
-        size := size + 1;
-
-    getPCharSize := size + 1;
-end;
-
 END.
@@ -3,19 +3,11 @@ package cz.cuni.mff.d3s.trupple.language;
 import com.oracle.truffle.api.CallTarget;
 import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.TruffleLanguage;
-import com.oracle.truffle.api.frame.FrameDescriptor;
-import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.source.Source;
-import cz.cuni.mff.d3s.trupple.language.nodes.root.PascalRootNode;
+import com.oracle.truffle.api.nodes.Node;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalSubroutine;
 import cz.cuni.mff.d3s.trupple.parser.IParser;
 
-import java.io.*;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Random;
-import java.util.Scanner;
-
 /**
  * Representation of our Pascal guest language for Truffle VM. Thanks to the TruffleLanguage.Registration
  * annotation we register this class so that Truffle's PolyglotEngine will use our language.
@@ -29,37 +21,71 @@ public class PascalLanguage extends TruffleLanguage<PascalState> {
     public static final PascalLanguage INSTANCE = new PascalLanguage();
 
     public static final String MIME_TYPE = "application/x-pascal";
-    private IParser currentParser;
-    private final IParser wirthParser;
-    private final IParser turboParser;
-    private Random random;
-    private Map<String, VirtualFrame> unitFrames;
-    private Map<String, Map<String, PascalSubroutine>> unitSubroutines;
-    private Scanner input = new Scanner(System.in);
 
-    private PascalLanguage() {
-        this.wirthParser = new cz.cuni.mff.d3s.trupple.parser.wirth.Parser();
-        this.turboParser = new cz.cuni.mff.d3s.trupple.parser.tp.Parser();
-        this.reset(false, false);
-    }
+    /**
+     * Name of the engine configuration option that turns on the supported Turbo Pascal extensions.
+     */
+    public static final String TP_EXTENSION_CONFIG = "tpExtension";
+
+    /**
+     * Name of the engine configuration option that turns on the extended goto support.
+     */
+    public static final String EXTENDED_GOTO_CONFIG = "extendedGoto";
+
+    /**
+     * Name of the engine configuration option that sets the number of characters the standard output buffers before
+     * it writes them to the engine's output stream.
+     */
+    public static final String OUTPUT_BUFFER_SIZE_CONFIG = "outputBufferSize";
+
+    /**
+     * Name of the engine configuration option that turns on memory mapping of typed files.
+     */
+    public static final String MAPPED_FILES_CONFIG = "mappedFiles";
 
     /**
-     * Resets the language settings with provided values.
-     * @param tpExtension flag to use supported Turbo Pascal extensions
-     * @param extendedGoto flag to use extended goto support
+     * Name of the engine configuration option that turns off range checks of array indices. The checks are turned on
+     * if the option is not set.
      */
-    public void reset(boolean tpExtension, boolean extendedGoto) {
-        this.currentParser = (tpExtension)? this.turboParser : this.wirthParser;
-        this.currentParser.setExtendedGoto(extendedGoto);
-        random = new Random(26270);
-        unitFrames = new HashMap<>();
-        unitSubroutines = new HashMap<>();
-        input = new Scanner(System.in);
+    public static final String NO_RANGE_CHECKS_CONFIG = "noRangeChecks";
+
+    private PascalLanguage() {
     }
 
     @Override
     protected PascalState createContext(Env environment) {
-        return new PascalState();
+        return new PascalState(environment);
+    }
+
+    @Override
+    protected void disposeContext(PascalState state) {
+        state.dispose();
+    }
+
+    /**
+     * Gets the state of the context that is currently being executed. It creates a new lookup node on each call, so
+     * nodes which access the state during execution shall use
+     * {@link cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode} instead.
+     */
+    public PascalState getCurrentState() {
+        return this.findContext(this.createFindContextNode());
+    }
+
+    /**
+     * Creates a node which looks up the state of the context that is currently being executed. The node that accesses
+     * the state keeps it as its child and passes it to {@link #findState(Node)}. It cannot be called while the context
+     * is being created.
+     */
+    public Node createFindStateNode() {
+        return this.createFindContextNode();
+    }
+
+    /**
+     * Gets the state of the context that is currently being executed using a node created by
+     * {@link #createFindStateNode()}.
+     */
+    public PascalState findState(Node findStateNode) {
+        return this.findContext(findStateNode);
     }
 
     @Override
@@ -86,62 +112,14 @@ public class PascalLanguage extends TruffleLanguage<PascalState> {
     @Override
     protected CallTarget parse(ParsingRequest request) throws PascalParseException {
         Source source = request.getSource();
+        IParser parser = this.getCurrentState().getParser();
 
-        this.currentParser.reset();
-        parseSource(source);
-        return Truffle.getRuntime().createCallTarget(this.currentParser.getRootNode());
-    }
-
-    private void parseSource(Source source) throws PascalParseException {
-        this.currentParser.Parse(source);
-        if (this.currentParser.hadErrors()) {
+        parser.reset();
+        parser.Parse(source);
+        if (parser.hadErrors()) {
             throw new PascalParseException(source.getName());
         }
-    }
-
-    /**
-     * Resets the random seed.
-     */
-    public void randomize() {
-        random = new Random();
-    }
-
-    public int getRandom(int upperBound) {
-        return Math.abs(random.nextInt()) % upperBound;
-    }
-
-    public boolean isUnitRegistered(String unitIdentifier) {
-        return this.unitFrames.containsKey(unitIdentifier);
-    }
-
-    public VirtualFrame getUnitFrame(String unitIdentifier) {
-        return this.unitFrames.get(unitIdentifier);
-    }
-
-    public VirtualFrame createUnitFrame(String unitIdentifier, FrameDescriptor frameDescriptor) {
-        VirtualFrame unitFrame = Truffle.getRuntime().createVirtualFrame(new Object[0], frameDescriptor);
-        this.unitFrames.put(unitIdentifier, unitFrame);
-
-        return unitFrame;
-    }
-
-    public void updateSubroutine(String unitIdentifier, String subroutineIdentifier, PascalRootNode rootNode) {
-        if (!this.unitSubroutines.containsKey(unitIdentifier)) {
-            this.unitSubroutines.put(unitIdentifier, new HashMap<>());
-        }
-        this.unitSubroutines.get(unitIdentifier).put(subroutineIdentifier, new PascalSubroutine(Truffle.getRuntime().createCallTarget(rootNode)));
-    }
-
-    public PascalSubroutine getSubroutine(String unitIdentifier, String subroutineIdentifier) {
-        return this.unitSubroutines.get(unitIdentifier).get(subroutineIdentifier);
-    }
-
-    public Scanner getInput() {
-        return this.input;
-    }
-
-    public void setInput(InputStream is) {
-        this.input = new Scanner(is);
+        return Truffle.getRuntime().createCallTarget(parser.getRootNode());
     }
 
 }
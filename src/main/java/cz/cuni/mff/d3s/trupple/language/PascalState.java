@@ -1,5 +1,231 @@
 package cz.cuni.mff.d3s.trupple.language;
 
-class PascalState {
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.frame.FrameDescriptor;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import cz.cuni.mff.d3s.trupple.language.nodes.root.PascalRootNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalSubroutine;
+import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
+import cz.cuni.mff.d3s.trupple.language.runtime.io.PascalInput;
+import cz.cuni.mff.d3s.trupple.language.runtime.io.PascalOutput;
+import cz.cuni.mff.d3s.trupple.parser.IParser;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Represents the state of one execution context of our language. Each {@link com.oracle.truffle.api.vm.PolyglotEngine}
+ * gets its own instance from {@link PascalLanguage#createContext(TruffleLanguage.Env)}, so nothing stored in here is
+ * shared between two engines and independent engines can parse and execute their sources concurrently.
+ */
+public class PascalState {
+
+    private static final long DEFAULT_RANDOM_SEED = 26270;
+
+    /**
+     * Parser of the context. It is reused for each source evaluated by the engine so that the units parsed before
+     * the main program are visible to it.
+     */
+    private final IParser parser;
+
+    /**
+     * Heap of the context that stores objects created by Pascal's new() calls.
+     */
+    private final PascalHeap heap;
+
+    private Random random;
+
+    private final Map<String, MaterializedFrame> unitFrames;
+
+    private final Map<String, Map<String, PascalSubroutine>> unitSubroutines;
+
+    private final PascalInput input;
+
+    private final PascalOutput output;
+
+    private final boolean mappedFiles;
+
+    private final boolean rangeChecks;
+
+    /**
+     * Files opened by the program which were not closed yet. They are closed when the context is disposed.
+     */
+    private final Set<FileValue> openFiles;
+
+    PascalState(TruffleLanguage.Env environment) {
+        this(getBooleanConfig(environment, PascalLanguage.TP_EXTENSION_CONFIG),
+                getBooleanConfig(environment, PascalLanguage.EXTENDED_GOTO_CONFIG),
+                getIntConfig(environment, PascalLanguage.OUTPUT_BUFFER_SIZE_CONFIG, PascalOutput.DEFAULT_BUFFER_SIZE),
+                getBooleanConfig(environment, PascalLanguage.MAPPED_FILES_CONFIG),
+                !getBooleanConfig(environment, PascalLanguage.NO_RANGE_CHECKS_CONFIG),
+                environment.in(), environment.out());
+    }
+
+    PascalState(boolean tpExtension, boolean extendedGoto, int outputBufferSize, boolean mappedFiles,
+                boolean rangeChecks, InputStream input, OutputStream output) {
+        this.parser = (tpExtension)? new cz.cuni.mff.d3s.trupple.parser.tp.Parser(this) :
+                new cz.cuni.mff.d3s.trupple.parser.wirth.Parser(this);
+        this.parser.setExtendedGoto(extendedGoto);
+        this.heap = new PascalHeap();
+        this.random = new Random(DEFAULT_RANDOM_SEED);
+        this.unitFrames = new HashMap<>();
+        this.unitSubroutines = new HashMap<>();
+        this.output = new PascalOutput(output, outputBufferSize);
+        this.input = new PascalInput(input, this.output);
+        this.mappedFiles = mappedFiles;
+        this.rangeChecks = rangeChecks;
+        this.openFiles = new LinkedHashSet<>();
+    }
+
+    private static boolean getBooleanConfig(TruffleLanguage.Env environment, String key) {
+        Object value = environment.getConfig().get(key);
+        return (value instanceof Boolean)? (Boolean) value : Boolean.parseBoolean(String.valueOf(value));
+    }
+
+    private static int getIntConfig(TruffleLanguage.Env environment, String key, int defaultValue) {
+        Object value = environment.getConfig().get(key);
+        return (value == null)? defaultValue : Integer.parseInt(String.valueOf(value));
+    }
+
+    /**
+     * Gets the parser of this context. Its root node is the root node of the last parsed source.
+     */
+    public IParser getParser() {
+        return this.parser;
+    }
+
+    public PascalHeap getHeap() {
+        return this.heap;
+    }
+
+    /**
+     * Resets the random seed.
+     */
+    public void randomize() {
+        this.random = new Random();
+    }
+
+    public int getRandom(int upperBound) {
+        return Math.abs(this.random.nextInt()) % upperBound;
+    }
+
+    public boolean isUnitRegistered(String unitIdentifier) {
+        return this.unitFrames.containsKey(unitIdentifier);
+    }
+
+    public MaterializedFrame getUnitFrame(String unitIdentifier) {
+        return this.unitFrames.get(unitIdentifier);
+    }
+
+    public MaterializedFrame createUnitFrame(String unitIdentifier, FrameDescriptor frameDescriptor) {
+        MaterializedFrame unitFrame = Truffle.getRuntime().createMaterializedFrame(new Object[0], frameDescriptor);
+        this.unitFrames.put(unitIdentifier, unitFrame);
+
+        return unitFrame;
+    }
+
+    public void updateSubroutine(String unitIdentifier, String subroutineIdentifier, PascalRootNode rootNode) {
+        if (!this.unitSubroutines.containsKey(unitIdentifier)) {
+            this.unitSubroutines.put(unitIdentifier, new HashMap<>());
+        }
+        this.unitSubroutines.get(unitIdentifier).put(subroutineIdentifier, new PascalSubroutine(Truffle.getRuntime().createCallTarget(rootNode)));
+    }
+
+    public PascalSubroutine getSubroutine(String unitIdentifier, String subroutineIdentifier) {
+        return this.unitSubroutines.get(unitIdentifier).get(subroutineIdentifier);
+    }
+
+    /**
+     * Gets the standard input of the context. The buffered standard output is tied to it, so it is flushed only when
+     * the input buffer is empty and the read may block, and everything the program wrote before (e.g.: a prompt) is
+     * visible.
+     */
+    public PascalInput getInput() {
+        return this.input;
+    }
+
+    /**
+     * Gets the buffered standard output of the context.
+     */
+    public PascalOutput getOutput() {
+        return this.output;
+    }
+
+    /**
+     * Checks whether typed files are mapped to memory
+     * (see {@link cz.cuni.mff.d3s.trupple.language.runtime.customvalues.BinaryFileValue}).
+     */
+    public boolean usesMappedFiles() {
+        return this.mappedFiles;
+    }
+
+    /**
+     * Checks whether indices of arrays are checked to lie inside their declared ranges
+     * (see {@link cz.cuni.mff.d3s.trupple.language.nodes.variables.ReadIndexNode}).
+     */
+    public boolean usesRangeChecks() {
+        return this.rangeChecks;
+    }
+
+    /**
+     * Remembers an opened file so that it is closed when the context is disposed.
+     */
+    public void registerOpenFile(FileValue file) {
+        this.openFiles.add(file);
+    }
+
+    /**
+     * Forgets a file closed by the program.
+     */
+    public void unregisterOpenFile(FileValue file) {
+        this.openFiles.remove(file);
+    }
+
+    /**
+     * Writes the buffered content of all open files. It is called when the main program ends, so the files are complete
+     * even before the context is disposed.
+     */
+    public void flushOpenFiles() {
+        for (FileValue file : this.openFiles) {
+            file.flush();
+        }
+    }
+
+    /**
+     * Releases all resources held by this context. It is called when the owning engine is disposed. All files left
+     * open by the program are closed, so their buffered content is written. If closing any of them fails, the other
+     * files are still closed and the first failure is rethrown afterwards.
+     */
+    void dispose() {
+        RuntimeException failure = null;
+        try {
+            this.output.flush();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        for (FileValue file : this.openFiles) {
+            try {
+                file.close();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        this.openFiles.clear();
+        this.heap.reset();
+        this.unitFrames.clear();
+        this.unitSubroutines.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
 
 }
@@ -1,11 +1,20 @@
 package cz.cuni.mff.d3s.trupple.language.builtinunits;
 
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string.StrAllocNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string.StrCatNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string.StrCompNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string.StrCopyNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string.StrLenNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string.StrLowerNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string.StrPosNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string.StrUpperNodeGen;
 import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.PascalRuntimeException;
 import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
 import cz.cuni.mff.d3s.trupple.parser.UnitLexicalScope;
 import cz.cuni.mff.d3s.trupple.parser.exceptions.LexicalException;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.PointerDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.extension.PCharDesriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.LongDescriptor;
@@ -15,8 +24,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Representation of <i>strings</i> built-in unit. Implemented subroutines are <i>StrAlloc</i> and some other are
- * implemented in a Pascal unit source.
+ * Representation of <i>strings</i> built-in unit. Implemented subroutines are <i>StrAlloc</i>, <i>StrLen</i>,
+ * <i>StrCopy</i>, <i>StrCat</i>, <i>StrComp</i>, <i>StrPos</i>, <i>StrUpper</i> and <i>StrLower</i>. They are imported
+ * by the <i>strings</i> Pascal unit.
  */
 public class StringBuiltinUnit extends BuiltinUnitAbstr {
 
@@ -30,6 +40,59 @@ public class StringBuiltinUnit extends BuiltinUnitAbstr {
                         new FormalParameter("size", LongDescriptor.getInstance(), false)
                 )
         ));
+        this.data.add(new UnitSubroutineData(
+                "StrLen",
+                new BuiltinFunctionDescriptor.OneArgumentBuiltin(
+                        StrLenNodeGen.create(readPChar(0)),
+                        new FormalParameter("str", getPCharType(), false)
+                )
+        ));
+        this.data.add(new UnitSubroutineData(
+                "StrUpper",
+                new BuiltinFunctionDescriptor.OneArgumentBuiltin(
+                        StrUpperNodeGen.create(readPChar(0)),
+                        new FormalParameter("str", getPCharType(), false)
+                )
+        ));
+        this.data.add(new UnitSubroutineData(
+                "StrLower",
+                new BuiltinFunctionDescriptor.OneArgumentBuiltin(
+                        StrLowerNodeGen.create(readPChar(0)),
+                        new FormalParameter("str", getPCharType(), false)
+                )
+        ));
+        this.data.add(new UnitSubroutineData(
+                "StrCopy",
+                createTwoPCharArgumentsBuiltin(StrCopyNodeGen.create(readPChar(0), readPChar(1)), "destination", "source")
+        ));
+        this.data.add(new UnitSubroutineData(
+                "StrCat",
+                createTwoPCharArgumentsBuiltin(StrCatNodeGen.create(readPChar(0), readPChar(1)), "destination", "source")
+        ));
+        this.data.add(new UnitSubroutineData(
+                "StrComp",
+                createTwoPCharArgumentsBuiltin(StrCompNodeGen.create(readPChar(0), readPChar(1)), "leftOperand", "rightOperand")
+        ));
+        this.data.add(new UnitSubroutineData(
+                "StrPos",
+                createTwoPCharArgumentsBuiltin(StrPosNodeGen.create(readPChar(0), readPChar(1)), "str", "substr")
+        ));
+    }
+
+    private static TypeDescriptor getPCharType() {
+        return new PointerDescriptor(PCharDesriptor.getInstance());
+    }
+
+    private static ReadArgumentNode readPChar(int index) {
+        return new ReadArgumentNode(index, getPCharType());
+    }
+
+    private static BuiltinFunctionDescriptor createTwoPCharArgumentsBuiltin(ExpressionNode bodyNode, String left, String right) {
+        List<FormalParameter> parameters = new ArrayList<>();
+        parameters.add(new FormalParameter(left, getPCharType(), false));
+        parameters.add(new FormalParameter(right, getPCharType(), false));
+
+        return new BuiltinFunctionDescriptor.NoReferenceParameterBuiltin(bodyNode, parameters);
     }
 
     @Override
@@ -1,6 +1,7 @@
 package cz.cuni.mff.d3s.trupple.language.nodes;
 
 import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 
@@ -10,7 +11,7 @@ import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
  */
 public class InitializationNodeFactory {
 
-	public static StatementNode create(FrameSlot frameSlot, Object value, VirtualFrame frame) {
+	public static StatementNode create(FrameSlot frameSlot, Object value, MaterializedFrame frame) {
 	    // TODO: this is a duplicity
         switch (frameSlot.getKind()) {
             case Int: return (frame == null)?
@@ -69,9 +70,9 @@ class IntInitializationNode extends InitializationNode {
  */
 class IntInitializationWithFrameNode extends IntInitializationNode {
 
-    private final VirtualFrame frame;
+    private final MaterializedFrame frame;
 
-    IntInitializationWithFrameNode(FrameSlot slot, int value, VirtualFrame frame) {
+    IntInitializationWithFrameNode(FrameSlot slot, int value, MaterializedFrame frame) {
         super(slot, value);
         this.frame = frame;
     }
@@ -108,9 +109,9 @@ class LongInitializationNode extends InitializationNode {
  */
 class LongInitializationWithFrameNode extends LongInitializationNode {
 
-    private final VirtualFrame frame;
+    private final MaterializedFrame frame;
 
-    LongInitializationWithFrameNode(FrameSlot slot, long value, VirtualFrame frame) {
+    LongInitializationWithFrameNode(FrameSlot slot, long value, MaterializedFrame frame) {
         super(slot, value);
         this.frame = frame;
     }
@@ -147,9 +148,9 @@ class CharInitializationNode extends InitializationNode {
  */
 class CharInitializationWithFrameNode extends CharInitializationNode {
 
-    private final VirtualFrame frame;
+    private final MaterializedFrame frame;
 
-    CharInitializationWithFrameNode(FrameSlot slot, char value, VirtualFrame frame) {
+    CharInitializationWithFrameNode(FrameSlot slot, char value, MaterializedFrame frame) {
         super(slot, value);
         this.frame = frame;
     }
@@ -186,9 +187,9 @@ class DoubleInitializationNode extends InitializationNode {
  */
 class DoubleInitializationWithFrameNode extends DoubleInitializationNode {
 
-    private final VirtualFrame frame;
+    private final MaterializedFrame frame;
 
-    DoubleInitializationWithFrameNode(FrameSlot slot, double value, VirtualFrame frame) {
+    DoubleInitializationWithFrameNode(FrameSlot slot, double value, MaterializedFrame frame) {
         super(slot, value);
         this.frame = frame;
     }
@@ -225,9 +226,9 @@ class BooleanInitializationNode extends InitializationNode {
  */
 class BooleanInitializationWithFrameNode extends BooleanInitializationNode {
 
-    private final VirtualFrame frame;
+    private final MaterializedFrame frame;
 
-    BooleanInitializationWithFrameNode(FrameSlot slot, boolean value, VirtualFrame frame) {
+    BooleanInitializationWithFrameNode(FrameSlot slot, boolean value, MaterializedFrame frame) {
         super(slot, value);
         this.frame = frame;
     }
@@ -264,9 +265,9 @@ class ObjectInitializationNode extends InitializationNode {
  */
 class ObjectInitializationWithFrameNode extends ObjectInitializationNode {
 
-    private final VirtualFrame frame;
+    private final MaterializedFrame frame;
 
-    ObjectInitializationWithFrameNode(FrameSlot slot, Object value, VirtualFrame frame) {
+    ObjectInitializationWithFrameNode(FrameSlot slot, Object value, MaterializedFrame frame) {
         super(slot, value);
         this.frame = frame;
     }
@@ -2,17 +2,22 @@ package cz.cuni.mff.d3s.trupple.language.nodes.arithmetic;
 
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string.StrAllocNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PCharValue;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
 import cz.cuni.mff.d3s.trupple.language.nodes.utils.BinaryArgumentPrimitiveTypes;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.PointerDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.extension.PCharDesriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.CharDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
+import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Extended node for plus operation for Turbo Pascal. It extends {@link AddNode} with support for string arguments which
- * results in their concatenation.
+ * results in their concatenation. Appending a character to a string has its own specialization, so the character does
+ * not have to be converted to a string first. Adding two PChar pointers allocates their concatenation on the heap.
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link AddNodeTPNodeGen}
@@ -20,6 +25,8 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDes
 @NodeInfo(shortName = "+")
 public abstract class AddNodeTP extends AddNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     AddNodeTP() {
         super();
         this.typeTable.put(new BinaryArgumentPrimitiveTypes(CharDescriptor.getInstance(), CharDescriptor.getInstance()), StringDescriptor.getInstance());
@@ -29,6 +36,11 @@ public abstract class AddNodeTP extends AddNode {
         this.typeTable.put(new BinaryArgumentPrimitiveTypes(new PointerDescriptor(PCharDesriptor.getInstance()), new PointerDescriptor(PCharDesriptor.getInstance())), new PointerDescriptor(PCharDesriptor.getInstance()));
     }
 
+    @Specialization
+    protected PascalString add(PascalString left, char right) {
+        return left.concatenate(right);
+    }
+
     @Specialization
     protected PascalString add(PascalString left, PascalString right) {
         return left.concatenate(right);
@@ -39,4 +51,11 @@ public abstract class AddNodeTP extends AddNode {
 	    return PCharValue.concat(left, right);
     }
 
+    @Specialization
+    protected PointerValue add(PointerValue left, PointerValue right) {
+        PascalHeap heap = this.findStateNode.execute().getHeap();
+        PCharValue result = PCharValue.concat((PCharValue) left.getDereferenceValue(heap), (PCharValue) right.getDereferenceValue(heap));
+        return StrAllocNode.allocate(heap, result);
+    }
+
 }
@@ -7,6 +7,7 @@ import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing Pascal's built in dispose subroutine. It receives a pointer as an argument and removes object from
@@ -19,9 +20,11 @@ import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
 @NodeChild(type = ExpressionNode.class)
 public abstract class DisposeBuiltinNode extends StatementNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     @Specialization
     void dispose(PointerValue pointerValue) {
-        PascalHeap.getInstance().disposeObject(pointerValue.getHeapSlot());
+        this.findStateNode.execute().getHeap().disposeObject(pointerValue.getHeapSlot());
         pointerValue.setHeapSlot(PascalHeap.NIL);
     }
 
@@ -7,7 +7,7 @@ import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.heap.HeapSlot;
-import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing Pascal's built in new subroutine. It allocates new object on the heap.
@@ -19,10 +19,12 @@ import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
 @NodeChild(value = "argument", type = ExpressionNode.class)
 public abstract class NewBuiltinNode extends StatementNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     @Specialization
     void allocate(PointerValue pointerValue) {
         Object newObject = pointerValue.getType().getDefaultValue();
-        HeapSlot heapSlot = PascalHeap.getInstance().allocateNewObject(newObject);
+        HeapSlot heapSlot = this.findStateNode.execute().getHeap().allocateNewObject(newObject);
         pointerValue.setHeapSlot(heapSlot);
     }
 }
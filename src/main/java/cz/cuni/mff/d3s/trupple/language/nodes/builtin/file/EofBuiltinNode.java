@@ -1,13 +1,14 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.builtin.file;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
-import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.BooleanDescriptor;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing Pascal's eof function. If return true if we are at the end of the input. If it us called without
@@ -20,13 +21,16 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.BooleanDe
 @NodeChild(value = "arguments", type = ExpressionNode[].class)
 public abstract class EofBuiltinNode extends ExpressionNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     @Specialization
     boolean isEof(Object... arguments) {
         return (arguments.length == 0)? eof() : eof((FileValue) arguments[0]);
     }
 
+    @TruffleBoundary
     private boolean eof() {
-        return !PascalLanguage.INSTANCE.getInput().hasNext();
+        return this.findStateNode.execute().getInput().eof();
     }
 
     private boolean eof(FileValue file) {
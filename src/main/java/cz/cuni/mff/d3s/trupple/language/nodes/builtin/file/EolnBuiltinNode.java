@@ -1,13 +1,14 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.builtin.file;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
-import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.TextFileValue;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.BooleanDescriptor;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing Pascal's eoln built in functions. Returns true if we are the end of line in the input. If it is
@@ -20,13 +21,16 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.BooleanDe
 @NodeChild(value = "arguments", type = ExpressionNode[].class)
 public abstract class EolnBuiltinNode extends ExpressionNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     @Specialization
     boolean isEoln(Object... arguments) {
         return (arguments.length == 0)? eoln() : eoln((TextFileValue) arguments[0]);
     }
 
+    @TruffleBoundary
     private boolean eoln() {
-        return !PascalLanguage.INSTANCE.getInput().hasNext();
+        return this.findStateNode.execute().getInput().eoln();
     }
 
     private boolean eoln(TextFileValue file) {
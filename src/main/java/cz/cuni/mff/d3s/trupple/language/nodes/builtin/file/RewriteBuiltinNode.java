@@ -1,14 +1,17 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.builtin.file;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
- * Node representing Pascal's built in reset procedure which opens file for writing.
+ * Node representing Pascal's built in reset procedure which opens file for writing. The
+ * file is registered in the context, so it is closed when the context is disposed.
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link RewriteBuiltinNodeGen}
@@ -17,9 +20,13 @@ import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 @NodeChild(value = "file", type = ExpressionNode.class)
 public abstract class RewriteBuiltinNode extends StatementNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     @Specialization
+    @TruffleBoundary
     void rewrite(FileValue file) {
         file.openToWrite();
+        this.findStateNode.execute().registerOpenFile(file);
     }
 
 }
@@ -2,25 +2,27 @@ package cz.cuni.mff.d3s.trupple.language.nodes.builtin.io;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.regex.Pattern;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import com.oracle.truffle.api.nodes.NodeInfo;
-import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.TextFileValue;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.CantReadInputException;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.PascalRuntimeException;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.Reference;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing Pascal's read subroutine. It receives its arguments in an array because it may receive any number
  * of arguments. The arguments are received by {@link cz.cuni.mff.d3s.trupple.language.nodes.call.ReadAllArgumentsNode}
- * node.
+ * node. The standard input is read by the context's {@link cz.cuni.mff.d3s.trupple.language.runtime.io.PascalInput}.
+ * Values of primitive types are read from text files without boxing.
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link ReadBuiltinNodeFactory.ReadBuiltinNodeGen}
@@ -31,12 +33,12 @@ import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 @GenerateNodeFactory
 public abstract class ReadBuiltinNode extends StatementNode {
 
-    private static final String NEW_LINE = System.getProperty("line.separator");
+    @Child protected FindStateNode findStateNode = new FindStateNode();
 
 	@Specialization
     public void read(Object[] arguments) {
         if (arguments.length == 0) {
-            readOne();
+            return;
         }
 
         FileValue file = tryGetFileValue((Reference) arguments[0]);
@@ -47,19 +49,11 @@ public abstract class ReadBuiltinNode extends StatementNode {
         }
     }
 
-    private FileValue tryGetFileValue(Reference reference) {
-        Object referenceValue = reference.getFromFrame().getValue(reference.getFrameSlot());
+    protected FileValue tryGetFileValue(Reference reference) {
+        Object referenceValue = reference.getValue();
         return (referenceValue instanceof FileValue)? (FileValue) referenceValue : null;
     }
 
-    private String readOne() {
-	    try {
-	        return this.readString();
-        } catch (IOException e) {
-	        throw new CantReadInputException(e);
-        }
-    }
-
     private Object read(FileValue file, Object[] arguments) {
         for (Object argument : arguments) {
             Reference reference = (Reference)argument;
@@ -69,9 +63,10 @@ public abstract class ReadBuiltinNode extends StatementNode {
         return new Object();
     }
 
+    @TruffleBoundary
     private void readOneToReference(FileValue file, Reference reference) {
 	    try {
-            switch (reference.getFrameSlot().getKind()) {
+            switch (reference.getKind()) {
                 case Int:
                     int intValue = readInt(file);
                     this.setReferenceInt(reference, intValue);
@@ -102,12 +97,9 @@ public abstract class ReadBuiltinNode extends StatementNode {
 
     private char readChar(FileValue file) throws IOException {
         if (file == null) {
-            Pattern delimiterPattern = PascalLanguage.INSTANCE.getInput().delimiter();
-            PascalLanguage.INSTANCE.getInput().useDelimiter("");
-            char value = PascalLanguage.INSTANCE.getInput().next().charAt(0);
-            PascalLanguage.INSTANCE.getInput().useDelimiter(delimiterPattern);
-
-            return value;
+            return this.findStateNode.execute().getInput().readChar();
+        } else if (file instanceof TextFileValue) {
+            return ((TextFileValue) file).readChar();
         } else {
             try {
                 Object obj = file.read();
@@ -121,7 +113,9 @@ public abstract class ReadBuiltinNode extends StatementNode {
 
     private double readDouble(FileValue file) throws IOException {
         if (file == null) {
-            return PascalLanguage.INSTANCE.getInput().nextDouble();
+            return this.findStateNode.execute().getInput().readDouble();
+        } else if (file instanceof TextFileValue) {
+            return ((TextFileValue) file).readDouble();
         } else {
             try {
                 Object obj = file.read();
@@ -135,7 +129,9 @@ public abstract class ReadBuiltinNode extends StatementNode {
 
     private long readLong(FileValue file) throws IOException {
         if (file == null) {
-            return PascalLanguage.INSTANCE.getInput().nextLong();
+            return this.findStateNode.execute().getInput().readLong();
+        } else if (file instanceof TextFileValue) {
+            return ((TextFileValue) file).readLong();
         } else {
             try {
                 Object obj = file.read();
@@ -150,7 +146,9 @@ public abstract class ReadBuiltinNode extends StatementNode {
 
     private int readInt(FileValue file) throws IOException {
         if (file == null) {
-            return PascalLanguage.INSTANCE.getInput().nextInt();
+            return this.findStateNode.execute().getInput().readInt();
+        } else if (file instanceof TextFileValue) {
+            return ((TextFileValue) file).readInt();
         } else {
             try {
                 Object obj = file.read();
@@ -163,49 +161,43 @@ public abstract class ReadBuiltinNode extends StatementNode {
     }
 
     private Object readObject(FileValue file, Reference reference) throws IOException {
-        try {
-            Object referenceValue = reference.getFromFrame().getObject(reference.getFrameSlot());
-            if (file == null) {
-                if (referenceValue instanceof String) {
-                    return readString();
-                } else {
-                    // TODO: arrays
-                    throw new PascalRuntimeException("Not supported yet.");
-                }
+        Object referenceValue = reference.getValue();
+        if (file == null) {
+            if (referenceValue instanceof PascalString) {
+                return readString();
             } else {
-                return file.read();
+                // TODO: arrays
+                throw new PascalRuntimeException("Not supported yet.");
             }
-        } catch (FrameSlotTypeException e) {
-            throw new PascalRuntimeException("Unknown read type");
+        } else if (file instanceof TextFileValue && referenceValue instanceof PascalString) {
+            return ((TextFileValue) file).readLine();
+        } else {
+            return file.read();
         }
     }
 
-    private String readString() throws IOException {
-        return this.readUntilNewline();
+    private PascalString readString() {
+        return this.findStateNode.execute().getInput().readLine();
     }
 
     private void setReferenceInt(Reference reference, int value) {
-        reference.getFromFrame().setInt(reference.getFrameSlot(), value);
+        reference.setInt(value);
     }
 
     private void setReferenceChar(Reference reference, char value) {
-	    reference.getFromFrame().setByte(reference.getFrameSlot(), (byte) value);
+	    reference.setChar(value);
     }
 
     private void setReferenceDouble(Reference reference, double value) {
-        reference.getFromFrame().setDouble(reference.getFrameSlot(), value);
+        reference.setDouble(value);
     }
 
     private void setReferenceLong(Reference reference, long value) {
-        reference.getFromFrame().setLong(reference.getFrameSlot(), value);
+        reference.setLong(value);
     }
 
     private void setReferenceObject(Reference reference, Object value) {
-        reference.getFromFrame().setObject(reference.getFrameSlot(), value);
-    }
-
-    private String readUntilNewline() {
-	    return PascalLanguage.INSTANCE.getInput().next("[^" + NEW_LINE + "]");
+        reference.setObject(value);
     }
 
 }
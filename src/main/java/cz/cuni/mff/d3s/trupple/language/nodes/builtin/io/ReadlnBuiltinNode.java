@@ -1,14 +1,17 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.builtin.io;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.GenerateNodeFactory;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
-import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
-
-import java.util.Scanner;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.Reference;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.TextFileValue;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
- * Node representing Pascal's readln subroutine.
+ * Node representing Pascal's readln subroutine. After the values are read, the rest of the line is skipped in the
+ * standard input or in the text file passed as the first argument.
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link ReadlnBuiltinNodeFactory.ReadlnBuiltinNodeGen}
@@ -20,14 +23,19 @@ public abstract class ReadlnBuiltinNode extends ReadBuiltinNode {
     @Specialization
     public void read(Object[] arguments) {
 	    if (arguments.length == 0) {
-	        this.consumeNewLine();
+	        this.consumeNewLine(null);
         } else {
             super.read(arguments);
-            this.consumeNewLine();
+            this.consumeNewLine(this.tryGetFileValue((Reference) arguments[0]));
         }
     }
 
-    private void consumeNewLine() {
-        PascalLanguage.INSTANCE.getInput().nextLine();
+    @TruffleBoundary
+    private void consumeNewLine(FileValue file) {
+        if (file instanceof TextFileValue) {
+            ((TextFileValue) file).skipLine();
+        } else {
+            this.findStateNode.execute().getInput().skipLine();
+        }
     }
 }
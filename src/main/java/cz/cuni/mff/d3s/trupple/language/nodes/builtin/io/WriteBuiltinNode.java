@@ -8,8 +8,10 @@ import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.io.PascalOutput;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing Pascal's write subroutine. It receives its arguments in an array because it may receive any number
@@ -24,6 +26,8 @@ import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 @GenerateNodeFactory
 public abstract class WriteBuiltinNode extends StatementNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
 	@Specialization
 	public void write(Object[] values) {
         if (values.length > 0 && values[0] instanceof FileValue) {
@@ -36,9 +40,10 @@ public abstract class WriteBuiltinNode extends StatementNode {
 	}
 
 	@TruffleBoundary
-	private static void doWrite(Object[] values) {
+	private void doWrite(Object[] values) {
+		PascalOutput output = this.findStateNode.execute().getOutput();
 		for (Object value : values) {
-            System.out.print(value);
+            output.write(value);
         }
 	}
 
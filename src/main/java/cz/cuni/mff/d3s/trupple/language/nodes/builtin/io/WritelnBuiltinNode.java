@@ -8,8 +8,10 @@ import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.io.PascalOutput;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing Pascal's writeln subroutine.
@@ -22,6 +24,8 @@ import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 @GenerateNodeFactory
 public abstract class WritelnBuiltinNode extends StatementNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     @Specialization
     public void writeln(Object... values) {
         if (values.length > 0 && values[0] instanceof FileValue) {
@@ -34,12 +38,13 @@ public abstract class WritelnBuiltinNode extends StatementNode {
     }
 
 	@TruffleBoundary
-	private static void doWriteln(Object... arguments) {
+	private void doWriteln(Object... arguments) {
+		PascalOutput output = this.findStateNode.execute().getOutput();
 		for (Object agument : arguments) {
-            System.out.print(agument);
+            output.write(agument);
         }
 
-		System.out.println();
+		output.writeLine();
 	}
 
 }
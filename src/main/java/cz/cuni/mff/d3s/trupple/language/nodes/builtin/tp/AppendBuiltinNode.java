@@ -0,0 +1,31 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.TextFileValue;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
+
+/**
+ * Node representing Turbo Pascal's append procedure. It opens an existing text file for writing at its end.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link AppendBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "append")
+@NodeChild(value = "file", type = ExpressionNode.class)
+public abstract class AppendBuiltinNode extends StatementNode {
+
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
+    @Specialization
+    @TruffleBoundary
+    void append(TextFileValue file) {
+        file.openToAppend();
+        this.findStateNode.execute().registerOpenFile(file);
+    }
+
+}
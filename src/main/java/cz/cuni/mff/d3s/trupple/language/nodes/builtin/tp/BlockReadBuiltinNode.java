@@ -0,0 +1,40 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ArrayValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.BinaryFileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.RandomAccessNotSupportedException;
+
+/**
+ * Node representing Turbo Pascal's blockread procedure. It reads the specified number of elements of a typed file from its current position to the beginning of an array in one bulk operation.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link BlockReadBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "blockread")
+@NodeChildren({
+        @NodeChild(value = "file", type = ExpressionNode.class),
+        @NodeChild(value = "array", type = ExpressionNode.class),
+        @NodeChild(value = "count", type = ExpressionNode.class)
+})
+public abstract class BlockReadBuiltinNode extends StatementNode {
+
+    @Specialization
+    @TruffleBoundary
+    void blockRead(BinaryFileValue file, ArrayValue array, long count) {
+        file.readBlock(array, count);
+    }
+
+    @Specialization
+    void blockRead(FileValue file, ArrayValue array, long count) {
+        throw new RandomAccessNotSupportedException();
+    }
+
+}
@@ -0,0 +1,40 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ArrayValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.BinaryFileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.RandomAccessNotSupportedException;
+
+/**
+ * Node representing Turbo Pascal's blockwrite procedure. It writes the specified number of elements from the beginning of an array to the current position of a typed file in one bulk operation.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link BlockWriteBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "blockwrite")
+@NodeChildren({
+        @NodeChild(value = "file", type = ExpressionNode.class),
+        @NodeChild(value = "array", type = ExpressionNode.class),
+        @NodeChild(value = "count", type = ExpressionNode.class)
+})
+public abstract class BlockWriteBuiltinNode extends StatementNode {
+
+    @Specialization
+    @TruffleBoundary
+    void blockWrite(BinaryFileValue file, ArrayValue array, long count) {
+        file.writeBlock(array, count);
+    }
+
+    @Specialization
+    void blockWrite(FileValue file, ArrayValue array, long count) {
+        throw new RandomAccessNotSupportedException();
+    }
+
+}
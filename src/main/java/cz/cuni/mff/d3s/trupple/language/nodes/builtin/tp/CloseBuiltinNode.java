@@ -0,0 +1,32 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
+
+/**
+ * Node representing Turbo Pascal's close procedure. It writes the buffered content of a file and closes it. The file
+ * may be opened again by reset, rewrite or append.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link CloseBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "close")
+@NodeChild(value = "file", type = ExpressionNode.class)
+public abstract class CloseBuiltinNode extends StatementNode {
+
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
+    @Specialization
+    @TruffleBoundary
+    void close(FileValue file) {
+        this.findStateNode.execute().unregisterOpenFile(file);
+        file.close();
+    }
+
+}
@@ -0,0 +1,40 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadAllArgumentsNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
+
+/**
+ * Node representing Turbo Pascal's concat function. It receives any number of strings or characters and returns their
+ * concatenation. The arguments are received by {@link ReadAllArgumentsNode} and the resulting string is allocated only
+ * once.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link ConcatBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "concat")
+@NodeChild(value = "arguments", type = ReadAllArgumentsNode.class)
+public abstract class ConcatBuiltinNode extends ExpressionNode {
+
+    @Specialization
+    PascalString concat(Object[] arguments) {
+        PascalString[] strings = new PascalString[arguments.length];
+        for (int i = 0; i < arguments.length; ++i) {
+            strings[i] = (arguments[i] instanceof PascalString)?
+                    (PascalString) arguments[i] : new PascalString(String.valueOf((char) arguments[i]));
+        }
+
+        return PascalString.concatenate(strings);
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return StringDescriptor.getInstance();
+    }
+
+}
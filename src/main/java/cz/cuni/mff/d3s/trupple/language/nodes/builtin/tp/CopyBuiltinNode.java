@@ -0,0 +1,40 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
+
+/**
+ * Node representing Turbo Pascal's copy function. It returns the specified number of characters of a string starting
+ * at the specified index (indexed from 1). Indexes and counts out of the string's bounds are truncated to them.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link CopyBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "copy")
+@NodeChildren({
+        @NodeChild(value = "string", type = ExpressionNode.class),
+        @NodeChild(value = "index", type = ExpressionNode.class),
+        @NodeChild(value = "count", type = ExpressionNode.class)
+})
+public abstract class CopyBuiltinNode extends ExpressionNode {
+
+    @Specialization
+    PascalString copy(PascalString string, long index, long count) {
+        int begin = (int) Math.min(Math.max(index - 1, 0), string.getLength());
+        int end = (int) Math.max(Math.min(begin + count, string.getLength()), begin);
+
+        return string.substring(begin, end);
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return StringDescriptor.getInstance();
+    }
+
+}
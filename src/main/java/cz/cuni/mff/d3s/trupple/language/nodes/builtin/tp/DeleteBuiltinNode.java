@@ -0,0 +1,40 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.Reference;
+
+/**
+ * Node representing Turbo Pascal's delete procedure. It removes the specified number of characters from a string
+ * variable, which is passed by reference, starting at the specified index (indexed from 1). Nothing is removed if the
+ * index is out of the string's bounds.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link DeleteBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "delete")
+@NodeChildren({
+        @NodeChild(value = "target", type = ExpressionNode.class),
+        @NodeChild(value = "index", type = ExpressionNode.class),
+        @NodeChild(value = "count", type = ExpressionNode.class)
+})
+public abstract class DeleteBuiltinNode extends StatementNode {
+
+    @Specialization
+    void delete(Reference target, long index, long count) {
+        PascalString string = (PascalString) target.getValue();
+        if (index < 1 || index > string.getLength() || count <= 0) {
+            return;
+        }
+        int begin = (int) index - 1;
+        int end = (int) Math.min(begin + count, string.getLength());
+
+        target.setObject(string.replace(begin, end, new PascalString()));
+    }
+
+}
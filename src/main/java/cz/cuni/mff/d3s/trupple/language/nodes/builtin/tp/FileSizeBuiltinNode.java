@@ -0,0 +1,40 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.BinaryFileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.RandomAccessNotSupportedException;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+
+/**
+ * Node representing Turbo Pascal's filesize function. It returns number of elements of a typed file.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link FileSizeBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "filesize")
+@NodeChild(value = "file", type = ExpressionNode.class)
+public abstract class FileSizeBuiltinNode extends ExpressionNode {
+
+    @Specialization
+    @TruffleBoundary
+    int fileSize(BinaryFileValue file) {
+        return (int) file.getSize();
+    }
+
+    @Specialization
+    int fileSize(FileValue file) {
+        throw new RandomAccessNotSupportedException();
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return IntDescriptor.getInstance();
+    }
+
+}
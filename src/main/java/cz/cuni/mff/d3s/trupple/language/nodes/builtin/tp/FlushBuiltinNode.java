@@ -0,0 +1,28 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+
+/**
+ * Node representing Turbo Pascal's flush procedure. It writes the buffered content of a file while the file stays
+ * opened.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link FlushBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "flush")
+@NodeChild(value = "file", type = ExpressionNode.class)
+public abstract class FlushBuiltinNode extends StatementNode {
+
+    @Specialization
+    @TruffleBoundary
+    void flush(FileValue file) {
+        file.flush();
+    }
+
+}
@@ -0,0 +1,35 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.Reference;
+
+/**
+ * Node representing Turbo Pascal's insert procedure. It inserts a string into a string variable, which is passed by
+ * reference, at the specified index (indexed from 1).
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link InsertBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "insert")
+@NodeChildren({
+        @NodeChild(value = "source", type = ExpressionNode.class),
+        @NodeChild(value = "target", type = ExpressionNode.class),
+        @NodeChild(value = "index", type = ExpressionNode.class)
+})
+public abstract class InsertBuiltinNode extends StatementNode {
+
+    @Specialization
+    void insert(PascalString source, Reference target, long index) {
+        PascalString string = (PascalString) target.getValue();
+        int position = (int) Math.min(Math.max(index - 1, 0), string.getLength());
+
+        target.setObject(string.replace(position, position, source));
+    }
+
+}
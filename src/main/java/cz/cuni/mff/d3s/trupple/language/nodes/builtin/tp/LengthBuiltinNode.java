@@ -0,0 +1,31 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+
+/**
+ * Node representing Turbo Pascal's length function. It returns number of characters of the specified string.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link LengthBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "length")
+@NodeChild(value = "string", type = ExpressionNode.class)
+public abstract class LengthBuiltinNode extends ExpressionNode {
+
+    @Specialization
+    int length(PascalString string) {
+        return string.getLength();
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return IntDescriptor.getInstance();
+    }
+
+}
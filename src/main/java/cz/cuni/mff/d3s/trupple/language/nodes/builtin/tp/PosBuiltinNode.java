@@ -0,0 +1,36 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+
+/**
+ * Node representing Turbo Pascal's pos function. It returns index (indexed from 1) of the first occurrence of a
+ * substring in a string or 0 if the substring does not occur in it.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link PosBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "pos")
+@NodeChildren({
+        @NodeChild(value = "substring", type = ExpressionNode.class),
+        @NodeChild(value = "string", type = ExpressionNode.class)
+})
+public abstract class PosBuiltinNode extends ExpressionNode {
+
+    @Specialization
+    int pos(PascalString substring, PascalString string) {
+        return string.indexOf(substring) + 1;
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return IntDescriptor.getInstance();
+    }
+
+}
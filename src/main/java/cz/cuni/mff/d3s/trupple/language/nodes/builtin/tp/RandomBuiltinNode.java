@@ -4,10 +4,10 @@ import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
 
-import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing Turbo Pascal's random function. It returns a random value using specified upper bound.
@@ -19,9 +19,11 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescri
 @NodeChild(value = "argument", type = ExpressionNode.class)
 public abstract class RandomBuiltinNode extends ExpressionNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     @Specialization
 	int getRandom(int upperBound) {
-		return PascalLanguage.INSTANCE.getRandom(upperBound);
+		return this.findStateNode.execute().getRandom(upperBound);
 	}
 
     @Override
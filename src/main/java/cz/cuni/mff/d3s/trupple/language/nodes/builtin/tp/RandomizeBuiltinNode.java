@@ -2,18 +2,20 @@ package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
 
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.NodeInfo;
-import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing Turbo Pascal's randomize procedure. It resets actual random seed.
  */
 @NodeInfo(shortName = "randomize")
 public class RandomizeBuiltinNode extends StatementNode {
-	
+
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     @Override
     public void executeVoid(VirtualFrame frame) {
-        PascalLanguage.INSTANCE.randomize();
+        this.findStateNode.execute().randomize();
     }
 
 }
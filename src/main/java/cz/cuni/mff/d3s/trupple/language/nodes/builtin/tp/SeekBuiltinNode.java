@@ -0,0 +1,36 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.BinaryFileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.RandomAccessNotSupportedException;
+
+/**
+ * Node representing Turbo Pascal's seek procedure. It moves the current position of a typed file to the element with
+ * the specified index.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link SeekBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "seek")
+@NodeChildren({@NodeChild(value = "file", type = ExpressionNode.class), @NodeChild(value = "position", type = ExpressionNode.class)})
+public abstract class SeekBuiltinNode extends StatementNode {
+
+    @Specialization
+    @TruffleBoundary
+    void seek(BinaryFileValue file, long position) {
+        file.seek(position);
+    }
+
+    @Specialization
+    void seek(FileValue file, long position) {
+        throw new RandomAccessNotSupportedException();
+    }
+
+}
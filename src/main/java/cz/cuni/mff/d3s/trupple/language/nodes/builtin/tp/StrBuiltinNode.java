@@ -0,0 +1,47 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.Reference;
+
+/**
+ * Node representing Turbo Pascal's str procedure. It converts a number to its textual representation, which is the same
+ * as the one printed by write, and stores it into a string variable passed by reference.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link StrBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "str")
+@NodeChildren({
+        @NodeChild(value = "value", type = ExpressionNode.class),
+        @NodeChild(value = "target", type = ExpressionNode.class)
+})
+public abstract class StrBuiltinNode extends StatementNode {
+
+    @Specialization
+    void str(long value, Reference target) {
+        target.setObject(new PascalString(toString(value)));
+    }
+
+    @Specialization
+    void str(double value, Reference target) {
+        target.setObject(new PascalString(toString(value)));
+    }
+
+    @TruffleBoundary
+    private static String toString(long value) {
+        return Long.toString(value);
+    }
+
+    @TruffleBoundary
+    private static String toString(double value) {
+        return Double.toString(value);
+    }
+
+}
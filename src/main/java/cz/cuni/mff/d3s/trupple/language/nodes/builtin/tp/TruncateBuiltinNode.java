@@ -0,0 +1,35 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.BinaryFileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.RandomAccessNotSupportedException;
+
+/**
+ * Node representing Turbo Pascal's truncate procedure. It removes all elements of a typed file from its current
+ * position to its end.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link TruncateBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "truncate")
+@NodeChild(value = "file", type = ExpressionNode.class)
+public abstract class TruncateBuiltinNode extends StatementNode {
+
+    @Specialization
+    @TruffleBoundary
+    void truncate(BinaryFileValue file) {
+        file.truncate();
+    }
+
+    @Specialization
+    void truncate(FileValue file) {
+        throw new RandomAccessNotSupportedException();
+    }
+
+}
@@ -0,0 +1,108 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.Reference;
+
+/**
+ * Node representing Turbo Pascal's val procedure. It converts a string to a number of the type of the variable passed
+ * by reference as the second argument. The third argument, also passed by reference, is set to zero if the conversion
+ * succeeds or to the index (indexed from 1) of the first invalid character otherwise. In that case the target variable
+ * is not changed. Leading spaces are skipped.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link ValBuiltinNodeGen}
+ */
+@NodeInfo(shortName = "val")
+@NodeChildren({
+        @NodeChild(value = "source", type = ExpressionNode.class),
+        @NodeChild(value = "target", type = ExpressionNode.class),
+        @NodeChild(value = "code", type = ExpressionNode.class)
+})
+public abstract class ValBuiltinNode extends StatementNode {
+
+    @Specialization
+    void val(PascalString source, Reference target, Reference code) {
+        String text = source.toString();
+        boolean isReal = target.getKind() == FrameSlotKind.Double;
+        int end = scanNumber(text, isReal);
+
+        if (end == text.length() && end > 0) {
+            setCode(code, store(target, text)? 0 : 1);
+        } else {
+            setCode(code, end + 1);
+        }
+    }
+
+    /**
+     * Gets index of the first character of the text which is not part of a number.
+     */
+    private static int scanNumber(String text, boolean isReal) {
+        int i = 0;
+        while (i < text.length() && text.charAt(i) == ' ') {
+            ++i;
+        }
+        i = scanInteger(text, i);
+        if (isReal && i < text.length() && text.charAt(i) == '.') {
+            i = scanDigits(text, i + 1);
+        }
+        if (isReal && i < text.length() && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i = scanInteger(text, i + 1);
+        }
+
+        return i;
+    }
+
+    private static int scanInteger(String text, int i) {
+        if (i < text.length() && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+            ++i;
+        }
+        return scanDigits(text, i);
+    }
+
+    private static int scanDigits(String text, int i) {
+        while (i < text.length() && Character.isDigit(text.charAt(i))) {
+            ++i;
+        }
+        return i;
+    }
+
+    /**
+     * Stores the number into the target variable and returns false if it does not fit into the variable's type.
+     */
+    @TruffleBoundary
+    private static boolean store(Reference target, String text) {
+        text = text.trim();
+        try {
+            switch (target.getKind()) {
+                case Int:
+                    target.setInt(Integer.parseInt(text));
+                    break;
+                case Long:
+                    target.setLong(Long.parseLong(text));
+                    break;
+                default:
+                    target.setDouble(Double.parseDouble(text));
+            }
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static void setCode(Reference code, int value) {
+        if (code.getKind() == FrameSlotKind.Long) {
+            code.setLong(value);
+        } else {
+            code.setInt(value);
+        }
+    }
+
+}
@@ -36,7 +36,7 @@ public abstract class GetDateNode extends StatementNode {
     }
 
     private void setLongValue(Reference reference, long value) {
-        reference.getFromFrame().setLong(reference.getFrameSlot(), value);
+        reference.setLong(value);
     }
 
 }
@@ -35,7 +35,7 @@ public abstract class GetTimeNode extends StatementNode {
     }
 
     private void setLongValue(Reference reference, long value) {
-        reference.getFromFrame().setLong(reference.getFrameSlot(), value);
+        reference.setLong(value);
     }
 
 }
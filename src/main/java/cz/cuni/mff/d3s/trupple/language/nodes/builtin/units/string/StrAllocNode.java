@@ -6,10 +6,11 @@ import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PCharValue;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.heap.HeapSlot;
-import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.PointerDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.extension.PCharDesriptor;
+import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing strings' stralloc subroutine.
@@ -20,10 +21,18 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.extension.PCharDesr
 @NodeChild(type = ExpressionNode.class)
 public abstract class StrAllocNode extends ExpressionNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     @Specialization
     PointerValue strAlloc(long size) {
-        PCharValue pchar = new PCharValue(size);
-        HeapSlot heapSlot = PascalHeap.getInstance().allocateNewObject(pchar);
+        return allocate(this.findStateNode.execute().getHeap(), new PCharValue(size));
+    }
+
+    /**
+     * Stores the specified PChar string to the heap and returns pointer to it.
+     */
+    public static PointerValue allocate(PascalHeap heap, PCharValue pchar) {
+        HeapSlot heapSlot = heap.allocateNewObject(pchar);
         PointerValue pointer = new PointerValue(PCharDesriptor.getInstance());
         pointer.setHeapSlot(heapSlot);
 
@@ -0,0 +1,41 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PCharValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
+
+/**
+ * Node representing strings' strcomp subroutine. It compares lengths of two PChar strings and returns their difference.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link StrCompNodeGen}
+ */
+@NodeInfo(shortName = "strcomp")
+@NodeChildren({
+        @NodeChild(value = "left", type = ExpressionNode.class),
+        @NodeChild(value = "right", type = ExpressionNode.class)
+})
+public abstract class StrCompNode extends ExpressionNode {
+
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
+    @Specialization
+    int strComp(PointerValue left, PointerValue right) {
+        PascalHeap heap = this.findStateNode.execute().getHeap();
+        return ((PCharValue) left.getDereferenceValue(heap)).getLength() - ((PCharValue) right.getDereferenceValue(heap)).getLength();
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return IntDescriptor.getInstance();
+    }
+
+}
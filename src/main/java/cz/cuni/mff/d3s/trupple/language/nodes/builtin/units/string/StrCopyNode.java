@@ -0,0 +1,45 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PCharValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.PointerDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.extension.PCharDesriptor;
+import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
+
+/**
+ * Node representing strings' strcopy subroutine. It copies the source string to the destination string and returns the destination.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link StrCopyNodeGen}
+ */
+@NodeInfo(shortName = "strcopy")
+@NodeChildren({
+        @NodeChild(value = "left", type = ExpressionNode.class),
+        @NodeChild(value = "right", type = ExpressionNode.class)
+})
+public abstract class StrCopyNode extends ExpressionNode {
+
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
+    @Specialization
+    PointerValue strCopy(PointerValue destination, PointerValue source) {
+        PascalHeap heap = this.findStateNode.execute().getHeap();
+        PCharValue value = (PCharValue) source.getDereferenceValue(heap);
+        ((PCharValue) destination.getDereferenceValue(heap)).assign(value);
+
+        return destination;
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return new PointerDescriptor(PCharDesriptor.getInstance());
+    }
+
+}
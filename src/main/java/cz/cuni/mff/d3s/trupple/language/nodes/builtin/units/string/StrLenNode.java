@@ -0,0 +1,35 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PCharValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
+
+/**
+ * Node representing strings' strlen subroutine. It returns number of characters preceding the null terminator.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link StrLenNodeGen}
+ */
+@NodeInfo(shortName = "strlen")
+@NodeChild(value = "string", type = ExpressionNode.class)
+public abstract class StrLenNode extends ExpressionNode {
+
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
+    @Specialization
+    int strLen(PointerValue string) {
+        return ((PCharValue) string.getDereferenceValue(this.findStateNode.execute().getHeap())).getLength();
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return IntDescriptor.getInstance();
+    }
+
+}
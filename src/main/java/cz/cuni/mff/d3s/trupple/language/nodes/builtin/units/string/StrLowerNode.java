@@ -0,0 +1,42 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PCharValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.PointerDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.extension.PCharDesriptor;
+import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
+
+/**
+ * Node representing strings' strlower subroutine. It returns a new string containing the specified string converted to lower case.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link StrLowerNodeGen}
+ */
+@NodeInfo(shortName = "strlower")
+@NodeChild(value = "string", type = ExpressionNode.class)
+public abstract class StrLowerNode extends ExpressionNode {
+
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
+    @Specialization
+    PointerValue strLower(PointerValue string) {
+        PascalHeap heap = this.findStateNode.execute().getHeap();
+        String value = ((PCharValue) string.getDereferenceValue(heap)).getString();
+        PCharValue result = new PCharValue();
+        result.assignString(value.toLowerCase());
+
+        return StrAllocNode.allocate(heap, result);
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return new PointerDescriptor(PCharDesriptor.getInstance());
+    }
+
+}
@@ -0,0 +1,53 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PCharValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.PointerDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.extension.PCharDesriptor;
+import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
+
+/**
+ * Node representing strings' strpos subroutine. It looks for the first occurrence of the right string in the left string and returns a new string containing the rest of the left string starting with the occurrence or nil if there is none.
+ * Unlike Turbo Pascal, the result is not a pointer into the left string: it is a copy allocated on the heap, so writes
+ * through it do not change the left string and the caller has to free it by dispose, otherwise its heap slot is never
+ * released.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link StrPosNodeGen}
+ */
+@NodeInfo(shortName = "strpos")
+@NodeChildren({
+        @NodeChild(value = "left", type = ExpressionNode.class),
+        @NodeChild(value = "right", type = ExpressionNode.class)
+})
+public abstract class StrPosNode extends ExpressionNode {
+
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
+    @Specialization
+    PointerValue strPos(PointerValue string, PointerValue substring) {
+        PascalHeap heap = this.findStateNode.execute().getHeap();
+        String value = ((PCharValue) string.getDereferenceValue(heap)).getString();
+        int index = value.indexOf(((PCharValue) substring.getDereferenceValue(heap)).getString());
+        if (index == -1) {
+            return new PointerValue(PCharDesriptor.getInstance());
+        }
+
+        PCharValue result = new PCharValue();
+        result.assignString(value.substring(index));
+        return StrAllocNode.allocate(heap, result);
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return new PointerDescriptor(PCharDesriptor.getInstance());
+    }
+
+}
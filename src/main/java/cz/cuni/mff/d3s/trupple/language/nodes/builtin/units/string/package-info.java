@@ -1,5 +1,6 @@
 /**
  * Package containing nodes representing subroutines from Turbo Pascal's strings unit. Not all the subroutines are currently
- * implemented. Some of the subroutines are implemented in a standalone Pascal unit.
+ * implemented. The implemented subroutines are registered in
+ * {@link cz.cuni.mff.d3s.trupple.language.builtinunits.StringBuiltinUnit} and imported by the standalone Pascal unit.
  */
-package cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string;
\ No newline at end of file
+package cz.cuni.mff.d3s.trupple.language.nodes.builtin.units.string;
@@ -0,0 +1,70 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.call;
+
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import com.oracle.truffle.api.nodes.DirectCallNode;
+import com.oracle.truffle.api.nodes.IndirectCallNode;
+import com.oracle.truffle.api.nodes.Node;
+import cz.cuni.mff.d3s.trupple.language.nodes.root.PascalRootNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalSubroutine;
+
+/**
+ * Node that performs the actual call of a subroutine for {@link InvokeNode} and {@link UnitInvokeNode}. It keeps an
+ * inline cache of {@link DirectCallNode}s keyed by the subroutine's call target, so calls of the same subroutine can be
+ * inlined and split by the compiler. If more than {@link DispatchNode#INLINE_CACHE_SIZE} different subroutines are
+ * called from one place (e.g.: through a subroutine-type parameter), the node falls back to an {@link IndirectCallNode}.
+ *
+ * The node also sets the first argument of the call to the materialized frame of the subroutine's lexical parent, if
+ * the subroutine uses it (see {@link PascalRootNode#usesParentFrame()}).
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link DispatchNodeGen}
+ */
+public abstract class DispatchNode extends Node {
+
+    public static final int INLINE_CACHE_SIZE = 3;
+
+    /**
+     * Calls the specified subroutine.
+     * @param subroutineFrame frame of the scope in which the subroutine is declared
+     * @param subroutine the subroutine to be called
+     * @param arguments evaluated arguments of the subroutine with the first item reserved for its parent frame
+     * @return the subroutine's return value
+     */
+    public abstract Object executeDispatch(Frame subroutineFrame, PascalSubroutine subroutine, Object[] arguments);
+
+    @Specialization(guards = "subroutine.getCallTarget() == cachedCallTarget", limit = "INLINE_CACHE_SIZE")
+    Object callDirect(Frame subroutineFrame, PascalSubroutine subroutine, Object[] arguments,
+                      @Cached("subroutine.getCallTarget()") RootCallTarget cachedCallTarget,
+                      @Cached("usesParentFrame(cachedCallTarget)") boolean usesParentFrame,
+                      @Cached("create(cachedCallTarget)") DirectCallNode callNode) {
+        arguments[0] = getStaticLink(subroutineFrame, subroutine, usesParentFrame);
+        return callNode.call(arguments);
+    }
+
+    @Specialization(replaces = "callDirect")
+    Object callIndirect(Frame subroutineFrame, PascalSubroutine subroutine, Object[] arguments,
+                        @Cached("create()") IndirectCallNode callNode) {
+        RootCallTarget callTarget = subroutine.getCallTarget();
+        arguments[0] = getStaticLink(subroutineFrame, subroutine, usesParentFrame(callTarget));
+        return callNode.call(callTarget, arguments);
+    }
+
+    protected static boolean usesParentFrame(RootCallTarget callTarget) {
+        return ((PascalRootNode) callTarget.getRootNode()).usesParentFrame();
+    }
+
+    private static MaterializedFrame getStaticLink(Frame subroutineFrame, PascalSubroutine subroutine, boolean usesParentFrame) {
+        if (subroutine.getEnclosingFrame() != null) {
+            return subroutine.getEnclosingFrame();
+        } else if (usesParentFrame) {
+            return subroutineFrame.materialize();
+        } else {
+            return null;
+        }
+    }
+
+}
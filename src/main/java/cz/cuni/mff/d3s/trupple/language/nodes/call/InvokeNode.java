@@ -1,7 +1,7 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.call;
 
-import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
 import com.oracle.truffle.api.nodes.ExplodeLoop;
@@ -13,7 +13,11 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 
 /**
  * Node representing invocation of a subroutine. Subroutines are stored in frame belonging to the scope where the subroutine
- * was defined.
+ * was defined. The number of scopes between the current scope and that scope is resolved at parse time. The frame of
+ * that scope is materialized and passed to the subroutine as its first argument, so each frame holds the frame of its
+ * lexical parent. This is done only if the subroutine or some of its nested subroutines accesses the parent's frame,
+ * otherwise null is passed and the caller's frame does not escape. Subroutines passed as values hold their parent
+ * frame themselves. The call itself is done by {@link DispatchNode}, which caches the called subroutines.
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link InvokeNodeGen}
@@ -22,25 +26,26 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 public abstract class InvokeNode extends ExpressionNode {
 
     private final FrameSlot subroutineSlot;
+    private final int depth;
     private final TypeDescriptor type;
     @Children private final ExpressionNode[] argumentNodes;
-    @CompilerDirectives.CompilationFinal private PascalSubroutine subroutine;
+    @Child private DispatchNode dispatchNode;
 
-	InvokeNode(FrameSlot subroutineSlot, ExpressionNode[] argumentNodes, TypeDescriptor type) {
+	InvokeNode(FrameSlot subroutineSlot, int depth, ExpressionNode[] argumentNodes, TypeDescriptor type) {
 		this.subroutineSlot = subroutineSlot;
+		this.depth = depth;
 	    this.argumentNodes = argumentNodes;
 	    this.type = type;
+	    this.dispatchNode = DispatchNodeGen.create();
 	}
 
 	@Specialization
 	Object invoke(VirtualFrame frame) {
-	    if (subroutine == null) {
-	        CompilerDirectives.transferToInterpreterAndInvalidate();
-	        subroutine = this.getMySubroutine(frame);
-        }
+	    Frame subroutineFrame = getParentFrame(frame, this.depth);
+	    PascalSubroutine subroutine = (PascalSubroutine) subroutineFrame.getValue(this.subroutineSlot);
         Object[] argumentValues = this.evaluateArguments(frame);
 
-        return subroutine.getCallTarget().call(argumentValues);
+        return this.dispatchNode.executeDispatch(subroutineFrame, subroutine, argumentValues);
 	}
 
 	@Override
@@ -48,15 +53,9 @@ public abstract class InvokeNode extends ExpressionNode {
 	    return this.type;
     }
 
-    private PascalSubroutine getMySubroutine(VirtualFrame frame) {
-	    VirtualFrame frameContainingSubroutine = this.getFrameContainingSlot(frame, this.subroutineSlot);
-        return (PascalSubroutine) frameContainingSubroutine.getValue(this.subroutineSlot);
-    }
-
     @ExplodeLoop
     private Object[] evaluateArguments(VirtualFrame frame) {
         Object[] argumentValues = new Object[argumentNodes.length + 1];
-        argumentValues[0] = frame;
         for (int i = 0; i < argumentNodes.length; i++) {
             argumentValues[i+1] = argumentNodes[i].executeGeneric(frame);
         }
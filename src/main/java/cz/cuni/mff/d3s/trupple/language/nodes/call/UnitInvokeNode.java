@@ -2,7 +2,9 @@ package cz.cuni.mff.d3s.trupple.language.nodes.call;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalSubroutine;
@@ -10,7 +12,7 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 
 /**
  * Node representing invocation of a subroutine from unit. Subroutines defined in units are not stored in any frame but
- * are accessible from {@link PascalLanguage#getSubroutine(String, String)}. Invocation of a subroutine from main Pascal
+ * are accessible from {@link cz.cuni.mff.d3s.trupple.language.PascalState#getSubroutine(String, String)}. Invocation of a subroutine from main Pascal
  * source is represented by node {@link InvokeNode}.
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
@@ -22,14 +24,16 @@ public abstract class UnitInvokeNode extends ExpressionNode {
     private final String unitIdentifier;
     private final TypeDescriptor returnType;
     @CompilerDirectives.CompilationFinal private PascalSubroutine subroutine;
-    @CompilerDirectives.CompilationFinal private VirtualFrame unitFrame;
+    @CompilerDirectives.CompilationFinal private MaterializedFrame unitFrame;
     @Children private final ExpressionNode[] argumentNodes;
+    @Child private DispatchNode dispatchNode;
 
     protected UnitInvokeNode(String identifier, String unitIdentifier, ExpressionNode[] argumentNodes, TypeDescriptor returnType) {
         this.subroutineIdentifier = identifier;
         this.unitIdentifier = unitIdentifier;
         this.argumentNodes = argumentNodes;
         this.returnType = returnType;
+        this.dispatchNode = DispatchNodeGen.create();
     }
 
     @Override
@@ -45,20 +49,20 @@ public abstract class UnitInvokeNode extends ExpressionNode {
             unitFrame = this.getUnitFrame();
         }
         Object[] argumentValues = this.evaluateArguments(frame);
-        return this.subroutine.getCallTarget().call(argumentValues);
+        return this.dispatchNode.executeDispatch(this.unitFrame, this.subroutine, argumentValues);
     }
 
     private PascalSubroutine getSubroutine() {
-        return PascalLanguage.INSTANCE.getSubroutine(this.unitIdentifier, this.subroutineIdentifier);
+        return PascalLanguage.INSTANCE.getCurrentState().getSubroutine(this.unitIdentifier, this.subroutineIdentifier);
     }
 
-    private VirtualFrame getUnitFrame() {
-        return PascalLanguage.INSTANCE.getUnitFrame(this.unitIdentifier);
+    private MaterializedFrame getUnitFrame() {
+        return PascalLanguage.INSTANCE.getCurrentState().getUnitFrame(this.unitIdentifier);
     }
 
+    @ExplodeLoop
     private Object[] evaluateArguments(VirtualFrame frame) {
         Object[] argumentValues = new Object[argumentNodes.length + 1];
-        argumentValues[0] = unitFrame;
         for (int i = 0; i < argumentNodes.length; i++) {
             argumentValues[i+1] = argumentNodes[i].executeGeneric(frame);
         }
@@ -1,168 +1,232 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.control;
 
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.LoopNode;
+import com.oracle.truffle.api.nodes.Node;
 import com.oracle.truffle.api.nodes.NodeInfo;
-import com.oracle.truffle.api.nodes.UnexpectedResultException;
+import com.oracle.truffle.api.nodes.RepeatingNode;
+import com.oracle.truffle.api.profiles.LoopConditionProfile;
 
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.BreakExceptionTP;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.PascalRuntimeException;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.EnumValue;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
-import cz.cuni.mff.d3s.trupple.language.nodes.logic.LessThanNodeGen;
-import cz.cuni.mff.d3s.trupple.language.nodes.logic.LessThanOrEqualNodeGen;
-import cz.cuni.mff.d3s.trupple.language.nodes.logic.NotNodeGen;
 import cz.cuni.mff.d3s.trupple.language.nodes.variables.write.SimpleAssignmentNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.UnexpectedRuntimeException;
 
 /**
- * Node representing for cycle.
+ * Node representing Pascal's for loop. The final value is evaluated only once, before the control variable is
+ * initialized, and is stored in a hidden frame slot so the loop stays reentrant. The loop itself is executed by
+ * Truffle's {@link LoopNode} using a repeating node specialized for the type of the control variable, so it gets loop
+ * count profiling and on stack replacement like the other loops.
  */
-@NodeInfo(shortName = "for")
+@NodeInfo(shortName = "for", description = "The node implementing a for loop")
 public class ForNode extends StatementNode {
 
-    private interface ControlInterface {
+    private static abstract class ForRepeatingNode extends Node implements RepeatingNode {
 
-        void increaseControlVariable() throws FrameSlotTypeException;
+        final boolean ascending;
+        final FrameSlot controlSlot;
+        final FrameSlot finalValueSlot;
+        @Child
+        private StatementNode body;
 
-        void decreaseControlVariable() throws FrameSlotTypeException;
-    }
+        private final LoopConditionProfile conditionProfile = LoopConditionProfile.createCountingProfile();
 
-    private final boolean ascending;
-    private final FrameSlot controlSlot;
-    @Child
-    private SimpleAssignmentNode assignment;
-    @Child
-    private StatementNode body;
-    @Child
-    private ExpressionNode hasEndedNode;
+        ForRepeatingNode(boolean ascending, FrameSlot controlSlot, FrameSlot finalValueSlot, StatementNode body) {
+            this.ascending = ascending;
+            this.controlSlot = controlSlot;
+            this.finalValueSlot = finalValueSlot;
+            this.body = body;
+        }
 
-    public ForNode(boolean ascending, SimpleAssignmentNode assignment, FrameSlot controlSlot, ExpressionNode finalValue,
-                   ExpressionNode readControlVariableNode, StatementNode body) {
-        this.ascending = ascending;
-        this.assignment = assignment;
-        this.controlSlot = controlSlot;
-        this.body = body;
-        this.hasEndedNode = (ascending)?
-                LessThanOrEqualNodeGen.create(readControlVariableNode, finalValue)
-                :
-                NotNodeGen.create(LessThanNodeGen.create(readControlVariableNode, finalValue));
+        @Override
+        public boolean executeRepeating(VirtualFrame frame) {
+            try {
+                if (!conditionProfile.profile(this.hasNotEnded(frame))) {
+                    return false;
+                }
+                try {
+                    body.executeVoid(frame);
+                } catch (BreakExceptionTP e) {
+                    return false;
+                }
+                return this.step(frame);
+            } catch (FrameSlotTypeException e) {
+                throw new UnexpectedRuntimeException();
+            }
+        }
+
+        /**
+         * Stores the evaluated final value of the loop to the hidden slot.
+         */
+        abstract void setFinalValue(VirtualFrame frame, Object finalValue);
+
+        /**
+         * Checks whether the control variable has not yet passed the final value.
+         */
+        abstract boolean hasNotEnded(VirtualFrame frame) throws FrameSlotTypeException;
+
+        /**
+         * Moves the control variable to the next value.
+         * @return false if the loop shall not continue
+         */
+        abstract boolean step(VirtualFrame frame) throws FrameSlotTypeException;
     }
 
-    @Override
-    public void executeVoid(VirtualFrame frame) {
-        try {
-            ControlInterface controlInterface = null;
-
-            switch (controlSlot.getKind()) {
-                case Int:
-                    controlInterface = this.createIntControlInterface(frame);
-                    break;
-                case Long:
-                    controlInterface = this.createLongControlInterface(frame);
-                    break;
-                case Byte:
-                    controlInterface = this.createCharControlInterface(frame);
-                    break;
-                case Object:
-                    Object controlValue = frame.getObject(controlSlot);
-                    if (controlValue instanceof EnumValue) {
-                        controlInterface = this.createEnumControlInterface(frame);
-                        break;
-                    } else {
-                        throw new PascalRuntimeException("Unsupported control variable type");
-                    }
-            }
+    private static class IntForRepeatingNode extends ForRepeatingNode {
 
-            this.execute(frame, controlInterface, ascending);
-        } catch (FrameSlotTypeException | UnexpectedResultException e) {
-            throw new PascalRuntimeException("Something went wrong.");
+        IntForRepeatingNode(boolean ascending, FrameSlot controlSlot, FrameSlot finalValueSlot, StatementNode body) {
+            super(ascending, controlSlot, finalValueSlot, body);
         }
-    }
 
-    private void execute(VirtualFrame frame, ControlInterface control, boolean ascending) throws FrameSlotTypeException, UnexpectedResultException {
-        this.assignment.executeVoid(frame);
-        // TODO: check if it should even start
-        while (this.hasEndedNode.executeBoolean(frame)) {
-            body.executeVoid(frame);
-            if (ascending) {
-                control.increaseControlVariable();
-            } else {
-                control.decreaseControlVariable();
-            }
+        @Override
+        void setFinalValue(VirtualFrame frame, Object finalValue) {
+            frame.setInt(finalValueSlot, ((Number) finalValue).intValue());
+        }
+
+        @Override
+        boolean hasNotEnded(VirtualFrame frame) throws FrameSlotTypeException {
+            int controlValue = frame.getInt(controlSlot);
+            int finalValue = frame.getInt(finalValueSlot);
+            return (ascending)? controlValue <= finalValue : controlValue >= finalValue;
+        }
+
+        @Override
+        boolean step(VirtualFrame frame) throws FrameSlotTypeException {
+            frame.setInt(controlSlot, frame.getInt(controlSlot) + ((ascending)? 1 : -1));
+            return true;
         }
     }
 
-    private ControlInterface createIntControlInterface(VirtualFrame frame) {
+    private static class LongForRepeatingNode extends ForRepeatingNode {
 
-        return new ControlInterface() {
+        LongForRepeatingNode(boolean ascending, FrameSlot controlSlot, FrameSlot finalValueSlot, StatementNode body) {
+            super(ascending, controlSlot, finalValueSlot, body);
+        }
 
-            @Override
-            public void increaseControlVariable() throws FrameSlotTypeException {
-                int controlValue = frame.getInt(controlSlot);
-                frame.setInt(controlSlot, ++controlValue);
-            }
+        @Override
+        void setFinalValue(VirtualFrame frame, Object finalValue) {
+            frame.setLong(finalValueSlot, ((Number) finalValue).longValue());
+        }
 
-            @Override
-            public void decreaseControlVariable() throws FrameSlotTypeException {
-                int controlValue = frame.getInt(controlSlot);
-                frame.setInt(controlSlot, --controlValue);
-            }
-        };
+        @Override
+        boolean hasNotEnded(VirtualFrame frame) throws FrameSlotTypeException {
+            long controlValue = frame.getLong(controlSlot);
+            long finalValue = frame.getLong(finalValueSlot);
+            return (ascending)? controlValue <= finalValue : controlValue >= finalValue;
+        }
 
+        @Override
+        boolean step(VirtualFrame frame) throws FrameSlotTypeException {
+            frame.setLong(controlSlot, frame.getLong(controlSlot) + ((ascending)? 1 : -1));
+            return true;
+        }
     }
 
-    private ControlInterface createLongControlInterface(VirtualFrame frame) {
+    private static class CharForRepeatingNode extends ForRepeatingNode {
+
+        CharForRepeatingNode(boolean ascending, FrameSlot controlSlot, FrameSlot finalValueSlot, StatementNode body) {
+            super(ascending, controlSlot, finalValueSlot, body);
+        }
 
-        return new ControlInterface() {
+        @Override
+        void setFinalValue(VirtualFrame frame, Object finalValue) {
+            frame.setByte(finalValueSlot, (byte) (char) finalValue);
+        }
 
-            @Override
-            public void increaseControlVariable() throws FrameSlotTypeException {
-                long controlValue = frame.getLong(controlSlot);
-                frame.setLong(controlSlot, ++controlValue);
-            }
+        @Override
+        boolean hasNotEnded(VirtualFrame frame) throws FrameSlotTypeException {
+            char controlValue = (char) frame.getByte(controlSlot);
+            char finalValue = (char) frame.getByte(finalValueSlot);
+            return (ascending)? controlValue <= finalValue : controlValue >= finalValue;
+        }
 
-            @Override
-            public void decreaseControlVariable() throws FrameSlotTypeException {
-                long controlValue = frame.getLong(controlSlot);
-                frame.setLong(controlSlot, --controlValue);
-            }
-        };
+        @Override
+        boolean step(VirtualFrame frame) throws FrameSlotTypeException {
+            char controlValue = (char) frame.getByte(controlSlot);
+            frame.setByte(controlSlot, (byte) ((ascending)? ++controlValue : --controlValue));
+            return true;
+        }
     }
 
-    private ControlInterface createCharControlInterface(VirtualFrame frame) {
+    /**
+     * Enum values have no successor of the last value, so this loop stops on the final value instead of stepping over
+     * it.
+     */
+    private static class EnumForRepeatingNode extends ForRepeatingNode {
+
+        EnumForRepeatingNode(boolean ascending, FrameSlot controlSlot, FrameSlot finalValueSlot, StatementNode body) {
+            super(ascending, controlSlot, finalValueSlot, body);
+        }
 
-        return new ControlInterface() {
+        @Override
+        void setFinalValue(VirtualFrame frame, Object finalValue) {
+            frame.setObject(finalValueSlot, finalValue);
+        }
 
-            @Override
-            public void increaseControlVariable() throws FrameSlotTypeException {
-                char controlValue = (char)frame.getByte(controlSlot);
-                frame.setByte(controlSlot, (byte)++controlValue);
-            }
+        @Override
+        boolean hasNotEnded(VirtualFrame frame) throws FrameSlotTypeException {
+            long controlValue = ((EnumValue) frame.getObject(controlSlot)).getOrdinalValue();
+            long finalValue = ((EnumValue) frame.getObject(finalValueSlot)).getOrdinalValue();
+            return (ascending)? controlValue <= finalValue : controlValue >= finalValue;
+        }
 
-            @Override
-            public void decreaseControlVariable() throws FrameSlotTypeException {
-                char controlValue = (char)frame.getByte(controlSlot);
-                frame.setByte(controlSlot, (byte)--controlValue);
+        @Override
+        boolean step(VirtualFrame frame) throws FrameSlotTypeException {
+            EnumValue controlValue = (EnumValue) frame.getObject(controlSlot);
+            if (controlValue.equals(frame.getObject(finalValueSlot))) {
+                return false;
             }
-        };
+            frame.setObject(controlSlot, (ascending)? controlValue.getNext() : controlValue.getPrevious());
+            return true;
+        }
     }
 
-    private ControlInterface createEnumControlInterface(VirtualFrame frame) {
-
-        return new ControlInterface() {
+    @Child
+    private SimpleAssignmentNode assignment;
+    @Child
+    private ExpressionNode finalValue;
+    @Child
+    private LoopNode loopNode;
+
+    /**
+     * The default constructor.
+     * @param ascending true for the <i>to</i> loop, false for the <i>downto</i> loop
+     * @param assignment assignment of the initial value to the control variable
+     * @param controlSlot slot of the control variable
+     * @param finalValueSlot hidden slot in which the final value is stored during the loop's execution
+     * @param finalValue expression of the final value
+     * @param body the loop's body
+     */
+    public ForNode(boolean ascending, SimpleAssignmentNode assignment, FrameSlot controlSlot, FrameSlot finalValueSlot,
+                   ExpressionNode finalValue, StatementNode body) {
+        this.assignment = assignment;
+        this.finalValue = finalValue;
+        this.loopNode = Truffle.getRuntime().createLoopNode(createRepeatingNode(ascending, controlSlot, finalValueSlot, body));
+    }
 
-            @Override
-            public void increaseControlVariable() throws FrameSlotTypeException {
-                EnumValue controlValue = (EnumValue) frame.getObject(controlSlot);
-                frame.setObject(controlSlot, controlValue.getNext());
-            }
+    private static ForRepeatingNode createRepeatingNode(boolean ascending, FrameSlot controlSlot, FrameSlot finalValueSlot,
+                                                        StatementNode body) {
+        switch (controlSlot.getKind()) {
+            case Int: return new IntForRepeatingNode(ascending, controlSlot, finalValueSlot, body);
+            case Long: return new LongForRepeatingNode(ascending, controlSlot, finalValueSlot, body);
+            case Byte: return new CharForRepeatingNode(ascending, controlSlot, finalValueSlot, body);
+            case Object: return new EnumForRepeatingNode(ascending, controlSlot, finalValueSlot, body);
+            default: throw new PascalRuntimeException("Unsupported control variable type");
+        }
+    }
 
-            @Override
-            public void decreaseControlVariable() throws FrameSlotTypeException {
-                EnumValue controlValue = (EnumValue) frame.getObject(controlSlot);
-                frame.setObject(controlSlot, controlValue.getNext());
-            }
-        };
+    @Override
+    public void executeVoid(VirtualFrame frame) {
+        ForRepeatingNode repeatingNode = (ForRepeatingNode) this.loopNode.getRepeatingNode();
+        repeatingNode.setFinalValue(frame, this.finalValue.executeGeneric(frame));
+        this.assignment.executeVoid(frame);
+        this.loopNode.executeLoop(frame);
     }
-}
\ No newline at end of file
+
+}
@@ -6,18 +6,19 @@ import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.GotoException;
 
 /**
  * Node representing goto statement. To see how the goto statements are implemented please see the programming documentation.
+ * The thrown exception is created only once because it does not capture a stack trace.
  */
 public class GotoNode extends StatementNode {
 
-    private final String labelIdentifier;
+    private final GotoException gotoException;
 
-    public GotoNode(String labelIdentifier) {
-        this.labelIdentifier = labelIdentifier;
+    public GotoNode(int labelId) {
+        this.gotoException = new GotoException(labelId);
     }
 
     @Override
     public void executeVoid(VirtualFrame frame) {
-        throw new GotoException(this.labelIdentifier);
+        throw this.gotoException;
     }
 
 }
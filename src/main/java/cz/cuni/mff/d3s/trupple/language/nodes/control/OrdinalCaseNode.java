@@ -0,0 +1,199 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.control;
+
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.NodeInfo;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.EnumValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.UnexpectedRuntimeException;
+
+import java.util.Arrays;
+
+/**
+ * Node representing case statement whose selector is of an ordinal type and whose labels are all constants. Ordinal
+ * values of the labels are computed at parse time, so the selector is never compared against boxed label values.
+ * Statements with only a few arms are compiled into a chain of comparisons, labels which form a dense range are
+ * looked up in a table indexed directly by the selector and the sparse ones are binary searched. Case statements
+ * which do not meet these conditions are represented by {@link CaseNode}.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link OrdinalCaseNodeGen}
+ */
+@NodeInfo(shortName = "case")
+@NodeChild(value = "selector", type = ExpressionNode.class)
+public abstract class OrdinalCaseNode extends StatementNode {
+
+    /**
+     * Maximal number of arms for which the labels are compared one by one.
+     */
+    private static final int LINEAR_LOOKUP_LIMIT = 8;
+
+    /**
+     * Maximal ratio of the labels' range to the number of labels for which the direct indexing table is created.
+     */
+    private static final int DENSITY_FACTOR = 4;
+
+    private static final int NO_ARM = -1;
+
+    @CompilationFinal(dimensions = 1) private final long[] labels;
+    @CompilationFinal(dimensions = 1) private final long[] sortedLabels;
+    @CompilationFinal(dimensions = 1) private final int[] sortedArms;
+    @CompilationFinal(dimensions = 1) private final int[] denseTable;
+    private final long denseOffset;
+
+    @Children private final StatementNode[] caseStatements;
+    @Child private StatementNode elseBranch;
+
+    /**
+     * The default constructor.
+     * @param labels ordinal values of the case labels (see {@link OrdinalCaseNode#getOrdinalValue(Object)})
+     * @param caseStatements statements of the arms in the same order as their labels
+     * @param elseBranch statement of the else branch, may be null
+     */
+    OrdinalCaseNode(long[] labels, StatementNode[] caseStatements, StatementNode elseBranch) {
+        this.labels = labels;
+        this.caseStatements = caseStatements;
+        this.elseBranch = elseBranch;
+
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long label : labels) {
+            min = Math.min(min, label);
+            max = Math.max(max, label);
+        }
+        long range = max - min + 1;
+
+        if (labels.length <= LINEAR_LOOKUP_LIMIT) {
+            this.denseTable = null;
+            this.denseOffset = 0;
+            this.sortedLabels = null;
+            this.sortedArms = null;
+        } else if (range > 0 && range <= (long) DENSITY_FACTOR * labels.length) {
+            this.denseTable = createDenseTable(labels, min, (int) range);
+            this.denseOffset = min;
+            this.sortedLabels = null;
+            this.sortedArms = null;
+        } else {
+            this.denseTable = null;
+            this.denseOffset = 0;
+            this.sortedLabels = createSortedLabels(labels);
+            this.sortedArms = createSortedArms(labels, this.sortedLabels);
+        }
+    }
+
+    private static int[] createDenseTable(long[] labels, long offset, int range) {
+        int[] table = new int[range];
+        Arrays.fill(table, NO_ARM);
+        for (int arm = labels.length - 1; arm >= 0; --arm) {
+            table[(int) (labels[arm] - offset)] = arm;
+        }
+
+        return table;
+    }
+
+    private static long[] createSortedLabels(long[] labels) {
+        return Arrays.stream(labels).sorted().distinct().toArray();
+    }
+
+    private static int[] createSortedArms(long[] labels, long[] sortedLabels) {
+        int[] arms = new int[sortedLabels.length];
+        Arrays.fill(arms, NO_ARM);
+        for (int arm = 0; arm < labels.length; ++arm) {
+            int index = Arrays.binarySearch(sortedLabels, labels[arm]);
+            if (arms[index] == NO_ARM) {
+                arms[index] = arm;
+            }
+        }
+
+        return arms;
+    }
+
+    /**
+     * Gets the value by which a constant of an ordinal type is represented in the lookup tables.
+     */
+    public static long getOrdinalValue(Object value) {
+        if (value instanceof Integer || value instanceof Long) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Character) {
+            return (char) value;
+        } else if (value instanceof Boolean) {
+            return ((boolean) value)? 1 : 0;
+        } else if (value instanceof EnumValue) {
+            return ((EnumValue) value).getOrdinalValue();
+        } else {
+            throw new UnexpectedRuntimeException();
+        }
+    }
+
+    @Specialization
+    void caseLong(VirtualFrame frame, long value) {
+        this.dispatch(frame, value);
+    }
+
+    @Specialization
+    void caseChar(VirtualFrame frame, char value) {
+        this.dispatch(frame, value);
+    }
+
+    @Specialization
+    void caseBoolean(VirtualFrame frame, boolean value) {
+        this.dispatch(frame, (value)? 1 : 0);
+    }
+
+    @Specialization
+    void caseEnum(VirtualFrame frame, EnumValue value) {
+        this.dispatch(frame, value.getOrdinalValue());
+    }
+
+    private void dispatch(VirtualFrame frame, long value) {
+        if (this.labels.length <= LINEAR_LOOKUP_LIMIT) {
+            this.executeLinear(frame, value);
+        } else {
+            this.executeArm(frame, this.findArm(value));
+        }
+    }
+
+    @ExplodeLoop
+    private void executeLinear(VirtualFrame frame, long value) {
+        for (int arm = 0; arm < this.labels.length; ++arm) {
+            if (this.labels[arm] == value) {
+                this.caseStatements[arm].executeVoid(frame);
+                return;
+            }
+        }
+        this.executeElse(frame);
+    }
+
+    private int findArm(long value) {
+        if (this.denseTable != null) {
+            long index = value - this.denseOffset;
+            return (index >= 0 && index < this.denseTable.length)? this.denseTable[(int) index] : NO_ARM;
+        } else {
+            int index = Arrays.binarySearch(this.sortedLabels, value);
+            return (index >= 0)? this.sortedArms[index] : NO_ARM;
+        }
+    }
+
+    @ExplodeLoop
+    private void executeArm(VirtualFrame frame, int armIndex) {
+        for (int arm = 0; arm < this.caseStatements.length; ++arm) {
+            if (arm == armIndex) {
+                this.caseStatements[arm].executeVoid(frame);
+                return;
+            }
+        }
+        this.executeElse(frame);
+    }
+
+    private void executeElse(VirtualFrame frame) {
+        if (this.elseBranch != null) {
+            this.elseBranch.executeVoid(frame);
+        }
+    }
+
+}
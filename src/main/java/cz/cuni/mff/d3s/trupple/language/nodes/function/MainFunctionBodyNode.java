@@ -41,6 +41,14 @@ public abstract class MainFunctionBodyNode extends ExpressionNode {
 	    return new MainFunctionObject(new MainFunctionPascalRootNode(frameDescriptor, bodyNode));
     }
 
+    /**
+     * Gets the body of the main function. It is not a child of this node, it is adopted by the root node created on
+     * execution.
+     */
+    public StatementNode getBody() {
+        return this.body;
+    }
+
     @Override
     public TypeDescriptor getType() {
         return null;
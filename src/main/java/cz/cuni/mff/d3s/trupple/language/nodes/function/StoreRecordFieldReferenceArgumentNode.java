@@ -0,0 +1,44 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.function;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.NodeFields;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.RecordFieldReference;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.RecordValue;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+
+/**
+ * Variant of {@link StoreReferenceArgumentNode} for fields of records (accessed inside a <i>with statement</i>). It wraps
+ * the record and the index of the field to a {@link RecordFieldReference} object.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link StoreRecordFieldReferenceArgumentNodeGen}
+ */
+@NodeChild(value = "record", type = ExpressionNode.class)
+@NodeFields({
+        @NodeField(name = "fieldType", type = TypeDescriptor.class),
+        @NodeField(name = "fieldIndex", type = int.class),
+        @NodeField(name = "fieldKind", type = FrameSlotKind.class)
+})
+public abstract class StoreRecordFieldReferenceArgumentNode extends ExpressionNode {
+
+    protected abstract TypeDescriptor getFieldType();
+
+    protected abstract int getFieldIndex();
+
+    protected abstract FrameSlotKind getFieldKind();
+
+    @Specialization
+    RecordFieldReference storeReference(RecordValue record) {
+        return new RecordFieldReference(record, this.getFieldIndex(), this.getFieldKind());
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return this.getFieldType();
+    }
+
+}
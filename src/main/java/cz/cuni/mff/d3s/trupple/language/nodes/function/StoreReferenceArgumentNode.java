@@ -2,6 +2,7 @@ package cz.cuni.mff.d3s.trupple.language.nodes.function;
 
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.FrameReference;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.Reference;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
@@ -16,14 +17,17 @@ public class StoreReferenceArgumentNode extends ExpressionNode {
 
 	private final TypeDescriptor typeDescriptor;
 
-	public StoreReferenceArgumentNode(FrameSlot variableSlot, TypeDescriptor typeDescriptor) {
+	private final int depth;
+
+	public StoreReferenceArgumentNode(FrameSlot variableSlot, TypeDescriptor typeDescriptor, int depth) {
 		this.variableSlot = variableSlot;
         this.typeDescriptor = typeDescriptor;
+        this.depth = depth;
     }
 
 	@Override
 	public Object executeGeneric(VirtualFrame frame) {
-		return new Reference(frame, this.variableSlot);
+		return new FrameReference(getParentFrame(frame, this.depth).materialize(), this.variableSlot);
 	}
 
 	@Override
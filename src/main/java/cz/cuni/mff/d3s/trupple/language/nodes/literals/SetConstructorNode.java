@@ -1,38 +1,81 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.literals;
 
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.UnexpectedResultException;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.SetTypeValue;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.OrdinalDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.EnumLiteralDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.SetDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.constant.CharConstantDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.constant.IntConstantDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.constant.LongConstantDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.CharDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.LongDescriptor;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
- * Node representing set constructor.
+ * Node representing set constructor. Values of integer and char types are read from their nodes unboxed and stored
+ * directly into the set's bitset. The kind of each value is known from its type at parse time.
  */
 public class SetConstructorNode extends ExpressionNode {
 
     @Children private final ExpressionNode[] valueNodes;
 
+    private static final byte GENERIC_VALUE = 0;
+    private static final byte INT_VALUE = 1;
+    private static final byte LONG_VALUE = 2;
+    private static final byte CHAR_VALUE = 3;
+
+    /**
+     * Specifies for each value node how its value is read.
+     */
+    @CompilerDirectives.CompilationFinal(dimensions = 1) private final byte[] valueKinds;
+
     public SetConstructorNode(List<ExpressionNode> valueNodes) {
         this.valueNodes = valueNodes.toArray(new ExpressionNode[valueNodes.size()]);
+        this.valueKinds = new byte[this.valueNodes.length];
+        for (int i = 0; i < this.valueNodes.length; ++i) {
+            this.valueKinds[i] = getValueKind(this.valueNodes[i].getType());
+        }
+    }
+
+    private static byte getValueKind(TypeDescriptor type) {
+        if (type == IntDescriptor.getInstance() || type instanceof IntConstantDescriptor) {
+            return INT_VALUE;
+        } else if (type == LongDescriptor.getInstance() || type instanceof LongConstantDescriptor) {
+            return LONG_VALUE;
+        } else if (type == CharDescriptor.getInstance() || type instanceof CharConstantDescriptor) {
+            return CHAR_VALUE;
+        } else {
+            return GENERIC_VALUE;
+        }
     }
 
     @Override
+    @ExplodeLoop
     public Object executeGeneric(VirtualFrame frame) {
-        Set<Object> data = new HashSet<>();
+        SetTypeValue set = new SetTypeValue();
 
-        for (ExpressionNode valueNode : this.valueNodes) {
-            Object actualValue = valueNode.executeGeneric(frame);
-            data.add(actualValue);
+        for (int i = 0; i < this.valueNodes.length; ++i) {
+            try {
+                switch (this.valueKinds[i]) {
+                    case INT_VALUE: set.addOrdinal(this.valueNodes[i].executeInt(frame)); break;
+                    case LONG_VALUE: set.addOrdinal(this.valueNodes[i].executeLong(frame)); break;
+                    case CHAR_VALUE: set.addOrdinal(this.valueNodes[i].executeChar(frame)); break;
+                    default: set.add(this.valueNodes[i].executeGeneric(frame));
+                }
+            } catch (UnexpectedResultException e) {
+                set.add(e.getResult());
+            }
         }
 
-        return new SetTypeValue(data);
+        return set;
     }
 
     @Override
@@ -1,6 +1,7 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.literals;
 
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.VirtualFrame;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalSubroutine;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
@@ -8,6 +9,8 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.Subrouti
 
 /**
  * Node representing subroutine literal. This is used for example for passing subroutines as a parameter to another subroutine.
+ * The subroutine is bound to the frame of the scope in which it is declared, which is the specified number of scopes
+ * above the current one.
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link SubroutineLiteralNodeGen}
@@ -16,15 +19,17 @@ public abstract class SubroutineLiteralNode extends ExpressionNode {
 
     private final PascalSubroutine function;
     private final SubroutineDescriptor descriptor;
+    private final int depth;
 
-    SubroutineLiteralNode(PascalSubroutine function, SubroutineDescriptor descriptor) {
+    SubroutineLiteralNode(PascalSubroutine function, SubroutineDescriptor descriptor, int depth) {
         this.function = function;
         this.descriptor = descriptor;
+        this.depth = depth;
     }
 
     @Specialization
-    public PascalSubroutine execute() {
-        return function;
+    public PascalSubroutine execute(VirtualFrame frame) {
+        return new PascalSubroutine(function.getCallTarget(), getParentFrame(frame, this.depth).materialize());
     }
 
     @Override
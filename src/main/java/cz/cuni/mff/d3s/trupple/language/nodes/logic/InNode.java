@@ -2,6 +2,7 @@ package cz.cuni.mff.d3s.trupple.language.nodes.logic;
 
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.nodes.NodeInfo;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.EnumValue;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.SetTypeValue;
 import cz.cuni.mff.d3s.trupple.language.nodes.BinaryExpressionNode;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
@@ -28,6 +29,26 @@ public abstract class InNode extends BinaryExpressionNode {
         return set.getInnerType() == valueType || valueType.convertibleTo(set.getInnerType());
     }
 
+    @Specialization
+    boolean inOperation(long value, SetTypeValue set) {
+        return set.containsOrdinal(value);
+    }
+
+    @Specialization
+    boolean inOperation(char value, SetTypeValue set) {
+        return set.containsOrdinal(value);
+    }
+
+    @Specialization
+    boolean inOperation(boolean value, SetTypeValue set) {
+        return set.containsOrdinal((value)? 1 : 0);
+    }
+
+    @Specialization
+    boolean inOperation(EnumValue value, SetTypeValue set) {
+        return set.containsOrdinal(value.getOrdinalValue());
+    }
+
     @Specialization
     boolean inOperation(Object o, SetTypeValue set) {
         return set.contains(o);
@@ -20,7 +20,7 @@ public class ProgramArgumentAssignmentFactory {
     public static StatementNode create(FrameSlot frameSlot, int index, TypeDescriptor type) throws LexicalException {
         if (type == IntDescriptor.getInstance() || type == LongDescriptor.getInstance() || type == RealDescriptor.getInstance() ||
                 type == BooleanDescriptor.getInstance()) {
-            return SimpleAssignmentNodeGen.create(new ReadArgumentNode(index, type), frameSlot);
+            return SimpleAssignmentNodeGen.create(new ReadArgumentNode(index, type), frameSlot, 0);
         } else if (type == StringDescriptor.getInstance()) {
             return new StringProgramArgumentAssignmentNode(frameSlot, index);
         } else if (type instanceof FileDescriptor) {
@@ -12,4 +12,8 @@ public class FunctionPascalRootNode extends PascalRootNode {
         super(frameDescriptor, bodyNode);
     }
 
+    public FunctionPascalRootNode(FrameDescriptor frameDescriptor, ExpressionNode bodyNode, boolean usesParentFrame) {
+        super(frameDescriptor, bodyNode, usesParentFrame);
+    }
+
 }
@@ -1,13 +1,17 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.root;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
+import cz.cuni.mff.d3s.trupple.language.PascalState;
 import cz.cuni.mff.d3s.trupple.language.nodes.function.ProcedureWrapExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.HaltExceptionTP;
 
 /**
- * Node representing the root node of Pascal's main function's AST.
+ * Node representing the root node of Pascal's main function's AST. The buffered standard output is flushed when the
+ * program ends, even if it was ended by halt or by a runtime error.
  */
 public class MainFunctionPascalRootNode extends PascalRootNode {
 
@@ -20,9 +24,18 @@ public class MainFunctionPascalRootNode extends PascalRootNode {
             bodyNode.executeGeneric(virtualFrame);
         } catch (HaltExceptionTP e) {
             return e.getExitCode();
+        } finally {
+            flushOutput();
         }
 
         return 0;
     }
 
+    @TruffleBoundary
+    private static void flushOutput() {
+        PascalState state = PascalLanguage.INSTANCE.getCurrentState();
+        state.getOutput().flush();
+        state.flushOpenFiles();
+    }
+
 }
@@ -18,9 +18,23 @@ public abstract class PascalRootNode extends RootNode {
 	@Child
 	protected ExpressionNode bodyNode;
 
+	private final boolean usesParentFrame;
+
 	public PascalRootNode(FrameDescriptor frameDescriptor, ExpressionNode bodyNode) {
+		this(frameDescriptor, bodyNode, false);
+	}
+
+	/**
+	 * @param usesParentFrame a flag whether the subroutine reads frame of its lexical parent from its first argument
+	 */
+	public PascalRootNode(FrameDescriptor frameDescriptor, ExpressionNode bodyNode, boolean usesParentFrame) {
 		super(PascalLanguage.class, null, frameDescriptor);
 		this.bodyNode = bodyNode;
+		this.usesParentFrame = usesParentFrame;
+	}
+
+	public boolean usesParentFrame() {
+		return this.usesParentFrame;
 	}
 
 	public Object execute(VirtualFrame virtualFrame) {
@@ -15,4 +15,8 @@ public class ProcedurePascalRootNode extends PascalRootNode {
         super(frameDescriptor, new ProcedureWrapExpressionNode(bodyNode));
     }
 
+    public ProcedurePascalRootNode(FrameDescriptor frameDescriptor, StatementNode bodyNode, boolean usesParentFrame) {
+        super(frameDescriptor, new ProcedureWrapExpressionNode(bodyNode), usesParentFrame);
+    }
+
 }
@@ -1,13 +1,17 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.statement;
 
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.NodeInfo;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.GotoException;
 
 import java.util.*;
 
 /**
- * Block node implementation with extended support of goto statements.
+ * Block node implementation with extended support of goto statements. The statements are split into blocks each of
+ * which begins with a labeled statement. Ids of the blocks' labels are known at parse time and the dispatch loop is
+ * exploded, so in compiled code a goto to a label of this block becomes a direct jump to the target block.
  */
 @NodeInfo(shortName = "block")
 public class ExtendedBlockNode extends StatementNode {
@@ -15,15 +19,22 @@ public class ExtendedBlockNode extends StatementNode {
     @Children
     private final StatementNode[] bodyNodes;
 
-    private final Map<String, Integer> labelToBlockIndex;
+    /**
+     * Ids of the labels at the beginning of each block, -1 for the first block if it is not labeled.
+     */
+    @CompilationFinal(dimensions = 1) private final int[] blockLabelIds;
 
     public ExtendedBlockNode(StatementNode[] bodyNodes) {
-        this.labelToBlockIndex = new HashMap<>();
-        List<StatementNode> newBodyNodes = this.createNewBodyNodes(bodyNodes);
+        List<Integer> labelIds = new ArrayList<>();
+        List<StatementNode> newBodyNodes = this.createNewBodyNodes(bodyNodes, labelIds);
         this.bodyNodes = newBodyNodes.toArray(new StatementNode[newBodyNodes.size()]);
+        this.blockLabelIds = new int[labelIds.size()];
+        for (int i = 0; i < this.blockLabelIds.length; ++i) {
+            this.blockLabelIds[i] = labelIds.get(i);
+        }
     }
 
-    private List<StatementNode> createNewBodyNodes(StatementNode[] bodyNodes) {
+    private List<StatementNode> createNewBodyNodes(StatementNode[] bodyNodes, List<Integer> labelIds) {
         if (bodyNodes.length == 0) {
             return Collections.emptyList();
         }
@@ -31,14 +42,14 @@ public class ExtendedBlockNode extends StatementNode {
         List<StatementNode> newBodyNodes = new ArrayList<>();
         List<StatementNode> currentBlockNodes;
 
-        currentBlockNodes = startNewBlockWithNode(bodyNodes[0], 0);
+        currentBlockNodes = startNewBlockWithNode(bodyNodes[0], labelIds);
         for (int i = 1; i < bodyNodes.length; ++i) {
             StatementNode currentStatement = bodyNodes[i];
             if (!(currentStatement instanceof LabeledStatement)) {
                 currentBlockNodes.add(currentStatement);
             } else {
                 newBodyNodes.add(createBlockNode(currentBlockNodes));
-                currentBlockNodes = startNewBlockWithNode(currentStatement, newBodyNodes.size());
+                currentBlockNodes = startNewBlockWithNode(currentStatement, labelIds);
             }
         }
         newBodyNodes.add(createBlockNode(currentBlockNodes));
@@ -46,14 +57,10 @@ public class ExtendedBlockNode extends StatementNode {
         return newBodyNodes;
     }
 
-    private List<StatementNode> startNewBlockWithNode(StatementNode newNode, int index) {
+    private List<StatementNode> startNewBlockWithNode(StatementNode newNode, List<Integer> labelIds) {
         List<StatementNode> blockNodes = new ArrayList<>();
         blockNodes.add(newNode);
-
-        if (newNode instanceof LabeledStatement) {
-            String label = ((LabeledStatement) newNode).getLabel();
-            this.labelToBlockIndex.put(label, index);
-        }
+        labelIds.add((newNode instanceof LabeledStatement)? ((LabeledStatement) newNode).getLabelId() : -1);
 
         return blockNodes;
     }
@@ -62,22 +69,27 @@ public class ExtendedBlockNode extends StatementNode {
         return new BlockNode(statementNodes.toArray(new StatementNode[statementNodes.size()]));
     }
 
+    /**
+     * Executes the blocks one after another. Each goto to a label of this block continues the loop with a constant index
+     * of the target block, so the loop is exploded into the blocks connected by jumps.
+     */
     @Override
+    @ExplodeLoop(kind = ExplodeLoop.LoopExplosionKind.MERGE_EXPLODE)
     public void executeVoid(VirtualFrame frame) {
-        int beginningIndex = 0;
-        boolean done = false;
-        while (!done) {
+        int blockIndex = 0;
+        dispatch:
+        while (blockIndex < this.bodyNodes.length) {
             try {
-                for (int i = beginningIndex; i < this.bodyNodes.length; ++i) {
-                    this.bodyNodes[i].executeVoid(frame);
-                }
-                done = true;
+                this.bodyNodes[blockIndex].executeVoid(frame);
+                blockIndex++;
             } catch (GotoException e) {
-                if (this.labelToBlockIndex.containsKey(e.getLabelIdentifier())) {
-                    beginningIndex = this.labelToBlockIndex.get(e.getLabelIdentifier());
-                } else {
-                    throw e;
+                for (int i = 0; i < this.blockLabelIds.length; ++i) {
+                    if (this.blockLabelIds[i] == e.getLabelId()) {
+                        blockIndex = i;
+                        continue dispatch;
+                    }
                 }
+                throw e;
             }
         }
     }
@@ -4,17 +4,17 @@ import com.oracle.truffle.api.frame.VirtualFrame;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.GotoException;
 
 /**
- * Node representing a labeled statement. In addition to {@link StatementNode} it contains identifier of a label which
- * prefixes it.
+ * Node representing a labeled statement. In addition to {@link StatementNode} it contains id of a label which prefixes
+ * it.
  */
 public class LabeledStatement extends StatementNode {
 
     @Child private StatementNode statement;
-    private final String label;
+    private final int labelId;
 
-    public LabeledStatement(StatementNode statement, String label) {
+    public LabeledStatement(StatementNode statement, int labelId) {
         this.statement = statement;
-        this.label = label;
+        this.labelId = labelId;
     }
 
     @Override
@@ -24,15 +24,15 @@ public class LabeledStatement extends StatementNode {
                 statement.executeVoid(frame);
                 break;
             } catch (GotoException e) {
-                if (!e.getLabelIdentifier().equals(this.label)) {
+                if (e.getLabelId() != this.labelId) {
                     throw e;
                 }
             }
         }
     }
 
-    public String getLabel() {
-        return this.label;
+    public int getLabelId() {
+        return this.labelId;
     }
 
 }
@@ -1,8 +1,10 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.statement;
 
 import com.oracle.truffle.api.dsl.TypeSystemReference;
-import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.api.nodes.Node;
 import cz.cuni.mff.d3s.trupple.language.PascalTypes;
 
@@ -27,56 +29,23 @@ public abstract class StatementNode extends Node {
      */
 	public abstract void executeVoid(VirtualFrame frame);
 
-	protected VirtualFrame getFrameContainingSlot(VirtualFrame currentFrame, FrameSlot slot) {
-		if(frameContainsSlot(currentFrame, slot)) {
-			return currentFrame;
-		}
-		
-		while(currentFrame.getArguments().length > 0) {
-			currentFrame = (VirtualFrame)currentFrame.getArguments()[0];
-			if(frameContainsSlot(currentFrame, slot)) {
-				return currentFrame;
-			}
-		}
-		
-		return null;
-	}
-
     /**
-     * Gets the number of required jumps to the parent frame to get frame containing specified slot. This function is
-     * used for optimization. If we have some node that uses frame slot which is not from its frame then first time it
-     * is executed it has to look in which frame the slot belongs, remember the number of jumps and each next time it is
-     * executed it directly jumps by that number and retrieves the slot. This is thanks to the fact that the number of jumps
-     * cannot change.
-     * @param currentFrame the initial frame
-     * @param slot the queried slot
-     * @return the number of jumps to parent frame to find the queried slot
+     * Gets frame of the lexical scope which encloses the current one by the specified number of levels. Each frame
+     * holds materialized frame of its lexical parent as its first argument, so the depth of each non-local access is
+     * resolved by the parser and at runtime exactly that many links are followed without looking for the slot. The
+     * current frame itself stays virtual unless the caller materializes it.
+     * @param currentFrame the current frame
+     * @param depth number of lexical scopes between the current scope and the target one
+     * @return the target frame
      */
-    protected int getJumpsToFrame(VirtualFrame currentFrame, FrameSlot slot) {
-	    int result = 0;
-        if (frameContainsSlot(currentFrame, slot)) {
-            return result;
-        }
-
-        while (currentFrame.getArguments().length > 0) {
-            currentFrame = (VirtualFrame) currentFrame.getArguments()[0];
-            ++result;
-            if (frameContainsSlot(currentFrame, slot)) {
-                return result;
-            }
+    @ExplodeLoop
+    protected static Frame getParentFrame(VirtualFrame currentFrame, int depth) {
+        Frame frame = currentFrame;
+        for (int i = 0; i < depth; ++i) {
+            frame = (MaterializedFrame) frame.getArguments()[0];
         }
 
-        return -1;
+        return frame;
     }
 
-
-    /**
-     * Checks whether specified frame contains specified slot.
-     * @param frame the frame
-     * @param slot the slot
-     */
-    private boolean frameContainsSlot(VirtualFrame frame, FrameSlot slot) {
-		return frame.getFrameDescriptor().getSlots().contains(slot);
-	}
-
 }
@@ -0,0 +1,27 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.utils;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.nodes.Node;
+import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
+import cz.cuni.mff.d3s.trupple.language.PascalState;
+
+/**
+ * Finds the state of the context that is currently being executed. Nodes that access the state during execution (e.g.:
+ * the heap or the standard input and output) keep this node as their child so the lookup node is created only once.
+ * It is created lazily on the first execution because nodes of the builtin units are created together with the context
+ * and the context cannot be looked up at that time.
+ */
+public final class FindStateNode extends Node {
+
+    @Child private Node findContextNode;
+
+    public PascalState execute() {
+        if (this.findContextNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            this.findContextNode = this.insert(PascalLanguage.INSTANCE.createFindStateNode());
+        }
+
+        return PascalLanguage.INSTANCE.findState(this.findContextNode);
+    }
+
+}
@@ -0,0 +1,126 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.variables;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
+import com.oracle.truffle.api.nodes.UnexpectedResultException;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.ArrayDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.MultidimensionalArrayDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This node evaluates indices of a multidimensional array and converts them to a single index into the array's flat
+ * storage (see {@link MultidimensionalArrayDescriptor}). The offsets and strides of the dimensions are known at parse
+ * time. It may receive fewer indices than the array has dimensions, then it returns the beginning of the selected
+ * sub-array.
+ */
+public class MultidimensionalIndexNode extends ExpressionNode {
+
+    @Children private final ReadIndexNode[] indexNodes;
+
+    @CompilerDirectives.CompilationFinal(dimensions = 1) private final int[] strides;
+
+    private final MultidimensionalArrayDescriptor arrayDescriptor;
+
+    private final List<ExpressionNode> indexExpressions;
+
+    private final boolean rangeChecks;
+
+    /**
+     * Default constructor.
+     * @param arrayDescriptor type descriptor of the indexed array
+     * @param indexExpressions nodes of the indices, there may be at most as many of them as the array has dimensions
+     * @param rangeChecks whether each index is checked to lie inside its dimension (see {@link ReadIndexNode})
+     */
+    public MultidimensionalIndexNode(MultidimensionalArrayDescriptor arrayDescriptor, List<ExpressionNode> indexExpressions,
+                                     boolean rangeChecks) {
+        this.arrayDescriptor = arrayDescriptor;
+        this.rangeChecks = rangeChecks;
+        this.indexExpressions = indexExpressions;
+        this.indexNodes = new ReadIndexNode[indexExpressions.size()];
+        this.strides = new int[indexExpressions.size()];
+        for (int i = 0; i < this.indexNodes.length; ++i) {
+            this.indexNodes[i] = ReadIndexNodeGen.create(indexExpressions.get(i), arrayDescriptor.getOffsets()[i],
+                    (rangeChecks)? arrayDescriptor.getLengths()[i] : ReadIndexNode.UNCHECKED);
+            this.strides[i] = arrayDescriptor.getStrides()[i];
+        }
+    }
+
+    @Override
+    public Object executeGeneric(VirtualFrame frame) {
+        return this.executeInt(frame);
+    }
+
+    @Override
+    @ExplodeLoop
+    public int executeInt(VirtualFrame frame) {
+        int index = 0;
+        for (int i = 0; i < this.indexNodes.length; ++i) {
+            int dimensionIndex;
+            try {
+                dimensionIndex = this.indexNodes[i].executeInt(frame);
+            } catch (UnexpectedResultException e) {
+                dimensionIndex = (int) e.getResult();
+            }
+            index += dimensionIndex * this.strides[i];
+        }
+
+        return index;
+    }
+
+    /**
+     * Checks whether an index is provided for each dimension of the array, so this node selects a single element.
+     */
+    public boolean selectsElement() {
+        return this.indexNodes.length == this.arrayDescriptor.getDimensionsCount();
+    }
+
+    /**
+     * Gets number of elements of the sub-array selected by the indices.
+     */
+    public int getSelectedLength() {
+        return this.strides[this.strides.length - 1];
+    }
+
+    /**
+     * Gets type descriptor of the value selected by the indices.
+     */
+    public TypeDescriptor getSelectedType() {
+        if (this.selectsElement()) {
+            return this.arrayDescriptor.getElementDescriptor();
+        }
+
+        TypeDescriptor type = this.arrayDescriptor;
+        for (int i = 0; i < this.indexNodes.length; ++i) {
+            type = ((ArrayDescriptor) type).getValuesDescriptor();
+        }
+        return type;
+    }
+
+    public MultidimensionalArrayDescriptor getArrayDescriptor() {
+        return this.arrayDescriptor;
+    }
+
+    public boolean usesRangeChecks() {
+        return this.rangeChecks;
+    }
+
+    /**
+     * Gets the nodes of the indices as they were received by the constructor. They are used by the parser to join
+     * indices written in separate brackets (e.g.: a[i][j]).
+     */
+    public List<ExpressionNode> getIndexExpressions() {
+        return Collections.unmodifiableList(this.indexExpressions);
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return IntDescriptor.getInstance();
+    }
+
+}
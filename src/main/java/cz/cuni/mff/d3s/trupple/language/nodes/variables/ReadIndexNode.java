@@ -2,50 +2,81 @@ package cz.cuni.mff.d3s.trupple.language.nodes.variables;
 
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.NodeFields;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.profiles.BranchProfile;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.EnumValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.IndexOutOfBoundsException;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.LongDescriptor;
 
 /**
  * This nodes evaluates the expression it gets and converts it to a valid index of an array keeping array offset in mind.
+ * If it receives the length of the array, it also checks that the index lies inside the array's declared range
+ * ({$R+}). The length is a constant of the node and the failing branch is profiled, so in compiled code the check is a
+ * single comparison which the compiler can move out of loops or remove entirely when the index is an induction
+ * variable of a loop over the array's range.
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link ReadIndexNodeGen}
  */
 @NodeChild(type = ExpressionNode.class)
-@NodeField(name = "offset", type = int.class)
+@NodeFields({
+        @NodeField(name = "offset", type = int.class),
+        @NodeField(name = "length", type = int.class)
+})
 public abstract class ReadIndexNode extends ExpressionNode {
 
+    /**
+     * Length of arrays whose indices are not checked.
+     */
+    public static final int UNCHECKED = -1;
+
+    private final BranchProfile outOfRangeProfile = BranchProfile.create();
+
     protected abstract int getOffset();
 
+    protected abstract int getLength();
+
     /**
      * We need to return an int because arrays may be indexed only by ints in Java
      */
     @Specialization
     int getIntIndex(int index) {
-        return index - getOffset();
+        return this.checkIndex(index - getOffset(), index);
     }
 
     @Specialization
     int getLongIndex(long index) {
+        if (getLength() != UNCHECKED && (index - getOffset() < 0 || index - getOffset() >= getLength())) {
+            this.outOfRangeProfile.enter();
+            throw new IndexOutOfBoundsException(index);
+        }
         return (int) index - getOffset();
     }
 
     @Specialization
     int getCharIndex(char index) {
-        return (int) index - getOffset();
+        return this.checkIndex((int) index - getOffset(), index);
     }
 
     @Specialization
     int getBooleanIndex(boolean index) {
-        return ((index)? 1:0) - getOffset();
+        return this.checkIndex(((index)? 1:0) - getOffset(), index);
     }
 
     @Specialization
     int getEnumIndex(EnumValue index) {
-        return (int) index.getOrdinalValue() - getOffset();
+        return this.checkIndex((int) index.getOrdinalValue() - getOffset(), index.getValue());
+    }
+
+    private int checkIndex(int arrayIndex, Object pascalIndex) {
+        if (getLength() != UNCHECKED && (arrayIndex < 0 || arrayIndex >= getLength())) {
+            this.outOfRangeProfile.enter();
+            throw new IndexOutOfBoundsException(pascalIndex);
+        }
+        return arrayIndex;
     }
 
     @Override
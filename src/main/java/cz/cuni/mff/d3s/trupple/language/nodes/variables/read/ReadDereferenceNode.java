@@ -6,6 +6,8 @@ import com.oracle.truffle.api.dsl.Specialization;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.language.runtime.heap.PascalHeap;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * This node reads dereferenced value of a pointer.
@@ -17,36 +19,42 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 @NodeField(name = "returnType", type = TypeDescriptor.class)
 public abstract class ReadDereferenceNode extends ExpressionNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     protected abstract TypeDescriptor getReturnType();
 
     @Specialization(guards = "isInt()")
     int dereferenceInt(PointerValue pointer) {
-        return (int) pointer.getDereferenceValue();
+        return (int) pointer.getDereferenceValue(this.getHeap());
     }
 
     @Specialization(guards = "isLong()")
     long dereferenceLong(PointerValue pointer) {
-        return (long) pointer.getDereferenceValue();
+        return (long) pointer.getDereferenceValue(this.getHeap());
     }
 
     @Specialization(guards = "isDouble()")
     double dereferenceDouble(PointerValue pointer) {
-        return (double) pointer.getDereferenceValue();
+        return (double) pointer.getDereferenceValue(this.getHeap());
     }
 
     @Specialization(guards = "isChar()")
     char dereferenceChar(PointerValue pointer) {
-        return (char) pointer.getDereferenceValue();
+        return (char) pointer.getDereferenceValue(this.getHeap());
     }
 
     @Specialization(guards = "isBoolean()")
     boolean dereferenceBoolean(PointerValue pointer) {
-        return (boolean) pointer.getDereferenceValue();
+        return (boolean) pointer.getDereferenceValue(this.getHeap());
     }
 
     @Specialization
     Object dereferenceGeneric(PointerValue pointer) {
-        return pointer.getDereferenceValue();
+        return pointer.getDereferenceValue(this.getHeap());
+    }
+
+    private PascalHeap getHeap() {
+        return this.findStateNode.execute().getHeap();
     }
 
     @Override
@@ -1,11 +1,13 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.variables.read;
 
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.NodeField;
 import com.oracle.truffle.api.dsl.Specialization;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.variables.ReadIndexNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ArrayValue;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PCharValue;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
@@ -23,47 +25,62 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 @NodeField(name = "returnType", type = TypeDescriptor.class)
 public abstract class ReadFromArrayNode extends ExpressionNode {
 
+    /**
+     * Whether the read element is modified in place by the parent node (e.g.: it is the target of an assignment). The
+     * array then has to copy its shared data first, so the element is not shared with the array's copies.
+     */
+    @CompilationFinal private boolean forWrite;
+
+    public abstract ExpressionNode getValueNode();
+
     protected abstract TypeDescriptor getReturnType();
 
+    /**
+     * Marks the read element as modified in place by the parent node. It is called by the parser before the node is
+     * executed.
+     */
+    public void setForWrite() {
+        this.forWrite = true;
+    }
+
     @Specialization
-    int readInt(int[] array, int index) {
-        return array[index];
+    int readInt(ArrayValue.IntArray array, int index) {
+        return array.get(index);
     }
 
     @Specialization
-    long readLong(long[] array, int index) {
-        return array[index];
+    long readLong(ArrayValue.LongArray array, int index) {
+        return array.get(index);
     }
 
     @Specialization
-    double readDouble(double[] array, int index) {
-        return array[index];
+    double readDouble(ArrayValue.RealArray array, int index) {
+        return array.get(index);
     }
 
     @Specialization
-    char readChar(char[] array, int index) {
-        return array[index];
+    char readChar(ArrayValue.CharArray array, int index) {
+        return array.get(index);
     }
 
     @Specialization
-    boolean readBoolean(boolean[] array, int index) {
-        return array[index];
+    boolean readBoolean(ArrayValue.BooleanArray array, int index) {
+        return array.get(index);
     }
 
-    // TODO: do we need this PascalString class?
     @Specialization
     char readString(PascalString string, int index) {
-        return (char) string.getValueAt(index);
+        return string.charAt(index);
     }
 
     @Specialization
     char readPChar(PCharValue string, int index) {
-        return (char) string.getValueAt(index);
+        return string.charAt(index);
     }
 
     @Specialization
-    Object readGeneric(Object[] array, int index) {
-        return array[index];
+    Object readGeneric(ArrayValue.ObjectArray array, int index) {
+        return (this.forWrite)? array.getForWrite(index) : array.get(index);
     }
 
     @Override
@@ -0,0 +1,80 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.variables.read;
+
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.Specialization;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.variables.MultidimensionalIndexNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ArrayValue;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+
+/**
+ * This node reads an element of a multidimensional array. All its indices are evaluated by a single
+ * {@link MultidimensionalIndexNode}, so the element is read from the array's flat storage by one load.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link ReadFromMultidimensionalArrayNodeGen}
+ */
+@NodeChildren({
+        @NodeChild(value = "arrayNode", type = ExpressionNode.class),
+        @NodeChild(value = "indexNode", type = MultidimensionalIndexNode.class),
+})
+@NodeField(name = "returnType", type = TypeDescriptor.class)
+public abstract class ReadFromMultidimensionalArrayNode extends ExpressionNode {
+
+    /**
+     * Whether the read element is modified in place by the parent node (e.g.: it is the target of an assignment). The
+     * array then has to copy its shared data first, so the element is not shared with the array's copies.
+     */
+    @CompilationFinal private boolean forWrite;
+
+    public abstract ExpressionNode getArrayNode();
+
+    protected abstract TypeDescriptor getReturnType();
+
+    /**
+     * Marks the read element as modified in place by the parent node. It is called by the parser before the node is
+     * executed.
+     */
+    public void setForWrite() {
+        this.forWrite = true;
+    }
+
+    @Specialization
+    int readInt(ArrayValue.IntArray array, int index) {
+        return array.get(index);
+    }
+
+    @Specialization
+    long readLong(ArrayValue.LongArray array, int index) {
+        return array.get(index);
+    }
+
+    @Specialization
+    double readDouble(ArrayValue.RealArray array, int index) {
+        return array.get(index);
+    }
+
+    @Specialization
+    char readChar(ArrayValue.CharArray array, int index) {
+        return array.get(index);
+    }
+
+    @Specialization
+    boolean readBoolean(ArrayValue.BooleanArray array, int index) {
+        return array.get(index);
+    }
+
+    @Specialization
+    Object readGeneric(ArrayValue.ObjectArray array, int index) {
+        return (this.forWrite)? array.getForWrite(index) : array.get(index);
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return this.getReturnType();
+    }
+
+}
@@ -1,18 +1,17 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.variables.read;
 
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeField;
 import com.oracle.truffle.api.dsl.NodeFields;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.frame.FrameSlot;
-import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.RecordValue;
-import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.UnexpectedRuntimeException;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 
 /**
- * This node reads value from an record with specified identifier.
+ * This node reads value from an record. The field is specified by its index to the record's layout which is resolved
+ * at parse time (see {@link cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.RecordDescriptor}).
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link ReadFromRecordNodeGen}
@@ -20,68 +19,58 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 @NodeChild(value = "record", type = ExpressionNode.class)
 @NodeFields({
         @NodeField(name = "returnType", type = TypeDescriptor.class),
-        @NodeField(name = "identifier", type = String.class)
+        @NodeField(name = "fieldIndex", type = int.class)
 })
 public abstract class ReadFromRecordNode extends ExpressionNode {
 
+    /**
+     * Whether the read value is modified in place by the parent node (e.g.: it is the target of an assignment). The
+     * record then has to copy its shared data first, so the field's value is not shared with the record's copies.
+     */
+    @CompilationFinal private boolean forWrite;
+
+    public abstract ExpressionNode getRecord();
+
     protected abstract TypeDescriptor getReturnType();
 
-    protected abstract String getIdentifier();
+    protected abstract int getFieldIndex();
+
+    /**
+     * Marks the read value as modified in place by the parent node. It is called by the parser before the node is
+     * executed.
+     */
+    public void setForWrite() {
+        this.forWrite = true;
+    }
 
     @Specialization(guards = "isInt()")
     int readInt(RecordValue record) {
-        FrameSlot slot = record.getSlot(this.getIdentifier());
-        try {
-            return record.getFrame().getInt(slot);
-        } catch (FrameSlotTypeException e) {
-            throw new UnexpectedRuntimeException();
-        }
+        return record.getInt(this.getFieldIndex());
     }
 
     @Specialization(guards = "isLong()")
     long readLong(RecordValue record) {
-        FrameSlot slot = record.getSlot(this.getIdentifier());
-        try {
-            return record.getFrame().getLong(slot);
-        } catch (FrameSlotTypeException e) {
-            throw new UnexpectedRuntimeException();
-        }
+        return record.getLong(this.getFieldIndex());
     }
 
     @Specialization(guards = "isDouble()")
     double readDouble(RecordValue record) {
-        FrameSlot slot = record.getSlot(this.getIdentifier());
-        try {
-            return record.getFrame().getDouble(slot);
-        } catch (FrameSlotTypeException e) {
-            throw new UnexpectedRuntimeException();
-        }
+        return record.getDouble(this.getFieldIndex());
     }
 
     @Specialization(guards = "isChar()")
     char readChar(RecordValue record) {
-        FrameSlot slot = record.getSlot(this.getIdentifier());
-        try {
-            return (char) record.getFrame().getByte(slot);
-        } catch (FrameSlotTypeException e) {
-            throw new UnexpectedRuntimeException();
-        }
+        return record.getChar(this.getFieldIndex());
     }
 
     @Specialization(guards = "isBoolean()")
     boolean readBoolean(RecordValue record) {
-        FrameSlot slot = record.getSlot(this.getIdentifier());
-        try {
-            return record.getFrame().getBoolean(slot);
-        } catch (FrameSlotTypeException e) {
-            throw new UnexpectedRuntimeException();
-        }
+        return record.getBoolean(this.getFieldIndex());
     }
 
     @Specialization
     Object readGeneric(RecordValue record) {
-        FrameSlot slot = record.getSlot(this.getIdentifier());
-        return record.getFrame().getValue(slot);
+        return (this.forWrite)? record.getObjectForWrite(this.getFieldIndex()) : record.getObject(this.getFieldIndex());
     }
 
     @Override
@@ -3,23 +3,26 @@ package cz.cuni.mff.d3s.trupple.language.nodes.variables.read;
 import com.oracle.truffle.api.dsl.NodeField;
 import com.oracle.truffle.api.dsl.NodeFields;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotTypeException;
 import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.api.nodes.ExplodeLoop;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.UnexpectedRuntimeException;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 
 /**
- * This node reads value of specified global variable (by its frame slot).
+ * This node reads value of specified non-local variable (by its frame slot) from the frame of the lexical scope in
+ * which the variable is declared. The number of scopes between the current scope and that scope is resolved at parse
+ * time.
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link ReadLocalVariableNodeGen}
  */
 @NodeFields({
     @NodeField(name = "slot", type = FrameSlot.class),
-    @NodeField(name = "typeDescriptor", type = TypeDescriptor.class)
+    @NodeField(name = "typeDescriptor", type = TypeDescriptor.class),
+    @NodeField(name = "depth", type = int.class)
 })
 public abstract class ReadGlobalVariableNode extends ExpressionNode {
 
@@ -27,6 +30,8 @@ public abstract class ReadGlobalVariableNode extends ExpressionNode {
 
 	protected abstract TypeDescriptor getTypeDescriptor();
 
+	protected abstract int getDepth();
+
     @Specialization(guards = "isInt()")
     int readInt(VirtualFrame frame) {
         try {
@@ -77,13 +82,8 @@ public abstract class ReadGlobalVariableNode extends ExpressionNode {
 	    return getFrame(frame).getValue(getSlot());
     }
 
-    @ExplodeLoop
-    private VirtualFrame getFrame(VirtualFrame frame) {
-        while (!frame.getFrameDescriptor().getSlots().contains(getSlot())) {
-            frame = (VirtualFrame) frame.getArguments()[0];
-        }
-
-        return frame;
+    private Frame getFrame(VirtualFrame frame) {
+        return getParentFrame(frame, getDepth());
     }
 
     @Override
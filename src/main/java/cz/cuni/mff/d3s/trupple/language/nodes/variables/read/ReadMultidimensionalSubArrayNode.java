@@ -0,0 +1,40 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.variables.read;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.variables.MultidimensionalIndexNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ArrayValue;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+
+/**
+ * This node reads a sub-array of a multidimensional array which is indexed by fewer indices than it has dimensions
+ * (e.g.: a row of a matrix). The elements of the sub-array are stored consecutively in the array's flat storage, so
+ * they are copied to a new array by a single copy operation. The parser joins this node with the following indices
+ * (e.g.: a[i][j]), so it is used only when the sub-array is read as a whole.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link ReadMultidimensionalSubArrayNodeGen}
+ */
+@NodeChildren({
+        @NodeChild(value = "arrayNode", type = ExpressionNode.class),
+        @NodeChild(value = "indexNode", type = MultidimensionalIndexNode.class),
+})
+public abstract class ReadMultidimensionalSubArrayNode extends ExpressionNode {
+
+    public abstract ExpressionNode getArrayNode();
+
+    public abstract MultidimensionalIndexNode getIndexNode();
+
+    @Specialization
+    ArrayValue readSubArray(ArrayValue array, int index) {
+        return array.copyRange(index, this.getIndexNode().getSelectedLength());
+    }
+
+    @Override
+    public TypeDescriptor getType() {
+        return this.getIndexNode().getSelectedType();
+    }
+
+}
@@ -1,17 +1,18 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.variables.write;
 
-import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.NodeFields;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
-import com.oracle.truffle.api.nodes.ExplodeLoop;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.*;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalArray;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.extension.PCharDesriptor;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing assignment to a reference type variable. Compared to {@link SimpleAssignmentNode} it has to firstly
@@ -21,81 +22,85 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.extension.PCharDesr
  * {@link AssignReferenceNodeGen}
  */
 @NodeChild(value = "valueNode", type = ExpressionNode.class)
-@NodeField(name = "slot", type = FrameSlot.class)
+@NodeFields({
+    @NodeField(name = "slot", type = FrameSlot.class),
+    @NodeField(name = "depth", type = int.class)
+})
 public abstract class AssignReferenceNode extends StatementNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     protected abstract FrameSlot getSlot();
 
-    @CompilerDirectives.CompilationFinal private int jumps = -1;
+    protected abstract int getDepth();
 
     @Specialization
     void writeInt(VirtualFrame frame, int value) {
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        reference.getFromFrame().setInt(reference.getFrameSlot(), value);
+        reference.setInt(value);
     }
 
     @Specialization
     void writeLong(VirtualFrame frame, long value) {
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        reference.getFromFrame().setLong(reference.getFrameSlot(), value);
+        reference.setLong(value);
     }
 
     @Specialization
     void writeBoolean(VirtualFrame frame, boolean value) {
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        reference.getFromFrame().setBoolean(reference.getFrameSlot(), value);
+        reference.setBoolean(value);
     }
 
     @Specialization
     void writeChar(VirtualFrame frame, char value) {
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        reference.getFromFrame().setByte(reference.getFrameSlot(), (byte) value);
+        reference.setChar(value);
     }
 
     @Specialization
     void writeDouble(VirtualFrame frame, double value) {
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        reference.getFromFrame().setDouble(reference.getFrameSlot(), value);
+        reference.setDouble(value);
     }
 
     @Specialization
     void writeEnum(VirtualFrame frame, EnumValue value) {
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        reference.getFromFrame().setObject(reference.getFrameSlot(), value);
+        reference.setObject(value);
     }
 
     @Specialization
     void assignSet(VirtualFrame frame, SetTypeValue set) {
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        reference.getFromFrame().setObject(reference.getFrameSlot(), set.createDeepCopy());
+        reference.setObject(set.createDeepCopy());
     }
 
     @Specialization
     void assignRecord(VirtualFrame frame, RecordValue record) {
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        reference.getFromFrame().setObject(reference.getFrameSlot(), record.getCopy());
+        reference.setObject(record.getCopy());
     }
 
     @Specialization
     void assignPointer(VirtualFrame frame, PointerValue pointer) {
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        PointerValue assignmentTarget = (PointerValue) reference.getFromFrame().getValue(reference.getFrameSlot());
+        PointerValue assignmentTarget = (PointerValue) reference.getValue();
         assignmentTarget.setHeapSlot(pointer.getHeapSlot());
     }
 
     @Specialization
     void assignSubroutine(VirtualFrame frame, PascalSubroutine subroutine) {
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        reference.getFromFrame().setObject(reference.getFrameSlot(), subroutine);
+        reference.setObject(subroutine);
     }
 
     @Specialization
     void assignString(VirtualFrame frame, PascalString value) {
-        frame = getFrame(frame);
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        Object targetObject = reference.getFromFrame().getValue(reference.getFrameSlot());
+        Object targetObject = reference.getValue();
         if (targetObject instanceof PascalString) {
-            reference.getFromFrame().setObject(reference.getFrameSlot(), value);
+            reference.setObject(value.createDeepCopy());
         } else if (targetObject instanceof PointerValue) {
             PointerValue pointerValue = (PointerValue) targetObject;
             if (pointerValue.getType() instanceof PCharDesriptor) {
@@ -107,26 +112,16 @@ public abstract class AssignReferenceNode extends StatementNode {
     @Specialization
     void assignArray(VirtualFrame frame, PascalArray array) {
         Reference reference = (Reference) getFrame(frame).getValue(getSlot());
-        reference.getFromFrame().setObject(reference.getFrameSlot(), array.createDeepCopy());
+        reference.setObject(array.createDeepCopy());
     }
 
     private void assignPChar(PointerValue pcharPointer, PascalString value) {
-        PCharValue pchar = (PCharValue) pcharPointer.getDereferenceValue();
-        pchar.assignString(value.toString());
+        PCharValue pchar = (PCharValue) pcharPointer.getDereferenceValue(this.findStateNode.execute().getHeap());
+        pchar.assignString(value);
     }
 
-    @ExplodeLoop
-    private VirtualFrame getFrame(VirtualFrame frame) {
-        if (jumps == -1) {
-            jumps = this.getJumpsToFrame(frame, getSlot());
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-        }
-
-        for (int i = 0; i < jumps; ++i) {
-            frame = (VirtualFrame) frame.getArguments()[0];
-        }
-
-        return frame;
+    private Frame getFrame(VirtualFrame frame) {
+        return getParentFrame(frame, getDepth());
     }
 
 }
@@ -6,6 +6,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.variables.ReadIndexNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ArrayValue;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PCharValue;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
 
@@ -23,43 +24,43 @@ import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
 public abstract class AssignToArrayNode extends StatementNode {
 
     @Specialization
-    void assignInt(int[] array, int index, int value) {
-        array[index] = value;
+    void assignInt(ArrayValue.IntArray array, int index, int value) {
+        array.set(index, value);
     }
 
     @Specialization
-    void assignLong(long[] array, int index, long value) {
-        array[index] = value;
+    void assignLong(ArrayValue.LongArray array, int index, long value) {
+        array.set(index, value);
     }
 
     @Specialization
-    void assignDouble(double[] array, int index, double value) {
-        array[index] = value;
+    void assignDouble(ArrayValue.RealArray array, int index, double value) {
+        array.set(index, value);
     }
 
     @Specialization
-    void assignChar(char[] array, int index, char value) {
-        array[index] = value;
+    void assignChar(ArrayValue.CharArray array, int index, char value) {
+        array.set(index, value);
     }
 
     @Specialization
-    void assignBoolean(boolean[] array, int index, boolean value) {
-        array[index] = value;
+    void assignBoolean(ArrayValue.BooleanArray array, int index, boolean value) {
+        array.set(index, value);
     }
 
     @Specialization
     void assignToString(PascalString string, int index, char value) {
-        string.setValueAt(index, value);
+        string.setChar(index, value);
     }
 
     @Specialization
     void assignToPChar(PCharValue string, int index, char value) {
-        string.setValueAt(index, value);
+        string.setChar(index, value);
     }
 
     @Specialization
-    void assignObject(Object[] array, int index, Object value) {
-        array[index] = value;
+    void assignObject(ArrayValue.ObjectArray array, int index, Object value) {
+        array.set(index, value);
     }
 
 }
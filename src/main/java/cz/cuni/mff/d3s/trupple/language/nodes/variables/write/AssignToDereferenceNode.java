@@ -5,11 +5,14 @@ import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.CopyOnWriteValue;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing assignment to a dereferenced pointer. Compared to {@link SimpleAssignmentNode} it assigns the value
- * to the heap instead of frame.
+ * to the heap instead of frame. Arrays, records and sets are copied the same way as when they are assigned to a
+ * variable (see {@link CopyOnWriteValue#copyValue(Object)}).
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link AssignToDereferenceNodeGen}
@@ -20,9 +23,11 @@ import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
 })
 public abstract class AssignToDereferenceNode extends StatementNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     @Specialization
     void assignGeneric(PointerValue pointer, Object value) {
-        pointer.setDereferenceValue(value);
+        pointer.setDereferenceValue(this.findStateNode.execute().getHeap(), CopyOnWriteValue.copyValue(value));
     }
 
 }
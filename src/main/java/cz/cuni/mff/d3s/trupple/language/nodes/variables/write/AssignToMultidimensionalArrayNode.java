@@ -0,0 +1,56 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.variables.write;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.variables.MultidimensionalIndexNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ArrayValue;
+
+/**
+ * Node representing assignment to an element of a multidimensional array. Compared to {@link AssignToArrayNode} all
+ * the indices are evaluated by a single {@link MultidimensionalIndexNode}, so the element is written directly to the
+ * array's flat storage.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link AssignToMultidimensionalArrayNodeGen}
+ */
+@NodeChildren({
+        @NodeChild(value = "arrayNode", type = ExpressionNode.class),
+        @NodeChild(value = "indexNode", type = MultidimensionalIndexNode.class),
+        @NodeChild(value = "valueNode", type = ExpressionNode.class)
+})
+public abstract class AssignToMultidimensionalArrayNode extends StatementNode {
+
+    @Specialization
+    void assignInt(ArrayValue.IntArray array, int index, int value) {
+        array.set(index, value);
+    }
+
+    @Specialization
+    void assignLong(ArrayValue.LongArray array, int index, long value) {
+        array.set(index, value);
+    }
+
+    @Specialization
+    void assignDouble(ArrayValue.RealArray array, int index, double value) {
+        array.set(index, value);
+    }
+
+    @Specialization
+    void assignChar(ArrayValue.CharArray array, int index, char value) {
+        array.set(index, value);
+    }
+
+    @Specialization
+    void assignBoolean(ArrayValue.BooleanArray array, int index, boolean value) {
+        array.set(index, value);
+    }
+
+    @Specialization
+    void assignObject(ArrayValue.ObjectArray array, int index, Object value) {
+        array.set(index, value);
+    }
+
+}
@@ -0,0 +1,31 @@
+package cz.cuni.mff.d3s.trupple.language.nodes.variables.write;
+
+import com.oracle.truffle.api.dsl.NodeChild;
+import com.oracle.truffle.api.dsl.NodeChildren;
+import com.oracle.truffle.api.dsl.Specialization;
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.variables.MultidimensionalIndexNode;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ArrayValue;
+
+/**
+ * Node representing assignment to a sub-array of a multidimensional array which is indexed by fewer indices than it
+ * has dimensions (e.g.: a row of a matrix). The assigned array is copied to the array's flat storage by a single copy
+ * operation.
+ *
+ * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
+ * {@link AssignToMultidimensionalSubArrayNodeGen}
+ */
+@NodeChildren({
+        @NodeChild(value = "arrayNode", type = ExpressionNode.class),
+        @NodeChild(value = "indexNode", type = MultidimensionalIndexNode.class),
+        @NodeChild(value = "valueNode", type = ExpressionNode.class)
+})
+public abstract class AssignToMultidimensionalSubArrayNode extends StatementNode {
+
+    @Specialization
+    void assignSubArray(ArrayValue array, int index, ArrayValue value) {
+        array.setRange(index, value);
+    }
+
+}
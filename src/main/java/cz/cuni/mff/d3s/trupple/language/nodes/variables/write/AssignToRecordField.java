@@ -3,14 +3,17 @@ package cz.cuni.mff.d3s.trupple.language.nodes.variables.write;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeChildren;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.FrameSlotKind;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PointerValue;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.RecordValue;
 
 /**
- * Node representing assignment to a record. Compared to {@link SimpleAssignmentNode} it assigns the value to the record's
- * frame instead of subroutine's frame.
+ * Node representing assignment to a record. Compared to {@link SimpleAssignmentNode} it assigns the value to the record
+ * instead of subroutine's frame. The target field is specified by its index to the record's layout and by its slot kind
+ * which decides how is the value stored (see
+ * {@link cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.RecordDescriptor}).
  *
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link AssignToRecordFieldNodeGen}
@@ -21,46 +24,72 @@ import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.RecordValue;
 })
 public abstract class AssignToRecordField extends StatementNode {
 
-    private final String identifier;
+    private final int fieldIndex;
+    private final FrameSlotKind fieldKind;
 
-    AssignToRecordField(String identifier) {
-        this.identifier = identifier;
+    AssignToRecordField(int fieldIndex, FrameSlotKind fieldKind) {
+        this.fieldIndex = fieldIndex;
+        this.fieldKind = fieldKind;
     }
 
-    @Specialization
+    @Specialization(guards = "isIntField()")
     void assignInt(RecordValue record, int value) {
-        record.getFrame().setInt(record.getSlot(this.identifier), value);
+        record.setInt(this.fieldIndex, value);
     }
 
-    @Specialization
+    @Specialization(guards = "isLongField()")
     void assignLong(RecordValue record, long value) {
-        record.getFrame().setLong(record.getSlot(this.identifier), value);
+        record.setLong(this.fieldIndex, value);
     }
 
-    @Specialization
+    @Specialization(guards = "isDoubleField()")
     void assignDouble(RecordValue record, double value) {
-        record.getFrame().setDouble(record.getSlot(this.identifier), value);
+        record.setDouble(this.fieldIndex, value);
     }
 
-    @Specialization
+    @Specialization(guards = "isCharField()")
     void assignChar(RecordValue record, char value) {
-        record.getFrame().setByte(record.getSlot(this.identifier), (byte) value);
+        record.setChar(this.fieldIndex, value);
     }
 
-    @Specialization
+    @Specialization(guards = "isBooleanField()")
     void assignBoolean(RecordValue record, boolean value) {
-        record.getFrame().setBoolean(record.getSlot(this.identifier), value);
+        record.setBoolean(this.fieldIndex, value);
     }
 
-    @Specialization
+    @Specialization(guards = "isReferenceField()")
     void assignPointer(RecordValue record, PointerValue pointer) {
-        PointerValue recordPointer = (PointerValue) record.getFrame().getValue(record.getSlot(this.identifier));
+        PointerValue recordPointer = (PointerValue) record.getObject(this.fieldIndex);
         recordPointer.setHeapSlot(pointer.getHeapSlot());
     }
 
-    @Specialization
+    @Specialization(guards = "isReferenceField()")
     void assignGeneric(RecordValue record, Object value) {
-        record.getFrame().setObject(record.getSlot(this.identifier), value);
+        record.setObject(this.fieldIndex, value);
+    }
+
+    protected boolean isIntField() {
+        return this.fieldKind == FrameSlotKind.Int;
+    }
+
+    protected boolean isLongField() {
+        return this.fieldKind == FrameSlotKind.Long;
+    }
+
+    protected boolean isDoubleField() {
+        return this.fieldKind == FrameSlotKind.Double;
+    }
+
+    protected boolean isCharField() {
+        return this.fieldKind == FrameSlotKind.Byte;
+    }
+
+    protected boolean isBooleanField() {
+        return this.fieldKind == FrameSlotKind.Boolean;
+    }
+
+    protected boolean isReferenceField() {
+        return this.fieldKind == FrameSlotKind.Object || this.fieldKind == FrameSlotKind.Illegal;
     }
 
 }
@@ -1,21 +1,19 @@
 package cz.cuni.mff.d3s.trupple.language.nodes.variables.write;
 
-import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.dsl.NodeChild;
 import com.oracle.truffle.api.dsl.NodeField;
+import com.oracle.truffle.api.dsl.NodeFields;
 import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.VirtualFrame;
-
-import com.oracle.truffle.api.nodes.ExplodeLoop;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalSubroutine;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalArray;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.*;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.extension.PCharDesriptor;
-
-import java.util.Arrays;
+import cz.cuni.mff.d3s.trupple.language.nodes.utils.FindStateNode;
 
 /**
  * Node representing assignment to a variable of primitive type.
@@ -23,13 +21,18 @@ import java.util.Arrays;
  * This node uses specializations which means that it is not used directly but completed node is generated by Truffle.
  * {@link SimpleAssignmentNodeGen}
  */
-@NodeField(name = "slot", type = FrameSlot.class)
+@NodeFields({
+    @NodeField(name = "slot", type = FrameSlot.class),
+    @NodeField(name = "depth", type = int.class)
+})
 @NodeChild(value = "valueNode", type = ExpressionNode.class)
 public abstract class SimpleAssignmentNode extends StatementNode {
 
+    @Child private FindStateNode findStateNode = new FindStateNode();
+
     protected abstract FrameSlot getSlot();
 
-    @CompilerDirectives.CompilationFinal private int jumps = -1;
+    protected abstract int getDepth();
 
     @Specialization
     void writeInt(VirtualFrame frame, int value) {
@@ -79,10 +82,10 @@ public abstract class SimpleAssignmentNode extends StatementNode {
 
     @Specialization
     void assignString(VirtualFrame frame, PascalString value) {
-        frame = getFrame(frame);
-        Object targetObject = frame.getValue(getSlot());
+        Frame targetFrame = getFrame(frame);
+        Object targetObject = targetFrame.getValue(getSlot());
         if (targetObject instanceof PascalString) {
-            frame.setObject(getSlot(), value);
+            targetFrame.setObject(getSlot(), value.createDeepCopy());
         } else if (targetObject instanceof PointerValue) {
             PointerValue pointerValue = (PointerValue) targetObject;
             if (pointerValue.getType() instanceof PCharDesriptor) {
@@ -96,62 +99,18 @@ public abstract class SimpleAssignmentNode extends StatementNode {
         getFrame(frame).setObject(getSlot(), subroutine);
     }
 
-    @Specialization
-    void assignIntArray(VirtualFrame frame, int[] array) {
-        getFrame(frame).setObject(getSlot(), Arrays.copyOf(array, array.length));
-    }
-
-    @Specialization
-    void assignLongArray(VirtualFrame frame, long[] array) {
-        getFrame(frame).setObject(getSlot(), Arrays.copyOf(array, array.length));
-    }
-
-    @Specialization
-    void assignDoubleArray(VirtualFrame frame, double[] array) {
-        getFrame(frame).setObject(getSlot(), Arrays.copyOf(array, array.length));
-    }
-
-    @Specialization
-    void assignCharArray(VirtualFrame frame, char[] array) {
-        getFrame(frame).setObject(getSlot(), Arrays.copyOf(array, array.length));
-    }
-
-    @Specialization
-    void assignBooleanArray(VirtualFrame frame, boolean[] array) {
-        getFrame(frame).setObject(getSlot(), Arrays.copyOf(array, array.length));
-    }
-
-    /**
-     * This is used for multidimensional arrays
-     */
-    @Specialization
-    void assignArray(VirtualFrame frame, Object[] array) {
-        getFrame(frame).setObject(getSlot(), Arrays.copyOf(array, array.length));
-    }
-
-
     @Specialization
     void assignArray(VirtualFrame frame, PascalArray array) {
         getFrame(frame).setObject(getSlot(), array.createDeepCopy());
     }
 
     private void assignPChar(PointerValue pcharPointer, PascalString value) {
-        PCharValue pchar = (PCharValue) pcharPointer.getDereferenceValue();
-        pchar.assignString(value.toString());
+        PCharValue pchar = (PCharValue) pcharPointer.getDereferenceValue(this.findStateNode.execute().getHeap());
+        pchar.assignString(value);
     }
 
-    @ExplodeLoop
-    private VirtualFrame getFrame(VirtualFrame frame) {
-        if (jumps == -1) {
-            jumps = this.getJumpsToFrame(frame, getSlot());
-            CompilerDirectives.transferToInterpreterAndInvalidate();
-        }
-
-        for (int i = 0; i < jumps; ++i) {
-            frame = (VirtualFrame) frame.getArguments()[0];
-        }
-
-        return frame;
+    private Frame getFrame(VirtualFrame frame) {
+        return getParentFrame(frame, getDepth());
     }
 
 }
@@ -0,0 +1,399 @@
+package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Representation of array-type variables except strings. The elements are stored in a Java array of the corresponding
+ * primitive type or in an array of objects, each kind has its own subclass. Copies of an array share the Java array
+ * until one of them is modified (see {@link CopyOnWriteValue}).
+ */
+public abstract class ArrayValue extends CopyOnWriteValue implements PascalArray, Serializable {
+
+    /**
+     * Gets number of elements of the array.
+     */
+    public abstract int getLength();
+
+    /**
+     * Gets the Java array with the elements. It must not be modified because it may be shared with other arrays.
+     */
+    public abstract Object getData();
+
+    /**
+     * Gets the Java array with the elements which may be modified. It is copied first if it is shared.
+     */
+    public Object getDataForWrite() {
+        this.ensureOwned();
+        return this.getData();
+    }
+
+    /**
+     * Creates a new array from the specified number of consecutive elements beginning at the specified index.
+     */
+    public abstract ArrayValue copyRange(int from, int length);
+
+    /**
+     * Overwrites consecutive elements beginning at the specified index with the elements of the specified array.
+     */
+    public void setRange(int index, ArrayValue values) {
+        System.arraycopy(values.getData(), 0, this.getDataForWrite(), index, values.getLength());
+    }
+
+    public static final class IntArray extends ArrayValue {
+
+        private int[] data;
+
+        public IntArray(int[] data) {
+            this.data = data;
+        }
+
+        public int get(int index) {
+            return this.data[index];
+        }
+
+        public void set(int index, int value) {
+            this.ensureOwned();
+            this.data[index] = value;
+        }
+
+        @Override
+        public int getLength() {
+            return this.data.length;
+        }
+
+        @Override
+        public Object getData() {
+            return this.data;
+        }
+
+        @Override
+        public Object getValueAt(int index) {
+            return this.get(index);
+        }
+
+        @Override
+        public void setValueAt(int index, Object value) {
+            this.set(index, (int) value);
+        }
+
+        @Override
+        public Object createDeepCopy() {
+            return this.share(new IntArray(this.data));
+        }
+
+        @Override
+        public ArrayValue copyRange(int from, int length) {
+            return new IntArray(Arrays.copyOfRange(this.data, from, from + length));
+        }
+
+        @Override
+        protected void copyData() {
+            this.data = this.data.clone();
+        }
+
+    }
+
+    public static final class LongArray extends ArrayValue {
+
+        private long[] data;
+
+        public LongArray(long[] data) {
+            this.data = data;
+        }
+
+        public long get(int index) {
+            return this.data[index];
+        }
+
+        public void set(int index, long value) {
+            this.ensureOwned();
+            this.data[index] = value;
+        }
+
+        @Override
+        public int getLength() {
+            return this.data.length;
+        }
+
+        @Override
+        public Object getData() {
+            return this.data;
+        }
+
+        @Override
+        public Object getValueAt(int index) {
+            return this.get(index);
+        }
+
+        @Override
+        public void setValueAt(int index, Object value) {
+            this.set(index, (long) value);
+        }
+
+        @Override
+        public Object createDeepCopy() {
+            return this.share(new LongArray(this.data));
+        }
+
+        @Override
+        public ArrayValue copyRange(int from, int length) {
+            return new LongArray(Arrays.copyOfRange(this.data, from, from + length));
+        }
+
+        @Override
+        protected void copyData() {
+            this.data = this.data.clone();
+        }
+
+    }
+
+    public static final class RealArray extends ArrayValue {
+
+        private double[] data;
+
+        public RealArray(double[] data) {
+            this.data = data;
+        }
+
+        public double get(int index) {
+            return this.data[index];
+        }
+
+        public void set(int index, double value) {
+            this.ensureOwned();
+            this.data[index] = value;
+        }
+
+        @Override
+        public int getLength() {
+            return this.data.length;
+        }
+
+        @Override
+        public Object getData() {
+            return this.data;
+        }
+
+        @Override
+        public Object getValueAt(int index) {
+            return this.get(index);
+        }
+
+        @Override
+        public void setValueAt(int index, Object value) {
+            this.set(index, (double) value);
+        }
+
+        @Override
+        public Object createDeepCopy() {
+            return this.share(new RealArray(this.data));
+        }
+
+        @Override
+        public ArrayValue copyRange(int from, int length) {
+            return new RealArray(Arrays.copyOfRange(this.data, from, from + length));
+        }
+
+        @Override
+        protected void copyData() {
+            this.data = this.data.clone();
+        }
+
+    }
+
+    public static final class CharArray extends ArrayValue {
+
+        private char[] data;
+
+        public CharArray(char[] data) {
+            this.data = data;
+        }
+
+        public char get(int index) {
+            return this.data[index];
+        }
+
+        public void set(int index, char value) {
+            this.ensureOwned();
+            this.data[index] = value;
+        }
+
+        @Override
+        public int getLength() {
+            return this.data.length;
+        }
+
+        @Override
+        public Object getData() {
+            return this.data;
+        }
+
+        @Override
+        public Object getValueAt(int index) {
+            return this.get(index);
+        }
+
+        @Override
+        public void setValueAt(int index, Object value) {
+            this.set(index, (char) value);
+        }
+
+        @Override
+        public Object createDeepCopy() {
+            return this.share(new CharArray(this.data));
+        }
+
+        @Override
+        public ArrayValue copyRange(int from, int length) {
+            return new CharArray(Arrays.copyOfRange(this.data, from, from + length));
+        }
+
+        @Override
+        protected void copyData() {
+            this.data = this.data.clone();
+        }
+
+    }
+
+    public static final class BooleanArray extends ArrayValue {
+
+        private boolean[] data;
+
+        public BooleanArray(boolean[] data) {
+            this.data = data;
+        }
+
+        public boolean get(int index) {
+            return this.data[index];
+        }
+
+        public void set(int index, boolean value) {
+            this.ensureOwned();
+            this.data[index] = value;
+        }
+
+        @Override
+        public int getLength() {
+            return this.data.length;
+        }
+
+        @Override
+        public Object getData() {
+            return this.data;
+        }
+
+        @Override
+        public Object getValueAt(int index) {
+            return this.get(index);
+        }
+
+        @Override
+        public void setValueAt(int index, Object value) {
+            this.set(index, (boolean) value);
+        }
+
+        @Override
+        public Object createDeepCopy() {
+            return this.share(new BooleanArray(this.data));
+        }
+
+        @Override
+        public ArrayValue copyRange(int from, int length) {
+            return new BooleanArray(Arrays.copyOfRange(this.data, from, from + length));
+        }
+
+        @Override
+        protected void copyData() {
+            this.data = this.data.clone();
+        }
+
+    }
+
+    /**
+     * Array of values of non-primitive types (records, strings, enums, nested arrays, etc.). The elements are copied
+     * by {@link CopyOnWriteValue#copyValue(Object)} when they are stored and when the array copies its data, so nested
+     * arrays and records are never shared between two variables. Reading an element does not copy anything, an element
+     * which is going to be modified in place has to be obtained by {@link ObjectArray#getForWrite(int)}.
+     */
+    public static final class ObjectArray extends ArrayValue {
+
+        private Object[] data;
+
+        public ObjectArray(Object[] data) {
+            this.data = data;
+        }
+
+        public Object get(int index) {
+            return this.data[index];
+        }
+
+        /**
+         * Gets an element which is going to be modified in place. The array copies its shared data first, so the
+         * element is not shared with the array's copies.
+         */
+        public Object getForWrite(int index) {
+            this.ensureOwned();
+            return this.data[index];
+        }
+
+        public void set(int index, Object value) {
+            this.ensureOwned();
+            this.data[index] = copyValue(value);
+        }
+
+        @Override
+        public int getLength() {
+            return this.data.length;
+        }
+
+        @Override
+        public Object getData() {
+            return this.data;
+        }
+
+        @Override
+        public Object getValueAt(int index) {
+            return this.get(index);
+        }
+
+        @Override
+        public void setValueAt(int index, Object value) {
+            this.set(index, value);
+        }
+
+        @Override
+        public Object createDeepCopy() {
+            return this.share(new ObjectArray(this.data));
+        }
+
+        @Override
+        public ArrayValue copyRange(int from, int length) {
+            Object[] values = new Object[length];
+            for (int i = 0; i < length; ++i) {
+                values[i] = copyValue(this.data[from + i]);
+            }
+            return new ObjectArray(values);
+        }
+
+        @Override
+        public void setRange(int index, ArrayValue values) {
+            this.ensureOwned();
+            Object[] source = (Object[]) values.getData();
+            for (int i = 0; i < source.length; ++i) {
+                this.data[index + i] = copyValue(source[i]);
+            }
+        }
+
+        @Override
+        protected void copyData() {
+            Object[] values = new Object[this.data.length];
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = copyValue(this.data[i]);
+            }
+            this.data = values;
+        }
+
+    }
+
+}
@@ -0,0 +1,481 @@
+package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
+
+import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.*;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.IndexOutOfBoundsException;
+import cz.cuni.mff.d3s.trupple.language.runtime.io.BinaryCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Representation of typed-file variables whose elements have a fixed-width binary encoding (see {@link BinaryCodec}).
+ * The n-th element of the file starts at byte n * (size of the element), so the current position is kept as an index
+ * of an element and seeking to any element takes constant time.
+ *
+ * The file is accessed through a {@link FileChannel}. Elements are read through a direct buffer holding a window of
+ * consecutive elements of the file. Consecutively written values are collected in another direct buffer and written
+ * to the channel at once when the buffer is full, when the values are not consecutive anymore or before the file is
+ * read, resized or closed.
+ *
+ * If mapped files are turned on for the context (see {@link PascalLanguage#MAPPED_FILES_CONFIG}), the content of the
+ * file is mapped to memory instead, so elements are decoded directly from the page cache. Elements appended behind the
+ * mapped region are written through the channel and the mapping is extended when they are read.
+ */
+public class BinaryFileValue implements FileValue {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Largest file that can be mapped by a single {@link java.nio.MappedByteBuffer}.
+     */
+    private static final long MAX_MAPPED_SIZE = Integer.MAX_VALUE;
+
+    private final BinaryCodec codec;
+    private final int elementSize;
+
+    private final ByteBuffer readBuffer;
+    private final ByteBuffer writeBuffer;
+
+    /**
+     * Index of the first element in the read buffer.
+     */
+    private long bufferStart;
+
+    /**
+     * Number of elements in the read buffer.
+     */
+    private int bufferCount;
+
+    /**
+     * Index of the first element in the write buffer.
+     */
+    private long pendingStart;
+
+    /**
+     * Number of elements in the write buffer which were not written to the channel yet.
+     */
+    private int pendingCount;
+
+    /**
+     * Index of the current element.
+     */
+    private long position;
+
+    private FileChannel channel;
+    private boolean writable;
+    private String filePath;
+
+    /**
+     * Flag whether the file is accessed through {@link BinaryFileValue#mapping}.
+     */
+    private boolean mapped;
+
+    /**
+     * Memory mapped content of the file. It is null until the file is read or if the file was truncated.
+     */
+    private ByteBuffer mapping;
+
+    public BinaryFileValue(BinaryCodec codec) {
+        this.codec = codec;
+        this.elementSize = codec.getSize();
+        int capacity = Math.max(1, BUFFER_SIZE / this.elementSize) * this.elementSize;
+        this.readBuffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        this.writeBuffer = ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    @Override
+    public Object read() {
+        if (this.channel == null) {
+            throw new NotOpenedToReadException();
+        }
+        this.flush();
+        if (this.mapped && this.ensureMapped(this.position + 1)) {
+            this.mapping.position((int) (this.position * this.elementSize));
+            ++this.position;
+            return this.codec.read(this.mapping);
+        }
+        if (!this.isBuffered(this.position)) {
+            this.fillReadBuffer();
+            if (this.bufferCount == 0) {
+                throw new EndOfFileException();
+            }
+        }
+
+        this.readBuffer.position((int) (this.position - this.bufferStart) * this.elementSize);
+        ++this.position;
+        return this.codec.read(this.readBuffer);
+    }
+
+    private boolean isBuffered(long index) {
+        return index >= this.bufferStart && index < this.bufferStart + this.bufferCount;
+    }
+
+    /**
+     * Loads the elements starting at the current position to the read buffer.
+     */
+    private void fillReadBuffer() {
+        this.readBuffer.clear();
+        this.readFully(this.readBuffer, this.position * this.elementSize);
+        this.bufferStart = this.position;
+        this.bufferCount = this.readBuffer.position() / this.elementSize;
+    }
+
+    /**
+     * Reads bytes from the channel to the buffer until the buffer is full or the end of the file is reached.
+     */
+    private void readFully(ByteBuffer buffer, long offset) {
+        try {
+            int start = buffer.position();
+            while (buffer.hasRemaining()) {
+                if (this.channel.read(buffer, offset + buffer.position() - start) == -1) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new PascalRuntimeException("Unexpected exception thrown while reading from a file");
+        }
+    }
+
+    /**
+     * Checks whether the elements preceding the specified index are mapped to memory. The file is mapped again if it
+     * grew since the last mapping. If the file is too large to be mapped, the mapped mode is turned off.
+     */
+    private boolean ensureMapped(long endIndex) {
+        long end = endIndex * this.elementSize;
+        if (this.mapping != null && end <= this.mapping.limit()) {
+            return true;
+        }
+
+        try {
+            long size = this.channel.size();
+            if (size > MAX_MAPPED_SIZE) {
+                this.mapped = false;
+                this.mapping = null;
+                return false;
+            }
+            FileChannel.MapMode mode = (this.writable)? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY;
+            this.mapping = this.channel.map(mode, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new PascalRuntimeException("Unexpected exception thrown while mapping a file");
+        }
+
+        return end <= this.mapping.limit();
+    }
+
+    /**
+     * Checks whether the elements from the specified index (inclusive) to the end index (exclusive) are already mapped
+     * and can be written to the mapped memory.
+     */
+    private boolean isMappedForWrite(long index, long endIndex) {
+        return this.mapped && this.writable && this.mapping != null && index >= 0 &&
+                endIndex * this.elementSize <= this.mapping.limit();
+    }
+
+    @Override
+    public void write(Object value) {
+        this.checkOpenedToWrite();
+        if (this.isMappedForWrite(this.position, this.position + 1)) {
+            this.mapping.position((int) (this.position * this.elementSize));
+            this.codec.write(this.mapping, value);
+            ++this.position;
+            return;
+        }
+
+        if (this.pendingCount > 0 && (this.position != this.pendingStart + this.pendingCount ||
+                this.writeBuffer.remaining() < this.elementSize)) {
+            this.flush();
+        }
+        if (this.pendingCount == 0) {
+            this.writeBuffer.clear();
+            this.pendingStart = this.position;
+        }
+        this.codec.write(this.writeBuffer, value);
+        ++this.pendingCount;
+        if (this.isBuffered(this.position)) {
+            this.bufferCount = 0;
+        }
+        ++this.position;
+    }
+
+    @Override
+    public void write(Object[] values) {
+        for (Object value : values) {
+            this.write(value);
+        }
+    }
+
+    /**
+     * Writes the values collected in the write buffer to the channel.
+     */
+    @Override
+    public void flush() {
+        if (this.pendingCount == 0) {
+            return;
+        }
+
+        this.writeBuffer.flip();
+        long offset = this.pendingStart * this.elementSize;
+        try {
+            while (this.writeBuffer.hasRemaining()) {
+                this.channel.write(this.writeBuffer, offset + this.writeBuffer.position());
+            }
+        } catch (IOException e) {
+            throw new PascalRuntimeException("Unexpected exception thrown while writing to a file");
+        } finally {
+            this.pendingCount = 0;
+        }
+    }
+
+    /**
+     * Reads the specified number of elements from the current position to the beginning of the array in one bulk
+     * operation (Turbo Pascal's blockread).
+     * @param array the array of values of the file's element type
+     * @param count number of elements to be read
+     */
+    public void readBlock(ArrayValue array, long count) {
+        this.checkBlockSize(array, count);
+        Object data = array.getDataForWrite();
+        if (this.channel == null) {
+            throw new NotOpenedToReadException();
+        }
+        this.flush();
+        long endIndex = this.position + count;
+        if (endIndex > this.getSize()) {
+            throw new EndOfFileException();
+        }
+
+        if (this.mapped && this.ensureMapped(endIndex)) {
+            this.mapping.position((int) (this.position * this.elementSize));
+            this.codec.readValues(this.mapping, data, 0, (int) count);
+        } else {
+            int done = 0;
+            while (done < count) {
+                int chunk = (int) Math.min(count - done, this.readBuffer.capacity() / this.elementSize);
+                this.readBuffer.clear();
+                this.readBuffer.limit(chunk * this.elementSize);
+                this.readFully(this.readBuffer, (this.position + done) * this.elementSize);
+                this.readBuffer.flip();
+                this.codec.readValues(this.readBuffer, data, done, chunk);
+                done += chunk;
+            }
+            this.bufferCount = 0;
+        }
+        this.position = endIndex;
+    }
+
+    /**
+     * Writes the specified number of elements from the beginning of the array to the current position in one bulk
+     * operation (Turbo Pascal's blockwrite).
+     * @param array the array of values of the file's element type
+     * @param count number of elements to be written
+     */
+    public void writeBlock(ArrayValue array, long count) {
+        this.checkBlockSize(array, count);
+        Object data = array.getData();
+        this.checkOpenedToWrite();
+        if (this.isMappedForWrite(this.position, this.position + count)) {
+            this.mapping.position((int) (this.position * this.elementSize));
+            this.codec.writeValues(this.mapping, data, 0, (int) count);
+            this.position += count;
+            return;
+        }
+
+        int done = 0;
+        while (done < count) {
+            int chunk = (int) Math.min(count - done, this.writeBuffer.capacity() / this.elementSize);
+            this.flush();
+            this.writeBuffer.clear();
+            this.codec.writeValues(this.writeBuffer, data, done, chunk);
+            this.pendingStart = this.position;
+            this.pendingCount = chunk;
+            this.position += chunk;
+            done += chunk;
+        }
+        this.bufferCount = 0;
+    }
+
+    private void checkBlockSize(ArrayValue array, long count) {
+        if (count < 0 || count > array.getLength()) {
+            throw new IndexOutOfBoundsException();
+        }
+    }
+
+    private void checkOpenedToWrite() {
+        if (this.channel == null || !this.writable) {
+            throw new NotOpenedToWriteException();
+        }
+    }
+
+    @Override
+    public void writeln(Object[] values) {
+        this.write(values);
+    }
+
+    @Override
+    public void assignFilePath(String filePath) {
+        this.filePath = filePath;
+    }
+
+    /**
+     * Checks whether the current position is at the end of the file. The size of the file is not queried if the
+     * current element is already buffered or mapped.
+     */
+    @Override
+    public boolean eof() {
+        if (this.channel == null) {
+            return true;
+        } else if (this.isBuffered(this.position) ||
+                (this.mapping != null && (this.position + 1) * this.elementSize <= this.mapping.limit())) {
+            return false;
+        }
+
+        return this.position >= this.getSize();
+    }
+
+    @Override
+    public boolean eoln() {
+        return false;
+    }
+
+    /**
+     * Gets index of the current element.
+     */
+    public long getPosition() {
+        this.checkOpened();
+        return this.position;
+    }
+
+    /**
+     * Gets number of elements in the file.
+     */
+    public long getSize() {
+        this.checkOpened();
+        this.flush();
+        try {
+            return this.channel.size() / this.elementSize;
+        } catch (IOException e) {
+            throw new PascalRuntimeException("Unexpected exception thrown while reading a file");
+        }
+    }
+
+    /**
+     * Moves the current position to the element with the specified index. The index may point right behind the last
+     * element of the file.
+     */
+    public void seek(long position) {
+        if (position < 0 || position > this.getSize()) {
+            throw new FilePositionOutOfRangeException(position);
+        }
+        this.position = position;
+    }
+
+    /**
+     * Removes all elements from the current position to the end of the file. The mapping of the file is dropped,
+     * because accessing the mapped memory behind the end of the file is not allowed.
+     */
+    public void truncate() {
+        this.checkOpened();
+        this.flush();
+        try {
+            this.mapping = null;
+            this.channel.truncate(this.position * this.elementSize);
+        } catch (NonWritableChannelException e) {
+            throw new NotOpenedToWriteException();
+        } catch (IOException e) {
+            throw new PascalRuntimeException("Unexpected exception thrown while writing to a file");
+        }
+        if (this.bufferStart + this.bufferCount > this.position) {
+            this.bufferCount = 0;
+        }
+    }
+
+    private void checkOpened() {
+        if (this.channel == null) {
+            throw new NotOpenedToReadException();
+        }
+    }
+
+    /**
+     * Opens the existing file for reading. The file is opened for writing too, if it is allowed.
+     */
+    @Override
+    public void openToRead() {
+        try {
+            this.open(true, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (AccessDeniedException e) {
+            try {
+                this.open(false, StandardOpenOption.READ);
+            } catch (AccessDeniedException readDenied) {
+                throw new NotOpenedToReadException();
+            }
+        }
+    }
+
+    /**
+     * Creates a new empty file or truncates the existing one and opens it for writing and reading.
+     */
+    @Override
+    public void openToWrite() {
+        try {
+            this.open(true, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        } catch (AccessDeniedException e) {
+            throw new NotOpenedToWriteException();
+        }
+    }
+
+    private void open(boolean writable, StandardOpenOption... options) throws AccessDeniedException {
+        if (this.filePath == null) {
+            throw new FileNotAssignedPathException();
+        }
+        this.close();
+        try {
+            this.channel = FileChannel.open(Paths.get(this.filePath), options);
+        } catch (NoSuchFileException e) {
+            this.channel = null;
+            throw new FileNotFoundException(this.filePath);
+        } catch (AccessDeniedException e) {
+            this.channel = null;
+            throw e;
+        } catch (IOException e) {
+            this.channel = null;
+            throw new PascalRuntimeException("Unexpected exception while opening a file");
+        }
+        this.writable = writable;
+        this.mapped = PascalLanguage.INSTANCE.getCurrentState().usesMappedFiles();
+        this.position = 0;
+        this.bufferCount = 0;
+    }
+
+    /**
+     * Writes the collected values to the channel and closes it.
+     */
+    @Override
+    public void close() {
+        if (this.channel == null) {
+            return;
+        }
+        try {
+            this.flush();
+        } finally {
+            this.mapping = null;
+            this.bufferCount = 0;
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                throw new PascalRuntimeException("Unexpected exception thrown while closing a file");
+            } finally {
+                this.channel = null;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
+
+/**
+ * Base class of compound values (arrays and records) which are copied lazily. A copy shares the data with the original
+ * value and both of them are marked as shared. A shared value copies its data before it is modified for the first
+ * time (copy-on-write), so assigning a value or passing it to a subroutine takes constant time and the data is copied
+ * only if one of the values is actually modified.
+ *
+ * Each instance is owned by a single variable, field or element and values stored in them are always copies (see
+ * {@link CopyOnWriteValue#copyValue(Object)}). Values nested inside a shared value may be shared with the other copy.
+ * They may be read freely, but a nested value which is going to be modified in place is returned only after the outer
+ * value copied its data.
+ */
+public abstract class CopyOnWriteValue {
+
+    private boolean shared;
+
+    /**
+     * Marks this value and its specified copy which uses the same data as shared.
+     * @return the copy
+     */
+    protected <T extends CopyOnWriteValue> T share(T copy) {
+        ((CopyOnWriteValue) copy).shared = true;
+        this.shared = true;
+
+        return copy;
+    }
+
+    /**
+     * Copies the data of this value if it is shared with other values. It has to be called before the data is
+     * modified.
+     */
+    protected final void ensureOwned() {
+        if (this.shared) {
+            this.copyData();
+            this.shared = false;
+        }
+    }
+
+    /**
+     * Replaces the data of this value with its copy. Nested values are copied by
+     * {@link CopyOnWriteValue#copyValue(Object)}.
+     */
+    protected abstract void copyData();
+
+    /**
+     * Creates a copy of the specified value which may be stored to another variable, field or element. Compound
+     * values are copied lazily and values which cannot be modified in place are returned as they are.
+     */
+    public static Object copyValue(Object value) {
+        if (value instanceof RecordValue) {
+            return ((RecordValue) value).getCopy();
+        } else if (value instanceof PascalArray) {
+            return ((PascalArray) value).createDeepCopy();
+        } else if (value instanceof SetTypeValue) {
+            return ((SetTypeValue) value).createDeepCopy();
+        } else {
+            return value;
+        }
+    }
+
+}
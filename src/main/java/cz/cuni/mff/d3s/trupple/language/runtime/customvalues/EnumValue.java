@@ -6,52 +6,74 @@ import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.EnumTypeDe
 import java.io.Serializable;
 
 /**
- * Represents Pascal enum-type variable. It contains descriptor of its enum type and a value it represents (stored as a
- * String).
+ * Represents Pascal enum-type variable. It contains descriptor of its enum type and the ordinal number of the value it
+ * represents. There is only one instance for each value of an enum type which is created by its
+ * {@link EnumTypeDescriptor}, so the successor, predecessor and comparison of values take constant time and do not
+ * allocate anything.
  */
 @CompilerDirectives.ValueType
 public class EnumValue implements Serializable {
 
 	private final EnumTypeDescriptor enumType;
-	// TODO: it would be better if the value were represented by an integer
-	private final String value;
-	
-	public EnumValue(EnumTypeDescriptor type, String value) {
+	private final int ordinal;
+
+    /**
+     * The default constructor. It should be used only by {@link EnumTypeDescriptor}, other code obtains the values
+     * from the descriptor.
+     * @param type the enum type of the value
+     * @param ordinal index of the value's identifier in the enum type's declaration
+     */
+	public EnumValue(EnumTypeDescriptor type, int ordinal) {
 		this.enumType = type;
-		this.value = value;
+		this.ordinal = ordinal;
 	}
 
+    /**
+     * Gets the identifier of the value as it appears in a Pascal source.
+     */
 	public String getValue() {
-		return value;
+		return this.enumType.getIdentifiers().get(this.ordinal);
 	}
 
+    public EnumTypeDescriptor getEnumType() {
+        return this.enumType;
+    }
+
     /**
-     * It equals another value if it is of the same enum type and holds the same value.
+     * It equals another value if it is of the same enum type and holds the same value. The values are normally compared
+     * by reference, other instances exist only when the values were deserialized.
      */
 	@Override
 	public boolean equals(Object enumValue) {
-		if (enumValue instanceof EnumValue) {
-			return this.value.equals(((EnumValue) enumValue).value);
+		if (this == enumValue) {
+		    return true;
+        } else if (enumValue instanceof EnumValue) {
+			return this.ordinal == ((EnumValue) enumValue).ordinal && this.getValue().equals(((EnumValue) enumValue).getValue());
 		} else {
-			return super.equals(enumValue);
+			return false;
 		}
 	}
 
 	@Override
 	public int hashCode() {
-	    return this.value.hashCode();
+	    return this.getValue().hashCode();
+    }
+
+    @Override
+    public String toString() {
+	    return this.getValue();
     }
 
 	public EnumValue getNext() {
-	    return this.enumType.getNext(this.value);
+	    return this.enumType.getNext(this);
     }
 
     public EnumValue getPrevious() {
-	    return this.enumType.getPrevious(this.value);
+	    return this.enumType.getPrevious(this);
     }
 
     public long getOrdinalValue() {
-        return this.enumType.getOrdinalValue(this.value);
+        return this.ordinal;
     }
 
     /**
@@ -59,6 +81,6 @@ public class EnumValue implements Serializable {
      * enum value if it was declared sooner.
      */
     public boolean lesserThan(EnumValue compareTo) {
-		return this.enumType.getIdentifiers().indexOf(this.value) < this.enumType.getIdentifiers().indexOf(compareTo.value);
+		return this.ordinal < compareTo.ordinal;
 	}
 }
@@ -57,4 +57,14 @@ public interface FileValue {
      */
     void openToWrite();
 
+    /**
+     * Writes all the buffered values to the file.
+     */
+    void flush();
+
+    /**
+     * Flushes and closes the file. The file has to be opened again before it is accessed.
+     */
+    void close();
+
 }
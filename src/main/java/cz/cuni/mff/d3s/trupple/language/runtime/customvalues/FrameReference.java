@@ -0,0 +1,114 @@
+package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.FrameSlot;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.frame.FrameSlotTypeException;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.UnexpectedRuntimeException;
+
+/**
+ * Reference to a variable stored in a frame. It contains the frame of the variable and its slot.
+ */
+@CompilerDirectives.ValueType
+public class FrameReference extends Reference {
+
+    private final MaterializedFrame fromFrame;
+    private final FrameSlot frameSlot;
+
+    /**
+     * Default c'tor.
+     * @param frame the frame of the variable
+     * @param frameSlot the variables slot to the frame
+     */
+    public FrameReference(MaterializedFrame frame, FrameSlot frameSlot) {
+        this.fromFrame = frame;
+        this.frameSlot = frameSlot;
+    }
+
+    @Override
+    public FrameSlotKind getKind() {
+        return this.frameSlot.getKind();
+    }
+
+    @Override
+    public int getInt() {
+        try {
+            return this.fromFrame.getInt(this.frameSlot);
+        } catch (FrameSlotTypeException e) {
+            throw new UnexpectedRuntimeException();
+        }
+    }
+
+    @Override
+    public long getLong() {
+        try {
+            return this.fromFrame.getLong(this.frameSlot);
+        } catch (FrameSlotTypeException e) {
+            throw new UnexpectedRuntimeException();
+        }
+    }
+
+    @Override
+    public double getDouble() {
+        try {
+            return this.fromFrame.getDouble(this.frameSlot);
+        } catch (FrameSlotTypeException e) {
+            throw new UnexpectedRuntimeException();
+        }
+    }
+
+    @Override
+    public char getChar() {
+        try {
+            return (char) this.fromFrame.getByte(this.frameSlot);
+        } catch (FrameSlotTypeException e) {
+            throw new UnexpectedRuntimeException();
+        }
+    }
+
+    @Override
+    public boolean getBoolean() {
+        try {
+            return this.fromFrame.getBoolean(this.frameSlot);
+        } catch (FrameSlotTypeException e) {
+            throw new UnexpectedRuntimeException();
+        }
+    }
+
+    @Override
+    public Object getValue() {
+        return this.fromFrame.getValue(this.frameSlot);
+    }
+
+    @Override
+    public void setInt(int value) {
+        this.fromFrame.setInt(this.frameSlot, value);
+    }
+
+    @Override
+    public void setLong(long value) {
+        this.fromFrame.setLong(this.frameSlot, value);
+    }
+
+    @Override
+    public void setDouble(double value) {
+        this.fromFrame.setDouble(this.frameSlot, value);
+    }
+
+    @Override
+    public void setChar(char value) {
+        this.fromFrame.setByte(this.frameSlot, (byte) value);
+    }
+
+    @Override
+    public void setBoolean(boolean value) {
+        this.fromFrame.setBoolean(this.frameSlot, value);
+    }
+
+    @Override
+    public void setObject(Object value) {
+        this.fromFrame.setObject(this.frameSlot, value);
+    }
+
+}
@@ -6,7 +6,8 @@ import java.io.*;
 import java.io.FileNotFoundException;
 
 /**
- * Representation of a file type value of generic inner type.
+ * Representation of a file type value of generic inner type. Its elements are stored as serialized Java objects. It is
+ * used only for files of types which do not have a fixed-width binary encoding (see {@link BinaryFileValue}).
  */
 public class ObjectFileValue implements FileValue {
 
@@ -17,6 +18,9 @@ public class ObjectFileValue implements FileValue {
 
     @Override
     public Object read() {
+        if (this.objectInput == null) {
+            throw new NotOpenedToReadException();
+        }
         try {
             return this.objectInput.readObject();
         } catch (IOException e) {
@@ -28,6 +32,9 @@ public class ObjectFileValue implements FileValue {
 
     @Override
     public void write(Object value) {
+        if (this.output == null) {
+            throw new NotOpenedToWriteException();
+        }
         try {
             this.output.writeObject(value);
         } catch (IOException e) {
@@ -54,6 +61,9 @@ public class ObjectFileValue implements FileValue {
 
     @Override
     public boolean eof() {
+        if (this.pushbackInput == null) {
+            return true;
+        }
         try {
             int result = this.pushbackInput.read();
             if (result != -1) {
@@ -78,7 +88,8 @@ public class ObjectFileValue implements FileValue {
             throw new FileNotAssignedPathException();
         }
         try {
-            this.pushbackInput = new PushbackInputStream(new FileInputStream(this.filePath));
+            this.close();
+            this.pushbackInput = new PushbackInputStream(new BufferedInputStream(new FileInputStream(this.filePath)));
             this.objectInput = new ObjectInputStream(this.pushbackInput);
         } catch (FileNotFoundException e) {
             throw new cz.cuni.mff.d3s.trupple.language.runtime.exceptions.FileNotFoundException(this.filePath);
@@ -93,11 +104,43 @@ public class ObjectFileValue implements FileValue {
             throw new FileNotAssignedPathException();
         }
         try {
-            this.output = new ObjectOutputStream(new FileOutputStream(this.filePath));
+            this.close();
+            this.output = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(this.filePath)));
         } catch (FileNotFoundException e) {
             throw new cz.cuni.mff.d3s.trupple.language.runtime.exceptions.FileNotFoundException(this.filePath);
         } catch (IOException e) {
             throw new PascalRuntimeException("Unexpected exception while opening a file");
         }
     }
+
+    @Override
+    public void flush() {
+        try {
+            if (this.output != null) {
+                this.output.flush();
+            }
+        } catch (IOException e) {
+            throw new PascalRuntimeException("Unexpected exception thrown while writing to a file");
+        }
+    }
+
+    @Override
+    public void close() {
+        ObjectOutputStream output = this.output;
+        ObjectInputStream input = this.objectInput;
+        this.output = null;
+        this.objectInput = null;
+        this.pushbackInput = null;
+        try {
+            if (output != null) {
+                output.close();
+            }
+            if (input != null) {
+                input.close();
+            }
+        } catch (IOException e) {
+            throw new PascalRuntimeException("Unexpected exception thrown while closing a file");
+        }
+    }
+
 }
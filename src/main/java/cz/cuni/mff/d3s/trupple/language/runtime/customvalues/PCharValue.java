@@ -1,68 +1,157 @@
 package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
 
-import com.oracle.truffle.api.CompilerDirectives;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.IndexOutOfBoundsException;
 
+import java.util.Arrays;
+
 /**
- * Representation of variables of PChar type. It is a slight wrapper to Java's {@link String}.
+ * Representation of variables of PChar type. Characters are stored in a mutable array whose size is the capacity of the
+ * string, so storing a character to the string does not allocate anything. Position of the first null terminator is
+ * cached, so the length of the string is known without scanning its characters.
  */
-@CompilerDirectives.ValueType
 public class PCharValue implements PascalArray {
 
-    private String data;
+    private char[] data;
+    private int terminatorIndex;
 
     public PCharValue() {
-        data = "\0";
+        this.data = new char[] { '\0' };
+        this.terminatorIndex = 0;
     }
 
     public PCharValue(long size) {
-        StringBuilder str = new StringBuilder();
-        for (int i = 0; i < size - 1; ++i) {
-            str.append(' ');
-        }
-        str.append('\0');
-        this.data = str.toString();
-    }
-
-    private PCharValue(PCharValue source) {
-        this.data = source.data;
+        int capacity = (int) Math.max(size, 1);
+        this.data = new char[capacity];
+        Arrays.fill(this.data, 0, capacity - 1, ' ');
+        this.data[capacity - 1] = '\0';
+        this.terminatorIndex = capacity - 1;
     }
 
-    private PCharValue(String data) {
+    private PCharValue(char[] data, int terminatorIndex) {
         this.data = data;
+        this.terminatorIndex = terminatorIndex;
     }
 
     public void assignString(String value) {
-        this.data = value + "\0";
+        int length = value.length();
+        this.ensureCapacity(length + 1);
+        value.getChars(0, length, this.data, 0);
+        this.setTerminator(length);
+    }
+
+    /**
+     * Assigns characters of the specified string to this PChar string. The characters are copied directly to the current
+     * array of characters if it is large enough.
+     */
+    public void assignString(PascalString value) {
+        int length = value.getLength();
+        this.ensureCapacity(length + 1);
+        value.getChars(0, length, this.data, 0);
+        this.setTerminator(length);
+    }
+
+    /**
+     * Assigns characters of the specified PChar string preceding its terminator to this PChar string.
+     */
+    public void assign(PCharValue value) {
+        int length = value.terminatorIndex;
+        this.ensureCapacity(length + 1);
+        System.arraycopy(value.data, 0, this.data, 0, length);
+        this.setTerminator(length);
+    }
+
+    /**
+     * Appends characters of the specified PChar string preceding its terminator to this PChar string. The characters
+     * are written in place if the capacity of this string suffices.
+     */
+    public void append(PCharValue value) {
+        int length = this.terminatorIndex + value.terminatorIndex;
+        this.ensureCapacity(length + 1);
+        System.arraycopy(value.data, 0, this.data, this.terminatorIndex, value.terminatorIndex);
+        this.setTerminator(length);
     }
 
+    /**
+     * Returns the characters preceding the null terminator followed by the terminator.
+     */
     @Override
     public String toString() {
-        return data;
+        return new String(this.data, 0, Math.min(this.terminatorIndex + 1, this.data.length));
+    }
+
+    /**
+     * Gets number of characters preceding the null terminator.
+     */
+    public int getLength() {
+        return this.terminatorIndex;
+    }
+
+    /**
+     * Gets the characters preceding the null terminator.
+     */
+    public String getString() {
+        return new String(this.data, 0, this.terminatorIndex);
+    }
+
+    public char charAt(int index) {
+        this.checkArrayIndex(index);
+        return this.data[index];
+    }
+
+    public void setChar(int index, char value) {
+        this.checkArrayIndex(index);
+        this.data[index] = value;
+        if (value == '\0') {
+            if (index < this.terminatorIndex) {
+                this.terminatorIndex = index;
+            }
+        } else if (index == this.terminatorIndex) {
+            this.terminatorIndex = this.findTerminator(index + 1);
+        }
     }
 
     @Override
     public Object getValueAt(int index) {
-        return this.data.charAt(index);
+        return this.charAt(index);
     }
 
     @Override
     public void setValueAt(int index, Object value) {
-        this.checkArrayIndex(index);
-        this.data = this.data.substring(0, index) + value + this.data.substring(index + 1);
+        this.setChar(index, (Character) value);
     }
 
     @Override
     public Object createDeepCopy() {
-        return new PCharValue(this);
+        return new PCharValue(this.data.clone(), this.terminatorIndex);
     }
 
     private void checkArrayIndex(int index) {
-        if (index >= this.data.length()) {
+        if (index >= this.data.length) {
             throw new IndexOutOfBoundsException();
         }
     }
 
+    private void ensureCapacity(int capacity) {
+        if (this.data.length < capacity) {
+            this.data = Arrays.copyOf(this.data, capacity);
+        }
+    }
+
+    private void setTerminator(int index) {
+        this.data[index] = '\0';
+        this.terminatorIndex = index;
+    }
+
+    private int findTerminator(int from) {
+        for (int i = from; i < this.data.length; ++i) {
+            if (this.data[i] == '\0') {
+                return i;
+            }
+        }
+
+        return this.data.length;
+    }
+
     /**
      * Creates and returns a new PChar string which is created by concatenation of two PChar strings.
      * @param left the left argument of the concatenation operation
@@ -70,12 +159,13 @@ public class PCharValue implements PascalArray {
      * @return the PChar string
      */
     public static PCharValue concat(PCharValue left, PCharValue right) {
-        StringBuilder newData = new StringBuilder();
-        newData.append(left.data);
-        newData.deleteCharAt(newData.length() - 1);
-        newData.append(right.data);
+        int length = left.terminatorIndex + right.terminatorIndex;
+        char[] data = new char[length + 1];
+        System.arraycopy(left.data, 0, data, 0, left.terminatorIndex);
+        System.arraycopy(right.data, 0, data, left.terminatorIndex, right.terminatorIndex);
+        data[length] = '\0';
 
-        return new PCharValue(newData.toString());
+        return new PCharValue(data, length);
     }
 
 }
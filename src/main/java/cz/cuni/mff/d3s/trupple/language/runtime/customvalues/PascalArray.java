@@ -3,8 +3,8 @@ package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
 import com.oracle.truffle.api.CompilerDirectives;
 
 /**
- * Interface for all array-type variables. Currently it is used only for {@link PCharValue} and {@link PascalString}.
- * Other arrays are stored as Object[] or arrays of primitive types for better performance.
+ * Interface for all array-type variables. It is implemented by {@link PCharValue}, {@link PascalString} and
+ * {@link ArrayValue} which stores the other arrays in Java arrays of primitive types or objects.
  */
 @CompilerDirectives.ValueType
 public interface PascalArray {
@@ -23,7 +23,9 @@ public interface PascalArray {
     void setValueAt(int index, Object value);
 
     /**
-     * Creates a deep copy of the array.
+     * Creates a copy of the array which behaves as a deep copy: modifying either of the arrays does not affect the
+     * other one. {@link ArrayValue} does not copy its elements here, the copy shares them with the original until one
+     * of the arrays is modified (see {@link CopyOnWriteValue}).
      */
     Object createDeepCopy();
 
@@ -1,43 +1,97 @@
 package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
 
+import java.util.Arrays;
+
 /**
- * Representation of a string-type variable.
+ * Representation of a string-type variable. Characters of the string are stored in a growable buffer which may be
+ * longer than the string itself, so the length is stored explicitly. Copies of the string share the buffer until one
+ * of them is modified (copy-on-write), so assigning a string does not copy its characters and assigning a character to
+ * an index of the string does not create a new string.
+ *
+ * Concatenation appends the new characters to the shared buffer in place if no other string has appended anything to
+ * it yet. Each string only sees the first {@link PascalString#length} characters of the buffer, so repeated
+ * statements like s := s + c take amortized constant time.
  */
 public class PascalString implements PascalArray {
 
-    private String value;
+    private static final int MINIMAL_CAPACITY = 16;
+
+    /**
+     * Array of characters shared by strings. It knows how many of its characters are already used by some string.
+     */
+    private static final class Buffer {
+
+        private char[] data;
+        private int used;
+
+        private Buffer(char[] data, int used) {
+            this.data = data;
+            this.used = used;
+        }
+
+    }
+
+    private Buffer buffer;
+    private final int length;
+    private boolean shared;
 
     public PascalString() {
-        this.value = "";
+        this(new Buffer(new char[0], 0), 0);
     }
 
     public PascalString(String value) {
-        this.value = value;
+        this(new Buffer(value.toCharArray(), value.length()), value.length());
+    }
+
+    private PascalString(Buffer buffer, int length) {
+        this.buffer = buffer;
+        this.length = length;
+    }
+
+    public int getLength() {
+        return this.length;
     }
 
-    private PascalString(PascalString pascalString) {
-        this.value = pascalString.value;
+    public char charAt(int index) {
+        if (index >= this.length) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        return this.buffer.data[index];
+    }
+
+    public void setChar(int index, char value) {
+        if (index >= this.length) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+        if (this.shared) {
+            this.buffer = new Buffer(Arrays.copyOf(this.buffer.data, this.length), this.length);
+            this.shared = false;
+        }
+        this.buffer.data[index] = value;
     }
 
     @Override
     public Object getValueAt(int index) {
-        return this.value.charAt(index);
+        return this.charAt(index);
     }
 
     @Override
     public void setValueAt(int index, Object value) {
-        char newChar = (Character) value;
-        this.value = this.value.substring(0, index) + newChar + this.value.substring(++index);
+        this.setChar(index, (Character) value);
     }
 
+    /**
+     * Creates a copy of the string which shares the buffer with this string. Both strings copy the buffer before they
+     * are modified.
+     */
     @Override
     public Object createDeepCopy() {
-        return new PascalString(this);
+        return this.share(this.length);
     }
 
     @Override
     public String toString() {
-        return this.value;
+        return new String(this.buffer.data, 0, this.length);
     }
 
     /**
@@ -45,7 +99,12 @@ public class PascalString implements PascalArray {
      * @return the new string
      */
     public PascalString concatenate(char value) {
-        return new PascalString(this.value.concat(String.valueOf(value)));
+        int newLength = this.length + 1;
+        Buffer target = this.getAppendableBuffer(newLength);
+        target.data[this.length] = value;
+        target.used = newLength;
+
+        return (target == this.buffer)? this.share(newLength) : new PascalString(target, newLength);
     }
 
     /**
@@ -54,7 +113,108 @@ public class PascalString implements PascalArray {
      * @return the new string
      */
     public PascalString concatenate(PascalString value) {
-        return new PascalString(this.value.concat(value.value));
+        int newLength = this.length + value.length;
+        Buffer target = this.getAppendableBuffer(newLength);
+        System.arraycopy(value.buffer.data, 0, target.data, this.length, value.length);
+        target.used = newLength;
+
+        return (target == this.buffer)? this.share(newLength) : new PascalString(target, newLength);
+    }
+
+    /**
+     * Copies characters of this string from the begin index (inclusive) to the end index (exclusive) to the specified
+     * array starting at the specified offset.
+     */
+    public void getChars(int begin, int end, char[] destination, int offset) {
+        System.arraycopy(this.buffer.data, begin, destination, offset, end - begin);
+    }
+
+    /**
+     * Returns a new string containing characters of this string from the specified begin index (inclusive) to the end
+     * index (exclusive).
+     */
+    public PascalString substring(int begin, int end) {
+        char[] data = Arrays.copyOfRange(this.buffer.data, begin, end);
+        return new PascalString(new Buffer(data, data.length), data.length);
+    }
+
+    /**
+     * Returns a new string in which characters of this string from the begin index (inclusive) to the end index
+     * (exclusive) are replaced by the specified string.
+     */
+    public PascalString replace(int begin, int end, PascalString value) {
+        int newLength = this.length - (end - begin) + value.length;
+        char[] data = new char[newLength];
+        System.arraycopy(this.buffer.data, 0, data, 0, begin);
+        System.arraycopy(value.buffer.data, 0, data, begin, value.length);
+        System.arraycopy(this.buffer.data, end, data, begin + value.length, this.length - end);
+
+        return new PascalString(new Buffer(data, newLength), newLength);
+    }
+
+    /**
+     * Gets index of the first occurrence of the specified string in this string or -1 if it does not occur in it or
+     * it is empty.
+     */
+    public int indexOf(PascalString pattern) {
+        if (pattern.length == 0) {
+            return -1;
+        }
+
+        char[] data = this.buffer.data;
+        char[] patternData = pattern.buffer.data;
+        for (int i = 0; i + pattern.length <= this.length; ++i) {
+            int j = 0;
+            while (j < pattern.length && data[i + j] == patternData[j]) {
+                ++j;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns a new string whose value is the concatenation of all the specified strings.
+     */
+    public static PascalString concatenate(PascalString[] values) {
+        int newLength = 0;
+        for (PascalString value : values) {
+            newLength += value.length;
+        }
+
+        char[] data = new char[newLength];
+        int offset = 0;
+        for (PascalString value : values) {
+            System.arraycopy(value.buffer.data, 0, data, offset, value.length);
+            offset += value.length;
+        }
+
+        return new PascalString(new Buffer(data, newLength), newLength);
+    }
+
+    /**
+     * Gets buffer into which the characters following this string can be written. It is the current buffer if nothing
+     * was appended to this string yet and the buffer is large enough, otherwise a new buffer is created.
+     */
+    private Buffer getAppendableBuffer(int newLength) {
+        if (this.buffer.used == this.length && newLength <= this.buffer.data.length) {
+            return this.buffer;
+        }
+
+        int capacity = Math.max(MINIMAL_CAPACITY, Math.max(newLength, 2 * this.length));
+        char[] data = Arrays.copyOf(this.buffer.data, capacity);
+        return new Buffer(data, this.length);
+    }
+
+    private PascalString share(int length) {
+        PascalString copy = new PascalString(this.buffer, length);
+        copy.shared = true;
+        this.shared = true;
+
+        return copy;
     }
 
 }
@@ -2,18 +2,28 @@ package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
 
 import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.frame.MaterializedFrame;
 
 /**
  * Representation of a subroutine-type variable. In Pascal we may have variables which represent functions or procedures.
- * Our implementation of this type of variable is a slight wrapper to the subroutine's {@link RootCallTarget}.
+ * Our implementation of this type of variable is a slight wrapper to the subroutine's {@link RootCallTarget}. Subroutines
+ * passed as values also hold frame of the scope in which they were declared, because it cannot be found from the scope
+ * from which they are invoked.
  */
 @CompilerDirectives.ValueType
 public class PascalSubroutine {
 
 	private RootCallTarget callTarget;
 
+	private final MaterializedFrame enclosingFrame;
+
 	public PascalSubroutine(RootCallTarget rootCallTarget) {
+		this(rootCallTarget, null);
+	}
+
+	public PascalSubroutine(RootCallTarget rootCallTarget, MaterializedFrame enclosingFrame) {
 		this.callTarget = rootCallTarget;
+		this.enclosingFrame = enclosingFrame;
 	}
 
 	public PascalSubroutine() {
@@ -23,5 +33,12 @@ public class PascalSubroutine {
 	public RootCallTarget getCallTarget() {
 		return callTarget;
 	}
+
+	/**
+	 * Gets frame of the scope in which the subroutine was declared or null if it is not bound to any frame.
+	 */
+	public MaterializedFrame getEnclosingFrame() {
+		return enclosingFrame;
+	}
 	
 }
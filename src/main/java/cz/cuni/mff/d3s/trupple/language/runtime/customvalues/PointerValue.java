@@ -35,10 +35,11 @@ public class PointerValue {
     }
 
     /**
-     * Returns the value in the heap to which the pointer points.
+     * Returns the value to which the pointer points.
+     * @param heap heap of the current context
      */
-    public Object getDereferenceValue() {
-        return PascalHeap.getInstance().getValueAt(this.heapSlot);
+    public Object getDereferenceValue(PascalHeap heap) {
+        return heap.getValueAt(this.heapSlot);
     }
 
     /**
@@ -65,10 +66,11 @@ public class PointerValue {
 
     /**
      * Sets the value at the address the pointer points to.
+     * @param heap heap of the current context
      * @param value the new value
      */
-    public void setDereferenceValue(Object value) {
-        PascalHeap.getInstance().setValueAt(this.heapSlot, value);
+    public void setDereferenceValue(PascalHeap heap, Object value) {
+        heap.setValueAt(this.heapSlot, value);
     }
 
 }
@@ -0,0 +1,109 @@
+package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
+
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+
+/**
+ * Reference to a field of a record. It contains the record and the index of the field in the record's layout (see
+ * {@link cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.RecordDescriptor#getFieldIndex(String)}).
+ * Values are written through the record so a record which shares its data with its copies is copied first. Values of
+ * non-primitive fields may be modified in place by the subroutine, so they are read the same way.
+ */
+@CompilerDirectives.ValueType
+public class RecordFieldReference extends Reference {
+
+    private final RecordValue record;
+    private final int fieldIndex;
+    private final FrameSlotKind fieldKind;
+
+    /**
+     * Default c'tor.
+     * @param record the record containing the field
+     * @param fieldIndex index of the field in the record
+     * @param fieldKind kind of the field's type
+     */
+    public RecordFieldReference(RecordValue record, int fieldIndex, FrameSlotKind fieldKind) {
+        this.record = record;
+        this.fieldIndex = fieldIndex;
+        this.fieldKind = fieldKind;
+    }
+
+    @Override
+    public FrameSlotKind getKind() {
+        return this.fieldKind;
+    }
+
+    @Override
+    public int getInt() {
+        return this.record.getInt(this.fieldIndex);
+    }
+
+    @Override
+    public long getLong() {
+        return this.record.getLong(this.fieldIndex);
+    }
+
+    @Override
+    public double getDouble() {
+        return this.record.getDouble(this.fieldIndex);
+    }
+
+    @Override
+    public char getChar() {
+        return this.record.getChar(this.fieldIndex);
+    }
+
+    @Override
+    public boolean getBoolean() {
+        return this.record.getBoolean(this.fieldIndex);
+    }
+
+    @Override
+    public Object getValue() {
+        switch (this.fieldKind) {
+            case Int:
+                return this.getInt();
+            case Long:
+                return this.getLong();
+            case Double:
+                return this.getDouble();
+            case Byte:
+                return this.getChar();
+            case Boolean:
+                return this.getBoolean();
+            default:
+                return this.record.getObjectForWrite(this.fieldIndex);
+        }
+    }
+
+    @Override
+    public void setInt(int value) {
+        this.record.setInt(this.fieldIndex, value);
+    }
+
+    @Override
+    public void setLong(long value) {
+        this.record.setLong(this.fieldIndex, value);
+    }
+
+    @Override
+    public void setDouble(double value) {
+        this.record.setDouble(this.fieldIndex, value);
+    }
+
+    @Override
+    public void setChar(char value) {
+        this.record.setChar(this.fieldIndex, value);
+    }
+
+    @Override
+    public void setBoolean(boolean value) {
+        this.record.setBoolean(this.fieldIndex, value);
+    }
+
+    @Override
+    public void setObject(Object value) {
+        this.record.setObject(this.fieldIndex, value);
+    }
+
+}
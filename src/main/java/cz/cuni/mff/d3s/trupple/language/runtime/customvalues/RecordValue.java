@@ -1,96 +1,123 @@
 package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
 
 import com.oracle.truffle.api.CompilerDirectives;
-import com.oracle.truffle.api.Truffle;
-import com.oracle.truffle.api.frame.*;
-import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.PascalRuntimeException;
-import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
-import java.util.Map;
 
 /**
- * Representation of record-type variables. It contains its own frame where its content is stored and a descriptor of
- * its own type.
+ * Representation of record-type variables. Values of the primitive fields (integers, reals, chars and booleans) are
+ * stored unboxed in an array of longs and values of the remaining fields in an array of objects. The index of each
+ * field to its array is computed only once for the whole record type (see
+ * {@link cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.RecordDescriptor}). Copies of a record share
+ * both arrays until one of them is modified (see {@link CopyOnWriteValue}).
  */
 @CompilerDirectives.ValueType
-public class RecordValue {
+public class RecordValue extends CopyOnWriteValue {
 
-    private final VirtualFrame frame;
-    private final FrameDescriptor frameDescriptor;
+    private long[] primitives;
+    private Object[] references;
 
     /**
      * The default c'tor.
-     * @param frameDescriptor frame descriptor from which the record's frame will be created
-     * @param types map of the record's identifiers and their types
+     * @param primitives values of the primitive fields encoded by {@link RecordValue#encodePrimitive(Object)}
+     * @param references values of the non-primitive fields
      */
-    // TODO: can't the frame descriptor be created from the second argument?
-    public RecordValue(FrameDescriptor frameDescriptor, Map<String, TypeDescriptor> types) {
-        this(frameDescriptor);
-        this.initValues(frameDescriptor, types);
+    public RecordValue(long[] primitives, Object[] references) {
+        this.primitives = primitives;
+        this.references = references;
     }
 
-    private RecordValue(FrameDescriptor frameDescriptor) {
-        this.frameDescriptor = frameDescriptor;
-        this.frame = Truffle.getRuntime().createVirtualFrame(new Object[frameDescriptor.getSize()], frameDescriptor);
+    /**
+     * Encodes a value of a primitive type to the representation in which it is stored in the record.
+     */
+    public static long encodePrimitive(Object value) {
+        if (value instanceof Double) {
+            return Double.doubleToRawLongBits((double) value);
+        } else if (value instanceof Character) {
+            return (char) value;
+        } else if (value instanceof Boolean) {
+            return ((boolean) value)? 1 : 0;
+        } else {
+            return ((Number) value).longValue();
+        }
     }
 
-    private void initValues(FrameDescriptor frameDescriptor, Map<String, TypeDescriptor> types) {
-        for (FrameSlot slot : frameDescriptor.getSlots()) {
-            TypeDescriptor slotsType = types.get(slot.getIdentifier().toString());
-            this.initValue(slot, slotsType);
-        }
+    public int getInt(int index) {
+        return (int) this.primitives[index];
     }
 
-    private void initValue(FrameSlot slot, TypeDescriptor descriptor) {
-        this.setValue(slot, descriptor.getDefaultValue());
+    public long getLong(int index) {
+        return this.primitives[index];
     }
 
-    private void setValue(FrameSlot slot, Object value) {
-        // TODO: whole initialization process is weird
-        // this switch is surely a duplicity and is also somewhere else in the code
-        switch (slot.getKind()) {
-            case Int: frame.setInt(slot, (int) value); break;
-            case Long: frame.setLong(slot, (long) value); break;
-            case Double: frame.setDouble(slot, (double) value); break;
-            case Byte: frame.setByte(slot, (byte) (char) value); break;
-            case Boolean: frame.setBoolean(slot, (boolean) value); break;
-            case Object: frame.setObject(slot, value); break;
-        }
+    public double getDouble(int index) {
+        return Double.longBitsToDouble(this.primitives[index]);
     }
 
-    private void copySlotValue(VirtualFrame fromFrame, VirtualFrame toFrame, FrameSlot slot) throws FrameSlotTypeException {
-        // TODO: this switch is surely a duplicity and is also somewhere else in the code
-        switch (slot.getKind()) {
-            case Int: toFrame.setInt(slot, fromFrame.getInt(slot)); break;
-            case Long: toFrame.setLong(slot, fromFrame.getLong(slot)); break;
-            case Double: toFrame.setDouble(slot, fromFrame.getDouble(slot)); break;
-            case Byte: toFrame.setByte(slot, fromFrame.getByte(slot)); break;
-            case Boolean: toFrame.setBoolean(slot, fromFrame.getBoolean(slot)); break;
-            case Object: toFrame.setObject(slot, fromFrame.getObject(slot)); break;
-        }
+    public char getChar(int index) {
+        return (char) this.primitives[index];
     }
 
-    public FrameSlot getSlot(String identifier) {
-        return this.frameDescriptor.findFrameSlot(identifier);
+    public boolean getBoolean(int index) {
+        return this.primitives[index] != 0;
     }
 
-    public VirtualFrame getFrame() {
-        return this.frame;
+    public Object getObject(int index) {
+        return this.references[index];
     }
 
     /**
-     * Creates a deep copy of the record.
+     * Gets a value of a non-primitive field which is going to be modified in place. The record copies its shared data
+     * first, so the value is not shared with the record's copies.
+     */
+    public Object getObjectForWrite(int index) {
+        this.ensureOwned();
+        return this.references[index];
+    }
+
+    public void setInt(int index, int value) {
+        this.ensureOwned();
+        this.primitives[index] = value;
+    }
+
+    public void setLong(int index, long value) {
+        this.ensureOwned();
+        this.primitives[index] = value;
+    }
+
+    public void setDouble(int index, double value) {
+        this.ensureOwned();
+        this.primitives[index] = Double.doubleToRawLongBits(value);
+    }
+
+    public void setChar(int index, char value) {
+        this.ensureOwned();
+        this.primitives[index] = value;
+    }
+
+    public void setBoolean(int index, boolean value) {
+        this.ensureOwned();
+        this.primitives[index] = (value)? 1 : 0;
+    }
+
+    public void setObject(int index, Object value) {
+        this.ensureOwned();
+        this.references[index] = copyValue(value);
+    }
+
+    /**
+     * Creates a copy of the record. The copy shares the data with this record until one of them is modified.
      */
     public RecordValue getCopy() {
-        RecordValue copy = new RecordValue(this.frameDescriptor);
-        for (FrameSlot slot : this.frameDescriptor.getSlots()) {
-            try {
-                this.copySlotValue(this.frame, copy.frame, slot);
-            } catch (FrameSlotTypeException e) {
-                throw new PascalRuntimeException("Unexpected type in record copying");
-            }
-        }
+        return this.share(new RecordValue(this.primitives, this.references));
+    }
 
-        return copy;
+    @Override
+    protected void copyData() {
+        Object[] referencesCopy = new Object[this.references.length];
+        for (int i = 0; i < referencesCopy.length; ++i) {
+            referencesCopy[i] = copyValue(this.references[i]);
+        }
+        this.primitives = this.primitives.clone();
+        this.references = referencesCopy;
     }
 
 }
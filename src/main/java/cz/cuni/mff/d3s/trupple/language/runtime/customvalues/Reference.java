@@ -1,33 +1,44 @@
 package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
 
-import com.oracle.truffle.api.CompilerDirectives;
-import com.oracle.truffle.api.frame.FrameSlot;
-import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.frame.FrameSlotKind;
 
 /**
- * Representation of variables passed as a reference to subroutines. It contains a frame of the variable and its slot.
+ * Representation of variables passed as a reference to subroutines. The variable is either stored in a frame
+ * ({@link FrameReference}) or it is a field of a record ({@link RecordFieldReference}). Characters are stored as bytes
+ * in frames so their kind is {@link FrameSlotKind#Byte}.
  */
-@CompilerDirectives.ValueType
-public class Reference {
+public abstract class Reference {
 
-    private final VirtualFrame fromFrame;
-    private final FrameSlot frameSlot;
+    /**
+     * Gets the kind of the value stored in the referenced variable.
+     */
+    public abstract FrameSlotKind getKind();
+
+    public abstract int getInt();
+
+    public abstract long getLong();
+
+    public abstract double getDouble();
+
+    public abstract char getChar();
+
+    public abstract boolean getBoolean();
 
     /**
-     * Default c'tor.
-     * @param frame the frame of the variable
-     * @param frameSlot the variables slot to the frame
+     * Gets the value of the referenced variable of any kind. Values of primitive types are boxed.
      */
-    public Reference(VirtualFrame frame, FrameSlot frameSlot) {
-        this.fromFrame = frame;
-        this.frameSlot = frameSlot;
-    }
-
-    public VirtualFrame getFromFrame() {
-        return fromFrame;
-    }
-
-    public FrameSlot getFrameSlot() {
-        return frameSlot;
-    }
+    public abstract Object getValue();
+
+    public abstract void setInt(int value);
+
+    public abstract void setLong(long value);
+
+    public abstract void setDouble(double value);
+
+    public abstract void setChar(char value);
+
+    public abstract void setBoolean(boolean value);
+
+    public abstract void setObject(Object value);
+
 }
@@ -3,101 +3,253 @@ package cz.cuni.mff.d3s.trupple.language.runtime.customvalues;
 import com.oracle.truffle.api.CompilerDirectives;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
- * Representation of set-type variables.
+ * Representation of set-type variables. Values of ordinal types (integers, chars, booleans and enums) are stored as
+ * bits indexed by their ordinal values, so set operations are done word by word and the in operation is a single bit
+ * test. Values that have no ordinal value or whose ordinal value does not fit into the bitset are stored in a
+ * fallback hash set which is allocated only when the first such value is added, so sets of ordinal values never
+ * allocate it.
  */
 @CompilerDirectives.ValueType
 public class SetTypeValue implements Serializable {
 
-    private final Set<Object> data;
+    /**
+     * The largest ordinal value which is stored in the bitset.
+     */
+    private static final long MAX_ORDINAL_VALUE = Character.MAX_VALUE;
+
+    private static final long[] EMPTY_WORDS = new long[0];
+
+    private long[] words;
+
+    /**
+     * Values which are not stored in the bitset or null if there are no such values.
+     */
+    private Set<Object> others;
 
     /**
      * Creates an empty set.
      */
     public SetTypeValue() {
-        this(new HashSet<>());
+        this(EMPTY_WORDS, null);
+    }
+
+    private SetTypeValue(long[] words, Set<Object> others) {
+        this.words = words;
+        this.others = others;
+    }
+
+    public SetTypeValue createDeepCopy() {
+        return new SetTypeValue(this.words.clone(), copyOthers(this.others));
+    }
+
+    private static Set<Object> copyOthers(Set<Object> others) {
+        return (others == null)? null : new HashSet<>(others);
+    }
+
+    private void addOther(Object value) {
+        if (this.others == null) {
+            this.others = new HashSet<>();
+        }
+        this.others.add(value);
+    }
+
+    private boolean containsOther(Object value) {
+        return this.others != null && this.others.contains(value);
+    }
+
+    private int getOthersSize() {
+        return (this.others == null)? 0 : this.others.size();
     }
 
     /**
-     * Creates a set with predefined values.
-     * @param data the values
+     * Checks whether the value can be stored in the bitset.
      */
-    public SetTypeValue(Set<Object> data) {
-        this.data = data;
+    public static boolean isBitsetOrdinal(long ordinalValue) {
+        return ordinalValue >= 0 && ordinalValue <= MAX_ORDINAL_VALUE;
     }
 
-    public Set<Object> getData() {
-        return this.data;
+    /**
+     * Adds a value specified by its ordinal value to the set.
+     */
+    public void addOrdinal(long ordinalValue) {
+        if (!isBitsetOrdinal(ordinalValue)) {
+            this.addOther(ordinalValue);
+            return;
+        }
+        int wordIndex = (int) (ordinalValue >>> 6);
+        if (wordIndex >= this.words.length) {
+            this.words = Arrays.copyOf(this.words, wordIndex + 1);
+        }
+        this.words[wordIndex] |= 1L << ordinalValue;
     }
 
-    public SetTypeValue createDeepCopy() {
-        Set<Object> dataCopy = new HashSet<>();
-        for (Object item : data) {
-            dataCopy.add(item);
+    /**
+     * Adds a value to the set.
+     */
+    public void add(Object value) {
+        if (isOrdinal(value)) {
+            this.addOrdinal(getOrdinalValue(value));
+        } else {
+            this.addOther(value);
         }
+    }
 
-        return new SetTypeValue(dataCopy);
+    /**
+     * Checks whether the set contains a value specified by its ordinal value.
+     */
+    public boolean containsOrdinal(long ordinalValue) {
+        if (!isBitsetOrdinal(ordinalValue)) {
+            return this.containsOther(ordinalValue);
+        }
+        int wordIndex = (int) (ordinalValue >>> 6);
+        return wordIndex < this.words.length && (this.words[wordIndex] & (1L << ordinalValue)) != 0;
+    }
+
+    public boolean contains(Object value) {
+        return (isOrdinal(value))? this.containsOrdinal(getOrdinalValue(value)) : this.containsOther(value);
+    }
+
+    private static boolean isOrdinal(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Character ||
+                value instanceof Boolean || value instanceof EnumValue;
+    }
+
+    private static long getOrdinalValue(Object value) {
+        if (value instanceof Character) {
+            return (char) value;
+        } else if (value instanceof Boolean) {
+            return ((boolean) value)? 1 : 0;
+        } else if (value instanceof EnumValue) {
+            return ((EnumValue) value).getOrdinalValue();
+        } else {
+            return ((Number) value).longValue();
+        }
     }
 
     /**
      * Two set-type variables are equal if the contain the same values.
      */
     public boolean equals(SetTypeValue comp) {
-        Set<Object> compData = comp.getData();
-        return this.data.containsAll(compData) && compData.containsAll(this.data);
+        int commonLength = Math.min(this.words.length, comp.words.length);
+        for (int i = 0; i < commonLength; ++i) {
+            if (this.words[i] != comp.words[i]) {
+                return false;
+            }
+        }
+
+        return isZero(this.words, commonLength) && isZero(comp.words, commonLength) && this.othersEqual(comp);
+    }
+
+    private boolean othersEqual(SetTypeValue comp) {
+        if (this.getOthersSize() == 0 || comp.getOthersSize() == 0) {
+            return this.getOthersSize() == comp.getOthersSize();
+        }
+
+        return this.others.equals(comp.others);
+    }
+
+    private static boolean isZero(long[] words, int from) {
+        for (int i = from; i < words.length; ++i) {
+            if (words[i] != 0) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     /**
      * Returns the number of elements stored in the set.
      */
     public int getSize() {
-        return this.data.size();
-    }
+        int size = this.getOthersSize();
+        for (long word : this.words) {
+            size += Long.bitCount(word);
+        }
 
-    public boolean contains(Object o) {
-        return this.data.contains(o);
+        return size;
     }
 
     /**
      * Does set union operation on the arguments and returns the result.
      */
     public static SetTypeValue union(SetTypeValue left, SetTypeValue right) {
-        SetTypeValue result = left.createDeepCopy();
-        result.getData().addAll(right.getData());
+        long[] longer = (left.words.length >= right.words.length)? left.words : right.words;
+        long[] shorter = (longer == left.words)? right.words : left.words;
+        long[] words = longer.clone();
+        for (int i = 0; i < shorter.length; ++i) {
+            words[i] |= shorter[i];
+        }
 
-        return result;
+        Set<Object> others = copyOthers((left.others != null)? left.others : right.others);
+        if (left.others != null && right.others != null) {
+            others.addAll(right.others);
+        }
+
+        return new SetTypeValue(words, others);
     }
 
     /**
      * Does set difference operation on the arguments and returns the result.
      */
     public static SetTypeValue difference(SetTypeValue left, SetTypeValue right) {
-        SetTypeValue result = left.createDeepCopy();
-        result.getData().removeAll(right.getData());
+        long[] words = left.words.clone();
+        int commonLength = Math.min(words.length, right.words.length);
+        for (int i = 0; i < commonLength; ++i) {
+            words[i] &= ~right.words[i];
+        }
 
-        return result;
+        Set<Object> others = copyOthers(left.others);
+        if (others != null && right.others != null) {
+            others.removeAll(right.others);
+        }
+
+        return new SetTypeValue(words, others);
     }
 
     /**
      * Does set intersection operation on the arguments and returns the result.
      */
     public static SetTypeValue intersect(SetTypeValue left, SetTypeValue right) {
-        SetTypeValue result = left.createDeepCopy();
-        result.getData().retainAll(right.getData());
+        long[] words = Arrays.copyOf(left.words, Math.min(left.words.length, right.words.length));
+        for (int i = 0; i < words.length; ++i) {
+            words[i] &= right.words[i];
+        }
+
+        Set<Object> others = null;
+        if (left.others != null && right.others != null) {
+            others = copyOthers(left.others);
+            others.retainAll(right.others);
+        }
 
-        return result;
+        return new SetTypeValue(words, others);
     }
 
     /**
      * Does symmetric difference operation on the arguments and returns the result.
      */
     public static SetTypeValue symmetricDifference(SetTypeValue left, SetTypeValue right) {
-        SetTypeValue union = SetTypeValue.union(left, right);
-        SetTypeValue intersection = SetTypeValue.intersect(left, right);
+        long[] longer = (left.words.length >= right.words.length)? left.words : right.words;
+        long[] shorter = (longer == left.words)? right.words : left.words;
+        long[] words = longer.clone();
+        for (int i = 0; i < shorter.length; ++i) {
+            words[i] ^= shorter[i];
+        }
+
+        Set<Object> others = copyOthers((left.others != null)? left.others : right.others);
+        if (left.others != null && right.others != null) {
+            for (Object value : right.others) {
+                if (!others.remove(value)) {
+                    others.add(value);
+                }
+            }
+        }
 
-        return SetTypeValue.difference(union, intersection);
+        return new SetTypeValue(words, others);
     }
 }
@@ -4,38 +4,75 @@ import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.EndOfFileException;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.FileNotAssignedPathException;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.NotOpenedToReadException;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.NotOpenedToWriteException;
+import cz.cuni.mff.d3s.trupple.language.runtime.io.PascalInput;
+import cz.cuni.mff.d3s.trupple.language.runtime.io.PascalOutput;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
-import java.io.PrintStream;
-import java.util.NoSuchElementException;
-import java.util.Scanner;
 
 /**
- * Representation of textfile-type variables.
+ * Representation of textfile-type variables. The file is read by a {@link PascalInput} which keeps the current position
+ * in a buffer of the file's content, so characters are read without allocation and integers and reals are parsed
+ * directly from the buffer. Each line end is read as a single '\n' character and a line end at the very end of the file
+ * is ignored. The file is written through a buffered {@link PascalOutput}, so the written values appear in the file
+ * only after the file is flushed, closed or opened again.
  */
 public class TextFileValue implements FileValue {
 
-    private Scanner input;
-    private Scanner inputLine;
-    private PrintStream output;
+    private PascalInput input;
+    private PascalOutput output;
     private String filePath;
 
     @Override
     public Object read() {
+        return this.readChar();
+    }
+
+    public char readChar() {
+        this.checkCanRead();
+        return this.input.readTextChar();
+    }
+
+    public int readInt() {
+        this.checkCanRead();
+        return this.input.readInt();
+    }
+
+    public long readLong() {
+        this.checkCanRead();
+        return this.input.readLong();
+    }
+
+    public double readDouble() {
+        this.checkCanRead();
+        return this.input.readDouble();
+    }
+
+    /**
+     * Reads the rest of the current line. The line end is not consumed.
+     */
+    public PascalString readLine() {
+        this.checkCanRead();
+        return this.input.readLine();
+    }
+
+    /**
+     * Skips the rest of the current line including its line end.
+     */
+    public void skipLine() {
         if (this.input == null) {
             throw new NotOpenedToReadException();
-        } else if (this.inputLine == null) {
-            throw new EndOfFileException();
-        } else if (!this.inputLine.hasNext()) {
-            this.bufferLine();
         }
+        this.input.skipLine();
+    }
 
-        if (this.inputLine == null) {
+    private void checkCanRead() {
+        if (this.input == null) {
+            throw new NotOpenedToReadException();
+        } else if (this.input.endOfText()) {
             throw new EndOfFileException();
-        } else {
-            return this.inputLine.next().charAt(0);
         }
     }
 
@@ -44,7 +81,7 @@ public class TextFileValue implements FileValue {
         if (this.output == null) {
             throw new NotOpenedToWriteException();
         } else {
-            this.output.print(value);
+            this.output.write(value);
         }
     }
 
@@ -57,10 +94,8 @@ public class TextFileValue implements FileValue {
 
     @Override
     public void writeln(Object[] values) {
-        for (Object value : values) {
-            this.write(value);
-        }
-        this.write(String.format("%n"));
+        this.write(values);
+        this.output.writeLine();
     }
 
     @Override
@@ -70,20 +105,12 @@ public class TextFileValue implements FileValue {
 
     @Override
     public boolean eof() {
-        if (this.inputLine == null) {
-            return true;
-        }
-        if (this.inputLine.hasNext()) {
-            return false;
-        } else {
-            this.bufferLine();
-            return this.inputLine == null;
-        }
+        return this.input == null || this.input.endOfText();
     }
 
     @Override
     public boolean eoln() {
-        return inputLine == null || !this.inputLine.hasNext();
+        return this.input == null || this.input.eoln();
     }
 
     @Override
@@ -91,10 +118,9 @@ public class TextFileValue implements FileValue {
         if (this.filePath == null) {
             throw new FileNotAssignedPathException();
         }
+        this.close();
         try {
-            this.input = new Scanner(new File(this.filePath));
-            this.input.useDelimiter("(?<=.)");
-            this.bufferLine(false);
+            this.input = new PascalInput(new FileInputStream(this.filePath));
         } catch (FileNotFoundException e) {
             throw new cz.cuni.mff.d3s.trupple.language.runtime.exceptions.FileNotFoundException(this.filePath);
         }
@@ -102,30 +128,50 @@ public class TextFileValue implements FileValue {
 
     @Override
     public void openToWrite() {
+        this.openOutput(false);
+    }
+
+    /**
+     * Opens the existing file for writing at its end (Turbo Pascal's append).
+     */
+    public void openToAppend() {
+        if (this.filePath != null && !new File(this.filePath).isFile()) {
+            throw new cz.cuni.mff.d3s.trupple.language.runtime.exceptions.FileNotFoundException(this.filePath);
+        }
+        this.openOutput(true);
+    }
+
+    private void openOutput(boolean append) {
         if (this.filePath == null) {
             throw new FileNotAssignedPathException();
         }
+        this.close();
         try {
-            this.output = new PrintStream(new FileOutputStream(this.filePath));
+            this.output = new PascalOutput(new FileOutputStream(this.filePath, append), PascalOutput.DEFAULT_BUFFER_SIZE);
         } catch (FileNotFoundException e) {
             throw new cz.cuni.mff.d3s.trupple.language.runtime.exceptions.FileNotFoundException(this.filePath);
         }
     }
 
-    private void bufferLine() {
-        this.bufferLine(true);
+    @Override
+    public void flush() {
+        if (this.output != null) {
+            this.output.flush();
+        }
     }
 
-    private void bufferLine(boolean prependNewline) {
-        try {
-            String newLine = this.input.nextLine();
-            if (prependNewline) {
-                newLine = String.format("%n" + newLine);
-            }
-            this.inputLine = new Scanner(newLine);
-            this.inputLine.useDelimiter("");
-        } catch (NoSuchElementException e) {
-            this.inputLine = null;
+    @Override
+    public void close() {
+        PascalOutput output = this.output;
+        PascalInput input = this.input;
+        this.output = null;
+        this.input = null;
+        if (output != null) {
+            output.close();
+        }
+        if (input != null) {
+            input.close();
         }
     }
+
 }
@@ -10,4 +10,9 @@ public class CantReadInputException extends PascalRuntimeException {
     public CantReadInputException(IOException ioException) {
         super("Can't read from input: " + ioException.getMessage());
     }
+
+    public CantReadInputException(String reason) {
+        super("Can't read from input: " + reason);
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package cz.cuni.mff.d3s.trupple.language.runtime.exceptions;
+
+/**
+ * Exception thrown when a user tries to seek to a position that lies outside of a file.
+ */
+public class FilePositionOutOfRangeException extends PascalRuntimeException {
+
+    public FilePositionOutOfRangeException(long position) {
+        super("File position out of range: " + position);
+    }
+
+}
@@ -4,17 +4,22 @@ import com.oracle.truffle.api.nodes.ControlFlowException;
 
 /**
  * Exception is thrown when Pascal's goto statement is executed. It is caught inside a {@link cz.cuni.mff.d3s.trupple.language.nodes.statement.LabeledStatement}
- * or {@link cz.cuni.mff.d3s.trupple.language.nodes.statement.ExtendedBlockNode}.
+ * or {@link cz.cuni.mff.d3s.trupple.language.nodes.statement.ExtendedBlockNode}. It does not carry any state except
+ * the target label's id, so each {@link cz.cuni.mff.d3s.trupple.language.nodes.control.GotoNode} creates only one
+ * instance and throws it repeatedly.
  */
 public class GotoException extends ControlFlowException {
 
-    private final String labelIdentifier;
+    private final int labelId;
 
-    public GotoException(String labelIdentifier) {
-        this.labelIdentifier = labelIdentifier;
+    /**
+     * @param labelId id of the target label assigned by the parser
+     */
+    public GotoException(int labelId) {
+        this.labelId = labelId;
     }
 
-    public String getLabelIdentifier() {
-        return labelIdentifier;
+    public int getLabelId() {
+        return this.labelId;
     }
 }
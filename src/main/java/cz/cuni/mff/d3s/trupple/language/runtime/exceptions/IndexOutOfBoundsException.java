@@ -1,5 +1,7 @@
 package cz.cuni.mff.d3s.trupple.language.runtime.exceptions;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
 /**
  * Exception thrown when user is accessing an array at non-existing index,
  */
@@ -9,4 +11,12 @@ public class IndexOutOfBoundsException extends PascalRuntimeException {
         super("Index out of bounds");
     }
 
+    /**
+     * @param index the index as it was written in the Pascal source
+     */
+    @TruffleBoundary
+    public IndexOutOfBoundsException(Object index) {
+        super("Index " + index + " is out of bounds");
+    }
+
 }
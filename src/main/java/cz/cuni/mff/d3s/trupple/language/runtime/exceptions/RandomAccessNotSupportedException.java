@@ -0,0 +1,13 @@
+package cz.cuni.mff.d3s.trupple.language.runtime.exceptions;
+
+/**
+ * Exception thrown when a user tries to access a file at a specified position but the file does not have elements of
+ * a fixed size (e.g.: it is a textfile).
+ */
+public class RandomAccessNotSupportedException extends PascalRuntimeException {
+
+    public RandomAccessNotSupportedException() {
+        super("This file does not support random access");
+    }
+
+}
@@ -1,31 +1,47 @@
 package cz.cuni.mff.d3s.trupple.language.runtime.heap;
 
 /**
- * Represents a slot in the heap. It stores an address in {@link PascalHeap}. The address must be stored in this wrapper,
- * because objects can change their actual address in the heap thanks to the garbage collecting process.
+ * Represents a slot in the heap. It stores an address in {@link PascalHeap} together with the generation of that
+ * address at the time of the allocation. Addresses are reused after an object is disposed, so the generation is what
+ * distinguishes a live pointer from a dangling one that points to a reused address.
  */
 public class HeapSlot {
 
     /**
      * Index to memory.
      */
-    private int memoryIndex;
+    private final int memoryIndex;
 
-    HeapSlot(int memoryIndex) {
+    /**
+     * Generation of the memory index at the time this slot was allocated.
+     */
+    private final int generation;
+
+    HeapSlot(int memoryIndex, int generation) {
         this.memoryIndex = memoryIndex;
+        this.generation = generation;
+    }
+
+    @Override
+    public boolean equals(Object compareTo) {
+        if (!(compareTo instanceof HeapSlot)) {
+            return false;
+        }
+        HeapSlot heapSlot = (HeapSlot) compareTo;
+        return heapSlot.memoryIndex == this.memoryIndex && heapSlot.generation == this.generation;
     }
 
     @Override
     public int hashCode() {
-        return this.memoryIndex;
+        return this.memoryIndex * 31 + this.generation;
     }
 
     int getMemoryIndex() {
         return this.memoryIndex;
     }
 
-    void setMemoryIndex(int memoryIndex) {
-        this.memoryIndex = memoryIndex;
+    int getGeneration() {
+        return this.generation;
     }
 
 }
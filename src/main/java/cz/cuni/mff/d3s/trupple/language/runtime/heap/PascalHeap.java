@@ -3,121 +3,131 @@ package cz.cuni.mff.d3s.trupple.language.runtime.heap;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.OutOfMemoryException;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.SegmentationFaultException;
 
-import java.util.*;
+import java.util.Arrays;
 
 /**
  * Represents a memory concept called Heap which stores structures that shall have global access, not local like in
- * stack. The internal representation of memory is a java map. The map takes care of allocating enough space for the
- * data stored in it as well as easy removing single objects from itself.
+ * stack. The internal representation of memory is a growable array of objects. Disposed addresses are chained into an
+ * intrusive free list and reused by subsequent allocations, so allocation, disposal and dereference are all done in
+ * constant time. Each address has a generation counter which is incremented when the object on it is disposed, so
+ * dangling pointers are detected by comparing the generation stored in their {@link HeapSlot}. Each context has its
+ * own heap ({@link cz.cuni.mff.d3s.trupple.language.PascalState#getHeap()}).
  */
 public class PascalHeap {
 
     /**
-     * The singleton instance of the heap.
+     * Represents the nil value. Its address is outside of any heap so every access through it fails.
      */
-    private static PascalHeap INSTANCE = new PascalHeap();
+    public static final HeapSlot NIL = new HeapSlot(-1, 0);
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
 
     /**
-     * Represents the nil value.
+     * Marks the end of the free list.
      */
-    public static HeapSlot NIL = new HeapSlot(Integer.MIN_VALUE);
+    private static final int NO_FREE_SLOT = -1;
 
     /**
-     * Represents the minimal address that can be allocated
+     * The representation of heap's memory. Index represents an address and value is the actual data structure stored
+     * on that address.
      */
-    private static final int MIN_ADDRESS = Integer.MIN_VALUE + 1;
+    private Object[] memory;
 
     /**
-     * The representation of heap's memory. Key represents an address (as integer) and value is the actual data structure
-     * stored on the specified address. NOTE: faster implementation would be with an array.
+     * Current generation of each address. An address is in use by a slot only if the generations match.
      */
-    private Map<Integer, Object> memory;
+    private int[] generations;
 
     /**
-     * A hash set of all addresses that are being in use by some pointer in the program. They must be wrapped because the
-     * garbage collecting process can change the address of any object, so the actual pointers in the application would
-     * point to a wrong position. It is implemented as a hash set so the removal of a slot is in O(1).
+     * Next element of the free list for each disposed address.
      */
-    private HashSet<HeapSlot> heapSlots;
+    private int[] nextFree;
 
     /**
-     * Stores address to the first empty memory slot where new data can be stored.
+     * Head of the free list of disposed addresses.
      */
-    private int emptyMemorySlot;
+    private int freeListHead;
 
-    private PascalHeap() {
-        this.memory = new HashMap<>();
-        this.heapSlots = new HashSet<>();
-        this.emptyMemorySlot = MIN_ADDRESS;
-    }
+    /**
+     * Number of addresses that have ever been used. Addresses above this bound were never allocated.
+     */
+    private int size;
 
-    public static PascalHeap getInstance() {
-        return INSTANCE;
+    public PascalHeap() {
+        this.reset();
     }
 
-    public HeapSlot allocateNewObject(Object object) {
-        HeapSlot newHeapSlot = new HeapSlot(this.emptyMemorySlot++);
-        this.allocateNewObject(newHeapSlot, object);
-
-        return newHeapSlot;
+    /**
+     * Releases all the objects stored in the heap and shrinks it to its initial capacity. Every pointer that points to
+     * this heap becomes invalid.
+     */
+    public void reset() {
+        this.memory = new Object[INITIAL_CAPACITY];
+        this.generations = new int[INITIAL_CAPACITY];
+        this.nextFree = new int[INITIAL_CAPACITY];
+        this.freeListHead = NO_FREE_SLOT;
+        this.size = 0;
     }
 
-    private void allocateNewObject(HeapSlot slot, Object object) {
-        this.memory.put(slot.getMemoryIndex(), object);
-        this.heapSlots.add(slot);
+    public HeapSlot allocateNewObject(Object object) {
+        int index = this.takeFreeIndex();
+        this.memory[index] = object;
 
-        if (this.emptyMemorySlot == Integer.MAX_VALUE) {
-            this.defragmentHeap();
-        }
+        return new HeapSlot(index, this.generations[index]);
     }
 
     public void disposeObject(HeapSlot slot) {
-        if (!this.heapSlots.contains(slot)) {
-            throw new SegmentationFaultException();
-        }
+        int index = this.checkedIndex(slot);
 
-        this.heapSlots.remove(slot);
-        this.memory.remove(slot.getMemoryIndex());
+        this.memory[index] = null;
+        if (++this.generations[index] != Integer.MAX_VALUE) {
+            this.nextFree[index] = this.freeListHead;
+            this.freeListHead = index;
+        }
+        // NOTE: an address whose generation counter is exhausted is retired so no dangling pointer can be revived
     }
 
     public void setValueAt(HeapSlot heapSlot, Object value) {
-        if (!this.heapSlots.contains(heapSlot)) {
-            throw new SegmentationFaultException();
-        }
-
-        this.memory.put(heapSlot.getMemoryIndex(), value);
+        this.memory[this.checkedIndex(heapSlot)] = value;
     }
 
     public Object getValueAt(HeapSlot heapSlot) {
-        if (!this.heapSlots.contains(heapSlot)) {
+        return this.memory[this.checkedIndex(heapSlot)];
+    }
+
+    private int checkedIndex(HeapSlot heapSlot) {
+        int index = heapSlot.getMemoryIndex();
+        if (index < 0 || index >= this.size || this.generations[index] != heapSlot.getGeneration()) {
             throw new SegmentationFaultException();
         }
 
-        return this.memory.get(heapSlot.getMemoryIndex());
+        return index;
     }
 
-    // TODO: this needs to be tested
-    private void defragmentHeap() {
-        this.emptyMemorySlot = this.findFirstEmptyMemorySlot(MIN_ADDRESS);
-
-        for (HeapSlot slot : this.heapSlots) {
+    private int takeFreeIndex() {
+        if (this.freeListHead != NO_FREE_SLOT) {
+            int index = this.freeListHead;
+            this.freeListHead = this.nextFree[index];
+            return index;
+        }
 
-            if (slot.getMemoryIndex() > this.emptyMemorySlot) {
-                Object value = this.memory.get(slot.getMemoryIndex());
-                this.memory.put(this.emptyMemorySlot, value);
-                slot.setMemoryIndex(this.emptyMemorySlot++);
-                this.emptyMemorySlot = this.findFirstEmptyMemorySlot(this.emptyMemorySlot);
-            }
+        if (this.size == this.memory.length) {
+            this.grow();
         }
+
+        return this.size++;
     }
 
-    private int findFirstEmptyMemorySlot(int fromIndex) {
-        for (int i = fromIndex; i < Integer.MAX_VALUE; ++i) {
-            if (!this.memory.containsKey(i)) {
-                return i;
-            }
+    private void grow() {
+        if (this.memory.length == MAX_CAPACITY) {
+            throw new OutOfMemoryException();
         }
 
-        throw new OutOfMemoryException();
+        int newCapacity = (int) Math.min((long) this.memory.length * 2, MAX_CAPACITY);
+        this.memory = Arrays.copyOf(this.memory, newCapacity);
+        this.generations = Arrays.copyOf(this.generations, newCapacity);
+        this.nextFree = Arrays.copyOf(this.nextFree, newCapacity);
     }
 }
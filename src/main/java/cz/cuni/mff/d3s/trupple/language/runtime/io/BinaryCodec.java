@@ -0,0 +1,684 @@
+package cz.cuni.mff.d3s.trupple.language.runtime.io;
+
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ArrayValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.EnumValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.RecordValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.CantReadInputException;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.OrdinalDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.ArrayDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.EnumTypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.MultidimensionalArrayDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.RecordDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.*;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-width binary encoding of values of one Pascal type. It is used to store elements of typed files
+ * ({@link cz.cuni.mff.d3s.trupple.language.runtime.customvalues.BinaryFileValue}), so the n-th element of a file starts
+ * at byte n * {@link BinaryCodec#getSize()}. Values are read from and written to the current position of a byte buffer.
+ *
+ * Integers take 4 bytes, longints and reals 8 bytes, chars 2 bytes, booleans 1 byte and enum values are stored as their
+ * 4 byte ordinal values. Strings are stored like Turbo Pascal's short strings: their length followed by 255 characters.
+ * Arrays and records are stored as the sequence of their elements or fields. Arrays of elements stored unboxed (e.g.:
+ * int[]) are transferred in bulk through views of the buffer.
+ */
+public abstract class BinaryCodec {
+
+    /**
+     * Maximal number of characters of a string stored in a file.
+     */
+    private static final int MAX_STRING_LENGTH = 255;
+
+    /**
+     * Creates encoding of the values of the specified type.
+     * @return the encoding or null if values of the type do not have a fixed-width encoding (e.g.: sets or pointers)
+     */
+    public static BinaryCodec create(TypeDescriptor type) {
+        if (type instanceof OrdinalDescriptor.RangeDescriptor) {
+            return create(((OrdinalDescriptor) type).getInnerTypeDescriptor());
+        } else if (type == IntDescriptor.getInstance()) {
+            return IntCodec.INSTANCE;
+        } else if (type == LongDescriptor.getInstance()) {
+            return LongCodec.INSTANCE;
+        } else if (type == RealDescriptor.getInstance()) {
+            return RealCodec.INSTANCE;
+        } else if (type == CharDescriptor.getInstance()) {
+            return CharCodec.INSTANCE;
+        } else if (type == BooleanDescriptor.getInstance()) {
+            return BooleanCodec.INSTANCE;
+        } else if (type == StringDescriptor.getInstance()) {
+            return StringCodec.INSTANCE;
+        } else if (type instanceof EnumTypeDescriptor) {
+            return new EnumCodec((EnumTypeDescriptor) type);
+        } else if (type instanceof ArrayDescriptor) {
+            return createArrayCodec((ArrayDescriptor) type);
+        } else if (type instanceof RecordDescriptor) {
+            return createRecordCodec((RecordDescriptor) type);
+        } else {
+            return null;
+        }
+    }
+
+    private static BinaryCodec createArrayCodec(ArrayDescriptor type) {
+        TypeDescriptor valuesType = type.getValuesDescriptor();
+        int length = type.getSize();
+        if (type instanceof MultidimensionalArrayDescriptor) {
+            // elements of all dimensions are stored in a single flat array
+            valuesType = ((MultidimensionalArrayDescriptor) type).getElementDescriptor();
+            length = ((MultidimensionalArrayDescriptor) type).getElementsCount();
+        }
+        if (valuesType == IntDescriptor.getInstance()) {
+            return new IntArrayCodec(length);
+        } else if (valuesType == LongDescriptor.getInstance()) {
+            return new LongArrayCodec(length);
+        } else if (valuesType == RealDescriptor.getInstance()) {
+            return new RealArrayCodec(length);
+        } else if (valuesType == CharDescriptor.getInstance()) {
+            return new CharArrayCodec(length);
+        } else if (valuesType == BooleanDescriptor.getInstance()) {
+            return new BooleanArrayCodec(length);
+        }
+
+        BinaryCodec valuesCodec = create(valuesType);
+        return (valuesCodec == null)? null : new ObjectArrayCodec(valuesCodec, length);
+    }
+
+    private static BinaryCodec createRecordCodec(RecordDescriptor type) {
+        TypeDescriptor[] primitiveTypes = type.getPrimitiveTypes();
+        PrimitiveCodec[] primitiveCodecs = new PrimitiveCodec[primitiveTypes.length];
+        for (int i = 0; i < primitiveTypes.length; ++i) {
+            primitiveCodecs[i] = (PrimitiveCodec) create(primitiveTypes[i]);
+        }
+
+        TypeDescriptor[] referenceTypes = type.getReferenceTypes();
+        BinaryCodec[] referenceCodecs = new BinaryCodec[referenceTypes.length];
+        for (int i = 0; i < referenceTypes.length; ++i) {
+            referenceCodecs[i] = create(referenceTypes[i]);
+            if (referenceCodecs[i] == null) {
+                return null;
+            }
+        }
+
+        return new RecordCodec(primitiveCodecs, referenceCodecs);
+    }
+
+    /**
+     * Gets number of bytes of each encoded value.
+     */
+    public abstract int getSize();
+
+    /**
+     * Encodes the value to the buffer at its current position and advances the position by {@link BinaryCodec#getSize()}.
+     */
+    public abstract void write(ByteBuffer buffer, Object value);
+
+    /**
+     * Decodes a value from the buffer at its current position and advances the position by {@link BinaryCodec#getSize()}.
+     */
+    public abstract Object read(ByteBuffer buffer);
+
+    /**
+     * Encodes the specified number of elements of the array starting at the offset to the buffer.
+     */
+    public void writeValues(ByteBuffer buffer, Object array, int offset, int count) {
+        Object[] values = (Object[]) array;
+        for (int i = 0; i < count; ++i) {
+            this.write(buffer, values[offset + i]);
+        }
+    }
+
+    /**
+     * Decodes the specified number of values from the buffer and stores them to the array starting at the offset.
+     */
+    public void readValues(ByteBuffer buffer, Object array, int offset, int count) {
+        Object[] values = (Object[]) array;
+        for (int i = 0; i < count; ++i) {
+            values[offset + i] = this.read(buffer);
+        }
+    }
+
+    /**
+     * Encoding of the types whose values are stored unboxed in records. Besides boxed values it can encode the values
+     * in the representation used by {@link RecordValue}.
+     */
+    private static abstract class PrimitiveCodec extends BinaryCodec {
+
+        abstract void writeBits(ByteBuffer buffer, long bits);
+
+        abstract long readBits(ByteBuffer buffer);
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            this.writeBits(buffer, RecordValue.encodePrimitive(value));
+        }
+
+    }
+
+    private static final class IntCodec extends PrimitiveCodec {
+
+        private static final IntCodec INSTANCE = new IntCodec();
+
+        @Override
+        public int getSize() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        void writeBits(ByteBuffer buffer, long bits) {
+            buffer.putInt((int) bits);
+        }
+
+        @Override
+        long readBits(ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return buffer.getInt();
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer, Object array, int offset, int count) {
+            if (array instanceof int[]) {
+                buffer.asIntBuffer().put((int[]) array, offset, count);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+            } else {
+                super.writeValues(buffer, array, offset, count);
+            }
+        }
+
+        @Override
+        public void readValues(ByteBuffer buffer, Object array, int offset, int count) {
+            if (array instanceof int[]) {
+                buffer.asIntBuffer().get((int[]) array, offset, count);
+                buffer.position(buffer.position() + count * Integer.BYTES);
+            } else {
+                super.readValues(buffer, array, offset, count);
+            }
+        }
+
+    }
+
+    private static final class LongCodec extends PrimitiveCodec {
+
+        private static final LongCodec INSTANCE = new LongCodec();
+
+        @Override
+        public int getSize() {
+            return Long.BYTES;
+        }
+
+        @Override
+        void writeBits(ByteBuffer buffer, long bits) {
+            buffer.putLong(bits);
+        }
+
+        @Override
+        long readBits(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer, Object array, int offset, int count) {
+            if (array instanceof long[]) {
+                buffer.asLongBuffer().put((long[]) array, offset, count);
+                buffer.position(buffer.position() + count * Long.BYTES);
+            } else {
+                super.writeValues(buffer, array, offset, count);
+            }
+        }
+
+        @Override
+        public void readValues(ByteBuffer buffer, Object array, int offset, int count) {
+            if (array instanceof long[]) {
+                buffer.asLongBuffer().get((long[]) array, offset, count);
+                buffer.position(buffer.position() + count * Long.BYTES);
+            } else {
+                super.readValues(buffer, array, offset, count);
+            }
+        }
+
+    }
+
+    private static final class RealCodec extends PrimitiveCodec {
+
+        private static final RealCodec INSTANCE = new RealCodec();
+
+        @Override
+        public int getSize() {
+            return Double.BYTES;
+        }
+
+        @Override
+        void writeBits(ByteBuffer buffer, long bits) {
+            buffer.putLong(bits);
+        }
+
+        @Override
+        long readBits(ByteBuffer buffer) {
+            return buffer.getLong();
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return buffer.getDouble();
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer, Object array, int offset, int count) {
+            if (array instanceof double[]) {
+                buffer.asDoubleBuffer().put((double[]) array, offset, count);
+                buffer.position(buffer.position() + count * Double.BYTES);
+            } else {
+                super.writeValues(buffer, array, offset, count);
+            }
+        }
+
+        @Override
+        public void readValues(ByteBuffer buffer, Object array, int offset, int count) {
+            if (array instanceof double[]) {
+                buffer.asDoubleBuffer().get((double[]) array, offset, count);
+                buffer.position(buffer.position() + count * Double.BYTES);
+            } else {
+                super.readValues(buffer, array, offset, count);
+            }
+        }
+
+    }
+
+    private static final class CharCodec extends PrimitiveCodec {
+
+        private static final CharCodec INSTANCE = new CharCodec();
+
+        @Override
+        public int getSize() {
+            return Character.BYTES;
+        }
+
+        @Override
+        void writeBits(ByteBuffer buffer, long bits) {
+            buffer.putChar((char) bits);
+        }
+
+        @Override
+        long readBits(ByteBuffer buffer) {
+            return buffer.getChar();
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return buffer.getChar();
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer, Object array, int offset, int count) {
+            if (array instanceof char[]) {
+                buffer.asCharBuffer().put((char[]) array, offset, count);
+                buffer.position(buffer.position() + count * Character.BYTES);
+            } else {
+                super.writeValues(buffer, array, offset, count);
+            }
+        }
+
+        @Override
+        public void readValues(ByteBuffer buffer, Object array, int offset, int count) {
+            if (array instanceof char[]) {
+                buffer.asCharBuffer().get((char[]) array, offset, count);
+                buffer.position(buffer.position() + count * Character.BYTES);
+            } else {
+                super.readValues(buffer, array, offset, count);
+            }
+        }
+
+    }
+
+    private static final class BooleanCodec extends PrimitiveCodec {
+
+        private static final BooleanCodec INSTANCE = new BooleanCodec();
+
+        @Override
+        public int getSize() {
+            return 1;
+        }
+
+        @Override
+        void writeBits(ByteBuffer buffer, long bits) {
+            buffer.put((byte) bits);
+        }
+
+        @Override
+        long readBits(ByteBuffer buffer) {
+            return buffer.get();
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return buffer.get() != 0;
+        }
+
+        @Override
+        public void writeValues(ByteBuffer buffer, Object array, int offset, int count) {
+            if (array instanceof boolean[]) {
+                boolean[] values = (boolean[]) array;
+                for (int i = 0; i < count; ++i) {
+                    buffer.put((byte) (values[offset + i] ? 1 : 0));
+                }
+            } else {
+                super.writeValues(buffer, array, offset, count);
+            }
+        }
+
+        @Override
+        public void readValues(ByteBuffer buffer, Object array, int offset, int count) {
+            if (array instanceof boolean[]) {
+                boolean[] values = (boolean[]) array;
+                for (int i = 0; i < count; ++i) {
+                    values[offset + i] = buffer.get() != 0;
+                }
+            } else {
+                super.readValues(buffer, array, offset, count);
+            }
+        }
+
+    }
+
+    private static final class StringCodec extends BinaryCodec {
+
+        private static final StringCodec INSTANCE = new StringCodec();
+
+        @Override
+        public int getSize() {
+            return Character.BYTES * (MAX_STRING_LENGTH + 1);
+        }
+
+        /**
+         * Characters exceeding the maximal length are not stored, like in Turbo Pascal.
+         */
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            PascalString string = (PascalString) value;
+            int length = Math.min(string.getLength(), MAX_STRING_LENGTH);
+            buffer.putChar((char) length);
+            for (int i = 0; i < length; ++i) {
+                buffer.putChar(string.charAt(i));
+            }
+            buffer.position(buffer.position() + Character.BYTES * (MAX_STRING_LENGTH - length));
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            int length = Math.min(buffer.getChar(), MAX_STRING_LENGTH);
+            char[] data = new char[length];
+            buffer.asCharBuffer().get(data);
+            buffer.position(buffer.position() + Character.BYTES * MAX_STRING_LENGTH);
+            return new PascalString(new String(data));
+        }
+
+    }
+
+    private static final class EnumCodec extends BinaryCodec {
+
+        private final EnumTypeDescriptor type;
+
+        private EnumCodec(EnumTypeDescriptor type) {
+            this.type = type;
+        }
+
+        @Override
+        public int getSize() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            buffer.putInt((int) ((EnumValue) value).getOrdinalValue());
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            int ordinal = buffer.getInt();
+            if (ordinal < 0 || ordinal >= this.type.getSize()) {
+                throw new CantReadInputException("enum value out of range");
+            }
+            return this.type.getValue(ordinal);
+        }
+
+    }
+
+    /**
+     * Encoding of arrays whose elements are stored unboxed. The elements are copied in bulk through a view of the
+     * buffer.
+     */
+    private static abstract class PrimitiveArrayCodec extends BinaryCodec {
+
+        final int length;
+
+        private final int elementSize;
+
+        PrimitiveArrayCodec(int length, int elementSize) {
+            this.length = length;
+            this.elementSize = elementSize;
+        }
+
+        @Override
+        public int getSize() {
+            return this.length * this.elementSize;
+        }
+
+        void skip(ByteBuffer buffer) {
+            buffer.position(buffer.position() + this.getSize());
+        }
+
+    }
+
+    private static final class IntArrayCodec extends PrimitiveArrayCodec {
+
+        private IntArrayCodec(int length) {
+            super(length, Integer.BYTES);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            buffer.asIntBuffer().put((int[]) ((ArrayValue) value).getData(), 0, this.length);
+            this.skip(buffer);
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            int[] data = new int[this.length];
+            buffer.asIntBuffer().get(data);
+            this.skip(buffer);
+            return new ArrayValue.IntArray(data);
+        }
+
+    }
+
+    private static final class LongArrayCodec extends PrimitiveArrayCodec {
+
+        private LongArrayCodec(int length) {
+            super(length, Long.BYTES);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            buffer.asLongBuffer().put((long[]) ((ArrayValue) value).getData(), 0, this.length);
+            this.skip(buffer);
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            long[] data = new long[this.length];
+            buffer.asLongBuffer().get(data);
+            this.skip(buffer);
+            return new ArrayValue.LongArray(data);
+        }
+
+    }
+
+    private static final class RealArrayCodec extends PrimitiveArrayCodec {
+
+        private RealArrayCodec(int length) {
+            super(length, Double.BYTES);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            buffer.asDoubleBuffer().put((double[]) ((ArrayValue) value).getData(), 0, this.length);
+            this.skip(buffer);
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            double[] data = new double[this.length];
+            buffer.asDoubleBuffer().get(data);
+            this.skip(buffer);
+            return new ArrayValue.RealArray(data);
+        }
+
+    }
+
+    private static final class CharArrayCodec extends PrimitiveArrayCodec {
+
+        private CharArrayCodec(int length) {
+            super(length, Character.BYTES);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            buffer.asCharBuffer().put((char[]) ((ArrayValue) value).getData(), 0, this.length);
+            this.skip(buffer);
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            char[] data = new char[this.length];
+            buffer.asCharBuffer().get(data);
+            this.skip(buffer);
+            return new ArrayValue.CharArray(data);
+        }
+
+    }
+
+    private static final class BooleanArrayCodec extends PrimitiveArrayCodec {
+
+        private BooleanArrayCodec(int length) {
+            super(length, 1);
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            boolean[] data = (boolean[]) ((ArrayValue) value).getData();
+            for (int i = 0; i < this.length; ++i) {
+                buffer.put((byte) (data[i] ? 1 : 0));
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            boolean[] data = new boolean[this.length];
+            for (int i = 0; i < this.length; ++i) {
+                data[i] = buffer.get() != 0;
+            }
+            return new ArrayValue.BooleanArray(data);
+        }
+
+    }
+
+    private static final class ObjectArrayCodec extends BinaryCodec {
+
+        private final BinaryCodec valuesCodec;
+        private final int length;
+
+        private ObjectArrayCodec(BinaryCodec valuesCodec, int length) {
+            this.valuesCodec = valuesCodec;
+            this.length = length;
+        }
+
+        @Override
+        public int getSize() {
+            return this.length * this.valuesCodec.getSize();
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            Object[] data = (Object[]) ((ArrayValue) value).getData();
+            for (int i = 0; i < this.length; ++i) {
+                this.valuesCodec.write(buffer, data[i]);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            Object[] data = new Object[this.length];
+            for (int i = 0; i < this.length; ++i) {
+                data[i] = this.valuesCodec.read(buffer);
+            }
+            return new ArrayValue.ObjectArray(data);
+        }
+
+    }
+
+    /**
+     * Encoding of records. Primitive fields are stored first, followed by the remaining fields, in the order of their
+     * indices to the record's arrays (see {@link RecordDescriptor}).
+     */
+    private static final class RecordCodec extends BinaryCodec {
+
+        private final PrimitiveCodec[] primitiveCodecs;
+        private final BinaryCodec[] referenceCodecs;
+        private final int size;
+
+        private RecordCodec(PrimitiveCodec[] primitiveCodecs, BinaryCodec[] referenceCodecs) {
+            this.primitiveCodecs = primitiveCodecs;
+            this.referenceCodecs = referenceCodecs;
+            int size = 0;
+            for (BinaryCodec codec : primitiveCodecs) {
+                size += codec.getSize();
+            }
+            for (BinaryCodec codec : referenceCodecs) {
+                size += codec.getSize();
+            }
+            this.size = size;
+        }
+
+        @Override
+        public int getSize() {
+            return this.size;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            RecordValue record = (RecordValue) value;
+            for (int i = 0; i < this.primitiveCodecs.length; ++i) {
+                this.primitiveCodecs[i].writeBits(buffer, record.getLong(i));
+            }
+            for (int i = 0; i < this.referenceCodecs.length; ++i) {
+                this.referenceCodecs[i].write(buffer, record.getObject(i));
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            long[] primitives = new long[this.primitiveCodecs.length];
+            for (int i = 0; i < primitives.length; ++i) {
+                primitives[i] = this.primitiveCodecs[i].readBits(buffer);
+            }
+            Object[] references = new Object[this.referenceCodecs.length];
+            for (int i = 0; i < references.length; ++i) {
+                references[i] = this.referenceCodecs[i].read(buffer);
+            }
+            return new RecordValue(primitives, references);
+        }
+
+    }
+
+}
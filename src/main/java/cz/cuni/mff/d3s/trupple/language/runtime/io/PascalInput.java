@@ -0,0 +1,438 @@
+package cz.cuni.mff.d3s.trupple.language.runtime.io;
+
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.CantReadInputException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reader of textual input. It is used for the standard input of a context and for text files
+ * ({@link cz.cuni.mff.d3s.trupple.language.runtime.customvalues.TextFileValue}). The input stream is read into a byte
+ * buffer and numbers are parsed directly from its bytes, so reading integers does not allocate any objects. Numbers are
+ * separated by whitespace which includes line ends; a line ends with "\n", "\r\n" or "\r". Characters are decoded as
+ * UTF-8. An output may be tied to the input; it is flushed whenever the input has to read more bytes from the stream,
+ * so a prompt written before the read is visible while the program waits for the input.
+ */
+public class PascalInput {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int END_OF_INPUT = -1;
+
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    /**
+     * Powers of ten which are represented exactly as doubles.
+     */
+    private static final double[] EXACT_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Mantissas smaller than this value are represented exactly as doubles.
+     */
+    private static final long EXACT_MANTISSA_LIMIT = 1L << 53;
+
+    private final InputStream input;
+
+    private byte[] buffer;
+
+    /**
+     * Index of the next unread byte in the buffer.
+     */
+    private int position;
+
+    /**
+     * Number of valid bytes in the buffer.
+     */
+    private int limit;
+
+    private boolean endOfStream;
+
+    private final PascalOutput tiedOutput;
+
+    public PascalInput(InputStream input) {
+        this(input, null);
+    }
+
+    /**
+     * @param input the underlying stream
+     * @param tiedOutput output which is flushed before bytes are read from the stream, or null
+     */
+    public PascalInput(InputStream input, PascalOutput tiedOutput) {
+        this.input = input;
+        this.tiedOutput = tiedOutput;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * Checks whether there are only whitespace characters left in the input.
+     */
+    public boolean eof() {
+        int offset = 0;
+        int value;
+        while ((value = this.peek(offset)) != END_OF_INPUT) {
+            if (!isWhitespace(value)) {
+                return false;
+            }
+            ++offset;
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether the next character is a line end or there are no characters left in the input.
+     */
+    public boolean eoln() {
+        int value = this.peek(0);
+        return value == END_OF_INPUT || value == '\n' || value == '\r';
+    }
+
+    /**
+     * Checks whether there are no characters left in the input except for a single line end.
+     */
+    public boolean endOfText() {
+        int value = this.peek(0);
+        if (value == '\r' && this.peek(1) == '\n') {
+            return this.peek(2) == END_OF_INPUT;
+        } else if (value == '\r' || value == '\n') {
+            return this.peek(1) == END_OF_INPUT;
+        }
+
+        return value == END_OF_INPUT;
+    }
+
+    /**
+     * Reads the next character like {@link PascalInput#readChar()}, but each line end is read as a single '\n'.
+     */
+    public char readTextChar() {
+        char value = this.readChar();
+        if (value == '\r') {
+            if (this.peek(0) == '\n') {
+                this.next();
+            }
+            return '\n';
+        }
+
+        return value;
+    }
+
+    /**
+     * Reads the next character including whitespace characters and line ends.
+     */
+    public char readChar() {
+        int value = this.next();
+        if (value == END_OF_INPUT) {
+            throw new CantReadInputException("unexpected end of input");
+        }
+
+        return this.decodeCharacter(value);
+    }
+
+    /**
+     * Skips whitespace and reads an integer. The integer has to be followed by whitespace or by the end of the input.
+     */
+    public int readInt() {
+        long value = this.readLong();
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new CantReadInputException("integer out of range");
+        }
+
+        return (int) value;
+    }
+
+    /**
+     * Skips whitespace and reads an integer. The integer has to be followed by whitespace or by the end of the input.
+     */
+    public long readLong() {
+        this.skipWhitespace();
+        boolean negative = this.skipSign();
+        if (!isDigit(this.peek(0))) {
+            throw new CantReadInputException("integer expected");
+        }
+
+        long value = 0;
+        while (isDigit(this.peek(0))) {
+            int digit = this.next() - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                throw new CantReadInputException("integer out of range");
+            }
+            value = value * 10 + digit;
+        }
+        this.checkTokenEnd();
+
+        return negative ? -value : value;
+    }
+
+    /**
+     * Skips whitespace and reads a real number. Numbers which have at most 15 significant digits and a small exponent
+     * are computed directly from their digits, others are parsed by {@link Double#parseDouble(String)}.
+     */
+    public double readDouble() {
+        this.skipWhitespace();
+        int length = this.tokenLength();
+        if (length == 0) {
+            throw new CantReadInputException("real number expected");
+        }
+
+        double value = this.parseSimpleDouble(length);
+        if (Double.isNaN(value)) {
+            String token = new String(this.buffer, this.position, length, StandardCharsets.UTF_8);
+            try {
+                value = Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw new CantReadInputException("real number expected");
+            }
+        }
+        this.position += length;
+
+        return value;
+    }
+
+    /**
+     * Reads the rest of the current line. The line end is not consumed.
+     */
+    public PascalString readLine() {
+        StringBuilder line = new StringBuilder();
+        int value;
+        while ((value = this.peek(0)) != END_OF_INPUT && value != '\n' && value != '\r') {
+            line.append(this.decodeCharacter(this.next()));
+        }
+
+        return new PascalString(line.toString());
+    }
+
+    /**
+     * Skips the rest of the current line including its line end.
+     */
+    public void skipLine() {
+        int value;
+        while ((value = this.next()) != END_OF_INPUT) {
+            if (value == '\n') {
+                return;
+            } else if (value == '\r') {
+                if (this.peek(0) == '\n') {
+                    this.next();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Closes the underlying stream.
+     */
+    public void close() {
+        try {
+            this.input.close();
+        } catch (IOException e) {
+            throw new CantReadInputException(e);
+        }
+    }
+
+    /**
+     * Parses a real number of the form [sign]digits[.digits][(e|E)[sign]digits] from the current token.
+     * @param length length of the token
+     * @return the number or NaN if the token has another form or the number cannot be computed exactly
+     */
+    private double parseSimpleDouble(int length) {
+        int index = this.position;
+        int end = this.position + length;
+        boolean negative = false;
+        if (this.buffer[index] == '-' || this.buffer[index] == '+') {
+            negative = this.buffer[index] == '-';
+            ++index;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean afterDot = false;
+        for (; index < end; ++index) {
+            byte value = this.buffer[index];
+            if (isDigit(value)) {
+                if (mantissa >= EXACT_MANTISSA_LIMIT / 10) {
+                    return Double.NaN;
+                }
+                mantissa = mantissa * 10 + (value - '0');
+                ++digits;
+                if (afterDot) {
+                    --exponent;
+                }
+            } else if (value == '.' && !afterDot) {
+                afterDot = true;
+            } else {
+                break;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+
+        if (index < end) {
+            if (this.buffer[index] != 'e' && this.buffer[index] != 'E') {
+                return Double.NaN;
+            }
+            ++index;
+            boolean negativeExponent = false;
+            if (index < end && (this.buffer[index] == '-' || this.buffer[index] == '+')) {
+                negativeExponent = this.buffer[index] == '-';
+                ++index;
+            }
+            if (index == end) {
+                return Double.NaN;
+            }
+            int explicitExponent = 0;
+            for (; index < end; ++index) {
+                if (!isDigit(this.buffer[index]) || explicitExponent > EXACT_POWERS_OF_TEN.length) {
+                    return Double.NaN;
+                }
+                explicitExponent = explicitExponent * 10 + (this.buffer[index] - '0');
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (Math.abs(exponent) >= EXACT_POWERS_OF_TEN.length) {
+            return Double.NaN;
+        }
+        double value = (exponent < 0)? mantissa / EXACT_POWERS_OF_TEN[-exponent] : mantissa * EXACT_POWERS_OF_TEN[exponent];
+        return negative ? -value : value;
+    }
+
+    /**
+     * Gets number of bytes from the current position to the next whitespace or the end of the input. The whole token
+     * is loaded to the buffer.
+     */
+    private int tokenLength() {
+        int length = 0;
+        int value;
+        while ((value = this.peek(length)) != END_OF_INPUT && !isWhitespace(value)) {
+            ++length;
+        }
+
+        return length;
+    }
+
+    private void skipWhitespace() {
+        int value;
+        while ((value = this.peek(0)) != END_OF_INPUT && isWhitespace(value)) {
+            ++this.position;
+        }
+    }
+
+    private boolean skipSign() {
+        int value = this.peek(0);
+        if (value == '-' || value == '+') {
+            ++this.position;
+            return value == '-';
+        }
+
+        return false;
+    }
+
+    private void checkTokenEnd() {
+        int value = this.peek(0);
+        if (value != END_OF_INPUT && !isWhitespace(value)) {
+            throw new CantReadInputException("unexpected character '" + (char) value + "'");
+        }
+    }
+
+    /**
+     * Decodes a character whose first byte was already read. The rest of its bytes is read from the input.
+     */
+    private char decodeCharacter(int first) {
+        if (first < 0x80) {
+            return (char) first;
+        }
+
+        int continuationBytes = (first >= 0xF0)? 3 : (first >= 0xE0)? 2 : 1;
+        int value = first & (0x3F >> continuationBytes);
+        for (int i = 0; i < continuationBytes; ++i) {
+            int next = this.peek(0);
+            if (next == END_OF_INPUT || (next & 0xC0) != 0x80) {
+                return REPLACEMENT_CHARACTER;
+            }
+            value = (value << 6) | (this.next() & 0x3F);
+        }
+
+        // characters outside of the basic multilingual plane do not fit into Pascal's char
+        return (value > Character.MAX_VALUE)? REPLACEMENT_CHARACTER : (char) value;
+    }
+
+    /**
+     * Reads the next byte.
+     * @return the byte or {@link PascalInput#END_OF_INPUT} if there are no bytes left
+     */
+    private int next() {
+        int value = this.peek(0);
+        if (value != END_OF_INPUT) {
+            ++this.position;
+        }
+
+        return value;
+    }
+
+    /**
+     * Gets the byte at the specified offset from the current position without consuming it. The buffer is refilled or
+     * grown if the byte is not loaded yet.
+     * @return the byte or {@link PascalInput#END_OF_INPUT} if there are not enough bytes left
+     */
+    private int peek(int offset) {
+        while (this.position + offset >= this.limit) {
+            if (!this.fill()) {
+                return END_OF_INPUT;
+            }
+        }
+
+        return this.buffer[this.position + offset] & 0xFF;
+    }
+
+    /**
+     * Reads more bytes from the stream to the buffer. The unread bytes are moved to the beginning of the buffer and the
+     * buffer is grown if it is full of them. The tied output is flushed first, because the read may block.
+     * @return false if the end of the stream was reached
+     */
+    private boolean fill() {
+        if (this.endOfStream) {
+            return false;
+        }
+
+        if (this.position > 0) {
+            System.arraycopy(this.buffer, this.position, this.buffer, 0, this.limit - this.position);
+            this.limit -= this.position;
+            this.position = 0;
+        }
+        if (this.limit == this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, this.buffer.length * 2);
+        }
+
+        if (this.tiedOutput != null) {
+            this.tiedOutput.flush();
+        }
+        try {
+            int count = this.input.read(this.buffer, this.limit, this.buffer.length - this.limit);
+            if (count == -1) {
+                this.endOfStream = true;
+                return false;
+            }
+            this.limit += count;
+            return true;
+        } catch (IOException e) {
+            throw new CantReadInputException(e);
+        }
+    }
+
+    private static boolean isDigit(int value) {
+        return value >= '0' && value <= '9';
+    }
+
+    private static boolean isWhitespace(int value) {
+        return value == ' ' || (value >= '\t' && value <= '\r') || (value >= 0x1C && value <= 0x1F);
+    }
+
+}
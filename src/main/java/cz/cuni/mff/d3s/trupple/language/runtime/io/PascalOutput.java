@@ -0,0 +1,202 @@
+package cz.cuni.mff.d3s.trupple.language.runtime.io;
+
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.PascalString;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.PascalRuntimeException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+/**
+ * Buffered standard output of one context. Written values are formatted directly into a character buffer, so writing
+ * integers, characters and strings does not allocate any objects. The buffer is written to the underlying stream only
+ * when it is full or when it is explicitly flushed, e.g.: before the standard input reads more bytes from its stream
+ * (see {@link PascalInput}) or when the program ends (see {@link cz.cuni.mff.d3s.trupple.language.PascalState}).
+ * Text files are written through this class too
+ * (see {@link cz.cuni.mff.d3s.trupple.language.runtime.customvalues.TextFileValue}).
+ */
+public class PascalOutput {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final char[] LINE_SEPARATOR = System.lineSeparator().toCharArray();
+
+    /**
+     * Integral doubles smaller than this value are printed in plain notation by {@link Double#toString(double)}.
+     */
+    private static final double PLAIN_NOTATION_LIMIT = 1e7;
+
+    /**
+     * Number of characters needed to print any long value.
+     */
+    private static final int MAX_LONG_LENGTH = 20;
+
+    private final Writer writer;
+
+    private final char[] buffer;
+
+    private int position;
+
+    /**
+     * The default constructor.
+     * @param output the underlying stream
+     * @param bufferSize number of characters that are buffered before they are written to the underlying stream
+     */
+    public PascalOutput(OutputStream output, int bufferSize) {
+        this.writer = new OutputStreamWriter(output);
+        this.buffer = new char[Math.max(bufferSize, MAX_LONG_LENGTH)];
+        this.position = 0;
+    }
+
+    public void write(char value) {
+        this.ensureSpace(1);
+        this.buffer[this.position++] = value;
+    }
+
+    public void write(boolean value) {
+        this.write(value ? "true" : "false");
+    }
+
+    /**
+     * Writes the decimal representation of the specified value. The digits are written directly to the buffer.
+     */
+    public void write(long value) {
+        this.ensureSpace(MAX_LONG_LENGTH);
+        if (value == Long.MIN_VALUE) {
+            this.write(Long.toString(value));
+            return;
+        }
+
+        if (value < 0) {
+            this.buffer[this.position++] = '-';
+            value = -value;
+        }
+        int end = this.position + digitsCount(value);
+        int index = end;
+        do {
+            this.buffer[--index] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        this.position = end;
+    }
+
+    /**
+     * Writes the value in the same format as {@link Double#toString(double)}. Integral values which are printed in plain
+     * notation (e.g.: 42.0) are written without any allocation.
+     */
+    public void write(double value) {
+        if (value == (long) value && Math.abs(value) < PLAIN_NOTATION_LIMIT && !isNegativeZero(value)) {
+            this.write((long) value);
+            this.write('.');
+            this.write('0');
+        } else {
+            this.write(Double.toString(value));
+        }
+    }
+
+    public void write(String value) {
+        int length = value.length();
+        int offset = 0;
+        while (offset < length) {
+            int count = Math.min(length - offset, this.ensureSpace(1));
+            value.getChars(offset, offset + count, this.buffer, this.position);
+            this.position += count;
+            offset += count;
+        }
+    }
+
+    public void write(PascalString value) {
+        int length = value.getLength();
+        int offset = 0;
+        while (offset < length) {
+            int count = Math.min(length - offset, this.ensureSpace(1));
+            value.getChars(offset, offset + count, this.buffer, this.position);
+            this.position += count;
+            offset += count;
+        }
+    }
+
+    /**
+     * Writes value of any type supported by Pascal's write subroutine.
+     */
+    public void write(Object value) {
+        if (value instanceof Long) {
+            this.write((long) value);
+        } else if (value instanceof Integer) {
+            this.write((int) value);
+        } else if (value instanceof Character) {
+            this.write((char) value);
+        } else if (value instanceof Double) {
+            this.write((double) value);
+        } else if (value instanceof PascalString) {
+            this.write((PascalString) value);
+        } else if (value instanceof Boolean) {
+            this.write((boolean) value);
+        } else {
+            this.write(String.valueOf(value));
+        }
+    }
+
+    public void writeLine() {
+        for (char c : LINE_SEPARATOR) {
+            this.write(c);
+        }
+    }
+
+    /**
+     * Writes all the buffered characters to the underlying stream.
+     */
+    public void flush() {
+        try {
+            this.writer.write(this.buffer, 0, this.position);
+            this.writer.flush();
+        } catch (IOException e) {
+            throw new PascalRuntimeException("Could not write the output: " + e.getMessage());
+        } finally {
+            this.position = 0;
+        }
+    }
+
+    /**
+     * Flushes the buffer and closes the underlying stream.
+     */
+    public void close() {
+        try {
+            this.flush();
+        } finally {
+            try {
+                this.writer.close();
+            } catch (IOException e) {
+                throw new PascalRuntimeException("Could not close the output: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Flushes the buffer if there is less than the specified number of free characters in it.
+     * @return number of free characters in the buffer
+     */
+    private int ensureSpace(int count) {
+        if (this.buffer.length - this.position < count) {
+            this.flush();
+        }
+
+        return this.buffer.length - this.position;
+    }
+
+    private static int digitsCount(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            ++count;
+        }
+
+        return count;
+    }
+
+    private static boolean isNegativeZero(double value) {
+        return Double.doubleToRawLongBits(value) == Double.doubleToRawLongBits(-0.0);
+    }
+
+}
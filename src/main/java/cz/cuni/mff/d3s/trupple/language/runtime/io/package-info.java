@@ -0,0 +1,5 @@
+/**
+ * Package containing implementation of the standard input and output of a context and of the binary encoding of typed
+ * files.
+ */
+package cz.cuni.mff.d3s.trupple.language.runtime.io;
@@ -26,7 +26,6 @@ public class CompilerMain {
 	public static void main(String[] args) {
         try {
             settings = parseArguments(args);
-            PascalLanguage.INSTANCE.reset(settings.usesTPExtension(), settings.usesExtendedGoto());
             executeSource(Source.newBuilder(getSourceFile(settings.getSourcePath())).mimeType(PascalLanguage.MIME_TYPE).build(), System.in, System.out);
         } catch (Exception e) {
             System.err.print(e.getMessage());
@@ -35,7 +34,13 @@ public class CompilerMain {
 	}
 
 	private static void executeSource(Source source, InputStream input, OutputStream output) throws Exception {
-        PolyglotEngine engine = PolyglotEngine.newBuilder().setIn(input).setOut(output).setErr(System.err).build();
+        PolyglotEngine engine = PolyglotEngine.newBuilder().setIn(input).setOut(output).setErr(System.err)
+                .config(PascalLanguage.MIME_TYPE, PascalLanguage.TP_EXTENSION_CONFIG, settings.usesTPExtension())
+                .config(PascalLanguage.MIME_TYPE, PascalLanguage.EXTENDED_GOTO_CONFIG, settings.usesExtendedGoto())
+                .config(PascalLanguage.MIME_TYPE, PascalLanguage.OUTPUT_BUFFER_SIZE_CONFIG, settings.getOutputBufferSize())
+                .config(PascalLanguage.MIME_TYPE, PascalLanguage.MAPPED_FILES_CONFIG, settings.usesMappedFiles())
+                .config(PascalLanguage.MIME_TYPE, PascalLanguage.NO_RANGE_CHECKS_CONFIG, settings.disablesRangeChecks())
+                .build();
         assert engine.getLanguages().containsKey(PascalLanguage.MIME_TYPE);
 
         try {
@@ -31,7 +31,6 @@ public class TicTacToeMain {
         }
 
         Source source = Source.newBuilder(sourceFile).mimeType(PascalLanguage.MIME_TYPE).build();
-        PascalLanguage.INSTANCE.reset(true, false);
         Game game = new Game(source);
 
         try {
@@ -90,7 +89,8 @@ public class TicTacToeMain {
         }
 
         private void initPolyglot(Source aiSource) {
-            this.engine = PolyglotEngine.newBuilder().setErr(System.err).build();
+            this.engine = PolyglotEngine.newBuilder().setErr(System.err)
+                    .config(PascalLanguage.MIME_TYPE, PascalLanguage.TP_EXTENSION_CONFIG, true).build();
             this.parsedAIScript = engine.eval(aiSource);
         }
 
@@ -1,5 +1,6 @@
 package cz.cuni.mff.d3s.trupple.main.settings;
 
+import cz.cuni.mff.d3s.trupple.language.runtime.io.PascalOutput;
 import cz.cuni.mff.d3s.trupple.main.settings.handlers.StandardOptionHandler;
 import org.kohsuke.args4j.Argument;
 import org.kohsuke.args4j.Option;
@@ -23,6 +24,15 @@ public class Settings {
     @Option(name="-j", usage="sets extended goto support")
     private boolean extendedGotoSupport = false;
 
+    @Option(name="-b", usage="sets number of characters the standard output buffers before it is written")
+    private int outputBufferSize = PascalOutput.DEFAULT_BUFFER_SIZE;
+
+    @Option(name="-m", usage="maps typed files to memory")
+    private boolean mappedFiles = false;
+
+    @Option(name="-R", usage="turns off range checks of array indices")
+    private boolean noRangeChecks = false;
+
     @Argument
     private List<String> arguments = new ArrayList<>();
 
@@ -56,6 +66,27 @@ public class Settings {
         return this.extendedGotoSupport;
     }
 
+    /**
+     * Gets the size of the standard output buffer.
+     */
+    public int getOutputBufferSize() {
+        return this.outputBufferSize;
+    }
+
+    /**
+     * Checks whether the option for mapping typed files to memory was set.
+     */
+    public boolean usesMappedFiles() {
+        return this.mappedFiles;
+    }
+
+    /**
+     * Checks whether the option for turning off range checks was set.
+     */
+    public boolean disablesRangeChecks() {
+        return this.noRangeChecks;
+    }
+
     /**
      * Gets the value of include directories option.
      */
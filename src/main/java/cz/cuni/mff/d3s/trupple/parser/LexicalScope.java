@@ -2,8 +2,8 @@ package cz.cuni.mff.d3s.trupple.parser;
 
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.FrameSlot;
-import com.oracle.truffle.api.frame.VirtualFrame;
-import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import com.oracle.truffle.api.frame.MaterializedFrame;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.BlockNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.InitializationNodeFactory;
@@ -39,6 +39,7 @@ public class LexicalScope {
     private String name;
     private final LexicalScope outer;
     private int loopDepth;
+    private boolean parentFrameAccessed;
     IdentifiersTable localIdentifiers;
     final List<StatementNode> scopeInitializationNodes = new ArrayList<>();
 
@@ -71,6 +72,14 @@ public class LexicalScope {
         return this.localIdentifiers.getFrameDescriptor();
     }
 
+    /**
+     * Creates a frame slot which is not bound to any identifier. Nodes use it to store values that are not visible from
+     * Pascal sources, e.g. the final value of a for loop.
+     */
+    FrameSlot createHiddenSlot(FrameSlotKind kind) {
+        return this.getFrameDescriptor().addFrameSlot(new Object(), kind);
+    }
+
     FrameSlot getLocalSlot(String identifier) {
         return this.localIdentifiers.getFrameSlot(identifier);
     }
@@ -105,12 +114,11 @@ public class LexicalScope {
     }
 
     void setSubroutineRootNode(String identifier, PascalRootNode rootNode) throws LexicalException {
-        PascalLanguage.INSTANCE.updateSubroutine(this.name, identifier, rootNode);
         this.localIdentifiers.setSubroutineRootNode(identifier, rootNode);
     }
 
-    void registerLabel(String identifier) throws LexicalException {
-        this.localIdentifiers.addLabel(identifier);
+    void registerLabel(String identifier, int id) throws LexicalException {
+        this.localIdentifiers.addLabel(identifier, id);
     }
 
     void registerNewType(String identifier, TypeDescriptor typeDescriptor) throws LexicalException {
@@ -161,6 +169,10 @@ public class LexicalScope {
         return this.localIdentifiers.isSubroutine(identifier);
     }
 
+    boolean isBuiltinSubroutine(String identifier) {
+        return this.localIdentifiers.isBuiltinSubroutine(identifier);
+    }
+
     boolean labelExists(String identifier) {
         return this.localIdentifiers.isLabel(identifier);
     }
@@ -203,8 +215,8 @@ public class LexicalScope {
         this.localIdentifiers.addReturnVariable(this.getName(), typeDescriptor);
     }
 
-    ArrayDescriptor createArrayType(OrdinalDescriptor dimension, TypeDescriptor typeDescriptor) {
-        return this.localIdentifiers.createArray(dimension, typeDescriptor);
+    ArrayDescriptor createArrayType(List<OrdinalDescriptor> dimensions, TypeDescriptor typeDescriptor) {
+        return this.localIdentifiers.createArray(dimensions, typeDescriptor);
     }
 
     EnumTypeDescriptor createEnumType(List<String> identifiers) throws LexicalException {
@@ -257,7 +269,6 @@ public class LexicalScope {
     public void registerBuiltinSubroutine(String identifier, SubroutineDescriptor descriptor) {
         try {
             this.localIdentifiers.addSubroutine(identifier, descriptor);
-            PascalLanguage.INSTANCE.updateSubroutine(this.name, identifier, descriptor.getRootNode());
         } catch (LexicalException e) {
             throw new PascalRuntimeException("Could not register builtin subroutine: " + identifier);
         }
@@ -304,7 +315,7 @@ public class LexicalScope {
      * Generates initialization node for each declared identifier in the current scope and returns list of these nodes.
      * @param frame frame of the scope (used in scopes of units)
      */
-    List<StatementNode> generateInitializationNodes(VirtualFrame frame)  {
+    List<StatementNode> generateInitializationNodes(MaterializedFrame frame)  {
         List<StatementNode> initializationNodes = new ArrayList<>();
 
         for (Map.Entry<String, TypeDescriptor> entry : this.localIdentifiers.getAllIdentifiers().entrySet()) {
@@ -320,7 +331,7 @@ public class LexicalScope {
         return initializationNodes;
     }
 
-    private StatementNode createInitializationNode(String identifier, TypeDescriptor typeDescriptor, VirtualFrame frame) {
+    private StatementNode createInitializationNode(String identifier, TypeDescriptor typeDescriptor, MaterializedFrame frame) {
         Object defaultValue = typeDescriptor.getDefaultValue();
         if (defaultValue == null) {
             return null;
@@ -330,6 +341,18 @@ public class LexicalScope {
         return InitializationNodeFactory.create(frameSlot, typeDescriptor.getDefaultValue(), frame);
     }
 
+    /**
+     * Marks that some node of this scope or of a scope nested in it reaches the frame of this scope's lexical parent.
+     * Only subroutines of such scopes receive materialized frame of their parent when they are invoked.
+     */
+    void markParentFrameAccessed() {
+        this.parentFrameAccessed = true;
+    }
+
+    boolean isParentFrameAccessed() {
+        return this.parentFrameAccessed;
+    }
+
     /**
      * Returns true if the parser is currently inside a loop in the currently parsed source.
      */
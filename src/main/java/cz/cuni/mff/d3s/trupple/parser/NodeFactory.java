@@ -3,7 +3,8 @@ package cz.cuni.mff.d3s.trupple.parser;
 import java.util.*;
 
 import com.oracle.truffle.api.frame.FrameSlot;
-import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
+import com.oracle.truffle.api.frame.FrameSlotKind;
+import cz.cuni.mff.d3s.trupple.language.PascalState;
 import cz.cuni.mff.d3s.trupple.language.builtinunits.*;
 import cz.cuni.mff.d3s.trupple.language.builtinunits.DosBuiltinUnit;
 import cz.cuni.mff.d3s.trupple.language.builtinunits.CrtBuiltinUnit;
@@ -32,13 +33,18 @@ import cz.cuni.mff.d3s.trupple.parser.exceptions.LexicalException;
 import cz.cuni.mff.d3s.trupple.parser.exceptions.UnknownIdentifierException;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.UnknownDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.LabelDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.OrdinalDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.PointerDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.ReferenceDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.ArrayDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.EnumLiteralDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.MultidimensionalArrayDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.RecordDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.constant.*;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.extension.PCharDesriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.BooleanDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.FunctionDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.ProcedureDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.ReturnTypeDescriptor;
@@ -63,6 +69,29 @@ public class NodeFactory {
 
     }
 
+    /**
+     * Record whose fields are accessible directly by their identifiers inside a <i>with statement</i>. It is either
+     * a variable or a field of another record of an enclosing <i>with statement</i>.
+     */
+    private static class WithRecord {
+
+        private final String identifier;
+
+        /**
+         * Index of the enclosing with record to which the record belongs or -1 if the record is a variable.
+         */
+        private final int outerRecordIndex;
+
+        private final RecordDescriptor descriptor;
+
+        private WithRecord(String identifier, int outerRecordIndex, RecordDescriptor descriptor) {
+            this.identifier = identifier;
+            this.outerRecordIndex = outerRecordIndex;
+            this.descriptor = descriptor;
+        }
+
+    }
+
     /**
      * The parser to be used for parsing. There can be two: parser for wirths' standard or turbo pascal standard.
      */
@@ -73,6 +102,11 @@ public class NodeFactory {
      */
 	private LexicalScope currentLexicalScope;
 
+    /**
+     * Records of the currently parsed <i>with statements</i>, the innermost one is the last.
+     */
+	private final List<WithRecord> withRecords = new ArrayList<>();
+
     /**
      * List of all parsed units
      */
@@ -93,13 +127,25 @@ public class NodeFactory {
      */
 	private final boolean usingTPExtension;
 
+    /**
+     * State of the context for which the sources are parsed. Units are registered to it.
+     */
+	private final PascalState state;
+
     /**
      * Specifies identifiers of arguments of the main program
      */
 	private List<String> mainProgramArgumentsIdentifiers = new ArrayList<>();
 
-	public NodeFactory(IParser parser, boolean usingTPExtension) {
+    /**
+     * Number of labels registered by the factory. It is used as the id of the next label, so ids of labels in different
+     * scopes (and units) never collide.
+     */
+	private int labelsCount;
+
+	public NodeFactory(IParser parser, PascalState state, boolean usingTPExtension) {
 		this.parser = parser;
+		this.state = state;
 		this.usingTPExtension = usingTPExtension;
 		this.currentLexicalScope = new LexicalScope(null, "_main", parser.isUsingTPExtension());
 	}
@@ -129,7 +175,7 @@ public class NodeFactory {
         String unitIdentifier = this.getIdentifierFromToken(unitIdentifierToken);
         if (this.builtinUnits.containsKey(unitIdentifier)) {
             BuiltinUnit builtinUnit = this.builtinUnits.get(unitIdentifier);
-            UnitLexicalScope unitScope = new UnitLexicalScope(null, unitIdentifier, this.usingTPExtension);
+            UnitLexicalScope unitScope = new UnitLexicalScope(null, unitIdentifier, this.state, this.usingTPExtension);
             builtinUnit.importTo(unitScope);
             this.units.add(unitScope);
         } else if (!this.isUnitRegistered(unitIdentifier)) {
@@ -140,7 +186,7 @@ public class NodeFactory {
     public void registerLabel(Token labelToken) {
 	    String labelIdentifier = this.getIdentifierFromToken(labelToken);
 	    try {
-            this.currentLexicalScope.registerLabel(labelIdentifier);
+            this.currentLexicalScope.registerLabel(labelIdentifier, this.labelsCount++);
         } catch (LexicalException e) {
 	        parser.SemErr(e.getMessage());
         }
@@ -157,7 +203,7 @@ public class NodeFactory {
     }
 
     private boolean isUnitRegistered(String identifier) {
-	    return PascalLanguage.INSTANCE.isUnitRegistered(identifier);
+	    return this.state.isUnitRegistered(identifier);
     }
 
     /**
@@ -165,7 +211,8 @@ public class NodeFactory {
      * identifier is found it calls the {@link GlobalObjectLookup#onFound(LexicalScope, String)} function with the found
      * identifier and lexical scope in which it was found as arguments.
      * It firstly looks ups to the topmost lexical scope and if the identifier is not found then it looks up in the unit
-     * scopes.
+     * scopes. Built-in subroutines are registered in each scope, so they are skipped by these lookups and used only if
+     * the identifier is not declared by the program in any of the scopes.
      * @param identifier identifier to be looked up
      * @param lookupFunction the function to be called when the identifier is found
      * @param withReturnType flag whether to also lookup for functions' return variable which are write-only
@@ -178,6 +225,9 @@ public class NodeFactory {
             if (result == null) {
                 result = lookupInUnits(identifier, lookupFunction);
             }
+            if (result == null) {
+                result = lookupBuiltinSubroutine(identifier, lookupFunction);
+            }
             if (result == null) {
                 throw new UnknownIdentifierException(identifier);
             }
@@ -207,7 +257,8 @@ public class NodeFactory {
     private <T> T lookupToParentScope(LexicalScope scope, String identifier, GlobalObjectLookup<T> lookupFunction,
                                       boolean withReturnType, boolean onlyPublic) throws LexicalException {
         while (scope != null) {
-            if ((onlyPublic)? scope.containsPublicIdentifier(identifier) : scope.containsLocalIdentifier(identifier)) {
+            if (((onlyPublic)? scope.containsPublicIdentifier(identifier) : scope.containsLocalIdentifier(identifier))
+                    && !scope.isBuiltinSubroutine(identifier)) {
                 return lookupFunction.onFound(scope, identifier);
             } else if (withReturnType && currentLexicalScope.containsReturnType(identifier, onlyPublic)) {
                 return lookupFunction.onFound(currentLexicalScope, identifier);
@@ -220,6 +271,46 @@ public class NodeFactory {
         return null;
     }
 
+    /**
+     * Gets the number of lexical scopes between the current scope and the specified one. At runtime, it is the number of
+     * parent frames that have to be followed to get from the current frame to the frame of the specified scope.
+     * @param scope scope enclosing the current scope
+     * @return the depth of the scope
+     * @throws LexicalException if the frame of the scope is not accessible from the current scope (e.g. it is a scope of
+     * another unit)
+     */
+    private int getScopeDepth(LexicalScope scope) throws LexicalException {
+        int depth = 0;
+        for (LexicalScope enclosingScope = this.currentLexicalScope; enclosingScope != null; enclosingScope = enclosingScope.getOuterScope()) {
+            if (enclosingScope == scope) {
+                this.markParentFramesAccessed(depth);
+                return depth;
+            } else if (enclosingScope instanceof UnitLexicalScope) {
+                break;
+            }
+            ++depth;
+        }
+
+        throw new LexicalException("Variables of other units can not be accessed: " + scope.getName());
+    }
+
+    private void markParentFramesAccessed(int depth) {
+        LexicalScope scope = this.currentLexicalScope;
+        for (int i = 0; i < depth; ++i) {
+            scope.markParentFrameAccessed();
+            scope = scope.getOuterScope();
+        }
+    }
+
+    /**
+     * Looks up the specified identifier and gets depth of the scope in which it was found (see
+     * {@link NodeFactory#getScopeDepth(LexicalScope)}).
+     */
+    private int lookupScopeDepth(String identifier, boolean withReturnType) {
+        Integer depth = this.doLookup(identifier, (LexicalScope foundInScope, String foundIdentifier) -> this.getScopeDepth(foundInScope), withReturnType);
+        return (depth == null)? 0 : depth;
+    }
+
     /**
      * Helper function for {@link NodeFactory#doLookup(String, GlobalObjectLookup, boolean)}. Does the looking up in the
      * units.
@@ -228,6 +319,26 @@ public class NodeFactory {
      * @param <T> type of the returned object
      * @return the value return from the {@link GlobalObjectLookup#onFound(LexicalScope, String)} function
      */
+    /**
+     * Helper function for {@link NodeFactory#doLookup(String, GlobalObjectLookup, boolean)}. Finds the innermost scope
+     * in which the identifier is bound to a built-in subroutine, it is usually the current scope. Subroutines of the
+     * built-in units are looked up in the units' public identifiers afterwards.
+     */
+    private <T> T lookupBuiltinSubroutine(String identifier, GlobalObjectLookup<T> lookupFunction) throws LexicalException {
+        for (LexicalScope scope = this.currentLexicalScope; scope != null; scope = scope.getOuterScope()) {
+            if (scope.isBuiltinSubroutine(identifier)) {
+                return lookupFunction.onFound(scope, identifier);
+            }
+        }
+        for (LexicalScope unitScope : this.units) {
+            if (unitScope.containsPublicIdentifier(identifier) && unitScope.isBuiltinSubroutine(identifier)) {
+                return lookupFunction.onFound(unitScope, identifier);
+            }
+        }
+
+        return null;
+    }
+
     private <T> T lookupInUnits(String identifier, GlobalObjectLookup<T> lookupFunction) throws LexicalException {
         T result = null;
 
@@ -277,13 +388,8 @@ public class NodeFactory {
     public TypeDescriptor createArray(List<OrdinalDescriptor> ordinalDimensions, Token returnTypeToken) {
 	    String typeIdentifier = this.getTypeNameFromToken(returnTypeToken);
 	    TypeDescriptor returnTypeDescriptor = this.doLookup(typeIdentifier, LexicalScope::getTypeDescriptor);
-	    ArrayDescriptor array = currentLexicalScope.createArrayType(ordinalDimensions.get(ordinalDimensions.size() - 1), returnTypeDescriptor);
-
-	    for (int i = ordinalDimensions.size() - 2; i > -1; --i) {
-	        array = currentLexicalScope.createArrayType(ordinalDimensions.get(i), array);
-        }
 
-	    return array;
+	    return currentLexicalScope.createArrayType(ordinalDimensions, returnTypeDescriptor);
     }
 
     public TypeDescriptor createSetType(OrdinalDescriptor baseType) {
@@ -480,6 +586,9 @@ public class NodeFactory {
      */
     public boolean isReturnVariable(Token identifierToken) {
 	    String identifier = this.getIdentifierFromToken(identifierToken);
+	    if (this.findWithRecord(identifier) != -1) {
+	        return false;
+        }
 	    TypeDescriptor typeDescriptor = this.doLookup(identifier, LexicalScope::getIdentifierDescriptor, true);
 
 	    return typeDescriptor instanceof ReturnTypeDescriptor;
@@ -567,7 +676,8 @@ public class NodeFactory {
     public void finishProcedureImplementation(StatementNode bodyNode) {
         StatementNode subroutineNode = createSubroutineNode(bodyNode);
         final ProcedureBodyNode procedureBodyNode = new ProcedureBodyNode(subroutineNode);
-        final PascalRootNode rootNode = new ProcedurePascalRootNode(currentLexicalScope.getFrameDescriptor(), procedureBodyNode);
+        final PascalRootNode rootNode = new ProcedurePascalRootNode(currentLexicalScope.getFrameDescriptor(), procedureBodyNode,
+                currentLexicalScope.isParentFrameAccessed());
         finishSubroutine(rootNode);
     }
 
@@ -582,7 +692,8 @@ public class NodeFactory {
                 subroutineNode,
                 currentLexicalScope.getReturnSlot(),
                 currentLexicalScope.getIdentifierDescriptor(currentLexicalScope.getName()));
-        final PascalRootNode rootNode = new FunctionPascalRootNode(currentLexicalScope.getFrameDescriptor(), functionBodyNode);
+        final PascalRootNode rootNode = new FunctionPascalRootNode(currentLexicalScope.getFrameDescriptor(), functionBodyNode,
+                currentLexicalScope.isParentFrameAccessed());
         finishSubroutine(rootNode);
     }
 
@@ -608,7 +719,7 @@ public class NodeFactory {
 	        parser.SemErr("Label " + labelIdentifier + " is not defined");
 	        return statement;
         }
-	    return new LabeledStatement(statement, labelIdentifier);
+	    return new LabeledStatement(statement, this.getLabelId(labelIdentifier));
     }
 
     /**
@@ -630,8 +741,11 @@ public class NodeFactory {
             parser.SemErr("Type mismatch in beginning and last value of for loop.");
         }
         SimpleAssignmentNode initialAssignment = this.createAssignmentNode(iteratingIdentifier, startValue);
-        ExpressionNode readControlVariableNode = this.createReadVariableNode(variableToken);
-        return new ForNode(ascending, initialAssignment, controlSlot, finalValue, readControlVariableNode, loopBody);
+        if (controlSlot == null) {
+            return initialAssignment;
+        }
+        FrameSlot finalValueSlot = this.currentLexicalScope.createHiddenSlot(controlSlot.getKind());
+        return new ForNode(ascending, initialAssignment, controlSlot, finalValueSlot, finalValue, loopBody);
     }
 
     /**
@@ -696,65 +810,112 @@ public class NodeFactory {
     }
 
     /**
-     * Changes current state by stepping inside lexical scope of specified records (used for <i>with statement</i>).
-      * @param recordIdentifiers identifiers of the records into which current lexical scope will submerge (in the order
-     *                          from the first element of the list to the last)
-     * @return list of slots (to frame descriptors) of records into which the current lexical scope submerged
+     * Makes fields of the specified records accessible directly by their identifiers (used for <i>with statement</i>).
+     * The record's expression is evaluated each time one of its fields is accessed.
+     * @param recordIdentifiers identifiers of the records in the order from the first element of the list to the last,
+     *                          each of them may be a field of the previous ones
+     * @return number of records that were stepped into
      */
-    public List<FrameSlot> stepIntoRecordsScope(List<String> recordIdentifiers) {
-	    LexicalScope currentScope = this.currentLexicalScope;
-        List<FrameSlot> recordsSlots = new ArrayList<>();
-
-        try {
-            String firstIdentifier = this.doLookup(recordIdentifiers.get(0), (LexicalScope scope, String identifier) -> {
-                this.currentLexicalScope = scope;
-                return identifier;
-            });
-            recordsSlots.add(this.stepIntoRecordElementScope(firstIdentifier));
-            for (int i = 1; i < recordIdentifiers.size(); ++i) {
-                recordsSlots.add(this.stepIntoRecordElementScope(recordIdentifiers.get(i)));
+    public int stepIntoRecordsScope(List<String> recordIdentifiers) {
+        int recordsCount = 0;
+        for (String recordIdentifier : recordIdentifiers) {
+            int outerRecordIndex = this.findWithRecord(recordIdentifier);
+            TypeDescriptor descriptor = (outerRecordIndex == -1)?
+                    this.doLookup(recordIdentifier, LexicalScope::getIdentifierDescriptor) :
+                    this.withRecords.get(outerRecordIndex).descriptor.getLexicalScope().getIdentifierDescriptor(recordIdentifier);
+            descriptor = this.getActualType(descriptor);
+            if (!(descriptor instanceof RecordDescriptor)) {
+                parser.SemErr("Not a record: " + recordIdentifier);
+                break;
             }
-            return recordsSlots;
-        } catch (LexicalException e) {
-            parser.SemErr(e.getMessage());
-            this.currentLexicalScope = currentScope;
-            return Collections.emptyList();
+            this.withRecords.add(new WithRecord(recordIdentifier, outerRecordIndex, (RecordDescriptor) descriptor));
+            ++recordsCount;
         }
+
+        return recordsCount;
     }
 
-    private FrameSlot stepIntoRecordElementScope(String recordIdentifier) throws LexicalException {
-        TypeDescriptor recordDescriptor = this.currentLexicalScope.getIdentifierDescriptor(recordIdentifier);
-        if (recordDescriptor == null || !(recordDescriptor instanceof RecordDescriptor)) {
-            throw new LexicalException("Not a record: " + recordIdentifier);
-        } else {
-            FrameSlot recordSlot = this.currentLexicalScope.getLocalSlot(recordIdentifier);
-            this.currentLexicalScope = ((RecordDescriptor) recordDescriptor).getLexicalScope();
-            return recordSlot;
+    /**
+     * Leaves the records stepped into by {@link NodeFactory#stepIntoRecordsScope(List)}.
+     * @param recordsCount number of the records to be left
+     */
+    public void stepOutOfRecordsScope(int recordsCount) {
+        for (int i = 0; i < recordsCount; ++i) {
+            this.withRecords.remove(this.withRecords.size() - 1);
         }
     }
 
     /**
-     * Creates a {@link WithNode} node.
-     * @param frameSlots slots of records into which the node will submerge at runtime.
-     * @param innerStatement statement which will be executed inside the with statement
-     * @return the newly created node
+     * Finds the innermost record of the currently parsed <i>with statements</i> which contains the specified field.
+     * @return index of the record or -1 if there is no such record
      */
-    public WithNode createWithStatement(List<FrameSlot> frameSlots, StatementNode innerStatement) {
-	    return new WithNode(frameSlots, innerStatement);
+    private int findWithRecord(String fieldIdentifier) {
+        for (int i = this.withRecords.size() - 1; i >= 0; --i) {
+            if (this.withRecords.get(i).descriptor.containsIdentifier(fieldIdentifier)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Creates node that returns the specified record of the currently parsed <i>with statements</i>.
+     */
+    private ExpressionNode createWithRecordNode(int recordIndex) {
+        WithRecord record = this.withRecords.get(recordIndex);
+        if (record.outerRecordIndex == -1) {
+            return this.doLookup(record.identifier, (LexicalScope foundInScope, String foundIdentifier) ->
+                    createReadVariableFromScope(foundIdentifier, foundInScope)
+            );
+        } else {
+            return this.createReadFromRecordNode(this.createWithRecordNode(record.outerRecordIndex), record.identifier);
+        }
     }
 
     /**
-     * Creates a {@link CaseNode} from the specified data.
+     * Creates a node of case statement from the specified data. If the selector is of an ordinal type and all the labels
+     * are constants, {@link OrdinalCaseNode} is created, otherwise the labels have to be evaluated at runtime and
+     * {@link CaseNode} is created.
      * @param data data of the case statement
      * @return the newly created node
      */
-    public CaseNode createCaseStatement(CaseStatementData data) {
+    public StatementNode createCaseStatement(CaseStatementData data) {
         ExpressionNode[] indexes = data.indexNodes.toArray(new ExpressionNode[data.indexNodes.size()]);
         StatementNode[] statements = data.statementNodes.toArray(new StatementNode[data.statementNodes.size()]);
 
+        if (data.caseExpression.getType() instanceof OrdinalDescriptor && this.areConstants(indexes)) {
+            long[] labels = new long[indexes.length];
+            for (int i = 0; i < indexes.length; ++i) {
+                // constant nodes do not access the frame
+                labels[i] = OrdinalCaseNode.getOrdinalValue(indexes[i].executeGeneric(null));
+            }
+            return OrdinalCaseNodeGen.create(labels, statements, data.elseNode, data.caseExpression);
+        }
+
         return new CaseNode(data.caseExpression, indexes, statements, data.elseNode);
     }
 
+    private boolean areConstants(ExpressionNode[] expressions) {
+        for (ExpressionNode expression : expressions) {
+            if (!(expression instanceof IntLiteralNode || expression instanceof LongLiteralNode ||
+                    expression instanceof CharLiteralNode || expression instanceof LogicLiteralNode ||
+                    expression instanceof ReadConstantNode) || !isOrdinalConstantType(expression.getType())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks whether a constant of the specified type has an ordinal value. Enum literals have their own type descriptor
+     * which is not an ordinal type itself.
+     */
+    private static boolean isOrdinalConstantType(TypeDescriptor type) {
+        return type instanceof OrdinalDescriptor || type instanceof EnumLiteralDescriptor;
+    }
+
     /**
      * Creates a {@link GotoNode} with jump to the specified label.
      * @param labelToken token of the label to which the goto will jump
@@ -762,7 +923,21 @@ public class NodeFactory {
      */
     public StatementNode createGotoStatement(Token labelToken) {
 	    String labelIdentifier = this.getIdentifierFromToken(labelToken);
-	    return new GotoNode(labelIdentifier);
+	    return new GotoNode(this.getLabelId(labelIdentifier));
+    }
+
+    /**
+     * Gets the id of the label with the specified identifier which is used by the goto nodes instead of the identifier.
+     */
+    private int getLabelId(String labelIdentifier) {
+	    TypeDescriptor descriptor = this.doLookup(labelIdentifier, LexicalScope::getIdentifierDescriptor);
+	    if (!(descriptor instanceof LabelDescriptor)) {
+	        if (descriptor != null) {
+                parser.SemErr("Label " + labelIdentifier + " is not defined");
+            }
+	        return -1;
+        }
+	    return ((LabelDescriptor) descriptor).getId();
     }
 
     /**
@@ -865,7 +1040,7 @@ public class NodeFactory {
             case Dereference:
                 return createAssignmentToDereference(assignmentData.targetNode, valueNode);
             case Record:
-                return createAssignmentToRecordField(assignmentData.targetNode, assignmentData.targetIdentifier, valueNode);
+                return createAssignmentToRecordField(assignmentData.targetNode, this.getIdentifierFromToken(assignmentData.targetIdentifier), valueNode);
         }
 
         throw new UnexpectedRuntimeException();
@@ -879,11 +1054,16 @@ public class NodeFactory {
      */
     public StatementNode createSimpleAssignment(Token identifierToken, ExpressionNode valueNode) {
         String variableIdentifier = this.getIdentifierFromToken(identifierToken);
+        int withRecordIndex = this.findWithRecord(variableIdentifier);
+        if (withRecordIndex != -1) {
+            return this.createAssignmentToRecordField(this.createWithRecordNode(withRecordIndex), variableIdentifier, valueNode);
+        }
         FrameSlot frameSlot = this.doLookup(variableIdentifier, LexicalScope::getLocalSlot, true);
         TypeDescriptor targetType = this.doLookup(variableIdentifier, LexicalScope::getIdentifierDescriptor, true);
+        int depth = this.lookupScopeDepth(variableIdentifier, true);
         this.checkTypesAreCompatible(valueNode.getType(), targetType);
 
-        return (targetType instanceof ReferenceDescriptor)? AssignReferenceNodeGen.create(valueNode, frameSlot) : SimpleAssignmentNodeGen.create(valueNode, frameSlot);
+        return (targetType instanceof ReferenceDescriptor)? AssignReferenceNodeGen.create(valueNode, frameSlot, depth) : SimpleAssignmentNodeGen.create(valueNode, frameSlot, depth);
     }
 
     /**
@@ -894,18 +1074,46 @@ public class NodeFactory {
      * @return the newly created node
      */
     private StatementNode createAssignmentToArray(ExpressionNode arrayExpression, ExpressionNode indexExpressionNode, ExpressionNode valueNode) {
+	    if (arrayExpression instanceof ReadMultidimensionalSubArrayNode) {
+	        ReadMultidimensionalSubArrayNode subArrayNode = (ReadMultidimensionalSubArrayNode) arrayExpression;
+	        return this.createAssignmentToMultidimensionalArray(subArrayNode.getArrayNode(),
+                    this.joinIndexNodes(subArrayNode.getIndexNode(), indexExpressionNode), valueNode);
+        }
 	    TypeDescriptor expressionType = getActualType(arrayExpression.getType());
+	    if (expressionType instanceof MultidimensionalArrayDescriptor) {
+	        return this.createAssignmentToMultidimensionalArray(arrayExpression, new MultidimensionalIndexNode(
+	                (MultidimensionalArrayDescriptor) expressionType, Collections.singletonList(indexExpressionNode),
+                    this.state.usesRangeChecks()), valueNode);
+        }
 	    int arrayOffset = 0;
+	    int arrayLength = ReadIndexNode.UNCHECKED;
 	    if (!(expressionType instanceof ArrayDescriptor)) {
             parser.SemErr("Not an array");
         } else {
 	        this.doTypeCheck(valueNode.getType(), ((ArrayDescriptor) expressionType).getValuesDescriptor());
 	        arrayOffset = ((ArrayDescriptor) expressionType).getOffset();
+	        arrayLength = this.getCheckedLength((ArrayDescriptor) expressionType);
         }
-        ReadIndexNode indexNode = ReadIndexNodeGen.create(indexExpressionNode, arrayOffset);
+        ReadIndexNode indexNode = ReadIndexNodeGen.create(indexExpressionNode, arrayOffset, arrayLength);
+        markAsWriteTarget(arrayExpression);
         return AssignToArrayNodeGen.create(arrayExpression, indexNode, valueNode);
     }
 
+    /**
+     * Creates {@link AssignToMultidimensionalArrayNode} or {@link AssignToMultidimensionalSubArrayNode} based on whether
+     * the index node selects a single element.
+     */
+    private StatementNode createAssignmentToMultidimensionalArray(ExpressionNode arrayExpression, MultidimensionalIndexNode indexNode,
+                                                                 ExpressionNode valueNode) {
+	    this.doTypeCheck(valueNode.getType(), indexNode.getSelectedType());
+	    markAsWriteTarget(arrayExpression);
+	    if (indexNode.selectsElement()) {
+	        return AssignToMultidimensionalArrayNodeGen.create(arrayExpression, indexNode, valueNode);
+        } else {
+	        return AssignToMultidimensionalSubArrayNodeGen.create(arrayExpression, indexNode, valueNode);
+        }
+    }
+
     /**
      * Creates {@link AssignToDereferenceNode} for assignment to dereferenced array
      * @param pointerExpression expression node which returns the pointer
@@ -929,13 +1137,43 @@ public class NodeFactory {
      * @param valueNode assigning value's node
      * @return the newly created node
      */
-    private StatementNode createAssignmentToRecordField(ExpressionNode recordExpression, Token identifierToken, ExpressionNode valueNode) {
-        String identifier = this.getIdentifierFromToken(identifierToken);
+    private StatementNode createAssignmentToRecordField(ExpressionNode recordExpression, String identifier, ExpressionNode valueNode) {
         TypeDescriptor expressionType = getActualType(recordExpression.getType());
+        int fieldIndex = 0;
+        FrameSlotKind fieldKind = FrameSlotKind.Object;
         if (!(expressionType instanceof RecordDescriptor)) {
             parser.SemErr("Not a record");
+        } else if (!((RecordDescriptor) expressionType).containsIdentifier(identifier)) {
+            parser.SemErr("The record does not contain this identifier");
+        } else {
+            RecordDescriptor recordDescriptor = (RecordDescriptor) expressionType;
+            fieldIndex = recordDescriptor.getFieldIndex(identifier);
+            fieldKind = recordDescriptor.getLexicalScope().getIdentifierDescriptor(identifier).getSlotKind();
+        }
+        markAsWriteTarget(recordExpression);
+        return AssignToRecordFieldNodeGen.create(fieldIndex, fieldKind, recordExpression, valueNode);
+    }
+
+    /**
+     * Marks the nodes which read the specified array or record from the enclosing arrays and records, because the
+     * array or record is going to be modified in place (see {@link ReadFromArrayNode#setForWrite()}).
+     */
+    private static void markAsWriteTarget(ExpressionNode targetExpression) {
+        ExpressionNode node = targetExpression;
+        while (true) {
+            if (node instanceof ReadFromArrayNode) {
+                ((ReadFromArrayNode) node).setForWrite();
+                node = ((ReadFromArrayNode) node).getValueNode();
+            } else if (node instanceof ReadFromMultidimensionalArrayNode) {
+                ((ReadFromMultidimensionalArrayNode) node).setForWrite();
+                node = ((ReadFromMultidimensionalArrayNode) node).getArrayNode();
+            } else if (node instanceof ReadFromRecordNode) {
+                ((ReadFromRecordNode) node).setForWrite();
+                node = ((ReadFromRecordNode) node).getRecord();
+            } else {
+                return;
+            }
         }
-        return AssignToRecordFieldNodeGen.create(identifier, recordExpression, valueNode);
     }
 
     /**
@@ -945,6 +1183,10 @@ public class NodeFactory {
      */
     public ExpressionNode createExpressionFromSingleIdentifier(Token identifierToken) {
         String identifier = this.getIdentifierFromToken(identifierToken);
+        int withRecordIndex = this.findWithRecord(identifier);
+        if (withRecordIndex != -1) {
+            return this.createReadFromRecordNode(this.createWithRecordNode(withRecordIndex), identifier);
+        }
 
         return this.doLookup(identifier, (LexicalScope foundInLexicalScope, String foundIdentifier) -> {
             if (foundInLexicalScope.isParameterlessSubroutine(foundIdentifier)) {
@@ -964,12 +1206,16 @@ public class NodeFactory {
      */
     public ExpressionNode createReadVariableNode(Token identifierToken) {
 	    String identifier = this.getIdentifierFromToken(identifierToken);
+        int withRecordIndex = this.findWithRecord(identifier);
+        if (withRecordIndex != -1) {
+            return this.createReadFromRecordNode(this.createWithRecordNode(withRecordIndex), identifier);
+        }
 	    return this.doLookup(identifier, (LexicalScope foundInScope, String foundIdentifier) ->
 	        createReadVariableFromScope(foundIdentifier, foundInScope)
         );
     }
 
-    private ExpressionNode createReadVariableFromScope(String identifier, LexicalScope scope) {
+    private ExpressionNode createReadVariableFromScope(String identifier, LexicalScope scope) throws LexicalException {
         FrameSlot variableSlot = scope.getLocalSlot(identifier);
         TypeDescriptor type = scope.getIdentifierDescriptor(identifier);
         boolean isLocal = scope == currentLexicalScope;
@@ -979,15 +1225,13 @@ public class NodeFactory {
         if (isConstant) {
             ConstantDescriptor constantType = (ConstantDescriptor) type;
             return ReadConstantNodeGen.create(constantType.getValue(), constantType);
+        } else if (isReference) {
+            return ReadReferenceVariableNodeGen.create(variableSlot, type, this.getScopeDepth(scope));
         } else if (isLocal) {
             // TODO: check if it is a variable
-            if (isReference) {
-                return ReadReferenceVariableNodeGen.create(variableSlot, type);
-            } else {
-                return ReadLocalVariableNodeGen.create(variableSlot, type);
-            }
+            return ReadLocalVariableNodeGen.create(variableSlot, type);
         } else {
-            return ReadGlobalVariableNodeGen.create(variableSlot, type);
+            return ReadGlobalVariableNodeGen.create(variableSlot, type, this.getScopeDepth(scope));
         }
     }
 
@@ -1000,18 +1244,60 @@ public class NodeFactory {
     public ExpressionNode createReadFromArrayNode(ExpressionNode arrayExpression, List<ExpressionNode> indexes) {
 	    ExpressionNode readArrayNode = arrayExpression;
 	    for (ExpressionNode index : indexes) {
+	        if (readArrayNode instanceof ReadMultidimensionalSubArrayNode) {
+	            ReadMultidimensionalSubArrayNode subArrayNode = (ReadMultidimensionalSubArrayNode) readArrayNode;
+	            readArrayNode = this.createReadFromMultidimensionalArrayNode(subArrayNode.getArrayNode(),
+                        this.joinIndexNodes(subArrayNode.getIndexNode(), index));
+	            continue;
+            }
 	        TypeDescriptor actualType = this.getActualType(readArrayNode.getType());
 	        if (!(actualType instanceof  ArrayDescriptor)) {
                 parser.SemErr("Not an array");
                 break;
             }
-            ReadIndexNode readIndexNode = ReadIndexNodeGen.create(index, ((ArrayDescriptor) actualType).getOffset());
+            if (actualType instanceof MultidimensionalArrayDescriptor) {
+	            readArrayNode = this.createReadFromMultidimensionalArrayNode(readArrayNode,
+                        new MultidimensionalIndexNode((MultidimensionalArrayDescriptor) actualType, Collections.singletonList(index),
+                                this.state.usesRangeChecks()));
+	            continue;
+            }
+            ReadIndexNode readIndexNode = ReadIndexNodeGen.create(index, ((ArrayDescriptor) actualType).getOffset(),
+                    this.getCheckedLength((ArrayDescriptor) actualType));
             TypeDescriptor returnType = ((ArrayDescriptor) actualType).getValuesDescriptor();
 	        readArrayNode = ReadFromArrayNodeGen.create(readArrayNode, readIndexNode, returnType);
         }
         return readArrayNode;
     }
 
+    private ExpressionNode createReadFromMultidimensionalArrayNode(ExpressionNode arrayExpression, MultidimensionalIndexNode indexNode) {
+	    if (indexNode.selectsElement()) {
+	        return ReadFromMultidimensionalArrayNodeGen.create(arrayExpression, indexNode, indexNode.getSelectedType());
+        } else {
+	        return ReadMultidimensionalSubArrayNodeGen.create(arrayExpression, indexNode);
+        }
+    }
+
+    /**
+     * Creates index node of a multidimensional array from the indices of the specified node and an additional index.
+     */
+    private MultidimensionalIndexNode joinIndexNodes(MultidimensionalIndexNode indexNode, ExpressionNode index) {
+	    List<ExpressionNode> indexExpressions = new ArrayList<>(indexNode.getIndexExpressions());
+	    indexExpressions.add(index);
+	    return new MultidimensionalIndexNode(indexNode.getArrayDescriptor(), indexExpressions, indexNode.usesRangeChecks());
+    }
+
+    /**
+     * Gets the length against which the indices of the array are checked or {@link ReadIndexNode#UNCHECKED} if range
+     * checks are turned off. Strings are not checked here because their length is not known until runtime.
+     */
+    private int getCheckedLength(ArrayDescriptor arrayType) {
+	    if (!this.state.usesRangeChecks() || arrayType instanceof StringDescriptor || arrayType instanceof PCharDesriptor
+                || arrayType instanceof StringConstantDescriptor) {
+	        return ReadIndexNode.UNCHECKED;
+        }
+        return arrayType.getSize();
+    }
+
     /**
      * Creates {@link ReadDereferenceNode} that reads value to which specified pointer points to.
      * @param pointerExpression node that returns the pointer
@@ -1038,9 +1324,13 @@ public class NodeFactory {
      * @return tje newly created node
      */
     public ReadFromRecordNode createReadFromRecordNode(ExpressionNode recordExpression, Token identifierToken) {
+        return this.createReadFromRecordNode(recordExpression, this.getIdentifierFromToken(identifierToken));
+    }
+
+    private ReadFromRecordNode createReadFromRecordNode(ExpressionNode recordExpression, String identifier) {
         TypeDescriptor descriptor = this.getActualType(recordExpression.getType());
-        String identifier = this.getIdentifierFromToken(identifierToken);
         TypeDescriptor returnType = null;
+        int fieldIndex = 0;
 
         if (!(descriptor instanceof RecordDescriptor)) {
             parser.SemErr("Can not access non record type this way");
@@ -1050,10 +1340,11 @@ public class NodeFactory {
                 parser.SemErr("The record does not contain this identifier");
             } else {
                 returnType = accessedRecordDescriptor.getLexicalScope().getIdentifierDescriptor(identifier);
+                fieldIndex = accessedRecordDescriptor.getFieldIndex(identifier);
             }
         }
 
-        return ReadFromRecordNodeGen.create(recordExpression, returnType, identifier);
+        return ReadFromRecordNodeGen.create(recordExpression, returnType, fieldIndex);
     }
 
     /**
@@ -1098,7 +1389,7 @@ public class NodeFactory {
         });
     }
 
-    private ExpressionNode createInvokeNode(String identifier, SubroutineDescriptor descriptor, LexicalScope subroutineScope, List<ExpressionNode> argumentNodes) {
+    private ExpressionNode createInvokeNode(String identifier, SubroutineDescriptor descriptor, LexicalScope subroutineScope, List<ExpressionNode> argumentNodes) throws LexicalException {
 	    ExpressionNode[] arguments = argumentNodes.toArray(new ExpressionNode[argumentNodes.size()]);
 	    TypeDescriptor returnType = (descriptor instanceof FunctionDescriptor)? ((FunctionDescriptor) descriptor).getReturnDescriptor() : null;
 
@@ -1107,19 +1398,32 @@ public class NodeFactory {
             return UnitInvokeNodeGen.create(identifier, unitIdentifier, arguments, returnType);
         } else {
 	        FrameSlot subroutineSlot = subroutineScope.getLocalSlot(identifier);
-	        return InvokeNodeGen.create(subroutineSlot, arguments, returnType);
+	        return InvokeNodeGen.create(subroutineSlot, this.getScopeDepth(subroutineScope), arguments, returnType);
         }
     }
 
     /**
-     * Creates {@link StoreReferenceArgumentNode} for the specified variable.
+     * Creates {@link StoreReferenceArgumentNode} for the specified variable or
+     * {@link StoreRecordFieldReferenceArgumentNode} if it is a field of a record of the currently parsed
+     * <i>with statements</i>.
      * @param variableToken identifier of the variable
      * @return the newly created node
      */
     public ExpressionNode createReferencePassNode(Token variableToken) {
         String variableIdentifier = this.getIdentifierFromToken(variableToken);
-        FrameSlot slot = this.doLookup(variableIdentifier, LexicalScope::getLocalSlot);
-        return new StoreReferenceArgumentNode(slot, currentLexicalScope.getIdentifierDescriptor(variableIdentifier));
+        int withRecordIndex = this.findWithRecord(variableIdentifier);
+        if (withRecordIndex != -1) {
+            RecordDescriptor recordDescriptor = this.withRecords.get(withRecordIndex).descriptor;
+            TypeDescriptor fieldType = recordDescriptor.getLexicalScope().getIdentifierDescriptor(variableIdentifier);
+            ExpressionNode recordNode = this.createWithRecordNode(withRecordIndex);
+            markAsWriteTarget(recordNode);
+            return StoreRecordFieldReferenceArgumentNodeGen.create(recordNode, fieldType,
+                    recordDescriptor.getFieldIndex(variableIdentifier), fieldType.getSlotKind());
+        }
+        return this.doLookup(variableIdentifier, (LexicalScope foundInScope, String foundIdentifier) ->
+                new StoreReferenceArgumentNode(foundInScope.getLocalSlot(foundIdentifier),
+                        foundInScope.getIdentifierDescriptor(foundIdentifier), this.getScopeDepth(foundInScope))
+        );
     }
 
     /**
@@ -1131,8 +1435,9 @@ public class NodeFactory {
         String subroutineIdentifier = this.getIdentifierFromToken(subroutineToken);
         PascalSubroutine subroutine = this.doLookup(subroutineIdentifier, LexicalScope::getSubroutine);
         TypeDescriptor descriptor = this.doLookup(subroutineIdentifier, LexicalScope::getIdentifierDescriptor);
+        int depth = this.lookupScopeDepth(subroutineIdentifier, false);
 
-        return SubroutineLiteralNodeGen.create(subroutine, (SubroutineDescriptor) descriptor);
+        return SubroutineLiteralNodeGen.create(subroutine, (SubroutineDescriptor) descriptor, depth);
     }
 
     public ExpressionNode createLogicLiteralNode(boolean value) {
@@ -1283,8 +1588,9 @@ public class NodeFactory {
         TypeDescriptor targetType = this.doLookup(targetIdentifier, LexicalScope::getIdentifierDescriptor);
         this.checkTypesAreCompatible(valueNode.getType(), targetType);
 	    FrameSlot targetSlot = this.doLookup(targetIdentifier, LexicalScope::getLocalSlot);
+	    int depth = this.lookupScopeDepth(targetIdentifier, false);
 
-	    return SimpleAssignmentNodeGen.create(valueNode, targetSlot);
+	    return SimpleAssignmentNodeGen.create(valueNode, targetSlot, depth);
     }
 
     /**
@@ -1420,13 +1726,13 @@ public class NodeFactory {
     public void startUnit(Token identifierToken) {
         String identifier = this.getIdentifierFromToken(identifierToken);
 
-        if (PascalLanguage.INSTANCE.isUnitRegistered(identifier)) {
+        if (this.isUnitRegistered(identifier)) {
             parser.SemErr("Unit with name " + identifier + " is already defined.");
             return;
         }
 
         UnitLexicalScope outerUnitScope = (this.units.size() > 0)? this.units.get(this.units.size() - 1) : null;
-        UnitLexicalScope unitScope = new UnitLexicalScope(outerUnitScope, identifier, this.usingTPExtension);
+        UnitLexicalScope unitScope = new UnitLexicalScope(outerUnitScope, identifier, this.state, this.usingTPExtension);
         this.currentLexicalScope = unitScope;
         this.units.add(unitScope);
     }
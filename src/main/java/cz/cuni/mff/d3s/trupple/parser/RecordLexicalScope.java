@@ -1,12 +1,18 @@
 package cz.cuni.mff.d3s.trupple.parser;
 
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.IdentifiersTable;
+
 /**
- * Specified lexical scope for records. Not really useful in its current state.
+ * Specified lexical scope for records. Its identifiers table contains only the record's fields and no builtin
+ * identifiers, so the fields are the only values stored in the record (see
+ * {@link cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.RecordDescriptor}). All other identifiers are
+ * looked up in the outer scopes.
  */
 class RecordLexicalScope extends LexicalScope {
 
     RecordLexicalScope(LexicalScope outer) {
         super(outer, "_record", false);
+        this.localIdentifiers = new IdentifiersTable();
     }
 
 }
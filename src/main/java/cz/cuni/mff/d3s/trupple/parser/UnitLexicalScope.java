@@ -1,10 +1,13 @@
 package cz.cuni.mff.d3s.trupple.parser;
 
-import com.oracle.truffle.api.frame.VirtualFrame;
-import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
+import com.oracle.truffle.api.frame.MaterializedFrame;
+import cz.cuni.mff.d3s.trupple.language.PascalState;
+import cz.cuni.mff.d3s.trupple.language.nodes.root.PascalRootNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.BlockNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.LexicalException;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.SubroutineDescriptor;
 
 import java.util.HashSet;
 import java.util.List;
@@ -12,20 +15,35 @@ import java.util.Map;
 import java.util.Set;
 
 /**
- * Specialized {@link LexicalScope} for units. It differentiates between public and private identifiers.
+ * Specialized {@link LexicalScope} for units. It differentiates between public and private identifiers. Frames and
+ * subroutines of units are registered to the {@link PascalState} of the context that parses them.
  */
 public class UnitLexicalScope extends LexicalScope {
 
     private final Set<String> publicIdentifiers;
+    private final PascalState state;
 
-    UnitLexicalScope(LexicalScope outer, String name, boolean usingTPExtension) {
+    UnitLexicalScope(LexicalScope outer, String name, PascalState state, boolean usingTPExtension) {
         super(outer, name, usingTPExtension);
         this.publicIdentifiers = new HashSet<>();
+        this.state = state;
+    }
+
+    @Override
+    void setSubroutineRootNode(String identifier, PascalRootNode rootNode) throws LexicalException {
+        this.state.updateSubroutine(this.getName(), identifier, rootNode);
+        super.setSubroutineRootNode(identifier, rootNode);
+    }
+
+    @Override
+    public void registerBuiltinSubroutine(String identifier, SubroutineDescriptor descriptor) {
+        super.registerBuiltinSubroutine(identifier, descriptor);
+        this.state.updateSubroutine(this.getName(), identifier, descriptor.getRootNode());
     }
 
     @Override
     BlockNode createInitializationBlock() {
-        VirtualFrame unitFrame = PascalLanguage.INSTANCE.createUnitFrame(this.getName(), this.getFrameDescriptor());
+        MaterializedFrame unitFrame = this.state.createUnitFrame(this.getName(), this.getFrameDescriptor());
         List<StatementNode> initializationNodes = this.generateInitializationNodes(unitFrame);
         initializationNodes.addAll(this.scopeInitializationNodes);
 
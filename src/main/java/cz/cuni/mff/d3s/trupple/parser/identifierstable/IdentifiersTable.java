@@ -158,6 +158,13 @@ public class IdentifiersTable {
         return this.identifiersMap.containsKey(identifier) && (this.identifiersMap.get(identifier) instanceof SubroutineDescriptor);
     }
 
+    /**
+     * Checks whether the identifier is bound to a built-in subroutine which was not redeclared by the program.
+     */
+    public boolean isBuiltinSubroutine(String identifier) {
+        return isBuiltinSubroutine(this.identifiersMap.get(identifier));
+    }
+
     public boolean isParameterlessSubroutine(String identifier) {
         if (!this.identifiersMap.containsKey(identifier)) {
             return false;
@@ -171,8 +178,8 @@ public class IdentifiersTable {
         return this.identifiersMap.get(identifier) instanceof LabelDescriptor;
     }
 
-    public void addLabel(String identifier) throws LexicalException {
-        this.registerNewIdentifier(identifier, new LabelDescriptor(identifier));
+    public void addLabel(String identifier, int id) throws LexicalException {
+        this.registerNewIdentifier(identifier, new LabelDescriptor(identifier, id));
     }
 
     public void addType(String identifier, TypeDescriptor typeDescriptor) throws LexicalException {
@@ -246,8 +253,9 @@ public class IdentifiersTable {
         return (innerTypeDescriptor == null)? new PointerDescriptor(innerTypeIdentifier) : new PointerDescriptor(innerTypeDescriptor);
     }
 
-    public ArrayDescriptor createArray(OrdinalDescriptor dimension, TypeDescriptor typeDescriptor) {
-        return new ArrayDescriptor(dimension, typeDescriptor);
+    public ArrayDescriptor createArray(List<OrdinalDescriptor> dimensions, TypeDescriptor typeDescriptor) {
+        return (dimensions.size() == 1)? new ArrayDescriptor(dimensions.get(0), typeDescriptor) :
+                new MultidimensionalArrayDescriptor(dimensions, typeDescriptor);
     }
 
     public TypeDescriptor createSetType(OrdinalDescriptor base) {
@@ -256,7 +264,7 @@ public class IdentifiersTable {
 
     public void addProcedureInterfaceIfNotForwarded(String identifier, List<FormalParameter> formalParameters) throws LexicalException {
         TypeDescriptor descriptor = this.identifiersMap.get(identifier);
-        if (descriptor != null) {
+        if (descriptor != null && !isBuiltinSubroutine(descriptor)) {
             if (!(descriptor instanceof ProcedureDescriptor)) {
                 throw new LexicalException("Not a subroutine");
             } else {
@@ -272,7 +280,7 @@ public class IdentifiersTable {
 
     public void addFunctionInterfaceIfNotForwarded(String identifier, List<FormalParameter> formalParameters, TypeDescriptor returnType) throws LexicalException {
         TypeDescriptor descriptor = this.identifiersMap.get(identifier);
-        if (descriptor != null) {
+        if (descriptor != null && !isBuiltinSubroutine(descriptor)) {
             if (!(descriptor instanceof FunctionDescriptor)) {
                 throw new LexicalException("Not a subroutine");
             } else {
@@ -310,8 +318,20 @@ public class IdentifiersTable {
         }
     }
 
+    /**
+     * Registers a new identifier to the table. Built-in subroutines may be redeclared by the program (e.g.: a variable
+     * named <i>copy</i> hides the built-in <i>copy</i> function) as if they were declared in an outer scope. Each
+     * scope has its own built-in subroutines, so they are found only if no enclosing scope declares the identifier
+     * (see {@link cz.cuni.mff.d3s.trupple.parser.NodeFactory}).
+     */
     FrameSlot registerNewIdentifier(String identifier, TypeDescriptor typeDescriptor) throws LexicalException {
-        if (this.identifiersMap.containsKey(identifier)){
+        if (isBuiltinSubroutine(this.identifiersMap.get(identifier))) {
+            // the frame slot is reused because removing it would break indexes of the other slots
+            this.identifiersMap.put(identifier, typeDescriptor);
+            FrameSlot slot = this.frameDescriptor.findFrameSlot(identifier);
+            slot.setKind(typeDescriptor.getSlotKind());
+            return slot;
+        } else if (this.identifiersMap.containsKey(identifier)){
             throw new DuplicitIdentifierException(identifier);
         } else {
             this.identifiersMap.put(identifier, typeDescriptor);
@@ -319,4 +339,8 @@ public class IdentifiersTable {
         }
     }
 
+    private static boolean isBuiltinSubroutine(TypeDescriptor descriptor) {
+        return descriptor instanceof BuiltinFunctionDescriptor || descriptor instanceof BuiltinProcedureDescriptor;
+    }
+
 }
@@ -3,10 +3,7 @@ package cz.cuni.mff.d3s.trupple.parser.identifierstable;
 import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.PascalRuntimeException;
 import cz.cuni.mff.d3s.trupple.parser.exceptions.LexicalException;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
-import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin.AssignSubroutineDescriptor;
-import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin.HaltSubroutineDescriptor;
-import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin.RandomSubroutineDescriptor;
-import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin.RandomizeSubroutineDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin.*;
 
 /**
  * Extension of the {@link IdentifiersTable} by identifiers that are exclusive for Turbo Pascal and are supported by
@@ -29,6 +26,23 @@ public class IdentifiersTableTP extends IdentifiersTable {
             this.registerNewIdentifier("randomize", new RandomizeSubroutineDescriptor());
             this.registerNewIdentifier("assign", new AssignSubroutineDescriptor());
             this.registerNewIdentifier("halt", new HaltSubroutineDescriptor());
+            this.registerNewIdentifier("length", new LengthSubroutineDescriptor());
+            this.registerNewIdentifier("copy", new CopySubroutineDescriptor());
+            this.registerNewIdentifier("pos", new PosSubroutineDescriptor());
+            this.registerNewIdentifier("concat", new ConcatSubroutineDescriptor());
+            this.registerNewIdentifier("insert", new InsertSubroutineDescriptor());
+            this.registerNewIdentifier("delete", new DeleteSubroutineDescriptor());
+            this.registerNewIdentifier("str", new StrSubroutineDescriptor());
+            this.registerNewIdentifier("val", new ValSubroutineDescriptor());
+            this.registerNewIdentifier("seek", new SeekSubroutineDescriptor());
+            this.registerNewIdentifier("filepos", new FilePosSubroutineDescriptor());
+            this.registerNewIdentifier("filesize", new FileSizeSubroutineDescriptor());
+            this.registerNewIdentifier("truncate", new TruncateSubroutineDescriptor());
+            this.registerNewIdentifier("blockread", new BlockReadSubroutineDescriptor());
+            this.registerNewIdentifier("blockwrite", new BlockWriteSubroutineDescriptor());
+            this.registerNewIdentifier("close", new CloseSubroutineDescriptor());
+            this.registerNewIdentifier("flush", new FlushSubroutineDescriptor());
+            this.registerNewIdentifier("append", new AppendSubroutineDescriptor());
         } catch (LexicalException e) {
             throw new PascalRuntimeException("Could not initialize extension builtin functions: " + e.getMessage());
         }
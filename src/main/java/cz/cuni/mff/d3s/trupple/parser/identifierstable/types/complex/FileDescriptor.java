@@ -1,16 +1,20 @@
 package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex;
 
 import com.oracle.truffle.api.frame.FrameSlotKind;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.BinaryFileValue;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ObjectFileValue;
+import cz.cuni.mff.d3s.trupple.language.runtime.io.BinaryCodec;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 
 /**
  * Descriptor for a file type. Contains type descriptor of the type of file's content (e.g.: for  <i>file of integer</i>
- * it is type descriptor for the integer).
+ * it is type descriptor for the integer). Files of types that have a fixed-width binary encoding are represented by
+ * {@link BinaryFileValue}, files of other types are represented by {@link ObjectFileValue}.
  */
 public class FileDescriptor implements TypeDescriptor {
 
     private final TypeDescriptor contentTypeDescriptor;
+    private final BinaryCodec codec;
 
     /**
      * Default constructor.
@@ -18,6 +22,15 @@ public class FileDescriptor implements TypeDescriptor {
      */
     public FileDescriptor(TypeDescriptor contentTypeDescriptor) {
         this.contentTypeDescriptor = contentTypeDescriptor;
+        this.codec = (contentTypeDescriptor == null)? null : BinaryCodec.create(contentTypeDescriptor);
+    }
+
+    /**
+     * Gets type descriptor of the file's elements. It is null for the formal parameters of file-type built-in
+     * subroutines that accept files of any type.
+     */
+    public TypeDescriptor getContentTypeDescriptor() {
+        return this.contentTypeDescriptor;
     }
 
     @Override
@@ -27,7 +40,7 @@ public class FileDescriptor implements TypeDescriptor {
 
     @Override
     public Object getDefaultValue() {
-        return new ObjectFileValue();
+        return (this.codec != null && this.codec.getSize() > 0)? new BinaryFileValue(this.codec) : new ObjectFileValue();
     }
 
     @Override
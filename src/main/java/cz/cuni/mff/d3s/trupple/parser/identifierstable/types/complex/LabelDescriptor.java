@@ -4,14 +4,21 @@ import com.oracle.truffle.api.frame.FrameSlotKind;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 
 /**
- * Type descriptor for Pascal's labels. Contains additional information about the identifier of the label.
+ * Type descriptor for Pascal's labels. Contains additional information about the identifier of the label and its
+ * numeric id which is used instead of the identifier at runtime. The ids are unique within one parser.
  */
 public class LabelDescriptor implements TypeDescriptor {
 
     private final String identifier;
+    private final int id;
 
-    public LabelDescriptor(String identifier) {
+    public LabelDescriptor(String identifier, int id) {
         this.identifier = identifier;
+        this.id = id;
+    }
+
+    public int getId() {
+        return this.id;
     }
 
     @Override
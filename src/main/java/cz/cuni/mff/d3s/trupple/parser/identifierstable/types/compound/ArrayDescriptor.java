@@ -1,13 +1,15 @@
 package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound;
 
 import com.oracle.truffle.api.frame.FrameSlotKind;
+import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ArrayValue;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.OrdinalDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.*;
 
 /**
- * Type descriptor for array values. Note that it can be only one dimensional and so multidimensional arrays has to be
- * stored in a chain of these descriptors. It contains additional information about the type of the inner values and
+ * Type descriptor for array values. Note that it can be only one dimensional. Arrays declared with more dimensions are
+ * described by {@link MultidimensionalArrayDescriptor} and arrays of arrays declared through a named type are stored in
+ * a chain of these descriptors. It contains additional information about the type of the inner values and
  * the universe of the indices stored inside an ordinal descriptor.
  */
 public class ArrayDescriptor implements TypeDescriptor {
@@ -32,22 +34,30 @@ public class ArrayDescriptor implements TypeDescriptor {
 
     @Override
     public Object getDefaultValue() {
+        return createFlatArray(this.valuesDescriptor, this.dimension.getSize());
+    }
+
+    /**
+     * Creates an array of the specified length whose elements are default values of the specified type. Values of
+     * primitive types are stored in arrays of the corresponding primitive Java type.
+     */
+    static ArrayValue createFlatArray(TypeDescriptor valuesDescriptor, int length) {
         if (valuesDescriptor == IntDescriptor.getInstance()) {
-            return new int[this.dimension.getSize()];
+            return new ArrayValue.IntArray(new int[length]);
         } if (valuesDescriptor == LongDescriptor.getInstance()) {
-            return new long[this.dimension.getSize()];
+            return new ArrayValue.LongArray(new long[length]);
         } else if (valuesDescriptor == RealDescriptor.getInstance()) {
-            return new double[this.dimension.getSize()];
+            return new ArrayValue.RealArray(new double[length]);
         } else if (valuesDescriptor == CharDescriptor.getInstance()) {
-            return new char[this.dimension.getSize()];
+            return new ArrayValue.CharArray(new char[length]);
         } else if (valuesDescriptor == BooleanDescriptor.getInstance()) {
-            return new boolean[this.dimension.getSize()];
+            return new ArrayValue.BooleanArray(new boolean[length]);
         } else {
-            Object[] data = new Object[dimension.getSize()];
+            Object[] data = new Object[length];
             for (int i = 0; i < data.length; ++i) {
                 data[i] = valuesDescriptor.getDefaultValue();
             }
-            return data;
+            return new ArrayValue.ObjectArray(data);
         }
     }
 
@@ -59,6 +69,13 @@ public class ArrayDescriptor implements TypeDescriptor {
         return this.dimension.getFirstIndex();
     }
 
+    /**
+     * Gets number of elements of the array.
+     */
+    public int getSize() {
+        return this.dimension.getSize();
+    }
+
     public TypeDescriptor getValuesDescriptor() {
         return this.valuesDescriptor;
     }
@@ -14,6 +14,7 @@ public class EnumLiteralDescriptor implements TypeDescriptor, ConstantDescriptor
 
     private final EnumTypeDescriptor enumTypeDescriptor;
     private final String identifier;
+    private final EnumValue value;
 
     /**
      * The default constructor.
@@ -23,6 +24,7 @@ public class EnumLiteralDescriptor implements TypeDescriptor, ConstantDescriptor
     public EnumLiteralDescriptor(EnumTypeDescriptor enumTypeDescriptor, String identifier) {
         this.enumTypeDescriptor = enumTypeDescriptor;
         this.identifier = identifier;
+        this.value = enumTypeDescriptor.getValue(identifier);
     }
 
     @Override
@@ -32,7 +34,7 @@ public class EnumLiteralDescriptor implements TypeDescriptor, ConstantDescriptor
 
     @Override
     public Object getDefaultValue() {
-        return new EnumValue(this.enumTypeDescriptor, this.identifier);
+        return this.value;
     }
 
     @Override
@@ -42,7 +44,7 @@ public class EnumLiteralDescriptor implements TypeDescriptor, ConstantDescriptor
 
     @Override
     public Object getValue() {
-        return new EnumValue(this.enumTypeDescriptor, this.identifier);
+        return this.value;
     }
 
     public EnumTypeDescriptor getEnumType() {
@@ -16,16 +16,18 @@ import java.util.List;
 public class EnumTypeDescriptor implements OrdinalDescriptor, Serializable {
 
     private final List<String> identifiers;
-    // TODO: this is a bit useless overgeneralization since it is always the first declared value
-    private final String defaultValue;
+    private final EnumValue[] values;
 
     /**
-     * The default constructor.
+     * The default constructor. It creates the only instances of the enum type's values.
      * @param identifiers list of identifiers of the enum type's values as they appear in a Pascal source
      */
     public EnumTypeDescriptor(List<String> identifiers) {
         this.identifiers = identifiers;
-        this.defaultValue = identifiers.get(0);
+        this.values = new EnumValue[identifiers.size()];
+        for (int i = 0; i < this.values.length; ++i) {
+            this.values[i] = new EnumValue(this, i);
+        }
     }
 
     @Override
@@ -35,7 +37,7 @@ public class EnumTypeDescriptor implements OrdinalDescriptor, Serializable {
 
     @Override
     public Object getDefaultValue() {
-        return new EnumValue(this, this.defaultValue);
+        return this.values[0];
     }
 
     @Override
@@ -45,7 +47,17 @@ public class EnumTypeDescriptor implements OrdinalDescriptor, Serializable {
 
     @Override
     public boolean containsValue(Object value) {
-        return (value instanceof EnumValue) && this.identifiers.contains(((EnumValue) value).getValue());
+        return (value instanceof EnumValue) && this.isSameType(((EnumValue) value).getEnumType());
+    }
+
+    /**
+     * Checks whether the specified descriptor describes the same enum type. Values of an enum type normally reference
+     * this descriptor, but values read from a file by Java serialization (see
+     * {@link cz.cuni.mff.d3s.trupple.language.runtime.customvalues.ObjectFileValue}) carry their own copy of it, so
+     * the copies are compared by the identifiers of their values.
+     */
+    public boolean isSameType(EnumTypeDescriptor type) {
+        return type == this || (type != null && type.identifiers.equals(this.identifiers));
     }
 
     @Override
@@ -62,35 +74,42 @@ public class EnumTypeDescriptor implements OrdinalDescriptor, Serializable {
         return this.identifiers;
     }
 
+    /**
+     * Gets the value with the specified ordinal number.
+     */
+    public EnumValue getValue(int ordinal) {
+        return this.values[ordinal];
+    }
+
+    /**
+     * Gets the value with the specified identifier as it appears in a Pascal source.
+     */
+    public EnumValue getValue(String identifier) {
+        return this.values[this.identifiers.indexOf(identifier)];
+    }
+
     /**
      * Gets the next enum value of the specified value.
      */
-    public EnumValue getNext(String value) {
-        int index = this.identifiers.indexOf(value);
-        if (index == this.identifiers.size() - 1) {
+    public EnumValue getNext(EnumValue value) {
+        int index = (int) value.getOrdinalValue();
+        if (index == this.values.length - 1) {
             throw new PascalRuntimeException("No next element.");
         }
 
-        return new EnumValue(this, this.identifiers.get(++index));
+        return this.values[index + 1];
     }
 
     /**
      * Gets the previous enum value of the specified value.
      */
-    public EnumValue getPrevious(String value) {
-        int index = this.identifiers.indexOf(value);
+    public EnumValue getPrevious(EnumValue value) {
+        int index = (int) value.getOrdinalValue();
         if (index == 0) {
             throw new PascalRuntimeException("No previous element.");
         }
 
-        return new EnumValue(this, this.identifiers.get(--index));
-    }
-
-    /**
-     * Gets the ordinal value of the specified enum value (by its identifier as it appears in a Pascal source).
-     */
-    public long getOrdinalValue(String value) {
-        return this.identifiers.indexOf(value);
+        return this.values[index - 1];
     }
 
     public boolean convertibleTo(TypeDescriptor type) {
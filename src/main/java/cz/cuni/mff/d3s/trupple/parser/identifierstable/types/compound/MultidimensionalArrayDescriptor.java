@@ -0,0 +1,96 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound;
+
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.OrdinalDescriptor;
+
+import java.util.List;
+
+/**
+ * Type descriptor for arrays with more than one dimension. All elements of such array are stored in a single flat Java
+ * array in row-major order, so an element is accessed by one load at the offset computed from all its indices and their
+ * precomputed strides. For the purpose of type checking it still behaves like a chain of one dimensional arrays: its
+ * values descriptor describes the array of its remaining dimensions.
+ */
+public class MultidimensionalArrayDescriptor extends ArrayDescriptor {
+
+    private final TypeDescriptor elementDescriptor;
+
+    private final int[] offsets;
+
+    private final int[] lengths;
+
+    private final int[] strides;
+
+    /**
+     * Default constructor.
+     * @param dimensions universes of the indices, there have to be at least two of them
+     * @param elementDescriptor type descriptor of the elements
+     */
+    public MultidimensionalArrayDescriptor(List<OrdinalDescriptor> dimensions, TypeDescriptor elementDescriptor) {
+        super(dimensions.get(0), createValuesDescriptor(dimensions.subList(1, dimensions.size()), elementDescriptor));
+        this.elementDescriptor = elementDescriptor;
+        this.offsets = new int[dimensions.size()];
+        this.lengths = new int[dimensions.size()];
+        this.strides = new int[dimensions.size()];
+        int stride = 1;
+        for (int i = dimensions.size() - 1; i >= 0; --i) {
+            this.offsets[i] = dimensions.get(i).getFirstIndex();
+            this.lengths[i] = dimensions.get(i).getSize();
+            this.strides[i] = stride;
+            stride *= dimensions.get(i).getSize();
+        }
+    }
+
+    private static TypeDescriptor createValuesDescriptor(List<OrdinalDescriptor> dimensions, TypeDescriptor elementDescriptor) {
+        return (dimensions.size() == 1)? new ArrayDescriptor(dimensions.get(0), elementDescriptor) :
+                new MultidimensionalArrayDescriptor(dimensions, elementDescriptor);
+    }
+
+    @Override
+    public Object getDefaultValue() {
+        return createFlatArray(this.elementDescriptor, this.getElementsCount());
+    }
+
+    /**
+     * Gets number of dimensions of the array.
+     */
+    public int getDimensionsCount() {
+        return this.strides.length;
+    }
+
+    /**
+     * Gets the offsets of the indices of each dimension.
+     */
+    public int[] getOffsets() {
+        return this.offsets;
+    }
+
+    /**
+     * Gets number of indices of each dimension.
+     */
+    public int[] getLengths() {
+        return this.lengths;
+    }
+
+    /**
+     * Gets the distances between two consecutive elements of each dimension in the flat array.
+     */
+    public int[] getStrides() {
+        return this.strides;
+    }
+
+    /**
+     * Gets number of elements of all the dimensions together.
+     */
+    public int getElementsCount() {
+        return this.strides[0] * this.getSize();
+    }
+
+    /**
+     * Gets type descriptor of the elements stored in the flat array.
+     */
+    public TypeDescriptor getElementDescriptor() {
+        return this.elementDescriptor;
+    }
+
+}
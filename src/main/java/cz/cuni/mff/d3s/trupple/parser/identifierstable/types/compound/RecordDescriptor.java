@@ -1,23 +1,61 @@
 package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound;
 
+import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.frame.FrameSlotKind;
 import cz.cuni.mff.d3s.trupple.language.runtime.customvalues.RecordValue;
 import cz.cuni.mff.d3s.trupple.parser.LexicalScope;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
- * Type descriptor for Pascal's records types. It contains additional information about the variables it contains.
+ * Type descriptor for Pascal's records types. It contains additional information about the variables it contains and
+ * the layout of their values in {@link RecordValue}: each field has an index either to the array of primitive values
+ * or to the array of references, depending on its slot kind.
  */
 public class RecordDescriptor implements TypeDescriptor {
 
     private final LexicalScope innerScope;
+    private final Map<String, Integer> fieldIndexes;
+    private final long[] primitiveDefaults;
+    private final TypeDescriptor[] primitiveTypes;
+    private final TypeDescriptor[] referenceTypes;
 
     /**
-     * The default descriptor.
+     * The default descriptor. The record's layout is computed from the variables already registered in its scope.
      * @param innerScope lexical scope containing the identifiers of the variables this record contains
      */
     public RecordDescriptor(LexicalScope innerScope) {
         this.innerScope = innerScope;
+        this.fieldIndexes = new HashMap<>();
+
+        Map<String, TypeDescriptor> types = innerScope.getIdentifiersTable().getAllIdentifiers();
+        List<Long> primitiveDefaults = new ArrayList<>();
+        List<TypeDescriptor> primitiveTypes = new ArrayList<>();
+        List<TypeDescriptor> referenceTypes = new ArrayList<>();
+        for (FrameSlot slot : innerScope.getFrameDescriptor().getSlots()) {
+            String identifier = slot.getIdentifier().toString();
+            TypeDescriptor type = types.get(identifier);
+            if (type != null && isPrimitiveKind(type.getSlotKind())) {
+                this.fieldIndexes.put(identifier, primitiveDefaults.size());
+                primitiveDefaults.add(RecordValue.encodePrimitive(type.getDefaultValue()));
+                primitiveTypes.add(type);
+            } else {
+                this.fieldIndexes.put(identifier, referenceTypes.size());
+                referenceTypes.add(type);
+            }
+        }
+
+        this.primitiveDefaults = primitiveDefaults.stream().mapToLong(Long::longValue).toArray();
+        this.primitiveTypes = primitiveTypes.toArray(new TypeDescriptor[primitiveTypes.size()]);
+        this.referenceTypes = referenceTypes.toArray(new TypeDescriptor[referenceTypes.size()]);
+    }
+
+    private static boolean isPrimitiveKind(FrameSlotKind kind) {
+        return kind != FrameSlotKind.Object && kind != FrameSlotKind.Illegal;
     }
 
     @Override
@@ -27,7 +65,13 @@ public class RecordDescriptor implements TypeDescriptor {
 
     @Override
     public Object getDefaultValue() {
-        return new RecordValue(this.innerScope.getFrameDescriptor(), innerScope.getIdentifiersTable().getAllIdentifiers());
+        Object[] references = new Object[this.referenceTypes.length];
+        for (int i = 0; i < references.length; ++i) {
+            // type of the field is unknown if the record's declaration contains errors
+            references[i] = (this.referenceTypes[i] == null)? null : this.referenceTypes[i].getDefaultValue();
+        }
+
+        return new RecordValue(this.primitiveDefaults.clone(), references);
     }
 
     public LexicalScope getLexicalScope() {
@@ -35,7 +79,29 @@ public class RecordDescriptor implements TypeDescriptor {
     }
 
     public boolean containsIdentifier(String identifier) {
-        return this.innerScope.getIdentifiersTable().containsIdentifier(identifier);
+        return this.fieldIndexes.containsKey(identifier);
+    }
+
+    /**
+     * Gets index of the specified field to the array of primitive values or to the array of references of the record,
+     * depending on the field's slot kind.
+     */
+    public int getFieldIndex(String identifier) {
+        return this.fieldIndexes.get(identifier);
+    }
+
+    /**
+     * Gets types of the primitive fields ordered by their indices.
+     */
+    public TypeDescriptor[] getPrimitiveTypes() {
+        return this.primitiveTypes;
+    }
+
+    /**
+     * Gets types of the non-primitive fields ordered by their indices.
+     */
+    public TypeDescriptor[] getReferenceTypes() {
+        return this.referenceTypes;
     }
 
     @Override
@@ -0,0 +1,31 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.AppendBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.ArgumentTypeMismatchException;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.LexicalException;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.TextFileDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+
+import java.util.List;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>append</i> built-in subroutine. Only text files can be appended.
+ */
+public class AppendSubroutineDescriptor extends BuiltinProcedureDescriptor.OneArgumentBuiltin {
+
+    public AppendSubroutineDescriptor() {
+        super(AppendBuiltinNodeGen.create(new ReadArgumentNode(0, TextFileDescriptor.getInstance())),
+                new FormalParameter("f", TextFileDescriptor.getInstance(), false));
+    }
+
+    @Override
+    public void verifyArguments(List<ExpressionNode> passedArguments) throws LexicalException {
+        super.verifyArguments(passedArguments);
+        if (passedArguments.get(0).getType() != TextFileDescriptor.getInstance()) {
+            throw new ArgumentTypeMismatchException(1);
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.BlockReadBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.FileDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>blockread</i> built-in subroutine.
+ */
+public class BlockReadSubroutineDescriptor extends BlockTransferSubroutineDescriptor {
+
+    public BlockReadSubroutineDescriptor() {
+        super(BlockReadBuiltinNodeGen.create(new ReadArgumentNode(0, new FileDescriptor(null)), new ReadArgumentNode(1, null),
+                new ReadArgumentNode(2, IntDescriptor.getInstance())));
+    }
+
+}
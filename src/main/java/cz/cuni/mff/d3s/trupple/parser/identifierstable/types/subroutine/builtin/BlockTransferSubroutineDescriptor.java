@@ -0,0 +1,63 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.ArgumentTypeMismatchException;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.IncorrectNumberOfArgumentsProvidedException;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.LexicalException;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.FileDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.TextFileDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.ArrayDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.compound.MultidimensionalArrayDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.LongDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base type descriptor for Turbo Pascal's <i>blockread</i> and <i>blockwrite</i> built-in subroutines. Their arguments
+ * are a typed file, an array of the file's element type and the number of transferred elements. Elements of a
+ * multidimensional array are transferred in the order in which they are stored (the last index changes fastest).
+ */
+abstract class BlockTransferSubroutineDescriptor extends BuiltinProcedureDescriptor.NoReferenceParameterBuiltin {
+
+    private static final int ARGUMENTS_COUNT = 3;
+
+    BlockTransferSubroutineDescriptor(StatementNode bodyNode) {
+        super(bodyNode, new ArrayList<FormalParameter>(){{
+            add(new FormalParameter("f", new FileDescriptor(null), false));
+            add(new FormalParameter("a", null, false));
+            add(new FormalParameter("n", IntDescriptor.getInstance(), false));
+        }});
+    }
+
+    @Override
+    public void verifyArguments(List<ExpressionNode> passedArguments) throws LexicalException {
+        if (passedArguments.size() != ARGUMENTS_COUNT) {
+            throw new IncorrectNumberOfArgumentsProvidedException(ARGUMENTS_COUNT, passedArguments.size());
+        }
+
+        TypeDescriptor fileType = passedArguments.get(0).getType();
+        if (!(fileType instanceof FileDescriptor) || fileType == TextFileDescriptor.getInstance()) {
+            throw new ArgumentTypeMismatchException(1);
+        }
+        TypeDescriptor arrayType = passedArguments.get(1).getType();
+        if (!(arrayType instanceof ArrayDescriptor) ||
+                getElementDescriptor((ArrayDescriptor) arrayType) != ((FileDescriptor) fileType).getContentTypeDescriptor()) {
+            throw new ArgumentTypeMismatchException(2);
+        }
+        TypeDescriptor countType = passedArguments.get(2).getType();
+        if (countType != IntDescriptor.getInstance() && countType != LongDescriptor.getInstance()) {
+            throw new ArgumentTypeMismatchException(3);
+        }
+    }
+
+    private static TypeDescriptor getElementDescriptor(ArrayDescriptor arrayType) {
+        return (arrayType instanceof MultidimensionalArrayDescriptor)?
+                ((MultidimensionalArrayDescriptor) arrayType).getElementDescriptor() : arrayType.getValuesDescriptor();
+    }
+
+}
@@ -66,6 +66,27 @@ public abstract class BuiltinFunctionDescriptor extends FunctionDescriptor {
 
     }
 
+    /**
+     * Specialized built-in function type descriptor for functions whose parameters are all passed by value.
+     */
+    public static class NoReferenceParameterBuiltin extends BuiltinFunctionDescriptor {
+
+        /**
+         * The default constructor.
+         * @param bodyNode the body node of the function
+         * @param parameters list of formal parameters of the function
+         */
+        public NoReferenceParameterBuiltin(ExpressionNode bodyNode, List<FormalParameter> parameters) {
+            super(bodyNode, parameters);
+        }
+
+        @Override
+        public boolean isReferenceParameter(int parameterIndex) {
+            return false;
+        }
+
+    }
+
     /**
      * Specialized built-in function type descriptor for functions with single ordinal-type argument.
      */
@@ -0,0 +1,18 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.CloseBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
+import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.FileDescriptor;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>close</i> built-in subroutine.
+ */
+public class CloseSubroutineDescriptor extends BuiltinProcedureDescriptor.OneArgumentBuiltin {
+
+    public CloseSubroutineDescriptor() {
+        super(CloseBuiltinNodeGen.create(new ReadArgumentNode(0, new FileDescriptor(null))),
+                new FormalParameter("f", new FileDescriptor(null), false));
+    }
+
+}
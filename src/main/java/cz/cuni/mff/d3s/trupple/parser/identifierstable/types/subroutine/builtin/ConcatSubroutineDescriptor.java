@@ -0,0 +1,39 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.ConcatBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadAllArgumentsNode;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.ArgumentTypeMismatchException;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.LexicalException;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>concat</i> built-in subroutine. It accepts any number of strings or
+ * characters.
+ */
+public class ConcatSubroutineDescriptor extends BuiltinFunctionDescriptor {
+
+    public ConcatSubroutineDescriptor() {
+        super(ConcatBuiltinNodeGen.create(new ReadAllArgumentsNode()), new ArrayList<>());
+    }
+
+    @Override
+    public boolean isReferenceParameter(int parameterIndex) {
+        return false;
+    }
+
+    @Override
+    public void verifyArguments(List<ExpressionNode> passedArguments) throws LexicalException {
+        for (int i = 0; i < passedArguments.size(); ++i) {
+            TypeDescriptor type = passedArguments.get(i).getType();
+            if (type != StringDescriptor.getInstance() && !type.convertibleTo(StringDescriptor.getInstance())) {
+                throw new ArgumentTypeMismatchException(i + 1);
+            }
+        }
+    }
+
+}
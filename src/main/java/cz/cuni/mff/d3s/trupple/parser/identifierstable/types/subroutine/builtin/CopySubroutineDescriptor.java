@@ -0,0 +1,26 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.CopyBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
+import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.LongDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
+
+import java.util.ArrayList;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>copy</i> built-in subroutine.
+ */
+public class CopySubroutineDescriptor extends BuiltinFunctionDescriptor {
+
+    public CopySubroutineDescriptor() {
+        super(CopyBuiltinNodeGen.create(new ReadArgumentNode(0, StringDescriptor.getInstance()),
+                new ReadArgumentNode(1, LongDescriptor.getInstance()), new ReadArgumentNode(2, LongDescriptor.getInstance())),
+                new ArrayList<FormalParameter>(){{
+                    add(new FormalParameter("s", StringDescriptor.getInstance(), false));
+                    add(new FormalParameter("index", LongDescriptor.getInstance(), false));
+                    add(new FormalParameter("count", LongDescriptor.getInstance(), false));
+                }});
+    }
+
+}
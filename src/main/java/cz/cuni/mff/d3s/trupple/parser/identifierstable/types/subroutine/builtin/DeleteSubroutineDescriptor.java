@@ -0,0 +1,26 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.DeleteBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
+import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.LongDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
+
+import java.util.ArrayList;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>delete</i> built-in subroutine.
+ */
+public class DeleteSubroutineDescriptor extends BuiltinProcedureDescriptor {
+
+    public DeleteSubroutineDescriptor() {
+        super(DeleteBuiltinNodeGen.create(new ReadArgumentNode(0, StringDescriptor.getInstance()),
+                new ReadArgumentNode(1, LongDescriptor.getInstance()), new ReadArgumentNode(2, LongDescriptor.getInstance())),
+                new ArrayList<FormalParameter>(){{
+                    add(new FormalParameter("s", StringDescriptor.getInstance(), true));
+                    add(new FormalParameter("index", LongDescriptor.getInstance(), false));
+                    add(new FormalParameter("count", LongDescriptor.getInstance(), false));
+                }});
+    }
+
+}
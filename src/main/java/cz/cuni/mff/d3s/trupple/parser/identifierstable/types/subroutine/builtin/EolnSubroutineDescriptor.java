@@ -4,10 +4,14 @@ import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.builtin.file.EolnBuiltinNodeGen;
 import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadAllArgumentsNode;
 import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.LexicalException;
 import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.TextFileDescriptor;
 
+import java.util.List;
+
 /**
- * Type descriptor for Pascal's <i>eoln</i> built-in subroutine.
+ * Type descriptor for Pascal's <i>eoln</i> built-in subroutine. If it is called without arguments, it uses the standard
+ * input.
  */
 public class EolnSubroutineDescriptor extends BuiltinFunctionDescriptor.OneArgumentBuiltin {
 
@@ -16,4 +20,15 @@ public class EolnSubroutineDescriptor extends BuiltinFunctionDescriptor.OneArgum
                 new FormalParameter("p", TextFileDescriptor.getInstance(), false));
     }
 
-}
\ No newline at end of file
+    @Override
+    public void verifyArguments(List<ExpressionNode> passedArguments) throws LexicalException {
+        if (passedArguments.size() == 1) {
+            if (!(passedArguments.get(0).getType() instanceof TextFileDescriptor)) {
+                throw new LexicalException("Eoln takes zero or one text file argument");
+            }
+        } else if (passedArguments.size() > 1) {
+            throw new LexicalException("Eoln takes zero or one text file argument");
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.LengthBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
+import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>length</i> built-in subroutine.
+ */
+public class LengthSubroutineDescriptor extends BuiltinFunctionDescriptor.OneArgumentBuiltin {
+
+    public LengthSubroutineDescriptor() {
+        super(LengthBuiltinNodeGen.create(new ReadArgumentNode(0, StringDescriptor.getInstance())),
+                new FormalParameter("s", StringDescriptor.getInstance(), false));
+    }
+
+}
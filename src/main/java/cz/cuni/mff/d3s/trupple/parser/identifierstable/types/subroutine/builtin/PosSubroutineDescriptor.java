@@ -0,0 +1,24 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.PosBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
+import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
+
+import java.util.ArrayList;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>pos</i> built-in subroutine.
+ */
+public class PosSubroutineDescriptor extends BuiltinFunctionDescriptor {
+
+    public PosSubroutineDescriptor() {
+        super(PosBuiltinNodeGen.create(new ReadArgumentNode(0, StringDescriptor.getInstance()),
+                new ReadArgumentNode(1, StringDescriptor.getInstance())),
+                new ArrayList<FormalParameter>(){{
+                    add(new FormalParameter("substr", StringDescriptor.getInstance(), false));
+                    add(new FormalParameter("s", StringDescriptor.getInstance(), false));
+                }});
+    }
+
+}
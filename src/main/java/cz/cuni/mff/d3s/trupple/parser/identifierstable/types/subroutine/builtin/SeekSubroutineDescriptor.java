@@ -0,0 +1,24 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.SeekBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
+import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.FileDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+
+import java.util.ArrayList;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>seek</i> built-in subroutine.
+ */
+public class SeekSubroutineDescriptor extends BuiltinProcedureDescriptor.NoReferenceParameterBuiltin {
+
+    public SeekSubroutineDescriptor() {
+        super(SeekBuiltinNodeGen.create(new ReadArgumentNode(0, new FileDescriptor(null)), new ReadArgumentNode(1, IntDescriptor.getInstance())),
+                new ArrayList<FormalParameter>(){{
+                    add(new FormalParameter("f", new FileDescriptor(null), false));
+                    add(new FormalParameter("n", IntDescriptor.getInstance(), false));
+                }});
+    }
+
+}
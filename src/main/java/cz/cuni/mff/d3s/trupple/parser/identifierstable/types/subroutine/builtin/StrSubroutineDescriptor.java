@@ -0,0 +1,48 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.StrBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.ArgumentTypeMismatchException;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.IncorrectNumberOfArgumentsProvidedException;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.LexicalException;
+import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.LongDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.RealDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>str</i> built-in subroutine. Its first argument may be of any numeric type.
+ */
+public class StrSubroutineDescriptor extends BuiltinProcedureDescriptor {
+
+    public StrSubroutineDescriptor() {
+        super(StrBuiltinNodeGen.create(new ReadArgumentNode(0, RealDescriptor.getInstance()),
+                new ReadArgumentNode(1, StringDescriptor.getInstance())),
+                new ArrayList<FormalParameter>(){{
+                    add(new FormalParameter("x", RealDescriptor.getInstance(), false));
+                    add(new FormalParameter("s", StringDescriptor.getInstance(), true));
+                }});
+    }
+
+    @Override
+    public void verifyArguments(List<ExpressionNode> passedArguments) throws LexicalException {
+        if (passedArguments.size() != 2) {
+            throw new IncorrectNumberOfArgumentsProvidedException(2, passedArguments.size());
+        }
+        TypeDescriptor valueType = passedArguments.get(0).getType();
+        if (valueType != IntDescriptor.getInstance() && valueType != LongDescriptor.getInstance() &&
+                valueType != RealDescriptor.getInstance()) {
+            throw new ArgumentTypeMismatchException(1);
+        }
+        if (passedArguments.get(1).getType() != StringDescriptor.getInstance()) {
+            throw new ArgumentTypeMismatchException(2);
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.TruncateBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
+import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.complex.FileDescriptor;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>truncate</i> built-in subroutine.
+ */
+public class TruncateSubroutineDescriptor extends BuiltinProcedureDescriptor.OneArgumentBuiltin {
+
+    public TruncateSubroutineDescriptor() {
+        super(TruncateBuiltinNodeGen.create(new ReadArgumentNode(0, new FileDescriptor(null))),
+                new FormalParameter("f", new FileDescriptor(null), false));
+    }
+
+}
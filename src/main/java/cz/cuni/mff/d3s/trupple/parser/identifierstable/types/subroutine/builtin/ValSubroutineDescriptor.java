@@ -0,0 +1,58 @@
+package cz.cuni.mff.d3s.trupple.parser.identifierstable.types.subroutine.builtin;
+
+import cz.cuni.mff.d3s.trupple.language.nodes.ExpressionNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.builtin.tp.ValBuiltinNodeGen;
+import cz.cuni.mff.d3s.trupple.language.nodes.call.ReadArgumentNode;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.ArgumentTypeMismatchException;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.IncorrectNumberOfArgumentsProvidedException;
+import cz.cuni.mff.d3s.trupple.parser.exceptions.LexicalException;
+import cz.cuni.mff.d3s.trupple.parser.utils.FormalParameter;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.TypeDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.IntDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.LongDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.RealDescriptor;
+import cz.cuni.mff.d3s.trupple.parser.identifierstable.types.primitive.StringDescriptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Type descriptor for Turbo Pascal's <i>val</i> built-in subroutine. Its second argument may be a variable of any
+ * numeric type.
+ */
+public class ValSubroutineDescriptor extends BuiltinProcedureDescriptor {
+
+    public ValSubroutineDescriptor() {
+        super(ValBuiltinNodeGen.create(new ReadArgumentNode(0, StringDescriptor.getInstance()),
+                new ReadArgumentNode(1, RealDescriptor.getInstance()), new ReadArgumentNode(2, IntDescriptor.getInstance())),
+                new ArrayList<FormalParameter>(){{
+                    add(new FormalParameter("s", StringDescriptor.getInstance(), false));
+                    add(new FormalParameter("v", RealDescriptor.getInstance(), true));
+                    add(new FormalParameter("code", IntDescriptor.getInstance(), true));
+                }});
+    }
+
+    @Override
+    public void verifyArguments(List<ExpressionNode> passedArguments) throws LexicalException {
+        if (passedArguments.size() != 3) {
+            throw new IncorrectNumberOfArgumentsProvidedException(3, passedArguments.size());
+        }
+        TypeDescriptor sourceType = passedArguments.get(0).getType();
+        if (sourceType != StringDescriptor.getInstance() && !sourceType.convertibleTo(StringDescriptor.getInstance())) {
+            throw new ArgumentTypeMismatchException(1);
+        }
+        if (!isNumeric(passedArguments.get(1).getType())) {
+            throw new ArgumentTypeMismatchException(2);
+        }
+        TypeDescriptor codeType = passedArguments.get(2).getType();
+        if (codeType != IntDescriptor.getInstance() && codeType != LongDescriptor.getInstance()) {
+            throw new ArgumentTypeMismatchException(3);
+        }
+    }
+
+    private static boolean isNumeric(TypeDescriptor type) {
+        return type == IntDescriptor.getInstance() || type == LongDescriptor.getInstance() ||
+                type == RealDescriptor.getInstance();
+    }
+
+}
@@ -3,6 +3,7 @@ package cz.cuni.mff.d3s.trupple.parser.tp;
 
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.nodes.RootNode;
+import cz.cuni.mff.d3s.trupple.language.PascalState;
 import cz.cuni.mff.d3s.trupple.language.nodes.root.PascalRootNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.*;
@@ -42,8 +43,8 @@ public class Parser implements IParser {
 
 	
 
-	public Parser() {
-		this.factory = new NodeFactory(this, true);
+	public Parser(PascalState state) {
+		this.factory = new NodeFactory(this, state, true);
 		this.extendedGotoSupport = false;
 		errors = new Errors();
 	}
@@ -810,12 +811,10 @@ public class Parser implements IParser {
 		StatementNode  statement;
 		Expect(39);
 		List<String> recordIdentifiers  = IdentifiersList();
-		LexicalScope initialScope = factory.getScope(); 
-		List<FrameSlot> recordSlots = factory.stepIntoRecordsScope(recordIdentifiers); 
-		Expect(40);
-		StatementNode innerStatement = Statement();
-		factory.setScope(initialScope); 
-		statement = factory.createWithStatement(recordSlots, innerStatement); 
+		int recordsCount = factory.stepIntoRecordsScope(recordIdentifiers); 
+		Expect(40);
+		statement = Statement();
+		factory.stepOutOfRecordsScope(recordsCount); 
 		return statement;
 	}
 
@@ -1152,7 +1151,7 @@ public class Parser implements IParser {
 
 	ExpressionNode  InnerIdentifierAccess(Token identifierToken) {
 		ExpressionNode  expression;
-		expression = factory.createExpressionFromSingleIdentifier(identifierToken); 
+		expression = null; 
 		if (la.kind == 6) {
 			expression = SubroutineCall(identifierToken);
 			if (StartOf(13)) {
@@ -1160,6 +1159,7 @@ public class Parser implements IParser {
 				expression = InnerReadRouteNonEmpty(expression);
 			} else SynErr(89);
 		} else if (la.kind == 18 || la.kind == 23 || la.kind == 34) {
+			expression = factory.createExpressionFromSingleIdentifier(identifierToken); 
 			expression = InnerReadRouteNonEmpty(expression);
 		} else SynErr(90);
 		return expression;
@@ -3,6 +3,7 @@ package cz.cuni.mff.d3s.trupple.parser.wirth;
 
 import com.oracle.truffle.api.frame.FrameSlot;
 import com.oracle.truffle.api.nodes.RootNode;
+import cz.cuni.mff.d3s.trupple.language.PascalState;
 import cz.cuni.mff.d3s.trupple.language.nodes.root.PascalRootNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 import cz.cuni.mff.d3s.trupple.language.nodes.*;
@@ -42,8 +43,8 @@ public class Parser implements IParser {
 
 	
 
-	public Parser() {
-		this.factory = new NodeFactory(this, false);
+	public Parser(PascalState state) {
+		this.factory = new NodeFactory(this, state, false);
 		this.extendedGotoSupport = false;
 		errors = new Errors();
 	}
@@ -788,12 +789,10 @@ public class Parser implements IParser {
 		StatementNode  statement;
 		Expect(37);
 		List<String> recordIdentifiers  = IdentifiersList();
-		LexicalScope initialScope = factory.getScope(); 
-		List<FrameSlot> recordSlots = factory.stepIntoRecordsScope(recordIdentifiers); 
-		Expect(38);
-		StatementNode innerStatement = Statement();
-		factory.setScope(initialScope); 
-		statement = factory.createWithStatement(recordSlots, innerStatement); 
+		int recordsCount = factory.stepIntoRecordsScope(recordIdentifiers); 
+		Expect(38);
+		statement = Statement();
+		factory.stepOutOfRecordsScope(recordsCount); 
 		return statement;
 	}
 
@@ -1139,7 +1138,7 @@ public class Parser implements IParser {
 
 	ExpressionNode  InnerIdentifierAccess(Token identifierToken) {
 		ExpressionNode  expression;
-		expression = factory.createExpressionFromSingleIdentifier(identifierToken); 
+		expression = null; 
 		if (la.kind == 6) {
 			expression = SubroutineCall(identifierToken);
 			if (StartOf(11)) {
@@ -1147,6 +1146,7 @@ public class Parser implements IParser {
 				expression = InnerReadRouteNonEmpty(expression);
 			} else SynErr(83);
 		} else if (la.kind == 17 || la.kind == 22 || la.kind == 33) {
+			expression = factory.createExpressionFromSingleIdentifier(identifierToken); 
 			expression = InnerReadRouteNonEmpty(expression);
 		} else SynErr(84);
 		return expression;
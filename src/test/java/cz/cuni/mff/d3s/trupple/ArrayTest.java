@@ -1,7 +1,12 @@
 package cz.cuni.mff.d3s.trupple;
 
+import com.oracle.truffle.api.vm.PolyglotEngine;
+import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.IndexOutOfBoundsException;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+
 public class ArrayTest extends JUnitTest {
 	
 	@Test
@@ -152,4 +157,141 @@ public class ArrayTest extends JUnitTest {
 		
 		test(s, result);
 	}
+
+	@Test
+	public void multidimensionalSubArraysTest(){
+		String s="program main; \n" +
+				"var a, b: array[1..2, 0..2] of integer;\n"+
+				"    i, j: integer;\n"+
+				"\n"+
+				"begin\n"+
+				" for i:=1 to 2 do\n"+
+				" for j:=0 to 2 do\n"+
+				" a[i][j] := i * 10 + j;\n"+
+				" b := a;\n"+
+				" a[1, 0] := 99;\n"+
+				" b[2] := a[1];\n"+
+				"\n"+
+				" for i:=1 to 2 do\n"+
+				" for j:=0 to 2 do\n"+
+				" write(b[i, j], \',\');\n"+
+				" write(a[2][2]);\n"+
+				"end.";
+		String result = "10,11,12,99,11,12,22";
+
+		test(s, result);
+	}
+
+	@Test
+	public void arrayCopiesTest(){
+		String s="program main; \n" +
+				"type row = array[1..2] of integer;\n"+
+				"     point = record x: integer; r: row; end;\n"+
+				"var a, b: array[1..2] of row;\n"+
+				"    p, q: array[1..2] of point;\n"+
+				"\n"+
+				"procedure change(c: row);\n"+
+				"begin\n"+
+				" c[1] := 77;\n"+
+				" write(c[1], \',\');\n"+
+				"end;\n"+
+				"\n"+
+				"function make: row;\n"+
+				"var r: row;\n"+
+				"begin\n"+
+				" r[1] := 5; r[2] := 6;\n"+
+				" make := r;\n"+
+				"end;\n"+
+				"\n"+
+				"begin\n"+
+				" a[1][1] := 1;\n"+
+				" b := a;\n"+
+				" b[1][1] := 2;\n"+
+				" p[1].r[2] := 3;\n"+
+				" q := p;\n"+
+				" q[1].r[2] := 4;\n"+
+				" q[1].x := 8;\n"+
+				" change(a[1]);\n"+
+				" a[2] := make;\n"+
+				" write(a[1][1], \',\', b[1][1], \',\', p[1].r[2], \',\', q[1].r[2], \',\', p[1].x, \',\', a[2][2]);\n"+
+				"end.";
+		String result = "77,1,2,3,4,0,6";
+
+		test(s, result);
+	}
+
+	@Test
+	public void sharedArrayOfRecordsTest(){
+		String s="program main; \n" +
+				"type row = array[1..2] of integer;\n"+
+				"     point = record x: integer; r: row; end;\n"+
+				"     points = array[1..2] of point;\n"+
+				"var p: points;\n"+
+				"\n"+
+				"function sum(q: points): integer;\n"+
+				"var t: point;\n"+
+				"begin\n"+
+				" sum := q[1].x + q[2].r[1];\n"+
+				" t := q[2];\n"+
+				" t.r[1] := 50;\n"+
+				" write(q[2].r[1], \',\', t.r[1], \',\');\n"+
+				" q[2].r[1] := 100;\n"+
+				" q[1].x := 200;\n"+
+				" write(q[1].x, \',\', q[2].r[1], \',\');\n"+
+				"end;\n"+
+				"\n"+
+				"begin\n"+
+				" p[1].x := 1;\n"+
+				" p[2].r[1] := 2;\n"+
+				" write(sum(p), \',\');\n"+
+				" write(p[1].x, \',\', p[2].r[1]);\n"+
+				"end.";
+		String result = "2,50,200,100,3,1,2";
+
+		test(s, result);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void rangeCheckTest(){
+		String s="program main; \n" +
+				"var a: array[1..3] of integer;\n"+
+				"\n"+
+				"begin\n"+
+				" a[0] := 5;\n"+
+				"end.";
+
+		test(s, "");
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void multidimensionalRangeCheckTest(){
+		String s="program main; \n" +
+				"var m: array[1..2, 1..3] of integer;\n"+
+				"\n"+
+				"begin\n"+
+				" m[2, 1] := 5;\n"+
+				" write(m[1, 4]);\n"+
+				"end.";
+
+		test(s, "");
+	}
+
+	@Test
+	public void noRangeChecksTest(){
+		String s="program main; \n" +
+				"var m: array[1..2, 1..3] of integer;\n"+
+				"\n"+
+				"begin\n"+
+				" m[2, 1] := 5;\n"+
+				" write(m[1, 4]);\n"+
+				"end.";
+
+		PolyglotEngine engine = PolyglotEngine.newBuilder().setOut(System.out).setErr(System.err)
+				.config(PascalLanguage.MIME_TYPE, PascalLanguage.NO_RANGE_CHECKS_CONFIG, true).build();
+		engine.eval(this.createSource(s)).execute();
+		engine.dispose();
+
+		assertEquals("5", output.toString());
+	}
+
 }
@@ -1,7 +1,17 @@
 package cz.cuni.mff.d3s.trupple;
 
+import com.oracle.truffle.api.nodes.NodeUtil;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.vm.PolyglotEngine;
+import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
+import cz.cuni.mff.d3s.trupple.language.PascalState;
+import cz.cuni.mff.d3s.trupple.language.nodes.control.OrdinalCaseNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.function.MainFunctionBodyNode;
+import cz.cuni.mff.d3s.trupple.language.nodes.statement.StatementNode;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+
 public class CaseTest extends JUnitTest {
 
 	@Test
@@ -69,4 +79,69 @@ public class CaseTest extends JUnitTest {
 		String output = "ASDF Movie";
 		test(code, output);
 	}
+
+    @Test
+    public void denseLabelsTest() {
+        String code = "program main;\n" +
+                "var i: integer;\n" +
+                "begin\n" +
+                " for i := 0 to 11 do\n" +
+                "  case i of\n" +
+                "   1: write('a'); 2: write('b'); 3: write('c'); 4: write('d'); 5: write('e');\n" +
+                "   6: write('f'); 7: write('g'); 8: write('h'); 9: write('i'); 10: write('j');\n" +
+                "   else write('-');\n" +
+                "  end;\n" +
+                "end.";
+
+        test(code, "-abcdefghij-");
+    }
+
+    @Test
+    public void sparseLabelsTest() {
+        String code = "program main;\n" +
+                "const big = 100000;\n" +
+                "var i: integer;\n" +
+                "begin\n" +
+                " i := 1;\n" +
+                " while i <= 1000000 do begin\n" +
+                "  case i of\n" +
+                "   1: write('a'); 10: write('b'); 100: write('c'); 1000: write('d'); 10000: write('e');\n" +
+                "   big: write('f'); 1000000: write('g'); 7: write('x'); 77: write('x'); 777: write('x');\n" +
+                "  end;\n" +
+                "  i := i * 10;\n" +
+                " end;\n" +
+                "end.";
+
+        test(code, "abcdefg");
+    }
+
+    @Test
+    public void enumAndCharSelectorTest() {
+        String code = "program main;\n" +
+                "type color = (red, green, blue);\n" +
+                "var c: color; ch: char;\n" +
+                "begin\n" +
+                " for c := red to blue do\n" +
+                "  case c of\n" +
+                "   blue: write('B'); red: write('R'); green: write('G');\n" +
+                "  end;\n" +
+                " for ch := 'a' to 'd' do\n" +
+                "  case ch of\n" +
+                "   'b': write(1); 'd': write(2); else write(0);\n" +
+                "  end;\n" +
+                "end.";
+
+        test(code, "RGB0102");
+        assertEquals(2, NodeUtil.findAllNodeInstances(this.parseMainBody(code), OrdinalCaseNode.class).size());
+    }
+
+    private StatementNode parseMainBody(String code) {
+        PolyglotEngine engine = PolyglotEngine.newBuilder().setOut(System.out).setErr(System.err).build();
+        engine.eval(this.createSource(code));
+        PascalState state = (PascalState) engine.getLanguages().get(PascalLanguage.MIME_TYPE).getGlobalObject().get();
+        RootNode rootNode = state.getParser().getRootNode();
+        engine.dispose();
+
+        return NodeUtil.findFirstNodeInstance(rootNode, MainFunctionBodyNode.class).getBody();
+    }
 }
@@ -82,4 +82,22 @@ public class EnumTest extends JUnitTest {
 
         test(code, "It is working");
     }
-}
\ No newline at end of file
+
+	@Test
+    public void enumOrdinalsTest() {
+        String code = "program enumOrdinals;\n"+
+                "type color = (red, green, blue);\n"+
+                "var c: color;\n"+
+                "    a: array[color] of integer;\n"+
+                "    i: integer;\n"+
+                "begin\n"+
+                " i := 0;\n"+
+                " for c := red to blue do begin a[c] := i; i := i + 1; end;\n"+
+                " for c := blue downto red do write(a[c], \',\');\n"+
+                " c := succ(red);\n"+
+                " write(c = green, pred(c) < c, succ(c) <= blue, a[pred(blue)]);\n"+
+                "end.";
+
+        test(code, "2,1,0,truetruetrue1");
+    }
+}
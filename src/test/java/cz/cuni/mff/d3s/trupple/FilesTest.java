@@ -1,7 +1,11 @@
 package cz.cuni.mff.d3s.trupple;
 
+import com.oracle.truffle.api.vm.PolyglotEngine;
+import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+
 public class FilesTest extends JUnitTest {
 
     @Test
@@ -130,4 +134,224 @@ public class FilesTest extends JUnitTest {
         this.cleanupFile("out.txt");
     }
 
+    @Test
+    public void textFileTypedReadTest() {
+        String code = "program main;\n"+
+                "\n"+
+                "var f: text; i, j: integer; r: real; s: string; c: char;\n"+
+                "\n"+
+                "begin\n"+
+                " assign(f,\'out.txt\');\n"+
+                " rewrite(f);\n"+
+                " writeln(f, 12, \' \', -7);\n"+
+                " writeln(f, 2.5);\n"+
+                " writeln(f, \'Ia! Ia! Cthulhu fhtagn!\');\n"+
+                " write(f, \'ab\');\n"+
+                "\n"+
+                " reset(f);\n"+
+                " readln(f, i, j);\n"+
+                " readln(f, r);\n"+
+                " readln(f, s);\n"+
+                " write(i + j, \' \', r, \' \', s, \' \');\n"+
+                " while not eof(f) do begin\n"+
+                "  read(f, c);\n"+
+                "  write(c);\n"+
+                " end;\n"+
+                "end.";
+
+        String output = "5 2.5 Ia! Ia! Cthulhu fhtagn! ab";
+        test(code, output, true);
+        this.cleanupFile("out.txt");
+    }
+
+    @Test
+    public void recordFileRandomAccessTest() {
+        String code = "program main;\n"+
+                "\n"+
+                "type point = record x, y: integer; name: string; end;\n"+
+                "var f: file of point; p: point; i: integer;\n"+
+                "\n"+
+                "begin\n"+
+                " assign(f,\'out.bin\');\n"+
+                " rewrite(f);\n"+
+                " for i:=1 to 5 do begin\n"+
+                "  p.x := i; p.y := i * i; p.name := \'pt\';\n"+
+                "  write(f, p);\n"+
+                " end;\n"+
+                " write(filesize(f), \' \', filepos(f), \' \');\n"+
+                "\n"+
+                " seek(f, 2);\n"+
+                " read(f, p);\n"+
+                " write(p.name, p.x, \' \', p.y, \' \', filepos(f), \' \');\n"+
+                " seek(f, 1);\n"+
+                " p.x := 42;\n"+
+                " write(f, p);\n"+
+                " seek(f, 1);\n"+
+                " read(f, p);\n"+
+                " write(p.x, \' \');\n"+
+                " truncate(f);\n"+
+                " write(filesize(f), \' \', eof(f));\n"+
+                "end.";
+
+        test(code, "5 5 pt3 9 3 42 2 true", true);
+        this.cleanupFile("out.bin");
+    }
+
+    @Test
+    public void mappedFileBlockTransferTest() {
+        String code = "program main;\n"+
+                "\n"+
+                "var f: file of integer; a, b: array[1..100] of integer; i, s: integer;\n"+
+                "\n"+
+                "begin\n"+
+                " for i:=1 to 100 do a[i] := i;\n"+
+                " assign(f,\'out.bin\');\n"+
+                " rewrite(f);\n"+
+                " blockwrite(f, a, 100);\n"+
+                " write(filesize(f), \' \');\n"+
+                "\n"+
+                " reset(f);\n"+
+                " blockread(f, b, 100);\n"+
+                " s := 0;\n"+
+                " for i:=1 to 100 do s := s + b[i];\n"+
+                " write(s, \' \');\n"+
+                " seek(f, 41);\n"+
+                " write(f, 0);\n"+
+                " seek(f, 40);\n"+
+                " blockread(f, b, 3);\n"+
+                " write(b[1], \' \', b[2], \' \', b[3], \' \', filepos(f));\n"+
+                "end.";
+
+        PolyglotEngine engine = PolyglotEngine.newBuilder().setOut(System.out).setErr(System.err)
+                .config(PascalLanguage.MIME_TYPE, PascalLanguage.TP_EXTENSION_CONFIG, true)
+                .config(PascalLanguage.MIME_TYPE, PascalLanguage.MAPPED_FILES_CONFIG, true).build();
+        engine.eval(this.createSource(code)).execute();
+        engine.dispose();
+
+        assertEquals("100 5050 41 0 43 43", output.toString());
+        this.cleanupFile("out.bin");
+    }
+
+    @Test
+    public void closeAppendFlushTest() {
+        String code = "program main;\n"+
+                "\n"+
+                "var f: text; g: file of integer; s: string; i: integer;\n"+
+                "\n"+
+                "begin\n"+
+                " assign(f,\'out.txt\');\n"+
+                " rewrite(f);\n"+
+                " writeln(f, \'Ph\'\'nglui mglw\'\'nafh\');\n"+
+                " close(f);\n"+
+                " append(f);\n"+
+                " writeln(f, \'Cthulhu R\'\'lyeh\');\n"+
+                " close(f);\n"+
+                "\n"+
+                " reset(f);\n"+
+                " while not eof(f) do begin\n"+
+                "  readln(f, s);\n"+
+                "  write(s, \'|\');\n"+
+                " end;\n"+
+                " close(f);\n"+
+                "\n"+
+                " assign(g,\'out.bin\');\n"+
+                " rewrite(g);\n"+
+                " write(g, 42);\n"+
+                " flush(g);\n"+
+                " write(filesize(g), \' \');\n"+
+                " write(g, 43);\n"+
+                "end.";
+
+        test(code, "Ph'nglui mglw'nafh|Cthulhu R'lyeh|1 ", true);
+        this.cleanupFile("out.txt");
+        this.cleanupFile("out.bin");
+    }
+
+    @Test
+    public void shadowRandomAccessBuiltinsInsideSubroutineTest() {
+        String code = "program main;\n"+
+                "\n"+
+                "var seek, filepos: integer;\n"+
+                "\n"+
+                "function filesize(a: integer): integer;\n"+
+                "begin\n"+
+                " filesize := a * 10;\n"+
+                "end;\n"+
+                "\n"+
+                "procedure truncate(a: integer);\n"+
+                "begin\n"+
+                " write(a, \' \');\n"+
+                "end;\n"+
+                "\n"+
+                "procedure step;\n"+
+                "begin\n"+
+                " seek := seek + 1;\n"+
+                " filepos := filesize(seek);\n"+
+                " truncate(filepos);\n"+
+                "end;\n"+
+                "\n"+
+                "begin\n"+
+                " seek := 1;\n"+
+                " step;\n"+
+                " write(seek, \' \', filepos);\n"+
+                "end.";
+
+        test(code, "20 2 20", true);
+    }
+
+    @Test
+    public void shadowBlockTransferBuiltinsInsideSubroutineTest() {
+        String code = "program main;\n"+
+                "\n"+
+                "var blockread: array[1..2] of integer;\n"+
+                "\n"+
+                "procedure blockwrite(a, b: integer);\n"+
+                "begin\n"+
+                " write(a + b, \' \');\n"+
+                "end;\n"+
+                "\n"+
+                "procedure step;\n"+
+                "begin\n"+
+                " blockread[2] := blockread[1] + 1;\n"+
+                " blockwrite(blockread[1], blockread[2]);\n"+
+                "end;\n"+
+                "\n"+
+                "begin\n"+
+                " blockread[1] := 3;\n"+
+                " step;\n"+
+                " write(blockread[2]);\n"+
+                "end.";
+
+        test(code, "7 4", true);
+    }
+
+    @Test
+    public void shadowCloseFlushAppendInsideSubroutineTest() {
+        String code = "program main;\n"+
+                "\n"+
+                "var close: boolean;\n"+
+                "    append: string;\n"+
+                "\n"+
+                "function flush(a: integer): integer;\n"+
+                "begin\n"+
+                " flush := a + 1;\n"+
+                "end;\n"+
+                "\n"+
+                "procedure step;\n"+
+                "begin\n"+
+                " close := not close;\n"+
+                " append := append + \'cd\';\n"+
+                " write(flush(1), \' \');\n"+
+                "end;\n"+
+                "\n"+
+                "begin\n"+
+                " close := false;\n"+
+                " append := \'ab\';\n"+
+                " step;\n"+
+                " write(close, \' \', append);\n"+
+                "end.";
+
+        test(code, "2 true abcd", true);
+    }
+
 }
@@ -69,4 +69,30 @@ public class GotoTest extends JUnitTest {
         this.test(code, new ArrayList<>(), output, false, true);
     }
 
+    @Test
+    public void sameLabelsInNestedScopesTest() {
+        String code="program main;\n"+
+                "label 1;\n"+
+                "var i:integer;\n"+
+                "\n"+
+                "procedure p;\n"+
+                "label 1;\n"+
+                "begin\n"+
+                " i := i + 1;\n"+
+                " goto 1;\n"+
+                " write(\'x\');\n"+
+                " 1: write(\'p\');\n"+
+                "end;\n"+
+                "\n"+
+                "begin\n"+
+                " i := 0;\n"+
+                " 1: p;\n"+
+                " if i < 3 then\n"+
+                "  goto 1;\n"+
+                " write(i);\n"+
+                "end.";
+        String output = "ppp3";
+        this.test(code, new ArrayList<>(), output, false, true);
+    }
+
 }
@@ -11,6 +11,7 @@ import java.util.List;
 
 import com.oracle.truffle.api.source.Source;
 import com.oracle.truffle.api.vm.PolyglotEngine;
+import org.junit.After;
 import org.junit.Before;
 
 import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
@@ -33,6 +34,11 @@ public abstract class JUnitTest {
         System.setOut(new PrintStream(output));
 	}
 
+	@After
+	public void tearDown() {
+	    engine.dispose();
+    }
+
 	private void clearOutput() {
         output = new ByteArrayOutputStream();
         System.setOut(new PrintStream(output));
@@ -80,9 +86,11 @@ public abstract class JUnitTest {
 	protected void test(String sourceCode, List<String> imports, String expectedOutput, boolean useTPExtension,
                         boolean extendedGotoSupport, Object[] arguments, boolean useBuiltinUnits) {
         clearOutput();
-        engine = PolyglotEngine.newBuilder().setIn(this.input).setOut(System.out).setErr(System.err).build();
-        PascalLanguage.INSTANCE.reset(useTPExtension, extendedGotoSupport);
-        PascalLanguage.INSTANCE.setInput(this.input);
+        engine.dispose();
+        engine = PolyglotEngine.newBuilder().setIn(this.input).setOut(System.out).setErr(System.err)
+                .config(PascalLanguage.MIME_TYPE, PascalLanguage.TP_EXTENSION_CONFIG, useTPExtension)
+                .config(PascalLanguage.MIME_TYPE, PascalLanguage.EXTENDED_GOTO_CONFIG, extendedGotoSupport)
+                .build();
         if (useBuiltinUnits) {
             evalBuiltinSubroutines();
         }
@@ -117,4 +117,47 @@ public class LoopsTest extends JUnitTest{
 		test(code, "18", true);
 	}
 
+    @Test
+    public void forFinalValueEvaluatedOnceTest() {
+        String code = "program main;\n" +
+                "var i, n: integer;\n" +
+                "begin\n" +
+                " n := 3;\n" +
+                " for i := 1 to n do begin\n" +
+                "  n := n + 1;\n" +
+                "  write(i);\n" +
+                " end;\n" +
+                " write(' ', n);\n" +
+                "end.";
+
+        test(code, "123 6");
+    }
+
+    @Test
+    public void forEnumDowntoTest() {
+        String code = "program main;\n" +
+                "type day = (mon, tue, wed, thu, fri);\n" +
+                "var iterator: day;\n" +
+                "begin\n" +
+                " for iterator := fri downto mon do\n" +
+                "  write(ord(iterator));\n" +
+                "end.";
+
+        test(code, "43210");
+    }
+
+    @Test
+    public void forBreakTestTP() {
+        String code = "program main;\n" +
+                "var i: integer;\n" +
+                "begin\n" +
+                " for i := 1 to 100 do begin\n" +
+                "  if i = 4 then break;\n" +
+                "  write(i);\n" +
+                " end;\n" +
+                "end.";
+
+        test(code, "123", true);
+    }
+
 }
@@ -88,4 +88,80 @@ public class NestedSubroutinesTest extends JUnitTest {
 		String output="42";
 		this.test(s, output);
 	}
+
+	@Test
+	public void recursiveNestedProcedureTest() {
+		String s = "program nestedRecursion;\n"+
+				"var total: integer;\n"+
+				"procedure outer(n: integer);\n"+
+				" var count: integer;\n"+
+				" procedure inner(i: integer);\n"+
+				" begin\n"+
+				" count := count + i;\n"+
+				" total := total + 1;\n"+
+				" if i > 0 then inner(i - 1);\n"+
+				" end;\n"+
+				"begin\n"+
+				" count := 0;\n"+
+				" inner(n);\n"+
+				" write(count, ' ');\n"+
+				"end;\n"+
+				"begin\n"+
+				" total := 0;\n"+
+				" outer(4);\n"+
+				" write(total);\n"+
+				"end.";
+		String output="10 5";
+		this.test(s, output);
+	}
+
+	@Test
+	public void nestedSubroutineAsArgumentTest() {
+		String s = "program nestedArgument;\n"+
+				"procedure apply(procedure p(i: integer));\n"+
+				"begin\n"+
+				" p(1); p(2);\n"+
+				"end;\n"+
+				"procedure outer;\n"+
+				" var sum: integer;\n"+
+				" procedure add(i: integer);\n"+
+				" begin\n"+
+				" sum := sum + i;\n"+
+				" end;\n"+
+				"begin\n"+
+				" sum := 10;\n"+
+				" apply(add);\n"+
+				" write(sum);\n"+
+				"end;\n"+
+				"begin\n"+
+				" outer;\n"+
+				"end.";
+		String output="13";
+		this.test(s, output);
+	}
+
+	@Test
+	public void outerScopeAccessedOnlyFromNestedSubroutineTest() {
+		String s = "program nestedLink;\n"+
+				"var x: integer;\n"+
+				"procedure leaf(i: integer);\n"+
+				"begin\n"+
+				" write(i);\n"+
+				"end;\n"+
+				"procedure outer;\n"+
+				" procedure inner;\n"+
+				" begin\n"+
+				" x := x * 2;\n"+
+				" end;\n"+
+				"begin\n"+
+				" inner; inner;\n"+
+				"end;\n"+
+				"begin\n"+
+				" x := 3;\n"+
+				" outer;\n"+
+				" leaf(x);\n"+
+				"end.";
+		String output="12";
+		this.test(s, output);
+	}
 }
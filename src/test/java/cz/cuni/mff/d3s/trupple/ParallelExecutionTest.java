@@ -0,0 +1,114 @@
+package cz.cuni.mff.d3s.trupple;
+
+import com.oracle.truffle.api.vm.PolyglotEngine;
+import cz.cuni.mff.d3s.trupple.language.PascalLanguage;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs several programs concurrently, each of them on its own engine, and checks that they do not see each other's
+ * units, heap, random generator or standard streams.
+ */
+public class ParallelExecutionTest extends JUnitTest {
+
+    private static final int THREADS_COUNT = 8;
+    private static final int RUNS_PER_THREAD = 5;
+
+    private static final String UNIT_COUNTER = "unit counter;\n" +
+            "interface\n" +
+            " procedure increase(amount: integer);\n" +
+            " function getCount: integer;\n" +
+            "implementation\n" +
+            " var count: integer;\n" +
+            " procedure increase(amount: integer);\n" +
+            " begin\n" +
+            "  count := count + amount;\n" +
+            " end;\n" +
+            " function getCount: integer;\n" +
+            " begin\n" +
+            "  getCount := count;\n" +
+            " end;\n" +
+            "end.";
+
+    private static final String PROGRAM = "program parallel;\n" +
+            "uses counter;\n" +
+            "type PInteger = ^integer;\n" +
+            "var n, i: integer; p: PInteger;\n" +
+            "begin\n" +
+            " read(n);\n" +
+            " new(p);\n" +
+            " p^ := n;\n" +
+            " for i := 1 to n do begin\n" +
+            "  increase(i);\n" +
+            "  write(p^ * i, ' ');\n" +
+            " end;\n" +
+            " dispose(p);\n" +
+            " writeln(getCount, ' ', random(1000));\n" +
+            "end.";
+
+    @Test
+    public void parallelEnginesTest() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS_COUNT);
+        List<Future<?>> results = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS_COUNT; ++thread) {
+            final int seed = thread + 1;
+            results.add(executor.submit(() -> {
+                for (int run = 0; run < RUNS_PER_THREAD; ++run) {
+                    int n = seed + run;
+                    assertEquals(this.expectedOutput(n), this.runProgram(n));
+                }
+                return null;
+            }));
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        for (Future<?> result : results) {
+            result.get();
+        }
+    }
+
+    private String runProgram(int n) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PolyglotEngine engine = PolyglotEngine.newBuilder()
+                .setIn(new ByteArrayInputStream(String.valueOf(n).getBytes()))
+                .setOut(output).setErr(System.err)
+                .config(PascalLanguage.MIME_TYPE, PascalLanguage.TP_EXTENSION_CONFIG, true)
+                .build();
+
+        try {
+            engine.eval(this.createSource(UNIT_COUNTER));
+            engine.eval(this.createSource(PROGRAM)).execute();
+        } finally {
+            engine.dispose();
+        }
+
+        return output.toString();
+    }
+
+    private String expectedOutput(int n) {
+        StringBuilder expected = new StringBuilder();
+        for (int i = 1; i <= n; ++i) {
+            expected.append(n * i).append(' ');
+        }
+        // each context starts with its own generator seeded by the same default seed
+        int firstRandom = Math.abs(new Random(26270).nextInt()) % 1000;
+        expected.append(n * (n + 1) / 2).append(' ').append(firstRandom).append(System.lineSeparator());
+
+        return expected.toString();
+    }
+
+}
@@ -1,5 +1,6 @@
 package cz.cuni.mff.d3s.trupple;
 
+import cz.cuni.mff.d3s.trupple.language.runtime.exceptions.SegmentationFaultException;
 import org.junit.Test;
 
 public class PointersTest extends JUnitTest {
@@ -155,4 +156,86 @@ public class PointersTest extends JUnitTest {
         testWithInput(code, "lemmiF sivarT", "Travis Fimmel", true);
     }
 
+    @Test
+    public void disposeAndReallocateTest() {
+        String code = "program main;\n"+
+                "\n"+
+                "var p, q: ^integer;\n"+
+                " i: integer;\n"+
+                "\n"+
+                "begin\n"+
+                " new(q);\n"+
+                " q^ := 42;\n"+
+                " for i:=1 to 200 do begin\n"+
+                " new(p);\n"+
+                " p^ := i;\n"+
+                " if i mod 50 = 0 then write(p^, ' ');\n"+
+                " dispose(p);\n"+
+                " end;\n"+
+                " write(q^);\n"+
+                "end.";
+
+        test(code, "50 100 150 200 42");
+    }
+
+    @Test(expected = SegmentationFaultException.class)
+    public void danglingPointerTest() {
+        String code = "program main;\n"+
+                "\n"+
+                "var p, q: ^integer;\n"+
+                "\n"+
+                "begin\n"+
+                " new(p);\n"+
+                " q := p;\n"+
+                " dispose(p);\n"+
+                " q^ := 1;\n"+
+                "end.";
+
+        test(code, "");
+    }
+
+    @Test(expected = SegmentationFaultException.class)
+    public void danglingPointerToReusedSlotTest() {
+        String code = "program main;\n"+
+                "\n"+
+                "var p, q: ^integer;\n"+
+                "\n"+
+                "begin\n"+
+                " new(p);\n"+
+                " q := p;\n"+
+                " dispose(p);\n"+
+                " new(p);\n"+
+                " q^ := 1;\n"+
+                "end.";
+
+        test(code, "");
+    }
+
+    @Test
+    public void assignCopyToDereferenceTest() {
+        String code = "program main;\n"+
+                "\n"+
+                "type arr = array[1..2] of integer;\n"+
+                "     rec = record x: integer; end;\n"+
+                "var p: ^arr; b: arr; q: ^rec; r: rec;\n"+
+                "\n"+
+                "begin\n"+
+                " new(p);\n"+
+                " b[1] := 1; b[2] := 2;\n"+
+                " p^ := b;\n"+
+                " b[1] := 10;\n"+
+                " p^[2] := 5;\n"+
+                " write(p^[1], \' \', p^[2], \' \', b[1], \' \', b[2], \' \');\n"+
+                " new(q);\n"+
+                " r.x := 3;\n"+
+                " q^ := r;\n"+
+                " r.x := 4;\n"+
+                " write(q^.x, \' \', r.x);\n"+
+                " dispose(p);\n"+
+                " dispose(q);\n"+
+                "end.";
+
+        test(code, "1 5 10 2 3 4");
+    }
+
 }
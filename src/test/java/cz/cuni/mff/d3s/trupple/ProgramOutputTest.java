@@ -22,17 +22,13 @@ public class ProgramOutputTest extends JUnitTest {
 
     private void testResultValue(String sourceCode, int expectedValue) {
         PolyglotEngine engine = this.givenExecutionEngine();
-        setTPSupport();
         int resultValue = thenEvaluateSource(engine, sourceCode);
         verifyResult(resultValue, expectedValue);
     }
 
     private PolyglotEngine givenExecutionEngine() {
-        return PolyglotEngine.newBuilder().setOut(System.out).setErr(System.err).build();
-    }
-
-    private void setTPSupport() {
-        PascalLanguage.INSTANCE.reset(true, false);
+        return PolyglotEngine.newBuilder().setOut(System.out).setErr(System.err)
+                .config(PascalLanguage.MIME_TYPE, PascalLanguage.TP_EXTENSION_CONFIG, true).build();
     }
 
     private int thenEvaluateSource(PolyglotEngine engine, String soureCode) {
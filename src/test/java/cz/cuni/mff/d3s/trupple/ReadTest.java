@@ -94,4 +94,67 @@ public class ReadTest extends JUnitTest {
 		String output = String.format("315%n42%n26%n654%n");
 		this.testWithInput(code, input, output);
 	}
+
+	@Test
+	public void readRealsAndNegativeIntegersTest() {
+		String code = "program main; var i:integer; l:longint; a,b,c:real;\n"+
+				"begin\n"+
+				" read(i, l, a, b, c);\n"+
+				" write(i, ' ', l, ' ', a, ' ', b, ' ', c);\n"+
+				"end.";
+		String input = String.format("-17 +9000000000%n 2.5 -1e3 0.1%n");
+		String output = "-17 9000000000 2.5 -1000.0 0.1";
+		this.testWithInput(code, input, output);
+	}
+
+	@Test
+	public void readStringLinesTest() {
+		String code = "program main; var s,t:string;\n"+
+				"begin\n"+
+				" readln(s);\n"+
+				" readln(t);\n"+
+				" write(t, '|', s);\n"+
+				"end.";
+		String input = String.format("Hello world%nsecond line%n");
+		String output = "second line|Hello world";
+		this.testWithInput(code, input, output, true);
+	}
+
+	@Test
+	public void eolnTest() {
+		String code = "program main; var c:char; n:integer;\n"+
+				"begin\n"+
+				" n:=0;\n"+
+				" while not eoln() do begin\n"+
+				"  read(c);\n"+
+				"  n:=n+1;\n"+
+				" end;\n"+
+				" readln;\n"+
+				" read(c);\n"+
+				" write(n, c);\n"+
+				"end.";
+		String input = "abc\r\nx";
+		String output = "3x";
+		this.testWithInput(code, input, output);
+	}
+
+	@Test
+	public void readManyIntegersTest() {
+		StringBuilder input = new StringBuilder();
+		int sum = 0;
+		for (int i = 0; i < 20000; ++i) {
+			input.append(i * 7).append((i % 10 == 9)? "\n" : " ");
+			sum += i * 7;
+		}
+		String code = "program main; var i,x,sum:integer;\n"+
+				"begin\n"+
+				" sum:=0;\n"+
+				" for i:=1 to 20000 do begin\n"+
+				"  read(x);\n"+
+				"  sum:=sum+x;\n"+
+				" end;\n"+
+				" write(sum, eof());\n"+
+				"end.";
+		this.testWithInput(code, input.toString(), sum + "true");
+	}
 }
@@ -123,4 +123,81 @@ public class RecordTest extends JUnitTest {
 
         test(code, "JJ");
     }
+
+    @Test
+    public void primitiveFieldsTest(){
+        String code = "program main;\n"+
+                "type r = record\n"+
+                " i: integer; l: longint; d: real; c: char; b: boolean;\n"+
+                " end;\n"+
+                "var a, b: r;\n"+
+                "begin\n"+
+                " a.i := 1; a.l := 2; a.d := 3; a.c := 'x'; a.b := true;\n"+
+                " b := a;\n"+
+                " a.i := 5; a.d := 0.5;\n"+
+                " write(b.i, b.l, b.d > 2.5, b.c, b.b, a.i, a.d < 1.0);\n"+
+                "end.";
+
+        test(code, "12truextrue5true");
+    }
+
+    @Test
+    public void withStatementOuterVariableTest(){
+        String code = "program main;\n"+
+                "type r = record\n"+
+                " i: integer;\n"+
+                " end;\n"+
+                "var rinstance: r; k: integer;\n"+
+                "begin\n"+
+                " k := 3;\n"+
+                " with rinstance do begin\n"+
+                " i := k * 2;\n"+
+                " k := i + 1;\n"+
+                " end;\n"+
+                " write(rinstance.i, k);\n"+
+                "end.";
+
+        test(code, "67");
+    }
+
+    @Test
+    public void readFieldInsideWithTest(){
+        String code = "program main;\n"+
+                "type r = record\n"+
+                " x, y: integer;\n"+
+                " end;\n"+
+                "var rec: r; z: integer;\n"+
+                "begin\n"+
+                " with rec do begin\n"+
+                " x := 5;\n"+
+                " read(y);\n"+
+                " end;\n"+
+                " z := 100;\n"+
+                " write(rec.x, ' ', rec.y, ' ', z);\n"+
+                "end.";
+
+        testWithInput(code, "7", "5 7 100", true);
+    }
+
+    @Test
+    public void passFieldByReferenceInsideWithTest(){
+        String code = "program main;\n"+
+                "type r = record\n"+
+                " i: integer; c: char;\n"+
+                " end;\n"+
+                "var a, b: r;\n"+
+                "procedure p(var j: integer; var d: char);\n"+
+                "begin\n"+
+                " j := 42;\n"+
+                " d := 'q';\n"+
+                "end;\n"+
+                "begin\n"+
+                " a.i := 1; a.c := 'a';\n"+
+                " b := a;\n"+
+                " with b do p(i, c);\n"+
+                " write(a.i, a.c, b.i, b.c);\n"+
+                "end.";
+
+        test(code, "1a42q", true);
+    }
 }
@@ -185,4 +185,57 @@ public class SetOperationsTest extends JUnitTest {
         String output="truetruetruefalsefalse";
         this.test(code, output, true);
     }
+
+    @Test
+    public void charSetTest() {
+        String code="program main;\n"+
+                "var vowels, letters: set of char;\n"+
+                "begin\n"+
+                " vowels := ['a', 'e', 'i', 'o', 'u'];\n"+
+                " letters := ['a', 'b', 'c', 'e'];\n"+
+                " write('e' in vowels * letters);\n"+
+                " write('b' in vowels * letters);\n"+
+                " write('b' in letters - vowels);\n"+
+                " write('u' in letters + vowels);\n"+
+                "end.";
+        String output="truefalsetruetrue";
+        this.test(code, output);
+    }
+
+    @Test
+    public void differentWidthSetsTest() {
+        String code="program main;\n"+
+                "var small, large: set of integer;\n"+
+                "begin\n"+
+                " small := [1, 2];\n"+
+                " large := [1, 2, 1000];\n"+
+                " write(small = large);\n"+
+                " write(small = large - [1000]);\n"+
+                " write(1000 in large * small);\n"+
+                " write(-5 in [-5, 3]);\n"+
+                " write(small < large);\n"+
+                "end.";
+        String output="falsetruefalsetruetrue";
+        this.test(code, output);
+    }
+
+    @Test
+    public void valuesOutsideBitsetTest() {
+        String code="program main;\n"+
+                "var s, t: set of integer;\n"+
+                "begin\n"+
+                " s := [70003, 2, 4];\n"+
+                " t := [70003, 70001, 4];\n"+
+                " write(70001 in s + t);\n"+
+                " write(70003 in s - t);\n"+
+                " write(70003 in s * t);\n"+
+                " write(70001 in (s >< t));\n"+
+                " write(70003 in (s >< t));\n"+
+                " write(s * t = [4, 70003]);\n"+
+                " write(s - t = [2]);\n"+
+                " write(s = t);\n"+
+                "end.";
+        String output="truefalsetruetruefalsetruetruefalse";
+        this.test(code, output, true);
+    }
 }
@@ -45,4 +45,126 @@ public class StringTest extends JUnitTest {
         this.test(source, output, true);
     }
 
+    @Test
+    public void stringIndexAssignmentTest() {
+        String source = "program indexAssignment;\n"+
+                "var str, copy: string;\n"+
+                "var i, j:integer;\n"+
+                "\n"+
+                "begin\n"+
+                " for j:=1 to 2 do begin\n"+
+                "  str:='abcde';\n"+
+                "  copy:=str;\n"+
+                "  for i:=0 to 4 do\n"+
+                "   str[i]:=chr(ord(str[i]) - 32);\n"+
+                "  write(str, ' ', copy, ' ');\n"+
+                " end;\n"+
+                "end.";
+
+        String output = "ABCDE abcde ABCDE abcde ";
+        this.test(source, output, true);
+    }
+
+    @Test
+    public void stringAppendTest() {
+        String source = "program append;\n"+
+                "var s, t: string;\n"+
+                "var i:integer;\n"+
+                "\n"+
+                "begin\n"+
+                " s:='';\n"+
+                " for i:=0 to 39 do\n"+
+                "  s:=s + chr(48 + i mod 10);\n"+
+                " t:=s;\n"+
+                " s:=s + 'x';\n"+
+                " t:=t + 'y' + s;\n"+
+                " t[0]:='-';\n"+
+                " write(s, ' ', t);\n"+
+                "end.";
+
+        String digits = "0123456789012345678901234567890123456789";
+        String output = digits + "x -" + digits.substring(1) + "y" + digits + "x";
+        this.test(source, output, true);
+    }
+
+    @Test
+    public void stringBuiltinsTest() {
+        String source = "program builtins;\n"+
+                "var s, t: string;\n"+
+                "var i, code: integer;\n"+
+                "\n"+
+                "begin\n"+
+                " s:='Hello world';\n"+
+                " write(length(s), ' ', pos('world', s), ' ', pos('x', s), ' ', copy(s, 7, 100), '|');\n"+
+                " insert('big ', s, 7);\n"+
+                " write(s, '|');\n"+
+                " delete(s, 1, 6);\n"+
+                " write(concat('a', s, 'b'), '|');\n"+
+                " str(42, t);\n"+
+                " write(t, length(t), '|');\n"+
+                " val('  123', i, code);\n"+
+                " write(i, ' ', code, '|');\n"+
+                " val('12x', i, code);\n"+
+                " write(code);\n"+
+                "end.";
+
+        String output = "11 7 0 world|Hello big world|abig worldb|422|123 0|3";
+        this.test(source, output, true);
+    }
+
+    @Test
+    public void shadowStringBuiltinsTest() {
+        String source = "program builtins;\n"+
+                "\n"+
+                "function copy(a: integer): integer;\n"+
+                "begin\n"+
+                " copy := a * 2;\n"+
+                "end;\n"+
+                "\n"+
+                "procedure delete(a: integer);\n"+
+                "begin\n"+
+                " write(a);\n"+
+                "end;\n"+
+                "\n"+
+                "begin\n"+
+                " write(copy(3), ' ');\n"+
+                " delete(4);\n"+
+                "end.";
+
+        this.test(source, "6 4", true);
+    }
+
+    @Test
+    public void shadowStringBuiltinsInsideSubroutineTest() {
+        String source = "program builtins;\n"+
+                "\n"+
+                "var pos: integer;\n"+
+                "\n"+
+                "function copy(a: integer): integer;\n"+
+                "begin\n"+
+                " copy := a * 2;\n"+
+                "end;\n"+
+                "\n"+
+                "procedure outer;\n"+
+                "\n"+
+                " procedure step;\n"+
+                " begin\n"+
+                "  pos := pos + 1;\n"+
+                "  write(copy(pos), ' ', length('abc'), ' ');\n"+
+                " end;\n"+
+                "\n"+
+                "begin\n"+
+                " step;\n"+
+                " step;\n"+
+                "end;\n"+
+                "\n"+
+                "begin\n"+
+                " pos := 1;\n"+
+                " outer;\n"+
+                " write(pos);\n"+
+                "end.";
+
+        this.test(source, "4 3 6 3 3", true);
+    }
+
 }
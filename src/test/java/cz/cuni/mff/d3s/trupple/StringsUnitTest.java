@@ -28,4 +28,58 @@ public class StringsUnitTest extends JUnitTest {
         test(code, Collections.emptyList(), output, true, false, new String[0], true);
     }
 
+    @Test
+    public void strlenStrcopyStrcatStrposTest() {
+        String code = "program pcharTest;\n"+
+                "uses strings;\n"+
+                "var s1, s2, s3: PChar;\n"+
+                "\n"+
+                "begin\n"+
+                " s1 := stralloc(20);\n"+
+                " s2 := stralloc(10);\n"+
+                " s2 := \'Hello\';\n"+
+                " s1 := strcopy(s1, s2);\n"+
+                " write(strlen(s1), \' \');\n"+
+                " s2 := \' World\';\n"+
+                " strcat(s1, s2);\n"+
+                " write(strlen(s1), \' \');\n"+
+                " s2 := \'wor\';\n"+
+                " s3 := strpos(strlower(s1), s2);\n"+
+                " write(s3^);\n"+
+                " dispose(s3);\n"+
+                " s2 := \'xyz\';\n"+
+                " write(strpos(s1, s2) = nil);\n"+
+                "end.";
+
+        String output = "5 11 world" + String.valueOf('\0') + "true";
+        test(code, Collections.emptyList(), output, true, false, new String[0], true);
+    }
+
+    @Test
+    public void pcharCharacterAssignmentTest() {
+        String code = "program pcharTest;\n"+
+                "uses strings;\n"+
+                "var s1, s2: PChar;\n"+
+                "var i: integer;\n"+
+                "\n"+
+                "begin\n"+
+                " s1 := stralloc(10);\n"+
+                " for i:=0 to 3 do\n"+
+                "  s1^[i] := chr(97 + i);\n"+
+                " s1^[4] := chr(0);\n"+
+                " write(strlen(s1), \' \');\n"+
+                " s1^[2] := chr(0);\n"+
+                " write(strlen(s1), \' \');\n"+
+                " s1^[2] := \'x\';\n"+
+                " write(strlen(s1), \' \');\n"+
+                " s2 := stralloc(3);\n"+
+                " s2 := \'yz\';\n"+
+                " s1 := s1 + s2;\n"+
+                " write(strlen(s1), \' \', s1^);\n"+
+                "end.";
+
+        String output = "4 2 4 6 abxdyz" + String.valueOf('\0');
+        test(code, Collections.emptyList(), output, true, false, new String[0], true);
+    }
+
 }
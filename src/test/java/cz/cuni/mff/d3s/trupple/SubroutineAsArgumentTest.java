@@ -26,4 +26,31 @@ public class SubroutineAsArgumentTest extends JUnitTest {
         String output = "5040";
         this.test(source, output);
     }
+
+    @Test
+    public void manyDifferentSubroutinesTest() {
+        String source = "program subroutinepass;\n"+
+                "var i: integer;\n"+
+                "\n"+
+                "function apply(function f(i:integer): integer; j: integer): integer;\n"+
+                "begin\n"+
+                " apply := f(j);\n"+
+                "end;\n"+
+                "\n"+
+                "function inc(i:integer): integer; begin inc := i + 1; end;\n"+
+                "function dec(i:integer): integer; begin dec := i - 1; end;\n"+
+                "function double(i:integer): integer; begin double := 2 * i; end;\n"+
+                "function square(i:integer): integer; begin square := i * i; end;\n"+
+                "function negate(i:integer): integer; begin negate := -i; end;\n"+
+                "\n"+
+                "begin\n"+
+                " for i := 1 to 2 do begin\n"+
+                "  write(apply(inc, 5), ' ', apply(dec, 5), ' ', apply(double, 5), ' ');\n"+
+                "  write(apply(square, 5), ' ', apply(negate, 5), ' ');\n"+
+                " end;\n"+
+                "end.";
+
+        String output = "6 4 10 25 -5 6 4 10 25 -5 ";
+        this.test(source, output);
+    }
 }
@@ -11,7 +11,7 @@ import org.junit.runners.Suite.SuiteClasses;
 		ConstantsTest.class, StringTest.class, UnitTest.class, TypeTest.class, ReferencePassingTest.class,
 		SetTypeTest.class, SetOperationsTest.class, LongerProgramsTest.class, RecordTest.class, BuiltinTest.class,
         PointersTest.class, FilesTest.class, StringsUnitTest.class, GotoTest.class, ProgramArgumentsTest.class,
-        SubroutineAsArgumentTest.class, VariableAccessTest.class, ProgramOutputTest.class })
+        SubroutineAsArgumentTest.class, VariableAccessTest.class, ProgramOutputTest.class, ParallelExecutionTest.class })
 public class TestAll {
 
 }
@@ -29,4 +29,26 @@ public class WriteTest extends JUnitTest {
 		String text = "Metal in blood, rock in heart";
 		this.test("program main; begin writeln('" + text + "'); end.", text + "\n");
 	}
+
+	@Test
+	public void numberFormattingTest() {
+		String source = "program main; var r:real; l:longint; begin " +
+				"l:=-9223372036854775807; write(0, ' ', -42, ' ', l, ' ', l - 1, ' '); " +
+				"r:=3.0; write(r, ' ', -r, ' ', r / 2.0, ' ', r * 10000000.0, ' ', r / 1000000000.0, ' ', true); end.";
+		this.test(source, "0 -42 -9223372036854775807 -9223372036854775808 3.0 -3.0 1.5 3.0E7 3.0E-9 true");
+	}
+
+	@Test
+	public void flushOnHaltTest() {
+		this.test("program main; begin write('Before halt'); halt(1); write('After halt'); end.", "Before halt", true);
+	}
+
+	@Test
+	public void longOutputTest() {
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 5000; ++i) {
+			expected.append(i).append('\n');
+		}
+		this.test("program main; var i:integer; begin for i:=0 to 4999 do writeln(i); end.", expected.toString());
+	}
 }